@@ -0,0 +1,45 @@
+// Writes brotli (.br) and gzip (.gz) copies of the text assets in build/
+// so that the backend can serve them precompressed instead of compressing
+// on every request. Run automatically after `npm run build`.
+
+const fs = require("fs");
+const path = require("path");
+const zlib = require("zlib");
+
+const BUILD_DIR = path.join(__dirname, "..", "build");
+const COMPRESSIBLE = /\.(html|js|css|json|map|svg|txt)$/;
+const MIN_SIZE = 1024;
+
+function* walk(dir) {
+  for (const entry of fs.readdirSync(dir, { withFileTypes: true })) {
+    const file = path.join(dir, entry.name);
+    if (entry.isDirectory()) {
+      yield* walk(file);
+    } else {
+      yield file;
+    }
+  }
+}
+
+let count = 0;
+for (const file of walk(BUILD_DIR)) {
+  if (!COMPRESSIBLE.test(file)) {
+    continue;
+  }
+  const contents = fs.readFileSync(file);
+  if (contents.length < MIN_SIZE) {
+    continue;
+  }
+  fs.writeFileSync(
+    `${file}.br`,
+    zlib.brotliCompressSync(contents, {
+      params: {
+        [zlib.constants.BROTLI_PARAM_QUALITY]: zlib.constants.BROTLI_MAX_QUALITY,
+        [zlib.constants.BROTLI_PARAM_SIZE_HINT]: contents.length,
+      },
+    }),
+  );
+  fs.writeFileSync(`${file}.gz`, zlib.gzipSync(contents, { level: zlib.constants.Z_BEST_COMPRESSION }));
+  count++;
+}
+console.log(`Precompressed ${count} files in ${BUILD_DIR}`);
@@ -1,6 +1,5 @@
 package edu.ucsb.cs156.example;
 
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -17,15 +16,13 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class ExampleApplication {
 
-  @Autowired
-  WiremockService wiremockService;
-
   /**
    * When using the wiremock profile, this method will call the code needed to set up the wiremock services
+   * @param wiremockService the service that sets up the wiremock stubs
    */
   @Profile("wiremock")
   @Bean
-  public ApplicationRunner wiremockApplicationRunner() {
+  public ApplicationRunner wiremockApplicationRunner(WiremockService wiremockService) {
     return arg -> {
       log.info("wiremock mode");
       wiremockService.init();
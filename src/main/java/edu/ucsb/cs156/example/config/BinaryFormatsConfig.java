@@ -0,0 +1,39 @@
+package edu.ucsb.cs156.example.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * The `BinaryFormatsConfig` class lets API clients ask for CBOR
+ * (Accept: application/cbor) or Smile (Accept: application/x-jackson-smile)
+ * instead of JSON. JSON stays the default when the Accept header does not
+ * name one of these.
+ * 
+ * The binary converters are built from a copy of the application's
+ * ObjectMapper, so dates and other Jackson settings come out the same as in
+ * JSON.
+ */
+@Configuration
+public class BinaryFormatsConfig implements WebMvcConfigurer {
+
+  @Autowired
+  ObjectMapper objectMapper;
+
+  @Override
+  public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+    converters.removeIf(converter -> converter instanceof MappingJackson2SmileHttpMessageConverter
+        || converter instanceof MappingJackson2CborHttpMessageConverter);
+    converters.add(new MappingJackson2SmileHttpMessageConverter(objectMapper.copyWith(new SmileFactory())));
+    converters.add(new MappingJackson2CborHttpMessageConverter(objectMapper.copyWith(new CBORFactory())));
+  }
+}
@@ -0,0 +1,125 @@
+package edu.ucsb.cs156.example.config;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import jakarta.annotation.PostConstruct;
+
+import edu.ucsb.cs156.example.services.Bulkhead;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * The `BulkheadConfig` class splits API requests into two bulkheads, so that
+ * heavy admin edits cannot starve students' reads and the other way round:
+ * admin writes (POST, PUT, DELETE) may use at most
+ * app.bulkhead.admin-write.max-concurrent servlet threads at once, and reads
+ * at most app.bulkhead.user-read.max-concurrent. See {@link BulkheadInterceptor}.
+ *
+ * Each request holds at most one database connection at a time (open-in-view
+ * is off), so the two caps also partition the connection pool, provided they
+ * add up to no more than spring.datasource.hikari.maximum-pool-size. That is
+ * checked at startup, which fails if they do not; otherwise reads could take
+ * every connection and leave admin writes waiting.
+ *
+ * Each bulkhead reports bulkhead.in.use, bulkhead.max, bulkhead.saturation,
+ * bulkhead.waiting, bulkhead.admitted and bulkhead.rejected, tagged with its
+ * name, at /actuator/metrics.
+ */
+@Configuration
+public class BulkheadConfig implements WebMvcConfigurer {
+
+  @Value("${app.bulkhead.admin-write.max-concurrent:4}")
+  private int adminWriteMaxConcurrent;
+
+  @Value("${app.bulkhead.admin-write.max-wait:100ms}")
+  private Duration adminWriteMaxWait;
+
+  @Value("${app.bulkhead.user-read.max-concurrent:16}")
+  private int userReadMaxConcurrent;
+
+  @Value("${app.bulkhead.user-read.max-wait:100ms}")
+  private Duration userReadMaxWait;
+
+  // Hikari's own default when the property is not set
+  @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+  private int maximumPoolSize;
+
+  /**
+   * This method checks that the bulkheads fit in the connection pool.
+   */
+  @PostConstruct
+  void checkPoolSize() {
+    checkPoolSize(adminWriteMaxConcurrent, userReadMaxConcurrent, maximumPoolSize);
+  }
+
+  /**
+   * @param adminWriteMaxConcurrent app.bulkhead.admin-write.max-concurrent
+   * @param userReadMaxConcurrent app.bulkhead.user-read.max-concurrent
+   * @param maximumPoolSize spring.datasource.hikari.maximum-pool-size
+   * @throws IllegalStateException if the bulkheads add up to more than the pool
+   */
+  static void checkPoolSize(int adminWriteMaxConcurrent, int userReadMaxConcurrent, int maximumPoolSize) {
+    if (adminWriteMaxConcurrent + userReadMaxConcurrent > maximumPoolSize) {
+      throw new IllegalStateException(("app.bulkhead.admin-write.max-concurrent (%d) + app.bulkhead.user-read.max-concurrent (%d)"
+          + " exceed spring.datasource.hikari.maximum-pool-size (%d), so reads could starve writes of connections")
+          .formatted(adminWriteMaxConcurrent, userReadMaxConcurrent, maximumPoolSize));
+    }
+  }
+
+  /**
+   * @return the bulkhead for POST, PUT and DELETE requests
+   */
+  @Bean
+  public Bulkhead adminWriteBulkhead() {
+    return new Bulkhead("admin-write", adminWriteMaxConcurrent, adminWriteMaxWait);
+  }
+
+  /**
+   * @return the bulkhead for GET requests
+   */
+  @Bean
+  public Bulkhead userReadBulkhead() {
+    return new Bulkhead("user-read", userReadMaxConcurrent, userReadMaxWait);
+  }
+
+  /**
+   * @return the saturation metrics of both bulkheads
+   */
+  @Bean
+  public MeterBinder bulkheadMetrics() {
+    return registry -> {
+      for (Bulkhead bulkhead : List.of(adminWriteBulkhead(), userReadBulkhead())) {
+        String name = bulkhead.getName();
+        Gauge.builder("bulkhead.in.use", bulkhead, Bulkhead::getInUse)
+            .description("requests holding a permit").tag("bulkhead", name).register(registry);
+        Gauge.builder("bulkhead.max", bulkhead, Bulkhead::getMaxConcurrent)
+            .description("permits in the bulkhead").tag("bulkhead", name).register(registry);
+        Gauge.builder("bulkhead.saturation", bulkhead, Bulkhead::getSaturation)
+            .description("fraction of permits held").tag("bulkhead", name).register(registry);
+        Gauge.builder("bulkhead.waiting", bulkhead, Bulkhead::getWaiting)
+            .description("requests waiting for a permit").tag("bulkhead", name).register(registry);
+        FunctionCounter.builder("bulkhead.admitted", bulkhead, Bulkhead::getAdmitted)
+            .description("requests admitted").tag("bulkhead", name).register(registry);
+        FunctionCounter.builder("bulkhead.rejected", bulkhead, Bulkhead::getRejected)
+            .description("requests turned away").tag("bulkhead", name).register(registry);
+      }
+    };
+  }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(new BulkheadInterceptor(adminWriteBulkhead(), userReadBulkhead()))
+        .addPathPatterns("/api/**")
+        // an open event stream would keep its user-read permit for good
+        .excludePathPatterns("/api/events")
+        .order(2);
+  }
+}
@@ -0,0 +1,58 @@
+package edu.ucsb.cs156.example.config;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import edu.ucsb.cs156.example.controllers.ApiController;
+import edu.ucsb.cs156.example.errors.BulkheadFullException;
+import edu.ucsb.cs156.example.services.Bulkhead;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * The `BulkheadInterceptor` admits API requests through one of two
+ * {@link Bulkhead}s: POST, PUT and DELETE requests (which are admin-only)
+ * through the admin-write bulkhead, and all other requests through the
+ * user-read bulkhead. A request that cannot get a permit is rejected with a
+ * BulkheadFullException, which ApiController turns into 503.
+ *
+ * For async requests (e.g. a streamed response) the permit is held until the
+ * async dispatch completes.
+ */
+class BulkheadInterceptor implements HandlerInterceptor {
+
+  static final String BULKHEAD = BulkheadInterceptor.class.getName() + ".bulkhead";
+
+  private final Bulkhead adminWrite;
+  private final Bulkhead userRead;
+
+  BulkheadInterceptor(Bulkhead adminWrite, Bulkhead userRead) {
+    this.adminWrite = adminWrite;
+    this.userRead = userRead;
+  }
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+    if (request.getDispatcherType() == DispatcherType.ASYNC
+        || !(handler instanceof HandlerMethod method)
+        || !ApiController.class.isAssignableFrom(method.getBeanType())) {
+      return true;
+    }
+    String httpMethod = request.getMethod();
+    Bulkhead bulkhead = ("GET".equals(httpMethod) || "HEAD".equals(httpMethod)) ? userRead : adminWrite;
+    if (!bulkhead.tryAcquire()) {
+      throw new BulkheadFullException(bulkhead.getName());
+    }
+    request.setAttribute(BULKHEAD, bulkhead);
+    return true;
+  }
+
+  @Override
+  public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+    if (request.getAttribute(BULKHEAD) instanceof Bulkhead bulkhead) {
+      request.removeAttribute(BULKHEAD);
+      bulkhead.release();
+    }
+  }
+}
@@ -0,0 +1,49 @@
+package edu.ucsb.cs156.example.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import edu.ucsb.cs156.example.services.AdaptiveConcurrencyLimiter;
+
+/**
+ * The `ConcurrencyLimitConfig` class puts an adaptive concurrency limit in
+ * front of the API controllers, so that when the database slows down, excess
+ * requests are turned away with 503 instead of piling up on servlet threads.
+ * See {@link AdaptiveConcurrencyLimiter} and {@link ConcurrencyLimitInterceptor}.
+ *
+ * The limit starts at app.concurrency.initial-limit and stays between
+ * app.concurrency.min-limit and app.concurrency.max-limit. It is checked after
+ * the per-user rate limit.
+ */
+@Configuration
+public class ConcurrencyLimitConfig implements WebMvcConfigurer {
+
+  @Value("${app.concurrency.initial-limit:20}")
+  private int initialLimit;
+
+  @Value("${app.concurrency.min-limit:4}")
+  private int minLimit;
+
+  @Value("${app.concurrency.max-limit:200}")
+  private int maxLimit;
+
+  /**
+   * @return the limiter shared by all API requests
+   */
+  @Bean
+  public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter() {
+    return new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit);
+  }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(new ConcurrencyLimitInterceptor(adaptiveConcurrencyLimiter()))
+        .addPathPatterns("/api/**")
+        // an event stream is open for minutes; it would hold a slot and skew the measured latency
+        .excludePathPatterns("/api/events")
+        .order(1);
+  }
+}
@@ -0,0 +1,54 @@
+package edu.ucsb.cs156.example.config;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import edu.ucsb.cs156.example.controllers.ApiController;
+import edu.ucsb.cs156.example.errors.ServiceOverloadedException;
+import edu.ucsb.cs156.example.services.AdaptiveConcurrencyLimiter;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * The `ConcurrencyLimitInterceptor` admits API requests through an
+ * {@link AdaptiveConcurrencyLimiter}. A request that finds the limit reached
+ * is rejected with a ServiceOverloadedException, which ApiController turns
+ * into 503, before it gets a database connection.
+ *
+ * The time from admission to completion is the latency the limiter adapts to.
+ * For async requests (e.g. a streamed response) the permit is held until the
+ * async dispatch completes.
+ */
+class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+  static final String STARTED_AT = ConcurrencyLimitInterceptor.class.getName() + ".startedAt";
+
+  private final AdaptiveConcurrencyLimiter limiter;
+
+  ConcurrencyLimitInterceptor(AdaptiveConcurrencyLimiter limiter) {
+    this.limiter = limiter;
+  }
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+    if (request.getDispatcherType() == DispatcherType.ASYNC
+        || !(handler instanceof HandlerMethod method)
+        || !ApiController.class.isAssignableFrom(method.getBeanType())) {
+      return true;
+    }
+    if (!limiter.tryAcquire()) {
+      throw new ServiceOverloadedException();
+    }
+    request.setAttribute(STARTED_AT, System.nanoTime());
+    return true;
+  }
+
+  @Override
+  public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+    if (request.getAttribute(STARTED_AT) instanceof Long startedAt) {
+      request.removeAttribute(STARTED_AT);
+      limiter.release(System.nanoTime() - startedAt);
+    }
+  }
+}
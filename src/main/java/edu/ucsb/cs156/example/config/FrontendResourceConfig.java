@@ -0,0 +1,32 @@
+package edu.ucsb.cs156.example.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+
+/**
+ * The `FrontendResourceConfig` class serves the hashed files of the production
+ * frontend bundle (everything under /static) with a one year immutable cache
+ * lifetime, and picks the precompressed .br or .gz copy written by
+ * frontend/scripts/compress.js when the browser accepts that encoding.
+ * 
+ * The index.html shell is not cached this way; see FrontendController.
+ */
+@Profile("!development")
+@Configuration
+public class FrontendResourceConfig implements WebMvcConfigurer {
+
+  @Override
+  public void addResourceHandlers(ResourceHandlerRegistry registry) {
+    registry.addResourceHandler("/static/**")
+        .addResourceLocations("classpath:/public/static/")
+        .setCacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+        .resourceChain(true)
+        .addResolver(new EncodedResourceResolver());
+  }
+}
@@ -0,0 +1,89 @@
+package edu.ucsb.cs156.example.config;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * The `QueryTimeoutConfig` class bounds how long the database queries of an
+ * API request may run, so that a slow query does not hold a servlet thread
+ * and a connection long after the client has given up.
+ *
+ * All queries of a request together get app.query-timeout.default, or
+ * app.query-timeout.endpoints[ControllerName.methodName] for that endpoint.
+ * The limit is applied as a JDBC query timeout on each statement (see
+ * {@link QueryTimeoutDataSource}); a query that hits it fails with a
+ * QueryTimeoutException, which ApiController turns into 503.
+ *
+ * Queries of endpoints that return a Callable, such as
+ * MenuItemReviewController.allMenuItemReviews, are also cancelled when the
+ * client disconnects (see {@link QueryTimeoutInterceptor}). Other endpoints
+ * are bounded by the timeout only: the servlet container does not tell a
+ * synchronous request that its client has gone until the response is
+ * written, and by then its queries have finished.
+ *
+ * Timeouts and cancellations are reported as the query.timeouts and
+ * query.cancellations meters.
+ */
+@Configuration
+public class QueryTimeoutConfig implements WebMvcConfigurer {
+
+  private final QueryTimeoutInterceptor interceptor;
+
+  /**
+   * @param environment where app.query-timeout.* is read from
+   */
+  public QueryTimeoutConfig(Environment environment) {
+    Binder binder = Binder.get(environment);
+    Duration defaultTimeout = binder.bind("app.query-timeout.default", Duration.class)
+        .orElse(Duration.ofSeconds(10));
+    Map<String, Duration> endpointTimeouts = binder
+        .bind("app.query-timeout.endpoints", Bindable.mapOf(String.class, Duration.class))
+        .orElse(Map.of());
+    this.interceptor = new QueryTimeoutInterceptor(defaultTimeout, endpointTimeouts);
+  }
+
+  /**
+   * With a single database, the connection pool is Spring Boot's dataSource
+   * bean. With a read replica, dataSource is the routing data source instead,
+   * and ReplicaRoutingConfig wraps each of its two pools itself.
+   * @return wraps the application's connection pool in a QueryTimeoutDataSource
+   */
+  @Bean
+  public static BeanPostProcessor queryTimeoutDataSourcePostProcessor() {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if ("dataSource".equals(beanName) && bean instanceof HikariDataSource pool) {
+          return new QueryTimeoutDataSource(pool);
+        }
+        return bean;
+      }
+    };
+  }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(interceptor)
+        .addPathPatterns("/api/**")
+        // the event stream runs no queries of its own
+        .excludePathPatterns("/api/events")
+        .order(3);
+  }
+
+  @Override
+  public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+    configurer.registerCallableInterceptors(interceptor);
+  }
+}
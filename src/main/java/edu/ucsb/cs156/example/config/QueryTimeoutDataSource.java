@@ -0,0 +1,97 @@
+package edu.ucsb.cs156.example.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import edu.ucsb.cs156.example.services.QueryScope;
+import io.micrometer.core.instrument.Metrics;
+
+/**
+ * The `QueryTimeoutDataSource` gives every statement created while a
+ * {@link QueryScope} is attached to the thread a JDBC query timeout of the
+ * time the scope has left, and lets the scope cancel the statement.
+ *
+ * A statement that fails because it timed out is counted in the
+ * query.timeouts meter, and one that fails because its scope was cancelled
+ * in query.cancellations, both tagged with the endpoint. Statements created
+ * outside an API request are passed through unchanged.
+ */
+class QueryTimeoutDataSource extends DelegatingDataSource {
+
+  /** SQLSTATE for "query canceled", used by both Postgres and H2. */
+  static final String QUERY_CANCELED = "57014";
+
+  QueryTimeoutDataSource(DataSource target) {
+    super(target);
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return wrap(super.getConnection());
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return wrap(super.getConnection(username, password));
+  }
+
+  private static Connection wrap(Connection connection) {
+    return (Connection) Proxy.newProxyInstance(QueryTimeoutDataSource.class.getClassLoader(),
+        new Class<?>[] { Connection.class },
+        (proxy, method, args) -> {
+          Object result = invoke(connection, method, args);
+          QueryScope scope = QueryScope.current();
+          if (scope != null && result instanceof Statement statement) {
+            statement.setQueryTimeout(scope.remainingSeconds());
+            scope.track(statement);
+            return wrap(statement, scope);
+          }
+          return result;
+        });
+  }
+
+  private static Statement wrap(Statement statement, QueryScope scope) {
+    Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+        : statement instanceof PreparedStatement ? PreparedStatement.class
+        : Statement.class;
+    return (Statement) Proxy.newProxyInstance(QueryTimeoutDataSource.class.getClassLoader(),
+        new Class<?>[] { type },
+        (proxy, method, args) -> {
+          if (method.getName().equals("close")) {
+            scope.untrack(statement);
+          }
+          try {
+            // cancelling a statement that has not started yet has no effect, so check here too
+            if (scope.isCancelled() && method.getName().startsWith("execute")) {
+              throw new SQLException("Statement was cancelled", QUERY_CANCELED);
+            }
+            return invoke(statement, method, args);
+          } catch (SQLException e) {
+            if (e instanceof SQLTimeoutException || QUERY_CANCELED.equals(e.getSQLState())) {
+              Metrics.counter(scope.isCancelled() ? "query.cancellations" : "query.timeouts",
+                  "endpoint", scope.getEndpoint()).increment();
+            }
+            throw e;
+          }
+        });
+  }
+
+  private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package edu.ucsb.cs156.example.config;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import edu.ucsb.cs156.example.controllers.ApiController;
+import edu.ucsb.cs156.example.services.QueryScope;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * The `QueryTimeoutInterceptor` opens a {@link QueryScope} for each API
+ * request, with the query timeout configured for its endpoint
+ * (ControllerName.methodName) or the default one.
+ *
+ * For an endpoint that returns a Callable, the scope follows the request to
+ * the thread that runs the Callable. If the async request times out, or the
+ * container reports an error such as the client having disconnected, the
+ * scope is cancelled, which cancels the request's running queries and frees
+ * their connections. The container only watches the connection of an async
+ * request, so the queries of other endpoints run until they finish or time
+ * out.
+ */
+class QueryTimeoutInterceptor implements AsyncHandlerInterceptor, CallableProcessingInterceptor {
+
+  static final String SCOPE = QueryTimeoutInterceptor.class.getName() + ".scope";
+
+  private final Duration defaultTimeout;
+  private final Map<String, Duration> endpointTimeouts;
+
+  QueryTimeoutInterceptor(Duration defaultTimeout, Map<String, Duration> endpointTimeouts) {
+    this.defaultTimeout = defaultTimeout;
+    this.endpointTimeouts = endpointTimeouts;
+  }
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+    if (request.getDispatcherType() == DispatcherType.ASYNC
+        || !(handler instanceof HandlerMethod method)
+        || !ApiController.class.isAssignableFrom(method.getBeanType())) {
+      return true;
+    }
+    String endpoint = method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+    QueryScope scope = new QueryScope(endpoint, endpointTimeouts.getOrDefault(endpoint, defaultTimeout));
+    scope.attach();
+    request.setAttribute(SCOPE, scope);
+    return true;
+  }
+
+  @Override
+  public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+    QueryScope.detach();
+  }
+
+  @Override
+  public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+    QueryScope.detach();
+    request.removeAttribute(SCOPE);
+  }
+
+  @Override
+  public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+    if (scope(request) instanceof QueryScope scope) {
+      scope.attach();
+    }
+  }
+
+  @Override
+  public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+    QueryScope.detach();
+  }
+
+  @Override
+  public <T> Object handleTimeout(NativeWebRequest request, Callable<T> task) {
+    cancel(request);
+    return RESULT_NONE;
+  }
+
+  @Override
+  public <T> Object handleError(NativeWebRequest request, Callable<T> task, Throwable t) {
+    cancel(request);
+    return RESULT_NONE;
+  }
+
+  private static void cancel(NativeWebRequest request) {
+    if (scope(request) instanceof QueryScope scope) {
+      scope.cancel();
+    }
+  }
+
+  private static Object scope(NativeWebRequest request) {
+    return request.getAttribute(SCOPE, RequestAttributes.SCOPE_REQUEST);
+  }
+}
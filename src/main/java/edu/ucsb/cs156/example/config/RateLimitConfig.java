@@ -0,0 +1,55 @@
+package edu.ucsb.cs156.example.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import edu.ucsb.cs156.example.services.CurrentUserService;
+import edu.ucsb.cs156.example.services.RateLimiter;
+
+/**
+ * The `RateLimitConfig` class limits how fast each logged in user may call the
+ * API, so that a few scripts cannot use up the database connections for
+ * everyone. See {@link RateLimitInterceptor}.
+ *
+ * Each user gets, per controller, bursts of up to app.ratelimit.read.capacity
+ * reads and app.ratelimit.write.capacity writes, refilled over the matching
+ * refill-period. At most app.ratelimit.max-keys buckets are kept in memory.
+ */
+@Configuration
+public class RateLimitConfig implements WebMvcConfigurer {
+
+  @Autowired
+  CurrentUserService currentUserService;
+
+  @Value("${app.ratelimit.read.capacity:300}")
+  private int readCapacity;
+
+  @Value("${app.ratelimit.read.refill-period:1m}")
+  private Duration readRefillPeriod;
+
+  @Value("${app.ratelimit.write.capacity:60}")
+  private int writeCapacity;
+
+  @Value("${app.ratelimit.write.refill-period:1m}")
+  private Duration writeRefillPeriod;
+
+  @Value("${app.ratelimit.max-keys:50000}")
+  private int maxKeys;
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(new RateLimitInterceptor(currentUserService,
+        new RateLimiter(maxKeys),
+        new RateLimiter.Budget(readCapacity, readRefillPeriod),
+        new RateLimiter.Budget(writeCapacity, writeRefillPeriod)))
+        .addPathPatterns("/api/**")
+        // reconnecting to the event stream should not use up the read budget
+        .excludePathPatterns("/api/events")
+        .order(0);
+  }
+}
@@ -0,0 +1,63 @@
+package edu.ucsb.cs156.example.config;
+
+import java.time.Duration;
+import java.util.Set;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import edu.ucsb.cs156.example.controllers.ApiController;
+import edu.ucsb.cs156.example.errors.RateLimitExceededException;
+import edu.ucsb.cs156.example.services.CurrentUserService;
+import edu.ucsb.cs156.example.services.RateLimiter;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * The `RateLimitInterceptor` charges each API request of a logged in user to a
+ * token bucket for that user, the controller, and whether the request reads
+ * (GET, HEAD, OPTIONS) or writes. Every controller therefore has its own read
+ * and write budget per user. When the bucket is empty the request is rejected
+ * with a RateLimitExceededException, which ApiController turns into 429.
+ *
+ * Requests that are not logged in are left to Spring Security, and the second
+ * dispatch of an async request (e.g. a streamed response) is not charged again.
+ */
+class RateLimitInterceptor implements HandlerInterceptor {
+
+  private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+  private final CurrentUserService currentUserService;
+  private final RateLimiter rateLimiter;
+  private final RateLimiter.Budget readBudget;
+  private final RateLimiter.Budget writeBudget;
+
+  RateLimitInterceptor(CurrentUserService currentUserService, RateLimiter rateLimiter,
+      RateLimiter.Budget readBudget, RateLimiter.Budget writeBudget) {
+    this.currentUserService = currentUserService;
+    this.rateLimiter = rateLimiter;
+    this.readBudget = readBudget;
+    this.writeBudget = writeBudget;
+  }
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+    if (request.getDispatcherType() == DispatcherType.ASYNC
+        || !(handler instanceof HandlerMethod method)
+        || !ApiController.class.isAssignableFrom(method.getBeanType())) {
+      return true;
+    }
+    String email = currentUserService.getEmail();
+    if (email == null) {
+      return true;
+    }
+    boolean read = READ_METHODS.contains(request.getMethod());
+    String key = email + " " + method.getBeanType().getSimpleName() + (read ? " read" : " write");
+    Duration retryAfter = rateLimiter.tryAcquire(key, read ? readBudget : writeBudget);
+    if (!retryAfter.isZero()) {
+      throw new RateLimitExceededException(retryAfter);
+    }
+    return true;
+  }
+}
@@ -0,0 +1,116 @@
+package edu.ucsb.cs156.example.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import edu.ucsb.cs156.example.services.RecentWriters;
+import liquibase.integration.spring.SpringLiquibase;
+
+/**
+ * The `ReplicaRoutingConfig` class is turned on by setting
+ * app.datasource.replica.url. It then replaces Spring Boot's single data
+ * source with two connection pools, one for the primary database
+ * (spring.datasource.*) and one for a read replica (app.datasource.replica.*),
+ * behind a {@link ReplicaRoutingDataSource}: read-only transactions of GET
+ * requests go to the replica, everything else to the primary.
+ *
+ * After a user's write commits, their reads stay on the primary for
+ * app.datasource.replica.read-your-writes-window.
+ *
+ * A real replica gets its schema from the primary through replication. For
+ * local testing with a second H2 database instead, set
+ * app.datasource.replica.init-schema=true (the "replica" profile does this)
+ * to run the Liquibase changelog against the replica at startup as well.
+ */
+@Configuration
+@ConditionalOnProperty("app.datasource.replica.url")
+public class ReplicaRoutingConfig {
+
+  @Value("${app.datasource.replica.read-your-writes-window:5s}")
+  private Duration readYourWritesWindow;
+
+  @Value("${app.datasource.replica.max-tracked-writers:10000}")
+  private int maxTrackedWriters;
+
+  @Value("${app.datasource.replica.init-schema:false}")
+  private boolean initSchema;
+
+  @Value("${spring.liquibase.change-log}")
+  private String changeLog;
+
+  /**
+   * @param properties spring.datasource.*
+   * @return the pool of connections to the primary database
+   */
+  @Bean(destroyMethod = "close")
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+    HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    dataSource.setPoolName("primary");
+    return dataSource;
+  }
+
+  /**
+   * @param environment where app.datasource.replica.* is read from
+   * @return the pool of connections to the read replica
+   */
+  @Bean(destroyMethod = "close")
+  @ConfigurationProperties("app.datasource.replica.hikari")
+  public HikariDataSource replicaDataSource(Environment environment) throws Exception {
+    // not a bean, so that Spring Boot keeps using its own DataSourceProperties for the primary
+    DataSourceProperties properties = Binder.get(environment)
+        .bind("app.datasource.replica", DataSourceProperties.class)
+        .get();
+    properties.afterPropertiesSet();
+    HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    dataSource.setPoolName("replica");
+    return dataSource;
+  }
+
+  /**
+   * @return the users who wrote within the read-your-writes window
+   */
+  @Bean
+  public RecentWriters recentWriters() {
+    return new RecentWriters(readYourWritesWindow, maxTrackedWriters);
+  }
+
+  /**
+   * @param primaryDataSource the pool for the primary database
+   * @param replicaDataSource the pool for the read replica
+   * @param resourceLoader used to find the changelog when init-schema is set
+   * @return the data source used by JPA, Liquibase and everything else
+   */
+  @Bean
+  @Primary
+  public DataSource dataSource(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource,
+      ResourceLoader resourceLoader) throws Exception {
+    // here rather than in replicaDataSource(), whose pool settings are bound only after it returns
+    if (initSchema) {
+      SpringLiquibase liquibase = new SpringLiquibase();
+      liquibase.setDataSource(replicaDataSource);
+      liquibase.setChangeLog(changeLog);
+      liquibase.setResourceLoader(resourceLoader);
+      liquibase.afterPropertiesSet();
+    }
+    // the pools rather than this bean get the query timeouts (see QueryTimeoutConfig)
+    return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(
+        new QueryTimeoutDataSource(primaryDataSource), new QueryTimeoutDataSource(replicaDataSource),
+        recentWriters()));
+  }
+}
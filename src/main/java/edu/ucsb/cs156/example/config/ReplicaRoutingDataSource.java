@@ -0,0 +1,85 @@
+package edu.ucsb.cs156.example.config;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import edu.ucsb.cs156.example.services.RecentWriters;
+
+/**
+ * The `ReplicaRoutingDataSource` hands out connections to the read replica for
+ * read-only transactions that run while serving a GET (or HEAD) request, and
+ * connections to the primary for everything else.
+ *
+ * A user who has just committed a write keeps reading from the primary for a
+ * short window (see {@link RecentWriters}), so they see their own change even
+ * if the replica is a little behind. Reads whose result is shared between
+ * users must take that into account: CoalescedReads keeps those users' loads
+ * apart, and the in-memory indexes are built outside any request (see
+ * RebuiltSnapshot), which sends them to the primary.
+ *
+ * The decision is made when a connection is requested, so this must be wrapped
+ * in a LazyConnectionDataSourceProxy: otherwise Hibernate would fetch the
+ * connection before Spring marks the transaction read-only.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+  /** Lookup keys of the two target data sources. */
+  public enum Target { PRIMARY, REPLICA }
+
+  private final RecentWriters recentWriters;
+
+  /**
+   * Creates the routing data source
+   * @param primary the data source that takes writes
+   * @param replica the data source for read-only transactions
+   * @param recentWriters users who just wrote, and so read from the primary
+   */
+  public ReplicaRoutingDataSource(DataSource primary, DataSource replica, RecentWriters recentWriters) {
+    this.recentWriters = recentWriters;
+    setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+    setDefaultTargetDataSource(primary);
+    afterPropertiesSet();
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    String principal = RecentWriters.currentPrincipal();
+    if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+      rememberWriterOnCommit(principal);
+      return Target.PRIMARY;
+    }
+    if (isReadRequest() && !recentWriters.wroteRecently(principal)) {
+      return Target.REPLICA;
+    }
+    return Target.PRIMARY;
+  }
+
+  private void rememberWriterOnCommit(String principal) {
+    if (principal == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        recentWriters.wrote(principal);
+      }
+    });
+  }
+
+  private static boolean isReadRequest() {
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+      return false;
+    }
+    String method = servletAttributes.getRequest().getMethod();
+    return "GET".equals(method) || "HEAD".equals(method);
+  }
+}
@@ -0,0 +1,102 @@
+package edu.ucsb.cs156.example.config;
+
+import java.net.URI;
+import java.util.List;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.ehcache.config.CacheConfiguration;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import edu.ucsb.cs156.example.entities.UCSBDate;
+import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
+import edu.ucsb.cs156.example.entities.UCSBOrganization;
+
+/**
+ * The `SecondLevelCacheConfig` class turns on Hibernate's second-level cache
+ * for the reference data that changes a few times a quarter but is read on
+ * nearly every page: dining commons, student organizations and academic
+ * calendar dates.
+ *
+ * Each cached entity gets its own heap-only region holding at most
+ * app.cache.reference-data.max-entries entries, and query results (the
+ * findAll/findViewById style queries marked cacheable) share a region bounded
+ * by app.cache.query-results.max-entries. Older entries are evicted once a
+ * region is full. Every region is created here, so a cached entity without a
+ * region is a startup error rather than an unbounded default cache.
+ *
+ * Writes through JPA keep the cache correct: updated entities are replaced in
+ * their region, and any cached query that reads a table is discarded as soon
+ * as that table is written.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+  static final List<Class<?>> CACHED_ENTITIES = List.of(
+      UCSBDiningCommons.class, UCSBOrganization.class, UCSBDate.class);
+
+  @Value("${app.cache.reference-data.max-entries:1000}")
+  private long maxEntitiesPerRegion;
+
+  @Value("${app.cache.query-results.max-entries:200}")
+  private long maxQueryResults;
+
+  /**
+   * A cache manager holding one bounded cache per Hibernate region. Each
+   * application context gets its own, so test contexts never share entries.
+   *
+   * @return the JCache cache manager Hibernate stores entities and query results in
+   */
+  @Bean(destroyMethod = "close")
+  public CacheManager hibernateCacheManager() {
+    ConfigurationBuilder builder = ConfigurationBuilder.newConfigurationBuilder();
+    for (Class<?> entity : CACHED_ENTITIES) {
+      builder = builder.withCache(entity.getName(), heapCache(maxEntitiesPerRegion));
+    }
+    builder = builder
+        .withCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, heapCache(maxQueryResults))
+        .withCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, heapCache(maxEntitiesPerRegion));
+
+    EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching
+        .getCachingProvider(EhcacheCachingProvider.class.getName());
+    URI uri = URI.create("urn:ucsb-cs156-example:hibernate:" + UUID.randomUUID());
+    return provider.getCacheManager(uri, builder.build());
+  }
+
+  /**
+   * Settings that switch on the second-level and query caches and point
+   * Hibernate at {@link #hibernateCacheManager()}.
+   *
+   * @param hibernateCacheManager the cache manager to use
+   * @return a customizer applied to the Hibernate properties at startup
+   */
+  @Bean
+  public HibernatePropertiesCustomizer secondLevelCacheProperties(CacheManager hibernateCacheManager) {
+    return properties -> {
+      properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+      properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+      properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+      properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+      properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, MissingCacheStrategy.FAIL.getExternalRepresentation());
+    };
+  }
+
+  private static CacheConfiguration<Object, Object> heapCache(long maxEntries) {
+    return CacheConfigurationBuilder
+        .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(maxEntries))
+        .build();
+  }
+}
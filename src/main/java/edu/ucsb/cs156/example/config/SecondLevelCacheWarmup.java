@@ -0,0 +1,59 @@
+package edu.ucsb.cs156.example.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import edu.ucsb.cs156.example.repositories.UCSBDateRepository;
+import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsRepository;
+import edu.ucsb.cs156.example.repositories.UCSBOrganizationRepository;
+import edu.ucsb.cs156.example.services.UCSBDateReadService;
+import edu.ucsb.cs156.example.services.UCSBDiningCommonsReadService;
+import edu.ucsb.cs156.example.services.UCSBOrganizationReadService;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The `SecondLevelCacheWarmup` loads the reference data cached by
+ * {@link SecondLevelCacheConfig} once the application has started, so the
+ * first users after a deploy do not all miss the cache at the same time.
+ */
+@Slf4j
+@Component
+public class SecondLevelCacheWarmup {
+
+  @Autowired
+  UCSBDiningCommonsRepository ucsbDiningCommonsRepository;
+
+  @Autowired
+  UCSBOrganizationRepository ucsbOrganizationRepository;
+
+  @Autowired
+  UCSBDateRepository ucsbDateRepository;
+
+  @Autowired
+  UCSBDiningCommonsReadService ucsbDiningCommonsReadService;
+
+  @Autowired
+  UCSBOrganizationReadService ucsbOrganizationReadService;
+
+  @Autowired
+  UCSBDateReadService ucsbDateReadService;
+
+  /**
+   * Read every dining commons, organization and date, both as entities and
+   * as the views the /all endpoints return.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void warmUp() {
+    long start = System.nanoTime();
+    ucsbDiningCommonsRepository.findAll();
+    ucsbOrganizationRepository.findAll();
+    ucsbDateRepository.findAll();
+    int views = ucsbDiningCommonsReadService.findAll().size()
+        + ucsbOrganizationReadService.findAll().size()
+        + ucsbDateReadService.findAll().size();
+    log.info("Loaded {} reference data rows into the second-level cache in {} ms",
+        views, (System.nanoTime() - start) / 1_000_000);
+  }
+}
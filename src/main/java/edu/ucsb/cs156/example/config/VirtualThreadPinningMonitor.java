@@ -0,0 +1,116 @@
+package edu.ucsb.cs156.example.config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The `VirtualThreadPinningMonitor` reports virtual threads that stay pinned to
+ * their carrier thread (typically because they block inside a synchronized
+ * block, e.g. in a JDBC driver or connection pool) for longer than
+ * app.virtualthreads.pinned-threshold.
+ * 
+ * It listens to the JDK's own jdk.VirtualThreadPinned flight recorder event.
+ * The first time a call site pins, its full stack trace is logged; after that
+ * only a count is kept, which is logged again at shutdown.
+ */
+@Slf4j
+@Component
+@Profile("virtualthreads")
+public class VirtualThreadPinningMonitor {
+
+  static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+  static final String OTHER_SITES = "(other)";
+  static final int MAX_SITES = 100;
+
+  @Value("${app.virtualthreads.pinned-threshold:20ms}")
+  private Duration threshold;
+
+  private final Map<String, LongAdder> pinnedBySite = new ConcurrentHashMap<>();
+  private RecordingStream stream;
+
+  /**
+   * Start listening for pinned virtual threads
+   */
+  @PostConstruct
+  void start() {
+    stream = new RecordingStream();
+    stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+    stream.onEvent(PINNED_EVENT, this::onPinned);
+    stream.startAsync();
+    log.info("Reporting virtual threads pinned for longer than {}", threshold);
+  }
+
+  /**
+   * Stop listening, and log how often each call site pinned a virtual thread
+   */
+  @PreDestroy
+  void stop() {
+    stream.close();
+    if (!pinnedBySite.isEmpty()) {
+      log.warn("Pinned virtual threads by call site: {}", pinnedCounts());
+    }
+  }
+
+  /**
+   * Count a pinned event against its call site; events are delivered one at a
+   * time by the recording stream
+   * 
+   * @param event a jdk.VirtualThreadPinned event
+   */
+  void onPinned(RecordedEvent event) {
+    List<RecordedFrame> frames = event.getStackTrace() == null ? List.of() : event.getStackTrace().getFrames();
+    String site = callSite(frames);
+    if (!pinnedBySite.containsKey(site)) {
+      if (pinnedBySite.size() >= MAX_SITES) {
+        site = OTHER_SITES;
+      } else {
+        log.warn("Virtual thread pinned for {} ms at {}{}", event.getDuration().toMillis(), site,
+            frames.stream().map(frame -> "\n\tat " + frame(frame)).collect(Collectors.joining()));
+      }
+    }
+    pinnedBySite.computeIfAbsent(site, key -> new LongAdder()).increment();
+  }
+
+  /**
+   * How often each call site has pinned a virtual thread for longer than the
+   * threshold
+   * 
+   * @return counts keyed by the first non-JDK frame of the pinned stack
+   */
+  public Map<String, Long> pinnedCounts() {
+    return pinnedBySite.entrySet().stream()
+        .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().sum()));
+  }
+
+  /**
+   * The first frame outside the JDK is the code that blocked while pinned
+   */
+  static String callSite(List<RecordedFrame> frames) {
+    return frames.stream()
+        .filter(RecordedFrame::isJavaFrame)
+        .map(VirtualThreadPinningMonitor::frame)
+        .filter(frame -> !frame.startsWith("java.") && !frame.startsWith("jdk.") && !frame.startsWith("sun."))
+        .findFirst()
+        .orElse(OTHER_SITES);
+  }
+
+  private static String frame(RecordedFrame frame) {
+    return "%s.%s:%d".formatted(frame.getMethod().getType().getName(), frame.getMethod().getName(),
+        frame.getLineNumber());
+  }
+}
@@ -1,12 +1,20 @@
 package edu.ucsb.cs156.example.controllers;
 
+import edu.ucsb.cs156.example.errors.BulkheadFullException;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.errors.RateLimitExceededException;
+import edu.ucsb.cs156.example.errors.ServiceOverloadedException;
+import edu.ucsb.cs156.example.errors.SyncTokenExpiredException;
+import edu.ucsb.cs156.example.errors.UnknownFieldException;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import edu.ucsb.cs156.example.models.CurrentUser;
 import edu.ucsb.cs156.example.services.CurrentUserService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
@@ -51,4 +59,92 @@ public abstract class ApiController {
       "message", e.getMessage()
     );
   }
+
+  /**
+   * This method handles the UnknownFieldException.
+   * @param e the exception
+   * @return a map with the type and message of the exception
+   */
+  @ExceptionHandler({ UnknownFieldException.class })
+  @ResponseStatus(HttpStatus.BAD_REQUEST)
+  public Object handleUnknownFieldException(Throwable e) {
+    return Map.of(
+      "type", e.getClass().getSimpleName(),
+      "message", e.getMessage()
+    );
+  }
+
+  /**
+   * This method handles the SyncTokenExpiredException.
+   * @param e the exception
+   * @return 410, and a map with the type and message of the exception
+   */
+  @ExceptionHandler({ SyncTokenExpiredException.class })
+  @ResponseStatus(HttpStatus.GONE)
+  public Object handleSyncTokenExpiredException(Throwable e) {
+    return Map.of(
+      "type", e.getClass().getSimpleName(),
+      "message", e.getMessage()
+    );
+  }
+
+  /**
+   * This method handles the RateLimitExceededException.
+   * @param e the exception
+   * @return 429 with a Retry-After header, and a map with the type and message of the exception
+   */
+  @ExceptionHandler({ RateLimitExceededException.class })
+  public ResponseEntity<Object> handleRateLimitExceededException(RateLimitExceededException e) {
+    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+      .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds()))
+      .body(Map.of(
+        "type", e.getClass().getSimpleName(),
+        "message", e.getMessage()
+      ));
+  }
+
+  /**
+   * This method handles the ServiceOverloadedException.
+   * @param e the exception
+   * @return 503 with a Retry-After header, and a map with the type and message of the exception
+   */
+  @ExceptionHandler({ ServiceOverloadedException.class })
+  public ResponseEntity<Object> handleServiceOverloadedException(ServiceOverloadedException e) {
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+      .header(HttpHeaders.RETRY_AFTER, "1")
+      .body(Map.of(
+        "type", e.getClass().getSimpleName(),
+        "message", e.getMessage()
+      ));
+  }
+
+  /**
+   * This method handles the BulkheadFullException.
+   * @param e the exception
+   * @return 503 with a Retry-After header, and a map with the type and message of the exception
+   */
+  @ExceptionHandler({ BulkheadFullException.class })
+  public ResponseEntity<Object> handleBulkheadFullException(BulkheadFullException e) {
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+      .header(HttpHeaders.RETRY_AFTER, "1")
+      .body(Map.of(
+        "type", e.getClass().getSimpleName(),
+        "message", e.getMessage()
+      ));
+  }
+
+  /**
+   * This method handles a query that ran out of time, whether the
+   * QueryTimeoutException was translated by a repository or thrown by JPA.
+   * @param e the exception
+   * @return 503, and a map with the type and message of the exception
+   */
+  @ExceptionHandler({ QueryTimeoutException.class, jakarta.persistence.QueryTimeoutException.class })
+  @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+  public Object handleQueryTimeoutException(RuntimeException e) {
+    return Map.of(
+      "type", "QueryTimeoutException",
+      "message", "The database took too long to answer; please retry later"
+    );
+  }
 }
@@ -2,7 +2,13 @@ package edu.ucsb.cs156.example.controllers;
 
 import edu.ucsb.cs156.example.entities.Articles;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.models.ArticleSearchHit;
+import edu.ucsb.cs156.example.models.ArticlesView;
+import edu.ucsb.cs156.example.models.Changes;
 import edu.ucsb.cs156.example.repositories.ArticlesRepository;
+import edu.ucsb.cs156.example.services.ArticlesReadService;
+import edu.ucsb.cs156.example.services.ArticlesSearchService;
+import edu.ucsb.cs156.example.services.ChangeFeedService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,11 +17,16 @@ import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import jakarta.validation.Valid;
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * REST controller for managing articles.
@@ -27,9 +38,21 @@ import java.time.LocalDateTime;
 @Slf4j
 public class ArticlesController extends ApiController {
 
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     ArticlesRepository articlesRepository;
 
+    @Autowired
+    ArticlesReadService articlesReadService;
+
+    @Autowired
+    ArticlesSearchService articlesSearchService;
+
+    @Autowired
+    ChangeFeedService changeFeedService;
+
     /**
      * List all articles.
      * 
@@ -38,8 +61,64 @@ public class ArticlesController extends ApiController {
     @Operation(summary = "List all articles")
     @PreAuthorize("hasRole('ROLE_USER')")
     @GetMapping("/all")
-    public Iterable<Articles> allArticles() {
-        return articlesRepository.findAll();
+    public Iterable<?> allArticles(
+            @Parameter(name="fields", description="comma separated list of the fields to return (default: all fields)")
+            @RequestParam(required = false) List<String> fields) {
+        if (fields == null) {
+            return articlesReadService.findAll();
+        }
+        return articlesReadService.findAll(fields);
+    }
+
+    /**
+     * List the articles that were created, updated or deleted since a sync token
+     *
+     * @param since the token returned by the previous call (0 for a full sync)
+     * @return the changes and the token to use next time
+     */
+    @Operation(summary = "List articles changed since a sync token")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/changes")
+    public Changes<ArticlesView> changesSince(
+            @Parameter(name="since", description="token returned by the previous call (0 for a full sync)")
+            @RequestParam(defaultValue = "0") long since) {
+        return articlesReadService.changesSince(since);
+    }
+
+    /**
+     * Search the title and explanation of the articles, best matches first.
+     *
+     * When there are more hits, the response has a Link header with rel="next"
+     * pointing at the next page.
+     *
+     * @param q    the words to search for
+     * @param page which page of hits to return (0 for the first)
+     * @param size number of hits per page (at most 100)
+     * @return the hits on the page, with highlighted snippets
+     */
+    @Operation(summary = "Search articles by title and explanation")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/search")
+    public ResponseEntity<List<ArticleSearchHit>> searchArticles(
+            @Parameter(name="q", description="the words to search for") @RequestParam String q,
+            @Parameter(name="page", description="which page of hits to return (0 for the first)")
+            @RequestParam(defaultValue = "0") int page,
+            @Parameter(name="size", description="number of hits per page (at most 100)")
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+        List<ArticleSearchHit> hits = articlesSearchService.search(q, pageNumber * pageSize, pageSize + 1);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (hits.size() > pageSize) {
+            hits = hits.subList(0, pageSize);
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("page", pageNumber + 1)
+                    .replaceQueryParam("size", pageSize)
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(hits);
     }
 
     /**
@@ -51,9 +130,13 @@ public class ArticlesController extends ApiController {
     @Operation(summary = "Get a single article by ID")
     @PreAuthorize("hasRole('ROLE_USER')")
     @GetMapping("")
-    public Articles getById(@Parameter(name = "id") @RequestParam Long id) {
-        return articlesRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException(Articles.class, id));
+    public Object getById(@Parameter(name = "id") @RequestParam Long id,
+            @Parameter(name="fields", description="comma separated list of the fields to return (default: all fields)")
+            @RequestParam(required = false) List<String> fields) {
+        if (fields == null) {
+            return articlesReadService.findById(id);
+        }
+        return articlesReadService.findById(id, fields);
     }
 
     /**
@@ -121,12 +204,14 @@ public class ArticlesController extends ApiController {
      */
     @Operation(summary = "Delete an article by ID")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @Transactional
     @DeleteMapping("")
     public Object deleteArticle(@Parameter(name = "id") @RequestParam Long id) {
         Articles article = articlesRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException(Articles.class, id));
 
         articlesRepository.delete(article);
+        changeFeedService.recordDeletion(Articles.class, id);
         return genericMessage("Article with id %s deleted".formatted(id));
     }
 }
\ No newline at end of file
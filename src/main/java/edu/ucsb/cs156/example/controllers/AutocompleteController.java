@@ -0,0 +1,55 @@
+package edu.ucsb.cs156.example.controllers;
+
+import edu.ucsb.cs156.example.models.Suggestion;
+import edu.ucsb.cs156.example.services.AutocompleteIndex;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * This is a REST controller for type-ahead on organization and dining
+ * commons menu item names.
+ *
+ * Suggestions come from in-memory tries (see AutocompleteIndex), most popular
+ * first, without querying the database.
+ */
+
+@Tag(name = "Autocomplete")
+@RequestMapping("/api/autocomplete")
+@RestController
+public class AutocompleteController extends ApiController {
+
+    static final int DEFAULT_K = 5;
+
+    @Autowired
+    AutocompleteIndex autocompleteIndex;
+
+    /**
+     * This method returns the most popular organizations and menu items with a
+     * word that starts with what has been typed.
+     * @param prefix what has been typed so far
+     * @param k how many suggestions to return (at most 10)
+     * @param type organization or menuItem; both if absent
+     * @return the suggestions, most popular first
+     */
+    @Operation(summary = "Suggest organizations and menu items whose name starts with a prefix")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("")
+    public List<Suggestion> suggest(
+            @Parameter(name="prefix", description="what has been typed so far") @RequestParam String prefix,
+            @Parameter(name="k", description="how many suggestions to return (at most 10)")
+            @RequestParam(defaultValue = "" + DEFAULT_K) int k,
+            @Parameter(name="type", description="organization or menuItem; both if absent")
+            @RequestParam(required = false) String type) {
+        return autocompleteIndex.suggest(prefix, type, Math.max(1, Math.min(k, AutocompleteIndex.MAX_K)));
+    }
+}
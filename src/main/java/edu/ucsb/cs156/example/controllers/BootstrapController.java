@@ -0,0 +1,67 @@
+package edu.ucsb.cs156.example.controllers;
+
+import edu.ucsb.cs156.example.models.Bootstrap;
+import edu.ucsb.cs156.example.models.CurrentUser;
+import edu.ucsb.cs156.example.services.SystemInfoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * This is a REST controller that returns the system information and the
+ * current user in one response, so the frontend needs a single request
+ * on first render.
+ * 
+ * The response carries an ETag and may only be cached by the browser,
+ * which must revalidate it; an unchanged response is a 304 with no body.
+ * 
+ * @see edu.ucsb.cs156.example.controllers.SystemInfoController
+ * @see edu.ucsb.cs156.example.controllers.UserInfoController
+ */
+
+@Tag(name = "Bootstrap")
+@RequestMapping("/api/bootstrap")
+@RestController
+public class BootstrapController extends ApiController {
+
+  @Autowired
+  private SystemInfoService systemInfoService;
+
+  @Autowired
+  private ObjectMapper mapper;
+
+  /**
+   * This method returns the system information and, if someone is logged in, the current user.
+   * @return the system information and current user (null when logged out)
+   * @throws JsonProcessingException if the response cannot be serialized to compute its ETag
+   */
+
+  @Operation(summary = "Get global information about the application and the current user")
+  @GetMapping("")
+  public ResponseEntity<Bootstrap> getBootstrap() throws JsonProcessingException {
+    CurrentUser currentUser = getCurrentUser();
+    boolean loggedIn = currentUser.getRoles().stream()
+        .anyMatch(role -> role.getAuthority().equals("ROLE_USER"));
+
+    Bootstrap bootstrap = Bootstrap.builder()
+        .systemInfo(systemInfoService.getSystemInfo())
+        .currentUser(loggedIn ? currentUser : null)
+        .build();
+
+    String eTag = "\"" + DigestUtils.md5DigestAsHex(mapper.writeValueAsBytes(bootstrap)) + "\"";
+    return ResponseEntity.ok()
+        .cacheControl(CacheControl.noCache().cachePrivate())
+        .eTag(eTag)
+        .body(bootstrap);
+  }
+}
@@ -0,0 +1,56 @@
+package edu.ucsb.cs156.example.controllers;
+
+import edu.ucsb.cs156.example.services.ChangeEventBroadcaster;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+
+/**
+ * This is a REST controller for a Server-Sent Events stream of entity
+ * changes, for clients that would otherwise poll the /all endpoints.
+ *
+ * Each event is named created, updated or deleted, and its data is a
+ * ChangeEvent. An event named resync means that the client fell behind and
+ * events were dropped: it should reload what it shows. Events are not
+ * replayed after a reconnect, so a client should also reload then (or call
+ * the /changes endpoint with its last sync token).
+ *
+ * A stream stays open for up to half an hour, written by a virtual thread of
+ * its own rather than a servlet thread, so /api/events is left out of the rate
+ * limit, the concurrency limit, the bulkheads and the query timeout; otherwise
+ * every open stream would hold a permit that the other requests need.
+ */
+
+@Tag(name = "Change events")
+@RequestMapping("/api/events")
+@RestController
+public class ChangeEventsController extends ApiController {
+
+    @Autowired
+    ChangeEventBroadcaster changeEventBroadcaster;
+
+    /**
+     * This method opens a stream of the creates, updates and deletes of entities.
+     * @param entities the entity types to send events for, e.g. HelpRequest (all if absent)
+     * @return the stream
+     */
+    @Operation(summary = "Stream entity changes as Server-Sent Events")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping(value = "", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(
+            @Parameter(name="entities", description="comma separated entity types to send events for, e.g. HelpRequest,RecommendationRequest (all if absent)")
+            @RequestParam(required = false) Set<String> entities) {
+        return changeEventBroadcaster.subscribe(entities);
+    }
+}
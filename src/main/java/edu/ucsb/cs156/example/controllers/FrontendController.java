@@ -1,12 +1,23 @@
 package edu.ucsb.cs156.example.controllers;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 
 import edu.ucsb.cs156.example.services.wiremock.WiremockService;
+import jakarta.annotation.PostConstruct;
 
 /**
  * The FrontendController is used to serve the frontend of the application.
@@ -14,24 +25,132 @@ import edu.ucsb.cs156.example.services.wiremock.WiremockService;
  * This is only enabled in the production profile, and is used to serve the frontend of the application.
  * For development, see the FrontendProxyController.
  * 
+ * The index.html shell (and its precompressed copies, if the build made them) is read once at
+ * startup and served from memory; the hashed bundle files are served by FrontendResourceConfig.
+ * Each encoding of the shell has its own ETag, since the bytes differ.
+ * 
  * @see edu.ucsb.cs156.example.controllers.FrontendProxyController
+ * @see edu.ucsb.cs156.example.config.FrontendResourceConfig
  */
 
 @Profile("!development")
 @Controller
 public class FrontendController {
 
+  private static final String INDEX_HTML = "public/index.html";
+
   @Autowired
   WiremockService wiremockService;
+
+  private byte[] indexHtml;
+  private byte[] indexHtmlBrotli;
+  private byte[] indexHtmlGzip;
+  private String indexHtmlHash;
+
+  /**
+   * Load index.html and its .br / .gz copies into memory, if they were built
+   * 
+   * @throws IOException if the files exist but cannot be read
+   */
+
+  @PostConstruct
+  void loadIndexHtml() throws IOException {
+    setIndexHtml(read(INDEX_HTML), read(INDEX_HTML + ".br"), read(INDEX_HTML + ".gz"));
+  }
+
+  /**
+   * Set the shell to serve
+   * 
+   * @param html index.html (null if there is none)
+   * @param brotli its .br copy (null if there is none)
+   * @param gzip its .gz copy (null if there is none)
+   */
+  void setIndexHtml(byte[] html, byte[] brotli, byte[] gzip) {
+    indexHtml = html;
+    indexHtmlBrotli = brotli;
+    indexHtmlGzip = gzip;
+    indexHtmlHash = html == null ? null : DigestUtils.md5DigestAsHex(html);
+  }
+
+  private static byte[] read(String path) throws IOException {
+    ClassPathResource resource = new ClassPathResource(path);
+    if (!resource.exists()) {
+      return null;
+    }
+    try (InputStream in = resource.getInputStream()) {
+      return in.readAllBytes();
+    }
+  }
   
   /**
    * Serve home page of application
-   * @return the home page (via index.html)
+   * 
+   * The shell must be revalidated on every load (so a new deploy is picked up), but a
+   * matching If-None-Match gets a 304 without a body. The br copy is sent if the browser
+   * accepts br at least as much as gzip, then the gzip copy, and otherwise the uncompressed
+   * file; an encoding the browser gives q=0 is never sent.
+   * 
+   * @param acceptEncoding the Accept-Encoding header of the request
+   * @return the home page (index.html)
+   */
+
+  @GetMapping({ "/", "/**/{path:[^\\.]*}" })
+  public ResponseEntity<byte[]> index(
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, defaultValue = "") String acceptEncoding) {
+    if (indexHtml == null) {
+      return ResponseEntity.notFound().build();
+    }
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+        .contentType(MediaType.TEXT_HTML)
+        .cacheControl(CacheControl.noCache())
+        .varyBy(HttpHeaders.ACCEPT_ENCODING);
+    double brotli = indexHtmlBrotli == null ? 0 : quality(acceptEncoding, "br");
+    double gzip = indexHtmlGzip == null ? 0 : quality(acceptEncoding, "gzip");
+    if (brotli > 0 && brotli >= gzip) {
+      return response.eTag(indexHtmlHash + "-br").header(HttpHeaders.CONTENT_ENCODING, "br").body(indexHtmlBrotli);
+    }
+    if (gzip > 0) {
+      return response.eTag(indexHtmlHash + "-gz").header(HttpHeaders.CONTENT_ENCODING, "gzip").body(indexHtmlGzip);
+    }
+    return response.eTag(indexHtmlHash).body(indexHtml);
+  }
+
+  /**
+   * The weight an Accept-Encoding header gives a content coding: the q value of
+   * the coding if it is listed, else that of "*", else 0 (RFC 9110, 12.5.3)
+   * 
+   * @param acceptEncoding the Accept-Encoding header, e.g. "gzip, br;q=0.8"
+   * @param coding a content coding, in lower case
+   * @return the q value, from 0 (not acceptable) to 1
    */
+  static double quality(String acceptEncoding, String coding) {
+    double wildcard = 0;
+    for (String element : acceptEncoding.split(",")) {
+      String[] parameters = element.split(";");
+      String name = parameters[0].strip().toLowerCase(Locale.ROOT);
+      double q = 1;
+      for (int i = 1; i < parameters.length; i++) {
+        String[] parameter = parameters[i].split("=", 2);
+        if (parameter.length == 2 && parameter[0].strip().equalsIgnoreCase("q")) {
+          q = parseQuality(parameter[1].strip());
+        }
+      }
+      if (name.equals(coding)) {
+        return q;
+      }
+      if (name.equals("*")) {
+        wildcard = q;
+      }
+    }
+    return wildcard;
+  }
 
-  @GetMapping("/**/{path:[^\\.]*}")
-  public String index() {
-    return "forward:/index.html";
+  private static double parseQuality(String value) {
+    try {
+      return Double.parseDouble(value);
+    } catch (NumberFormatException e) {
+      return 0;
+    }
   }
 
   /**
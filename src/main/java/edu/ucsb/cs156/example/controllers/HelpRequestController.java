@@ -2,7 +2,14 @@ package edu.ucsb.cs156.example.controllers;
 
 import edu.ucsb.cs156.example.entities.HelpRequest;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.models.Changes;
+import edu.ucsb.cs156.example.models.HelpRequestView;
 import edu.ucsb.cs156.example.repositories.HelpRequestRepository;
+import edu.ucsb.cs156.example.services.BulkUpdateService;
+import edu.ucsb.cs156.example.services.ChangeEventBroadcaster;
+import edu.ucsb.cs156.example.services.ChangeFeedService;
+import edu.ucsb.cs156.example.services.HelpRequestQueueService;
+import edu.ucsb.cs156.example.services.HelpRequestReadService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -12,8 +19,11 @@ import lombok.extern.slf4j.Slf4j;
 import com.fasterxml.jackson.core.JsonProcessingException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -27,6 +37,7 @@ import jakarta.validation.Valid;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 
 /**
  * This is a REST controller for HelpRequests
@@ -42,6 +53,21 @@ public class HelpRequestController extends ApiController {
     @Autowired
     HelpRequestRepository helpRequestRepository;
 
+    @Autowired
+    HelpRequestReadService helpRequestReadService;
+
+    @Autowired
+    HelpRequestQueueService helpRequestQueueService;
+
+    @Autowired
+    ChangeFeedService changeFeedService;
+
+    @Autowired
+    ChangeEventBroadcaster changeEventBroadcaster;
+
+    @Autowired
+    BulkUpdateService bulkUpdateService;
+
     /**
      * List all HelpRequests
      * 
@@ -50,9 +76,34 @@ public class HelpRequestController extends ApiController {
     @Operation(summary= "List all help requests")
     @PreAuthorize("hasRole('ROLE_USER')")
     @GetMapping("/all")
-    public Iterable<HelpRequest> allHelpRequests() {
-        Iterable<HelpRequest> helpRequests = helpRequestRepository.findAll();
-        return helpRequests;
+    public Iterable<?> allHelpRequests(
+            @Parameter(name="solved", description="only list help requests that are (true) or are not (false) solved")
+            @RequestParam(required = false) Boolean solved,
+            @Parameter(name="teamId", description="only list help requests from this team, e.g. s22-5pm-3")
+            @RequestParam(required = false) String teamId,
+            @Parameter(name="sort", description="sort order, e.g. requestTime,desc (may sort by id, requestTime)")
+            Sort sort,
+            @Parameter(name="fields", description="comma separated list of the fields to return (default: all fields)")
+            @RequestParam(required = false) List<String> fields) {
+        if (fields == null) {
+            return helpRequestReadService.findAll(solved, teamId, sort);
+        }
+        return helpRequestReadService.findAll(solved, teamId, sort, fields);
+    }
+
+    /**
+     * List the help requests that were created, updated or deleted since a sync token
+     *
+     * @param since the token returned by the previous call (0 for a full sync)
+     * @return the changes and the token to use next time
+     */
+    @Operation(summary= "List help requests changed since a sync token")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/changes")
+    public Changes<HelpRequestView> changesSince(
+            @Parameter(name="since", description="token returned by the previous call (0 for a full sync)")
+            @RequestParam(defaultValue = "0") long since) {
+        return helpRequestReadService.changesSince(since);
     }
 
     /**
@@ -64,12 +115,14 @@ public class HelpRequestController extends ApiController {
     @Operation(summary= "Get a single help request")
     @PreAuthorize("hasRole('ROLE_USER')")
     @GetMapping("")
-    public HelpRequest getById(
-            @Parameter(name="id") @RequestParam Long id) {
-        HelpRequest helpRequest = helpRequestRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException(HelpRequest.class, id));
-
-        return helpRequest;
+    public Object getById(
+            @Parameter(name="id") @RequestParam Long id,
+            @Parameter(name="fields", description="comma separated list of the fields to return (default: all fields)")
+            @RequestParam(required = false) List<String> fields) {
+        if (fields == null) {
+            return helpRequestReadService.findById(id);
+        }
+        return helpRequestReadService.findById(id, fields);
     }
 
     /**
@@ -114,6 +167,27 @@ public class HelpRequestController extends ApiController {
         return savedHelpRequest;
     }
 
+    /**
+     * Claim the oldest unsolved HelpRequest that nobody has claimed yet
+     *
+     * @param teamId              only claim a help request from this team
+     * @param tableOrBreakoutRoom only claim a help request from this table or breakout room
+     * @return the claimed HelpRequest, or 204 No Content if there is none to claim
+     */
+    @Operation(summary= "Claim the oldest unsolved, unclaimed help request")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping("/claim")
+    public ResponseEntity<HelpRequestView> claimNext(
+            @Parameter(name="teamId", description="only claim a help request from this team, e.g. s22-5pm-3")
+            @RequestParam(required = false) String teamId,
+            @Parameter(name="tableOrBreakoutRoom", description="only claim a help request from this table or breakout room")
+            @RequestParam(required = false) String tableOrBreakoutRoom) {
+        String email = getCurrentUser().getUser().getEmail();
+        return helpRequestQueueService.claimNext(teamId, tableOrBreakoutRoom, email)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
     /**
      * Delete a HelpRequest
      * 
@@ -122,6 +196,7 @@ public class HelpRequestController extends ApiController {
      */
     @Operation(summary= "Delete a help request")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @Transactional
     @DeleteMapping("")
     
     public Object deleteHelpRequest(
@@ -130,6 +205,7 @@ public class HelpRequestController extends ApiController {
                 .orElseThrow(() -> new EntityNotFoundException(HelpRequest.class, id));
 
         helpRequestRepository.delete(helpRequest);
+        changeFeedService.recordDeletion(HelpRequest.class, id);
         return genericMessage("HelpRequest with id %s deleted".formatted(id));
     }
 
@@ -162,4 +238,47 @@ public class HelpRequestController extends ApiController {
 
         return helpRequest;
     }
+
+    /**
+     * Set the solved flag of several HelpRequests at once
+     * 
+     * @param ids    ids of the HelpRequests to update
+     * @param solved the new value of the solved flag
+     * @return the ids of the HelpRequests that were updated
+     */
+    @Operation(summary= "Mark a list of help requests as solved (or unsolved)")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PutMapping("/solved")
+    @Transactional
+    public List<Long> updateSolvedByIds(
+            @Parameter(name="ids") @RequestParam List<Long> ids,
+            @Parameter(name="solved") @RequestParam boolean solved) {
+
+        return updated(bulkUpdateService.setHelpRequestsSolved(ids, solved), solved);
+    }
+
+    /**
+     * Set the solved flag of every HelpRequest of a team
+     * 
+     * @param teamId the team whose HelpRequests should be updated
+     * @param solved the new value of the solved flag
+     * @return the ids of the HelpRequests that were updated
+     */
+    @Operation(summary= "Mark all help requests of a team as solved (or unsolved)")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PutMapping("/solved/team")
+    @Transactional
+    public List<Long> updateSolvedByTeamId(
+            @Parameter(name="teamId") @RequestParam String teamId,
+            @Parameter(name="solved") @RequestParam boolean solved) {
+
+        return updated(bulkUpdateService.setTeamHelpRequestsSolved(teamId, solved), solved);
+    }
+
+    private List<Long> updated(List<Long> ids, boolean solved) {
+        log.info("set solved={} on {} help requests", solved, ids.size());
+        // a bulk update skips the entity listeners
+        ids.forEach(id -> changeEventBroadcaster.publish(HelpRequest.class, ChangeEventBroadcaster.UPDATED, id, null));
+        return ids;
+    }
 }
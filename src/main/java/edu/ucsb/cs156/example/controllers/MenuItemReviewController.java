@@ -3,7 +3,11 @@ package edu.ucsb.cs156.example.controllers;
 import edu.ucsb.cs156.example.entities.MenuItemReview;
 import edu.ucsb.cs156.example.entities.MenuItemReview;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.models.Changes;
+import edu.ucsb.cs156.example.models.MenuItemReviewView;
 import edu.ucsb.cs156.example.repositories.MenuItemReviewRepository;
+import edu.ucsb.cs156.example.services.ChangeFeedService;
+import edu.ucsb.cs156.example.services.MenuItemReviewReadService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -15,6 +19,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -27,6 +32,8 @@ import org.springframework.web.bind.annotation.RestController;
 import jakarta.validation.Valid;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Callable;
 
 /**
  * This is a REST controller for MenuItemReviews
@@ -41,17 +48,47 @@ public class MenuItemReviewController extends ApiController {
     @Autowired
     MenuItemReviewRepository menuItemReviewRepository;
 
+    @Autowired
+    MenuItemReviewReadService menuItemReviewReadService;
+
+    @Autowired
+    ChangeFeedService changeFeedService;
+
     /**
-     * List all UCSB dates
-     * 
+     * List all menu item reviews
+     *
+     * The query runs off the servlet thread, and is cancelled if the client
+     * disconnects before it finishes.
+     *
      * @return an iterable of MenuItemReview
      */
     @Operation(summary= "List all menu item reviews")
     @PreAuthorize("hasRole('ROLE_USER')")
     @GetMapping("/all")
-    public Iterable<MenuItemReview> allMenuItemReviews() {
-        Iterable<MenuItemReview> reviews = menuItemReviewRepository.findAll();
-        return reviews;
+    public Callable<Iterable<?>> allMenuItemReviews(
+            @Parameter(name="fields", description="comma separated list of the fields to return (default: all fields)")
+            @RequestParam(required = false) List<String> fields) {
+        return () -> {
+            if (fields == null) {
+                return menuItemReviewReadService.findAll();
+            }
+            return menuItemReviewReadService.findAll(fields);
+        };
+    }
+
+    /**
+     * List the menu item reviews that were created, updated or deleted since a sync token
+     *
+     * @param since the token returned by the previous call (0 for a full sync)
+     * @return the changes and the token to use next time
+     */
+    @Operation(summary= "List menu item reviews changed since a sync token")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/changes")
+    public Changes<MenuItemReviewView> changesSince(
+            @Parameter(name="since", description="token returned by the previous call (0 for a full sync)")
+            @RequestParam(defaultValue = "0") long since) {
+        return menuItemReviewReadService.changesSince(since);
     }
 
     /**
@@ -63,12 +100,14 @@ public class MenuItemReviewController extends ApiController {
     @Operation(summary= "Get a single review")
     @PreAuthorize("hasRole('ROLE_USER')")
     @GetMapping("")
-    public MenuItemReview getById(
-            @Parameter(name="id") @RequestParam Long id) {
-        MenuItemReview menuItemReview = menuItemReviewRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException(MenuItemReview.class, id));
-
-        return menuItemReview;
+    public Object getById(
+            @Parameter(name="id") @RequestParam Long id,
+            @Parameter(name="fields", description="comma separated list of the fields to return (default: all fields)")
+            @RequestParam(required = false) List<String> fields) {
+        if (fields == null) {
+            return menuItemReviewReadService.findById(id);
+        }
+        return menuItemReviewReadService.findById(id, fields);
     }
 
     /**
@@ -79,6 +118,7 @@ public class MenuItemReviewController extends ApiController {
      */
     @Operation(summary= "Delete a MenuItemReview")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @Transactional
     @DeleteMapping("")
     public Object deleteMenuItemReview(
             @Parameter(name="id") @RequestParam Long id) {
@@ -86,6 +126,7 @@ public class MenuItemReviewController extends ApiController {
                 .orElseThrow(() -> new EntityNotFoundException(MenuItemReview.class, id));
 
         menuItemReviewRepository.delete(menuItemReview);
+        changeFeedService.recordDeletion(MenuItemReview.class, id);
         return genericMessage("MenuItemReview with id %s deleted".formatted(id));
     }
 
@@ -4,7 +4,14 @@ import edu.ucsb.cs156.example.entities.RecommendationRequest;
 import edu.ucsb.cs156.example.entities.Restaurant;
 import edu.ucsb.cs156.example.entities.UCSBDate;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.models.Changes;
+import edu.ucsb.cs156.example.models.RecommendationRequestView;
 import edu.ucsb.cs156.example.repositories.RecommendationRequestRepository;
+import edu.ucsb.cs156.example.services.BulkUpdateService;
+import edu.ucsb.cs156.example.services.ChangeEventBroadcaster;
+import edu.ucsb.cs156.example.services.ChangeFeedService;
+import edu.ucsb.cs156.example.services.RecommendationReminders;
+import edu.ucsb.cs156.example.services.RecommendationRequestReadService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -14,8 +21,10 @@ import lombok.extern.slf4j.Slf4j;
 import com.fasterxml.jackson.core.JsonProcessingException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -28,6 +37,7 @@ import org.springframework.web.bind.annotation.RestController;
 import jakarta.validation.Valid;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * This is a REST controller for RecommendationRequests
@@ -41,6 +51,21 @@ public class RecommendationRequestController extends ApiController {
     @Autowired
     RecommendationRequestRepository recommendationRequestRepository;
 
+    @Autowired
+    RecommendationRequestReadService recommendationRequestReadService;
+
+    @Autowired
+    ChangeFeedService changeFeedService;
+
+    @Autowired
+    ChangeEventBroadcaster changeEventBroadcaster;
+
+    @Autowired
+    BulkUpdateService bulkUpdateService;
+
+    @Autowired
+    RecommendationReminders recommendationReminders;
+
     /**
      * List all recommendation requests
      * 
@@ -49,9 +74,34 @@ public class RecommendationRequestController extends ApiController {
     @Operation(summary= "List all recommendation requests")
     @PreAuthorize("hasRole('ROLE_USER')")
     @GetMapping("/all")
-    public Iterable<RecommendationRequest> allRecommendationRequests() {
-        Iterable<RecommendationRequest> recommendationRequests = recommendationRequestRepository.findAll();
-        return recommendationRequests;
+    public Iterable<?> allRecommendationRequests(
+            @Parameter(name="done", description="only list recommendation requests that are (true) or are not (false) done")
+            @RequestParam(required = false) Boolean done,
+            @Parameter(name="professorEmail", description="only list recommendation requests sent to this professor")
+            @RequestParam(required = false) String professorEmail,
+            @Parameter(name="sort", description="sort order, e.g. dateNeeded,desc (may sort by id, dateNeeded)")
+            Sort sort,
+            @Parameter(name="fields", description="comma separated list of the fields to return (default: all fields)")
+            @RequestParam(required = false) List<String> fields) {
+        if (fields == null) {
+            return recommendationRequestReadService.findAll(done, professorEmail, sort);
+        }
+        return recommendationRequestReadService.findAll(done, professorEmail, sort, fields);
+    }
+
+    /**
+     * List the recommendation requests that were created, updated or deleted since a sync token
+     *
+     * @param since the token returned by the previous call (0 for a full sync)
+     * @return the changes and the token to use next time
+     */
+    @Operation(summary= "List recommendation requests changed since a sync token")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/changes")
+    public Changes<RecommendationRequestView> changesSince(
+            @Parameter(name="since", description="token returned by the previous call (0 for a full sync)")
+            @RequestParam(defaultValue = "0") long since) {
+        return recommendationRequestReadService.changesSince(since);
     }
 
     /**
@@ -63,12 +113,14 @@ public class RecommendationRequestController extends ApiController {
     @Operation(summary= "Get a single recommendation request")
     @PreAuthorize("hasRole('ROLE_USER')")
     @GetMapping("")
-    public RecommendationRequest getById(
-            @Parameter(name="id") @RequestParam Long id) {
-                RecommendationRequest recommendationRequest = recommendationRequestRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException(RecommendationRequest.class, id));
-
-        return recommendationRequest;
+    public Object getById(
+            @Parameter(name="id") @RequestParam Long id,
+            @Parameter(name="fields", description="comma separated list of the fields to return (default: all fields)")
+            @RequestParam(required = false) List<String> fields) {
+        if (fields == null) {
+            return recommendationRequestReadService.findById(id);
+        }
+        return recommendationRequestReadService.findById(id, fields);
     }
 
     /**
@@ -121,6 +173,7 @@ public class RecommendationRequestController extends ApiController {
      */
     @Operation(summary= "Delete a RecommendationRequest")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @Transactional
     @DeleteMapping("")
     public Object deleteRecommendationRequest(
         @Parameter(name="id") @RequestParam Long id) {
@@ -128,6 +181,7 @@ public class RecommendationRequestController extends ApiController {
                 .orElseThrow(() -> new EntityNotFoundException(RecommendationRequest.class, id));
 
         recommendationRequestRepository.delete(recommendationRequest);
+        changeFeedService.recordDeletion(RecommendationRequest.class, id);
         return genericMessage("RecommendationRequest with id %s deleted".formatted(id));
     }
 
@@ -159,5 +213,30 @@ public class RecommendationRequestController extends ApiController {
 
         return recommendationRequest;
     }
+
+    /**
+     * Set the done flag of several recommendation requests at once
+     * 
+     * @param ids  ids of the recommendation requests to update
+     * @param done the new value of the done flag
+     * @return the ids of the recommendation requests that were updated
+     */
+    @Operation(summary= "Mark a list of recommendation requests as done (or not done)")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PutMapping("/done")
+    @Transactional
+    public List<Long> updateDoneByIds(
+            @Parameter(name="ids") @RequestParam List<Long> ids,
+            @Parameter(name="done") @RequestParam boolean done) {
+
+        List<Long> affectedIds = bulkUpdateService.setRecommendationRequestsDone(ids, done);
+        if (!affectedIds.isEmpty()) {
+            log.info("set done={} on {} recommendation requests", done, affectedIds.size());
+            // a bulk update skips the entity listeners
+            affectedIds.forEach(id -> changeEventBroadcaster.publish(RecommendationRequest.class, ChangeEventBroadcaster.UPDATED, id, null));
+            recommendationReminders.doneChanged(affectedIds, done);
+        }
+        return affectedIds;
+    }
     
 }
@@ -2,7 +2,11 @@ package edu.ucsb.cs156.example.controllers;
 
 import edu.ucsb.cs156.example.entities.Restaurant;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.models.Changes;
+import edu.ucsb.cs156.example.models.RestaurantView;
 import edu.ucsb.cs156.example.repositories.RestaurantRepository;
+import edu.ucsb.cs156.example.services.ChangeFeedService;
+import edu.ucsb.cs156.example.services.RestaurantReadService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -10,6 +14,7 @@ import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -21,6 +26,8 @@ import org.springframework.web.bind.annotation.RestController;
 
 import jakarta.validation.Valid;
 
+import java.util.List;
+
 /**
  * This is a REST controller for Restaurants
  */
@@ -33,6 +40,12 @@ public class RestaurantsController extends ApiController {
     @Autowired
     RestaurantRepository restaurantRepository;
 
+    @Autowired
+    RestaurantReadService restaurantReadService;
+
+    @Autowired
+    ChangeFeedService changeFeedService;
+
     /**
      * This method returns a list of all restaurants.
      * @return a list of all restaurants
@@ -40,9 +53,28 @@ public class RestaurantsController extends ApiController {
     @Operation(summary = "List all restaurants")
     @PreAuthorize("hasRole('ROLE_USER')")
     @GetMapping("/all")
-    public Iterable<Restaurant> allRestaurants() {
-        Iterable<Restaurant> restaurants = restaurantRepository.findAll();
-        return restaurants;
+    public Iterable<?> allRestaurants(
+            @Parameter(name="fields", description="comma separated list of the fields to return (default: all fields)")
+            @RequestParam(required = false) List<String> fields) {
+        if (fields == null) {
+            return restaurantReadService.findAll();
+        }
+        return restaurantReadService.findAll(fields);
+    }
+
+    /**
+     * List the restaurants that were created, updated or deleted since a sync token
+     *
+     * @param since the token returned by the previous call (0 for a full sync)
+     * @return the changes and the token to use next time
+     */
+    @Operation(summary = "List restaurants changed since a sync token")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/changes")
+    public Changes<RestaurantView> changesSince(
+            @Parameter(name="since", description="token returned by the previous call (0 for a full sync)")
+            @RequestParam(defaultValue = "0") long since) {
+        return restaurantReadService.changesSince(since);
     }
 
     /**
@@ -53,12 +85,14 @@ public class RestaurantsController extends ApiController {
     @Operation(summary = "Get a single restaurant")
     @PreAuthorize("hasRole('ROLE_USER')")
     @GetMapping("")
-    public Restaurant getById(
-            @Parameter(name = "id") @RequestParam Long id) {
-        Restaurant restaurant = restaurantRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException(Restaurant.class, id));
-
-        return restaurant;
+    public Object getById(
+            @Parameter(name = "id") @RequestParam Long id,
+            @Parameter(name="fields", description="comma separated list of the fields to return (default: all fields)")
+            @RequestParam(required = false) List<String> fields) {
+        if (fields == null) {
+            return restaurantReadService.findById(id);
+        }
+        return restaurantReadService.findById(id, fields);
     }
 
     /**
@@ -89,6 +123,7 @@ public class RestaurantsController extends ApiController {
      */
     @Operation(summary = "Delete a Restaurant")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @Transactional
     @DeleteMapping("")
     public Object deleteRestaurant(
             @Parameter(name = "id") @RequestParam Long id) {
@@ -96,6 +131,7 @@ public class RestaurantsController extends ApiController {
                 .orElseThrow(() -> new EntityNotFoundException(Restaurant.class, id));
 
         restaurantRepository.delete(restaurant);
+        changeFeedService.recordDeletion(Restaurant.class, id);
         return genericMessage("Restaurant with id %s deleted".formatted(id));
     }
 
@@ -0,0 +1,53 @@
+package edu.ucsb.cs156.example.controllers;
+
+import edu.ucsb.cs156.example.models.SearchHit;
+import edu.ucsb.cs156.example.services.SearchIndex;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * This is a REST controller for the portal search box.
+ *
+ * It searches restaurants, organizations, dining commons menu items and
+ * articles together, in memory (see SearchIndex), without querying the
+ * database.
+ */
+
+@Tag(name = "Search")
+@RequestMapping("/api/search")
+@RestController
+public class SearchController extends ApiController {
+
+    static final int DEFAULT_LIMIT = 20;
+    static final int MAX_LIMIT = 100;
+
+    @Autowired
+    SearchIndex searchIndex;
+
+    /**
+     * This method returns the restaurants, organizations, menu items and articles
+     * that contain every word of a search.
+     * @param q the words to search for
+     * @param limit the most hits to return (at most 100)
+     * @return the best hits, best first
+     */
+    @Operation(summary = "Search restaurants, organizations, menu items and articles")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("")
+    public List<SearchHit> search(
+            @Parameter(name="q", description="the words to search for") @RequestParam String q,
+            @Parameter(name="limit", description="the most hits to return (at most 100)")
+            @RequestParam(defaultValue = "" + DEFAULT_LIMIT) int limit) {
+        return searchIndex.search(q, Math.max(1, Math.min(limit, MAX_LIMIT)));
+    }
+}
@@ -2,7 +2,12 @@ package edu.ucsb.cs156.example.controllers;
 
 import edu.ucsb.cs156.example.entities.UCSBDate;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.models.CalendarPosition;
+import edu.ucsb.cs156.example.models.Changes;
+import edu.ucsb.cs156.example.models.UCSBDateView;
 import edu.ucsb.cs156.example.repositories.UCSBDateRepository;
+import edu.ucsb.cs156.example.services.ChangeFeedService;
+import edu.ucsb.cs156.example.services.UCSBDateReadService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -12,8 +17,10 @@ import lombok.extern.slf4j.Slf4j;
 import com.fasterxml.jackson.core.JsonProcessingException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -26,6 +33,7 @@ import org.springframework.web.bind.annotation.RestController;
 import jakarta.validation.Valid;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * This is a REST controller for UCSBDates
@@ -40,6 +48,12 @@ public class UCSBDatesController extends ApiController {
     @Autowired
     UCSBDateRepository ucsbDateRepository;
 
+    @Autowired
+    UCSBDateReadService ucsbDateReadService;
+
+    @Autowired
+    ChangeFeedService changeFeedService;
+
     /**
      * List all UCSB dates
      * 
@@ -48,9 +62,83 @@ public class UCSBDatesController extends ApiController {
     @Operation(summary= "List all ucsb dates")
     @PreAuthorize("hasRole('ROLE_USER')")
     @GetMapping("/all")
-    public Iterable<UCSBDate> allUCSBDates() {
-        Iterable<UCSBDate> dates = ucsbDateRepository.findAll();
-        return dates;
+    public Iterable<?> allUCSBDates(
+            @Parameter(name="quarterYYYYQ", description="only list dates in this quarter, e.g. 20222")
+            @RequestParam(required = false) String quarterYYYYQ,
+            @Parameter(name="sort", description="sort order, e.g. localDateTime,desc (may sort by id, localDateTime)")
+            Sort sort,
+            @Parameter(name="fields", description="comma separated list of the fields to return (default: all fields)")
+            @RequestParam(required = false) List<String> fields) {
+        if (fields == null) {
+            return ucsbDateReadService.findAll(quarterYYYYQ, sort);
+        }
+        return ucsbDateReadService.findAll(quarterYYYYQ, sort, fields);
+    }
+
+    /**
+     * List the UCSB dates that were created, updated or deleted since a sync token
+     *
+     * @param since the token returned by the previous call (0 for a full sync)
+     * @return the changes and the token to use next time
+     */
+    @Operation(summary= "List UCSB dates changed since a sync token")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/changes")
+    public Changes<UCSBDateView> changesSince(
+            @Parameter(name="since", description="token returned by the previous call (0 for a full sync)")
+            @RequestParam(defaultValue = "0") long since) {
+        return ucsbDateReadService.changesSince(since);
+    }
+
+    /**
+     * List the UCSB dates in a time range
+     *
+     * @param start the earliest date and time to include
+     * @param end   the first date and time not to include
+     * @return the dates in the range, in time order
+     */
+    @Operation(summary= "List the ucsb dates between two instants")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/between")
+    public List<UCSBDateView> datesBetween(
+            @Parameter(name="start", description="earliest date and time to include (in iso format, e.g. 2024-01-08T00:00:00)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @Parameter(name="end", description="first date and time not to include (in iso format, e.g. 2024-03-23T00:00:00)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        return ucsbDateReadService.findBetween(start, end);
+    }
+
+    /**
+     * Find the quarter and the events that contain an instant
+     *
+     * @param instant the date and time to look up
+     * @return the quarter whose dates span the instant, and the dates on the same day
+     */
+    @Operation(summary= "Find the quarter and the ucsb dates that contain an instant")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/containing")
+    public CalendarPosition datesContaining(
+            @Parameter(name="instant", description="date and time to look up (in iso format, e.g. 2024-02-14T12:00:00)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime instant) {
+        return ucsbDateReadService.findContaining(instant);
+    }
+
+    /**
+     * List the UCSB dates of a range of quarters
+     *
+     * @param from first quarter to include, in the format YYYYQ
+     * @param to   last quarter to include, in the format YYYYQ
+     * @return the dates, by quarter and then in time order
+     */
+    @Operation(summary= "List the ucsb dates of a range of quarters")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/quarters")
+    public List<UCSBDateView> datesInQuarters(
+            @Parameter(name="from", description="first quarter to include, e.g. 20241")
+            @RequestParam int from,
+            @Parameter(name="to", description="last quarter to include, e.g. 20244")
+            @RequestParam int to) {
+        return ucsbDateReadService.findInQuarters(from, to);
     }
 
     /**
@@ -62,12 +150,14 @@ public class UCSBDatesController extends ApiController {
     @Operation(summary= "Get a single date")
     @PreAuthorize("hasRole('ROLE_USER')")
     @GetMapping("")
-    public UCSBDate getById(
-            @Parameter(name="id") @RequestParam Long id) {
-        UCSBDate ucsbDate = ucsbDateRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException(UCSBDate.class, id));
-
-        return ucsbDate;
+    public Object getById(
+            @Parameter(name="id") @RequestParam Long id,
+            @Parameter(name="fields", description="comma separated list of the fields to return (default: all fields)")
+            @RequestParam(required = false) List<String> fields) {
+        if (fields == null) {
+            return ucsbDateReadService.findById(id);
+        }
+        return ucsbDateReadService.findById(id, fields);
     }
 
     /**
@@ -110,6 +200,7 @@ public class UCSBDatesController extends ApiController {
      */
     @Operation(summary= "Delete a UCSBDate")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @Transactional
     @DeleteMapping("")
     public Object deleteUCSBDate(
             @Parameter(name="id") @RequestParam Long id) {
@@ -117,6 +208,7 @@ public class UCSBDatesController extends ApiController {
                 .orElseThrow(() -> new EntityNotFoundException(UCSBDate.class, id));
 
         ucsbDateRepository.delete(ucsbDate);
+        changeFeedService.recordDeletion(UCSBDate.class, id);
         return genericMessage("UCSBDate with id %s deleted".formatted(id));
     }
 
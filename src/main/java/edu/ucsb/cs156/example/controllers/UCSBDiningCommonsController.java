@@ -2,7 +2,13 @@ package edu.ucsb.cs156.example.controllers;
 
 import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.models.Changes;
+import edu.ucsb.cs156.example.models.NearbyDiningCommons;
+import edu.ucsb.cs156.example.models.UCSBDiningCommonsView;
 import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsRepository;
+import edu.ucsb.cs156.example.services.ChangeFeedService;
+import edu.ucsb.cs156.example.services.DiningCommonsLocator;
+import edu.ucsb.cs156.example.services.UCSBDiningCommonsReadService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,6 +17,7 @@ import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -22,6 +29,8 @@ import org.springframework.web.bind.annotation.RestController;
 
 import jakarta.validation.Valid;
 
+import java.util.List;
+
 /**
  * This is a REST controller for UCSBDiningCommons
  */
@@ -32,9 +41,18 @@ import jakarta.validation.Valid;
 @Slf4j
 public class UCSBDiningCommonsController extends ApiController {
 
+    static final int DEFAULT_NEAREST = 5;
+    static final int MAX_NEAREST = 50;
+
     @Autowired
     UCSBDiningCommonsRepository ucsbDiningCommonsRepository;
 
+    @Autowired
+    UCSBDiningCommonsReadService ucsbDiningCommonsReadService;
+
+    @Autowired
+    ChangeFeedService changeFeedService;
+
     /**
      * THis method returns a list of all ucsbdiningcommons.
      * @return a list of all ucsbdiningcommons
@@ -42,9 +60,79 @@ public class UCSBDiningCommonsController extends ApiController {
     @Operation(summary= "List all ucsb dining commons")
     @PreAuthorize("hasRole('ROLE_USER')")
     @GetMapping("/all")
-    public Iterable<UCSBDiningCommons> allCommonss() {
-        Iterable<UCSBDiningCommons> commons = ucsbDiningCommonsRepository.findAll();
-        return commons;
+    public Iterable<?> allCommonss(
+            @Parameter(name="fields", description="comma separated list of the fields to return (default: all fields)")
+            @RequestParam(required = false) List<String> fields) {
+        if (fields == null) {
+            return ucsbDiningCommonsReadService.findAll();
+        }
+        return ucsbDiningCommonsReadService.findAll(fields);
+    }
+
+    /**
+     * List the dining commons that were created, updated or deleted since a sync token
+     *
+     * @param since the token returned by the previous call (0 for a full sync)
+     * @return the changes and the token to use next time
+     */
+    @Operation(summary= "List dining commons changed since a sync token")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/changes")
+    public Changes<UCSBDiningCommonsView> changesSince(
+            @Parameter(name="since", description="token returned by the previous call (0 for a full sync)")
+            @RequestParam(defaultValue = "0") long since) {
+        return ucsbDiningCommonsReadService.changesSince(since);
+    }
+
+    /**
+     * This method returns the dining commons closest to a point, e.g. "the closest commons with take out".
+     * @param lat latitude of the point, in degrees
+     * @param lon longitude of the point, in degrees
+     * @param k how many commons to return (at most 50)
+     * @param hasSackMeal if given, only commons that have (or do not have) sack meals
+     * @param hasTakeOutMeal if given, only commons that have (or do not have) take out meals
+     * @param hasDiningCam if given, only commons that have (or do not have) a dining cam
+     * @return the closest commons with their distances in meters, nearest first
+     */
+    @Operation(summary= "List the dining commons closest to a point")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/nearest")
+    public List<NearbyDiningCommons> nearestCommons(
+            @Parameter(name="lat", description="latitude of the point, in degrees") @RequestParam double lat,
+            @Parameter(name="lon", description="longitude of the point, in degrees") @RequestParam double lon,
+            @Parameter(name="k", description="how many commons to return (at most 50)")
+            @RequestParam(defaultValue = "" + DEFAULT_NEAREST) int k,
+            @Parameter(name="hasSackMeal") @RequestParam(required = false) Boolean hasSackMeal,
+            @Parameter(name="hasTakeOutMeal") @RequestParam(required = false) Boolean hasTakeOutMeal,
+            @Parameter(name="hasDiningCam") @RequestParam(required = false) Boolean hasDiningCam) {
+        return ucsbDiningCommonsReadService.findNearest(lat, lon, Math.max(1, Math.min(k, MAX_NEAREST)),
+                new DiningCommonsLocator.Filter(hasSackMeal, hasTakeOutMeal, hasDiningCam));
+    }
+
+    /**
+     * This method returns the dining commons inside a bounding box.
+     * @param minLat southern edge, in degrees
+     * @param maxLat northern edge, in degrees
+     * @param minLon western edge, in degrees (greater than maxLon if the box crosses the antimeridian)
+     * @param maxLon eastern edge, in degrees
+     * @param hasSackMeal if given, only commons that have (or do not have) sack meals
+     * @param hasTakeOutMeal if given, only commons that have (or do not have) take out meals
+     * @param hasDiningCam if given, only commons that have (or do not have) a dining cam
+     * @return the commons in the box, by code
+     */
+    @Operation(summary= "List the dining commons inside a bounding box")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/within")
+    public List<UCSBDiningCommonsView> commonsWithin(
+            @Parameter(name="minLat", description="southern edge, in degrees") @RequestParam double minLat,
+            @Parameter(name="maxLat", description="northern edge, in degrees") @RequestParam double maxLat,
+            @Parameter(name="minLon", description="western edge, in degrees") @RequestParam double minLon,
+            @Parameter(name="maxLon", description="eastern edge, in degrees") @RequestParam double maxLon,
+            @Parameter(name="hasSackMeal") @RequestParam(required = false) Boolean hasSackMeal,
+            @Parameter(name="hasTakeOutMeal") @RequestParam(required = false) Boolean hasTakeOutMeal,
+            @Parameter(name="hasDiningCam") @RequestParam(required = false) Boolean hasDiningCam) {
+        return ucsbDiningCommonsReadService.findWithin(minLat, maxLat, minLon, maxLon,
+                new DiningCommonsLocator.Filter(hasSackMeal, hasTakeOutMeal, hasDiningCam));
     }
 
     /**
@@ -55,12 +143,14 @@ public class UCSBDiningCommonsController extends ApiController {
     @Operation(summary= "Get a single commons")
     @PreAuthorize("hasRole('ROLE_USER')")
     @GetMapping("")
-    public UCSBDiningCommons getById(
-            @Parameter(name="code") @RequestParam String code) {
-        UCSBDiningCommons commons = ucsbDiningCommonsRepository.findById(code)
-                .orElseThrow(() -> new EntityNotFoundException(UCSBDiningCommons.class, code));
-
-        return commons;
+    public Object getById(
+            @Parameter(name="code") @RequestParam String code,
+            @Parameter(name="fields", description="comma separated list of the fields to return (default: all fields)")
+            @RequestParam(required = false) List<String> fields) {
+        if (fields == null) {
+            return ucsbDiningCommonsReadService.findById(code);
+        }
+        return ucsbDiningCommonsReadService.findById(code, fields);
     }
 
     /**
@@ -109,6 +199,7 @@ public class UCSBDiningCommonsController extends ApiController {
      */
     @Operation(summary= "Delete a UCSBDiningCommons")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @Transactional
     @DeleteMapping("")
     public Object deleteCommons(
             @Parameter(name="code") @RequestParam String code) {
@@ -116,6 +207,7 @@ public class UCSBDiningCommonsController extends ApiController {
                 .orElseThrow(() -> new EntityNotFoundException(UCSBDiningCommons.class, code));
 
         ucsbDiningCommonsRepository.delete(commons);
+        changeFeedService.recordDeletion(UCSBDiningCommons.class, code);
         return genericMessage("UCSBDiningCommons with id %s deleted".formatted(code));
     }
 
@@ -3,7 +3,11 @@ package edu.ucsb.cs156.example.controllers;
 import edu.ucsb.cs156.example.entities.UCSBDate;
 import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.models.Changes;
+import edu.ucsb.cs156.example.models.UCSBDiningCommonsMenuItemView;
 import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsMenuItemRepository;
+import edu.ucsb.cs156.example.services.ChangeFeedService;
+import edu.ucsb.cs156.example.services.UCSBDiningCommonsMenuItemReadService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -13,8 +17,10 @@ import lombok.extern.slf4j.Slf4j;
 import com.fasterxml.jackson.core.JsonProcessingException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -27,6 +33,7 @@ import org.springframework.web.bind.annotation.RestController;
 import jakarta.validation.Valid;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * This is a REST controller for UCSBDiningCommonsMenuItem
@@ -40,13 +47,38 @@ import java.time.LocalDateTime;
  
      @Autowired
      UCSBDiningCommonsMenuItemRepository ucsbDiningCommonsMenuItemRepository;
+
+     @Autowired
+     UCSBDiningCommonsMenuItemReadService ucsbDiningCommonsMenuItemReadService;
+
+     @Autowired
+     ChangeFeedService changeFeedService;
  
      @Operation(summary= "List all ucsb dining commons menu items")
      @PreAuthorize("hasRole('ROLE_USER')")
      @GetMapping("/all")
-     public Iterable<UCSBDiningCommonsMenuItem> allUCSBDiningCommonsMenuItem() {
-         Iterable<UCSBDiningCommonsMenuItem> items = ucsbDiningCommonsMenuItemRepository.findAll();
-         return items;
+     public Iterable<?> allUCSBDiningCommonsMenuItem(
+             @Parameter(name="diningCommonsCode", description="only list menu items from this dining commons, e.g. ortega")
+             @RequestParam(required = false) String diningCommonsCode,
+             @Parameter(name="station", description="only list menu items from this station, e.g. Entrees")
+             @RequestParam(required = false) String station,
+             @Parameter(name="sort", description="sort order, e.g. name,desc (may sort by id, name)")
+             Sort sort,
+             @Parameter(name="fields", description="comma separated list of the fields to return (default: all fields)")
+             @RequestParam(required = false) List<String> fields) {
+         if (fields == null) {
+             return ucsbDiningCommonsMenuItemReadService.findAll(diningCommonsCode, station, sort);
+         }
+         return ucsbDiningCommonsMenuItemReadService.findAll(diningCommonsCode, station, sort, fields);
+     }
+
+     @Operation(summary= "List dining commons menu items changed since a sync token")
+     @PreAuthorize("hasRole('ROLE_USER')")
+     @GetMapping("/changes")
+     public Changes<UCSBDiningCommonsMenuItemView> changesSince(
+             @Parameter(name="since", description="token returned by the previous call (0 for a full sync)")
+             @RequestParam(defaultValue = "0") long since) {
+         return ucsbDiningCommonsMenuItemReadService.changesSince(since);
      }
  
      /**
@@ -58,12 +90,14 @@ import java.time.LocalDateTime;
      @Operation(summary= "Get a single menu item")
      @PreAuthorize("hasRole('ROLE_USER')")
      @GetMapping("")
-     public UCSBDiningCommonsMenuItem getById(
-             @Parameter(name="id") @RequestParam Long id) {
-         UCSBDiningCommonsMenuItem ucsbDiningCommonsMenuItem = ucsbDiningCommonsMenuItemRepository.findById(id)
-                 .orElseThrow(() -> new EntityNotFoundException(UCSBDiningCommonsMenuItem.class, id));
- 
-         return ucsbDiningCommonsMenuItem;
+     public Object getById(
+             @Parameter(name="id") @RequestParam Long id,
+             @Parameter(name="fields", description="comma separated list of the fields to return (default: all fields)")
+             @RequestParam(required = false) List<String> fields) {
+         if (fields == null) {
+             return ucsbDiningCommonsMenuItemReadService.findById(id);
+         }
+         return ucsbDiningCommonsMenuItemReadService.findById(id, fields);
      }
  
      /**
@@ -107,6 +141,7 @@ import java.time.LocalDateTime;
       */
      @Operation(summary= "Delete a UCSBDiningCommonsMenuItem")
      @PreAuthorize("hasRole('ROLE_ADMIN')")
+     @Transactional
      @DeleteMapping("")
      public Object deleteUCSBDiningCommonsMenuItem(
              @Parameter(name="id") @RequestParam Long id) {
@@ -114,6 +149,7 @@ import java.time.LocalDateTime;
                  .orElseThrow(() -> new EntityNotFoundException(UCSBDiningCommonsMenuItem.class, id));
  
          ucsbDiningCommonsMenuItemRepository.delete(ucsbDiningCommonsMenuItem);
+         changeFeedService.recordDeletion(UCSBDiningCommonsMenuItem.class, id);
          return genericMessage("UCSBDiningCommonsMenuItem with id %s deleted".formatted(id));
      }
  
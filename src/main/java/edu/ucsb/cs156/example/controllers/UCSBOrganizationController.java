@@ -3,7 +3,11 @@ package edu.ucsb.cs156.example.controllers;
 import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
 import edu.ucsb.cs156.example.entities.UCSBOrganization;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.models.Changes;
+import edu.ucsb.cs156.example.models.UCSBOrganizationView;
 import edu.ucsb.cs156.example.repositories.UCSBOrganizationRepository;
+import edu.ucsb.cs156.example.services.ChangeFeedService;
+import edu.ucsb.cs156.example.services.UCSBOrganizationReadService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,7 +15,9 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -23,6 +29,8 @@ import org.springframework.web.bind.annotation.RestController;
 
 import jakarta.validation.Valid;
 
+import java.util.List;
+
 @Tag(name = "UCSBOrganization")
 @RequestMapping("/api/ucsborganization")
 @RestController
@@ -32,13 +40,36 @@ public class UCSBOrganizationController extends ApiController
     @Autowired
     UCSBOrganizationRepository ucsbOrganizationRepository;
 
+    @Autowired
+    UCSBOrganizationReadService ucsbOrganizationReadService;
+
+    @Autowired
+    ChangeFeedService changeFeedService;
+
     @Operation(summary= "List all ucsb organizations")
     @PreAuthorize("hasRole('ROLE_USER')")
     @GetMapping("/all")
-    public Iterable<UCSBOrganization> allOrgs() 
+    public Iterable<?> allOrgs(
+            @Parameter(name="inactive", description="only list organizations that are (true) or are not (false) inactive")
+            @RequestParam(required = false) Boolean inactive,
+            @Parameter(name="sort", description="sort order, e.g. orgCode,desc (may sort by orgCode)")
+            Sort sort,
+            @Parameter(name="fields", description="comma separated list of the fields to return (default: all fields)")
+            @RequestParam(required = false) List<String> fields) 
     {
-        Iterable<UCSBOrganization> org = ucsbOrganizationRepository.findAll();
-        return org;
+        if (fields == null) {
+            return ucsbOrganizationReadService.findAll(inactive, sort);
+        }
+        return ucsbOrganizationReadService.findAll(inactive, sort, fields);
+    }
+
+    @Operation(summary= "List organizations changed since a sync token")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/changes")
+    public Changes<UCSBOrganizationView> changesSince(
+            @Parameter(name="since", description="token returned by the previous call (0 for a full sync)")
+            @RequestParam(defaultValue = "0") long since) {
+        return ucsbOrganizationReadService.changesSince(since);
     }
 
     @Operation(summary= "Create a new organization")
@@ -63,12 +94,14 @@ public class UCSBOrganizationController extends ApiController
     @Operation(summary= "Get a single organization")
     @PreAuthorize("hasRole('ROLE_USER')")
     @GetMapping("")
-    public UCSBOrganization getById(
-            @Parameter(name="orgCode") @RequestParam String orgCode) {
-                UCSBOrganization org = ucsbOrganizationRepository.findById(orgCode)
-                .orElseThrow(() -> new EntityNotFoundException(UCSBOrganization.class, orgCode));
-
-        return org;
+    public Object getById(
+            @Parameter(name="orgCode") @RequestParam String orgCode,
+            @Parameter(name="fields", description="comma separated list of the fields to return (default: all fields)")
+            @RequestParam(required = false) List<String> fields) {
+        if (fields == null) {
+            return ucsbOrganizationReadService.findById(orgCode);
+        }
+        return ucsbOrganizationReadService.findById(orgCode, fields);
     }
 
     @Operation(summary= "Update a single organization")
@@ -94,6 +127,7 @@ public class UCSBOrganizationController extends ApiController
 
     @Operation(summary= "Delete an organization")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @Transactional
     @DeleteMapping("")
     public Object deleteOrganization(
             @Parameter(name="orgCode") @RequestParam String orgCode) {
@@ -101,6 +135,7 @@ public class UCSBOrganizationController extends ApiController
                 .orElseThrow(() -> new EntityNotFoundException(UCSBOrganization.class, orgCode));
 
         ucsbOrganizationRepository.delete(org);
+        changeFeedService.recordDeletion(UCSBOrganization.class, orgCode);
         return genericMessage("UCSBOrganization with id %s deleted".formatted(orgCode));
     }
 }
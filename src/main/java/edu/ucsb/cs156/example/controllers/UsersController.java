@@ -1,23 +1,36 @@
 package edu.ucsb.cs156.example.controllers;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import edu.ucsb.cs156.example.entities.User;
 import edu.ucsb.cs156.example.repositories.UserRepository;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
 /**
  * This is a REST controller for getting information about the users.
- * 
+ *
  * These endpoints are only accessible to users with the role "ROLE_ADMIN".
  */
 
@@ -25,6 +38,10 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 @RequestMapping("/api/admin/users")
 @RestController
 public class UsersController extends ApiController {
+
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 1000;
+
     @Autowired
     UserRepository userRepository;
 
@@ -32,17 +49,93 @@ public class UsersController extends ApiController {
     ObjectMapper mapper;
 
     /**
-     * This method returns a list of all users.  Accessible only to users with the role "ROLE_ADMIN".
-     * @return a list of all users
-     * @throws JsonProcessingException if there is an error processing the JSON
+     * This method returns the users, in id order.  Accessible only to users with the role "ROLE_ADMIN".
+     *
+     * Without after and size, every (matching) user is returned, as this endpoint always did;
+     * they are read MAX_PAGE_SIZE at a time and written to the response one at a time.
+     * With after or size, one page is returned, and when there are more users the response
+     * has a Link header with rel="next" pointing at the next page.
+     *
+     * @param q only list users whose email, full name, given name or family name starts with this (case insensitive)
+     * @param after id of the last user on the previous page (0 for the first page)
+     * @param size number of users per page (at most 1000, 100 if only after is given)
+     * @return a JSON array of users
      */
-    @Operation(summary= "Get a list of all users")
+    @Operation(summary= "Get the users, or a page of them, optionally searching by email or name prefix")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @GetMapping("")
-    public ResponseEntity<String> users()
-            throws JsonProcessingException {
-        Iterable<User> users = userRepository.findAll();
-        String body = mapper.writeValueAsString(users);
-        return ResponseEntity.ok().body(body);
+    public ResponseEntity<StreamingResponseBody> users(
+            @Parameter(name="q", description="only list users whose email or name starts with this (case insensitive)")
+            @RequestParam(required = false) String q,
+            @Parameter(name="after", description="id of the last user on the previous page (0 for the first page); omit with size to get every user")
+            @RequestParam(required = false) Long after,
+            @Parameter(name="size", description="number of users per page (at most 1000); omit with after to get every user")
+            @RequestParam(required = false) Integer size) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+        if (after == null && size == null) {
+            return response.body(json(writer -> {
+                List<User> chunk;
+                long last = 0;
+                do {
+                    chunk = find(q, last, MAX_PAGE_SIZE);
+                    for (User user : chunk) {
+                        writer.write(user);
+                        last = user.getId();
+                    }
+                } while (chunk.size() == MAX_PAGE_SIZE);
+            }));
+        }
+
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<User> users = find(q, after == null ? 0 : after, pageSize + 1);
+        if (users.size() > pageSize) {
+            users = users.subList(0, pageSize);
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", users.get(pageSize - 1).getId())
+                    .replaceQueryParam("size", pageSize)
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+
+        List<User> page = users;
+        return response.body(json(writer -> {
+            for (User user : page) {
+                writer.write(user);
+            }
+        }));
+    }
+
+    /** Writes one user to the response. */
+    private interface UserWriter {
+        void write(User user) throws IOException;
+    }
+
+    /** Hands the users of a response to a UserWriter, one at a time. */
+    private interface Users {
+        void writeTo(UserWriter writer) throws IOException;
+    }
+
+    private StreamingResponseBody json(Users users) {
+        ObjectWriter writer = mapper.writerFor(User.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        return out -> {
+            try (JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+                generator.writeStartArray();
+                users.writeTo(user -> writer.writeValue(generator, user));
+                generator.writeEndArray();
+            }
+        };
+    }
+
+    private List<User> find(String q, long after, int limit) {
+        return (q == null || q.isBlank())
+                ? userRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(limit))
+                : userRepository.searchByPrefix(after, prefixPattern(q), Limit.of(limit));
+    }
+
+    private static String prefixPattern(String q) {
+        return q.strip().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
     }
-}
\ No newline at end of file
+}
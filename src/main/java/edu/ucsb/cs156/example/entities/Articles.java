@@ -1,6 +1,12 @@
 package edu.ucsb.cs156.example.entities;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import edu.ucsb.cs156.example.services.ChangeEventListener;
+import edu.ucsb.cs156.example.services.SearchIndexListener;
+
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -16,6 +22,7 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @Builder
 @Entity(name = "articles")
+@EntityListeners({ SearchIndexListener.class, ChangeEventListener.class })
 public class Articles {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -26,4 +33,8 @@ public class Articles {
     private String explanation;
     private String email;
     private LocalDateTime dateAdded;
+
+    @ChangeSequence
+    @JsonIgnore
+    private Long changeSeq;
 }
@@ -0,0 +1,22 @@
+package edu.ucsb.cs156.example.entities;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.hibernate.annotations.ValueGenerationType;
+
+/**
+ * Marks the field that holds an entity's change sequence number.
+ *
+ * Every INSERT and UPDATE of the entity sets the column to the next value of the
+ * database sequence {@value ChangeSequenceGenerator#SEQUENCE}, so a larger value always
+ * means a later change. The /changes endpoints use this to find the rows that changed
+ * since a client last synced.
+ */
+@ValueGenerationType(generatedBy = ChangeSequenceGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface ChangeSequence {
+}
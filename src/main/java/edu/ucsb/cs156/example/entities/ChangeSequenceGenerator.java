@@ -0,0 +1,41 @@
+package edu.ucsb.cs156.example.entities;
+
+import java.util.EnumSet;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.generator.OnExecutionGenerator;
+
+/**
+ * The Hibernate generator behind {@link ChangeSequence}.
+ *
+ * The value is produced by the database inside the INSERT or UPDATE statement itself
+ * (e.g. {@code change_seq = nextval('change_seq')}), so no extra round trip is needed
+ * to get a sequence number before writing.
+ */
+public class ChangeSequenceGenerator implements OnExecutionGenerator {
+
+  /** Name of the database sequence, created by Liquibase. */
+  public static final String SEQUENCE = "change_seq";
+
+  @Override
+  public EnumSet<EventType> getEventTypes() {
+    return EventTypeSets.INSERT_AND_UPDATE;
+  }
+
+  @Override
+  public boolean referenceColumnsInSql(Dialect dialect) {
+    return true;
+  }
+
+  @Override
+  public boolean writePropertyValue() {
+    return false;
+  }
+
+  @Override
+  public String[] getReferencedColumnValues(Dialect dialect) {
+    return new String[] { dialect.getSequenceSupport().getSelectSequenceNextValString(SEQUENCE) };
+  }
+}
@@ -2,7 +2,12 @@ package edu.ucsb.cs156.example.entities;
 
 import java.time.LocalDateTime;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import edu.ucsb.cs156.example.services.ChangeEventListener;
+
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -20,6 +25,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @Builder
 @Entity(name = "helprequests")
+@EntityListeners(ChangeEventListener.class)
 public class HelpRequest {
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -31,4 +37,10 @@ public class HelpRequest {
   private LocalDateTime requestTime;
   private String explanation;
   private boolean solved;
-}
\ No newline at end of file
+  private String claimedBy;
+  private LocalDateTime claimedAt;
+
+  @ChangeSequence
+  @JsonIgnore
+  private Long changeSeq;
+}
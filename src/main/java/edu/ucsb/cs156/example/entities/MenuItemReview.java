@@ -1,6 +1,12 @@
 package edu.ucsb.cs156.example.entities;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import edu.ucsb.cs156.example.services.AutocompleteListener;
+import edu.ucsb.cs156.example.services.ChangeEventListener;
+
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 
@@ -22,6 +28,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @Builder
 @Entity(name = "menuitemreview")
+@EntityListeners({ AutocompleteListener.class, ChangeEventListener.class })
 public class MenuItemReview {
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -32,4 +39,8 @@ public class MenuItemReview {
   private int stars;
   private LocalDateTime dateReviewed;
   private String comments;
-}
\ No newline at end of file
+
+  @ChangeSequence
+  @JsonIgnore
+  private Long changeSeq;
+}
@@ -0,0 +1,33 @@
+package edu.ucsb.cs156.example.entities;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * This is a JPA entity that records that the reminder for a
+ * RecommendationRequest has been sent, so that it is sent only once for each
+ * date needed (see RecommendationReminders).
+ */
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity(name = "recommendationreminders")
+public class RecommendationReminder {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private long id;
+
+  private long recommendationRequestId;
+  private LocalDateTime dateNeeded;
+  private LocalDateTime firedAt;
+}
@@ -2,7 +2,13 @@ package edu.ucsb.cs156.example.entities;
 
 import java.time.LocalDateTime;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import edu.ucsb.cs156.example.services.ChangeEventListener;
+import edu.ucsb.cs156.example.services.RecommendationReminderListener;
+
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -22,6 +28,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @Builder
 @Entity(name = "recommendationrequests")
+@EntityListeners({ ChangeEventListener.class, RecommendationReminderListener.class })
 public class RecommendationRequest {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -33,4 +40,8 @@ public class RecommendationRequest {
     private LocalDateTime dateRequested;
     private LocalDateTime dateNeeded;
     private boolean done;
+
+    @ChangeSequence
+    @JsonIgnore
+    private Long changeSeq;
 }
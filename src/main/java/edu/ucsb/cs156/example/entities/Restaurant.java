@@ -1,6 +1,12 @@
 package edu.ucsb.cs156.example.entities;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import edu.ucsb.cs156.example.services.ChangeEventListener;
+import edu.ucsb.cs156.example.services.SearchIndexListener;
+
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -18,6 +24,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @Builder
 @Entity(name = "restaurants")
+@EntityListeners({ SearchIndexListener.class, ChangeEventListener.class })
 public class Restaurant {
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -25,4 +32,8 @@ public class Restaurant {
 
   private String name;
   private String description;
-}
\ No newline at end of file
+
+  @ChangeSequence
+  @JsonIgnore
+  private Long changeSeq;
+}
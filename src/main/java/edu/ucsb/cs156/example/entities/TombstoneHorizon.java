@@ -0,0 +1,26 @@
+package edu.ucsb.cs156.example.entities;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * This is a JPA entity that records up to which change sequence number the
+ * tombstones of an entity type have been pruned; a sync token below it may
+ * have missed deletions.
+ */
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity(name = "tombstone_horizons")
+public class TombstoneHorizon {
+  @Id
+  private String entityType;
+
+  private Long changeSeq;
+}
@@ -1,14 +1,26 @@
 package edu.ucsb.cs156.example.entities;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import edu.ucsb.cs156.example.services.AcademicCalendarListener;
+import edu.ucsb.cs156.example.services.ChangeEventListener;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import java.time.LocalDateTime;
 
 /**
@@ -21,6 +33,9 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @Builder
 @Entity(name = "ucsbdates")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@EntityListeners({ AcademicCalendarListener.class, ChangeEventListener.class })
 public class UCSBDate {
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -29,4 +44,28 @@ public class UCSBDate {
   private String quarterYYYYQ;
   private String name;
   private LocalDateTime localDateTime;
-}
\ No newline at end of file
+
+  /** quarterYYYYQ as a number, so quarters can be queried by range; kept in step on every write */
+  @JsonIgnore
+  private Integer quarterKey;
+
+  @ChangeSequence
+  @JsonIgnore
+  private Long changeSeq;
+
+  @PrePersist
+  @PreUpdate
+  void updateQuarterKey() {
+    quarterKey = quarterKey(quarterYYYYQ);
+  }
+
+  /**
+   * This method converts a quarter in the format YYYYQ to a number that sorts
+   * the same way, e.g. "20241" to 20241.
+   * @param quarterYYYYQ the quarter
+   * @return the number, or null if quarterYYYYQ is not of the form YYYYQ with Q from 1 to 4
+   */
+  public static Integer quarterKey(String quarterYYYYQ) {
+    return quarterYYYYQ != null && quarterYYYYQ.matches("\\d{4}[1-4]") ? Integer.valueOf(quarterYYYYQ) : null;
+  }
+}
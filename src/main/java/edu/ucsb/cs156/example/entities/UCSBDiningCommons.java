@@ -1,12 +1,23 @@
 package edu.ucsb.cs156.example.entities;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import edu.ucsb.cs156.example.services.ChangeEventListener;
+import edu.ucsb.cs156.example.services.CoalescedReadsListener;
+import edu.ucsb.cs156.example.services.DiningCommonsLocatorListener;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Id;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 /** 
  * This is a JPA entity that represents a UCSBDiningCommons
  * 
@@ -18,6 +29,9 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @Builder
 @Entity(name = "ucsbdiningcommons")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@EntityListeners({ CoalescedReadsListener.class, DiningCommonsLocatorListener.class, ChangeEventListener.class })
 public class UCSBDiningCommons {
   @Id
   private String code;
@@ -27,4 +41,8 @@ public class UCSBDiningCommons {
   private boolean hasDiningCam;
   private Double latitude;
   private Double longitude;
-}
\ No newline at end of file
+
+  @ChangeSequence
+  @JsonIgnore
+  private Long changeSeq;
+}
@@ -1,6 +1,14 @@
 package edu.ucsb.cs156.example.entities;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import edu.ucsb.cs156.example.services.AutocompleteListener;
+import edu.ucsb.cs156.example.services.ChangeEventListener;
+import edu.ucsb.cs156.example.services.CoalescedReadsListener;
+import edu.ucsb.cs156.example.services.SearchIndexListener;
+
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -19,6 +27,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @Builder
 @Entity(name = "ucsbdiningcommonsmenuitem")
+@EntityListeners({ CoalescedReadsListener.class, SearchIndexListener.class, AutocompleteListener.class, ChangeEventListener.class })
 public class UCSBDiningCommonsMenuItem {
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -26,4 +35,8 @@ public class UCSBDiningCommonsMenuItem {
   private String diningCommonsCode;
   private String name;
   private String station;
-}
\ No newline at end of file
+
+  @ChangeSequence
+  @JsonIgnore
+  private Long changeSeq;
+}
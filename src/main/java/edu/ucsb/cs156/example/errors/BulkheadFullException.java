@@ -0,0 +1,17 @@
+package edu.ucsb.cs156.example.errors;
+
+/**
+ * This is an error class for a custom RuntimeException in Java that is used to indicate
+ * that a request was turned away because the bulkhead for its kind of request
+ * (e.g. admin writes) already has as many requests running as it allows.
+ */
+public class BulkheadFullException extends RuntimeException {
+  /**
+   * Constructor for the exception
+   *
+   * @param bulkhead name of the bulkhead that is full
+   */
+  public BulkheadFullException(String bulkhead) {
+    super("Too many %s requests in progress; please retry".formatted(bulkhead));
+  }
+}
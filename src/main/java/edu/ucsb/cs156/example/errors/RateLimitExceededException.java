@@ -0,0 +1,33 @@
+package edu.ucsb.cs156.example.errors;
+
+import java.time.Duration;
+
+/**
+ * This is an error class for a custom RuntimeException in Java that is used to indicate
+ * that a user has made more requests than their rate limit allows.
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+  private final Duration retryAfter;
+
+  /**
+   * Constructor for the exception
+   *
+   * @param retryAfter how long until the user may make another request
+   */
+  public RateLimitExceededException(Duration retryAfter) {
+    super("Too many requests; retry in %d seconds".formatted(retryAfterSeconds(retryAfter)));
+    this.retryAfter = retryAfter;
+  }
+
+  /**
+   * @return how long until the user may make another request, rounded up to whole seconds
+   */
+  public long getRetryAfterSeconds() {
+    return retryAfterSeconds(retryAfter);
+  }
+
+  private static long retryAfterSeconds(Duration retryAfter) {
+    return Math.max(1, retryAfter.plusSeconds(1).minusNanos(1).toSeconds());
+  }
+}
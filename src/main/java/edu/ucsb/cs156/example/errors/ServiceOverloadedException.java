@@ -0,0 +1,15 @@
+package edu.ucsb.cs156.example.errors;
+
+/**
+ * This is an error class for a custom RuntimeException in Java that is used to indicate
+ * that a request was turned away because the server already has as many requests
+ * in flight as it can handle without slowing down.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+  /**
+   * Constructor for the exception
+   */
+  public ServiceOverloadedException() {
+    super("Server is busy; please retry");
+  }
+}
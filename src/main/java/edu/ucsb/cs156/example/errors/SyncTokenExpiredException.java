@@ -0,0 +1,19 @@
+package edu.ucsb.cs156.example.errors;
+
+/**
+ * This is an error class for a custom RuntimeException in Java that is used to indicate
+ * that a sync token is older than the deletions that are still kept, so the client
+ * has to start over with a full sync.
+ */
+public class SyncTokenExpiredException extends RuntimeException {
+  /**
+   * Constructor for the exception
+   *
+   * @param entityType the class of the entity being synced, e.g. HelpRequest.class
+   * @param since the expired token
+   */
+  public SyncTokenExpiredException(Class<?> entityType, long since) {
+    super("Sync token %d for %s has expired; sync again from 0"
+      .formatted(since, entityType.getSimpleName()));
+  }
+}
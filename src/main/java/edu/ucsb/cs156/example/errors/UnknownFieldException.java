@@ -0,0 +1,36 @@
+package edu.ucsb.cs156.example.errors;
+
+/**
+ * This is an error class for a custom RuntimeException in Java that is used to indicate
+ * that a request named a field that the entity does not have, e.g. in a
+ * {@code fields=} or {@code sort=} query parameter.
+ */
+public class UnknownFieldException extends RuntimeException {
+  /**
+   * Constructor for the exception
+   * 
+   * @param entityType The class of the entity that was being queried, e.g. Articles.class
+   * @param field the field name that is not an attribute of the entity
+   */
+  public UnknownFieldException(Class<?> entityType, String field) {
+    this("%s has no field %s"
+      .formatted(entityType.getSimpleName(), field));
+  }
+
+  private UnknownFieldException(String message) {
+    super(message);
+  }
+
+  /**
+   * Creates the exception for a field that exists but that results may not be
+   * sorted by (because there is no index to back the ORDER BY).
+   *
+   * @param entityType The class of the entity that was being queried, e.g. HelpRequest.class
+   * @param field the field name that was given in the sort parameter
+   * @return the exception
+   */
+  public static UnknownFieldException notSortable(Class<?> entityType, String field) {
+    return new UnknownFieldException("%s cannot be sorted by %s"
+      .formatted(entityType.getSimpleName(), field));
+  }
+}
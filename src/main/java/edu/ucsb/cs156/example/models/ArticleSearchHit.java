@@ -0,0 +1,16 @@
+package edu.ucsb.cs156.example.models;
+
+/**
+ * This is one result of /api/articles/search.
+ *
+ * The snippets are the title and explanation with each word that matched the
+ * search wrapped in &lt;mark&gt; and &lt;/mark&gt;. The text itself is HTML
+ * escaped, so the snippets can be rendered as HTML.
+ *
+ * @param article the article
+ * @param rank how well the article matches (higher is better; only comparable within one search)
+ * @param titleSnippet the title, with the matching words highlighted
+ * @param explanationSnippet the explanation, with the matching words highlighted
+ */
+public record ArticleSearchHit(ArticlesView article, double rank, String titleSnippet, String explanationSnippet) {
+}
@@ -0,0 +1,34 @@
+package edu.ucsb.cs156.example.models;
+
+import edu.ucsb.cs156.example.entities.Articles;
+
+import java.time.LocalDateTime;
+
+/**
+ * This is a read-only view of a Articles, as returned by the GET endpoints.
+ *
+ * @see edu.ucsb.cs156.example.entities.Articles
+ */
+public record ArticlesView(
+    long id,
+    String title,
+    String url,
+    String explanation,
+    String email,
+    LocalDateTime dateAdded) {
+
+  /**
+   * This method builds a view with the same values as the given entity.
+   * @param articles the entity
+   * @return the view
+   */
+  public static ArticlesView from(Articles articles) {
+    return new ArticlesView(
+        articles.getId(),
+        articles.getTitle(),
+        articles.getUrl(),
+        articles.getExplanation(),
+        articles.getEmail(),
+        articles.getDateAdded());
+  }
+}
@@ -0,0 +1,13 @@
+package edu.ucsb.cs156.example.models;
+
+import java.util.List;
+
+/**
+ * This is the response of /api/ucsbdates/containing: where an instant falls
+ * in the academic calendar.
+ *
+ * @param quarter the quarter whose span contains the instant (null if none does)
+ * @param events the UCSBDates on the same day as the instant, in time order
+ */
+public record CalendarPosition(QuarterSpan quarter, List<UCSBDateView> events) {
+}
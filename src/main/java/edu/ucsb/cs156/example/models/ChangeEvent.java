@@ -0,0 +1,15 @@
+package edu.ucsb.cs156.example.models;
+
+/**
+ * This is one event of the /api/events stream: an entity was created, updated
+ * or deleted.
+ *
+ * @param entity the entity type, e.g. HelpRequest
+ * @param action created, updated or deleted
+ * @param id id of the entity
+ * @param data the entity as the other endpoints return it; null for deletes,
+ *   and for bulk updates (e.g. marking a team's help requests solved), which
+ *   do not load the rows: GET them to see the new values
+ */
+public record ChangeEvent(String entity, String action, Object id, Object data) {
+}
@@ -0,0 +1,19 @@
+package edu.ucsb.cs156.example.models;
+
+import java.util.List;
+
+/**
+ * This is the response of the /changes endpoints: what changed in a table since
+ * the client's last sync.
+ *
+ * Clients should apply {@code deleted} before {@code changed} (an id can appear in
+ * both if it was deleted and then created again), then send {@code token} as the
+ * {@code since} parameter of their next call.
+ *
+ * @param <V> the view type of the entity, e.g. HelpRequestView
+ * @param token the sync token to use next time
+ * @param changed the rows that were created or updated, oldest change first
+ * @param deleted the ids of the rows that were deleted, oldest first
+ */
+public record Changes<V>(long token, List<V> changed, List<Object> deleted) {
+}
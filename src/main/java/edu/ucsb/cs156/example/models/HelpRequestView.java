@@ -0,0 +1,40 @@
+package edu.ucsb.cs156.example.models;
+
+import edu.ucsb.cs156.example.entities.HelpRequest;
+
+import java.time.LocalDateTime;
+
+/**
+ * This is a read-only view of a HelpRequest, as returned by the GET endpoints.
+ *
+ * @see edu.ucsb.cs156.example.entities.HelpRequest
+ */
+public record HelpRequestView(
+    long id,
+    String requesterEmail,
+    String teamId,
+    String tableOrBreakoutRoom,
+    LocalDateTime requestTime,
+    String explanation,
+    boolean solved,
+    String claimedBy,
+    LocalDateTime claimedAt) {
+
+  /**
+   * This method builds a view with the same values as the given entity.
+   * @param helpRequest the entity
+   * @return the view
+   */
+  public static HelpRequestView from(HelpRequest helpRequest) {
+    return new HelpRequestView(
+        helpRequest.getId(),
+        helpRequest.getRequesterEmail(),
+        helpRequest.getTeamId(),
+        helpRequest.getTableOrBreakoutRoom(),
+        helpRequest.getRequestTime(),
+        helpRequest.getExplanation(),
+        helpRequest.getSolved(),
+        helpRequest.getClaimedBy(),
+        helpRequest.getClaimedAt());
+  }
+}
@@ -0,0 +1,34 @@
+package edu.ucsb.cs156.example.models;
+
+import edu.ucsb.cs156.example.entities.MenuItemReview;
+
+import java.time.LocalDateTime;
+
+/**
+ * This is a read-only view of a MenuItemReview, as returned by the GET endpoints.
+ *
+ * @see edu.ucsb.cs156.example.entities.MenuItemReview
+ */
+public record MenuItemReviewView(
+    long id,
+    long itemId,
+    String reviewerEmail,
+    int stars,
+    LocalDateTime dateReviewed,
+    String comments) {
+
+  /**
+   * This method builds a view with the same values as the given entity.
+   * @param menuItemReview the entity
+   * @return the view
+   */
+  public static MenuItemReviewView from(MenuItemReview menuItemReview) {
+    return new MenuItemReviewView(
+        menuItemReview.getId(),
+        menuItemReview.getItemId(),
+        menuItemReview.getReviewerEmail(),
+        menuItemReview.getStars(),
+        menuItemReview.getDateReviewed(),
+        menuItemReview.getComments());
+  }
+}
@@ -0,0 +1,11 @@
+package edu.ucsb.cs156.example.models;
+
+/**
+ * This is one result of /api/ucsbdiningcommons/nearest: a dining commons and
+ * how far it is from the point that was asked about.
+ *
+ * @param commons the dining commons
+ * @param distanceMeters great-circle distance from the point, in meters
+ */
+public record NearbyDiningCommons(UCSBDiningCommonsView commons, double distanceMeters) {
+}
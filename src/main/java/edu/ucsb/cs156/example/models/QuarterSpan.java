@@ -0,0 +1,14 @@
+package edu.ucsb.cs156.example.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * This is the stretch of time a quarter covers in the academic calendar: from
+ * its first UCSBDate to its last one.
+ *
+ * @param quarterYYYYQ the quarter, e.g. 20241
+ * @param start date and time of the quarter's first UCSBDate
+ * @param end date and time of the quarter's last UCSBDate
+ */
+public record QuarterSpan(String quarterYYYYQ, LocalDateTime start, LocalDateTime end) {
+}
@@ -0,0 +1,36 @@
+package edu.ucsb.cs156.example.models;
+
+import edu.ucsb.cs156.example.entities.RecommendationRequest;
+
+import java.time.LocalDateTime;
+
+/**
+ * This is a read-only view of a RecommendationRequest, as returned by the GET endpoints.
+ *
+ * @see edu.ucsb.cs156.example.entities.RecommendationRequest
+ */
+public record RecommendationRequestView(
+    long id,
+    String requesterEmail,
+    String professorEmail,
+    String explanation,
+    LocalDateTime dateRequested,
+    LocalDateTime dateNeeded,
+    boolean done) {
+
+  /**
+   * This method builds a view with the same values as the given entity.
+   * @param recommendationRequest the entity
+   * @return the view
+   */
+  public static RecommendationRequestView from(RecommendationRequest recommendationRequest) {
+    return new RecommendationRequestView(
+        recommendationRequest.getId(),
+        recommendationRequest.getRequesterEmail(),
+        recommendationRequest.getProfessorEmail(),
+        recommendationRequest.getExplanation(),
+        recommendationRequest.getDateRequested(),
+        recommendationRequest.getDateNeeded(),
+        recommendationRequest.getDone());
+  }
+}
@@ -0,0 +1,26 @@
+package edu.ucsb.cs156.example.models;
+
+import edu.ucsb.cs156.example.entities.Restaurant;
+
+/**
+ * This is a read-only view of a Restaurant, as returned by the GET endpoints.
+ *
+ * @see edu.ucsb.cs156.example.entities.Restaurant
+ */
+public record RestaurantView(
+    long id,
+    String name,
+    String description) {
+
+  /**
+   * This method builds a view with the same values as the given entity.
+   * @param restaurant the entity
+   * @return the view
+   */
+  public static RestaurantView from(Restaurant restaurant) {
+    return new RestaurantView(
+        restaurant.getId(),
+        restaurant.getName(),
+        restaurant.getDescription());
+  }
+}
@@ -0,0 +1,12 @@
+package edu.ucsb.cs156.example.models;
+
+/**
+ * This is one result of /api/search.
+ *
+ * @param type what kind of entity was found: restaurant, organization, menuItem or article
+ * @param id id of the entity (the orgCode for organizations)
+ * @param title the name of the entity (the translation for organizations, the title for articles)
+ * @param score how well the entity matches (higher is better; only comparable within one search)
+ */
+public record SearchHit(String type, String id, String title, double score) {
+}
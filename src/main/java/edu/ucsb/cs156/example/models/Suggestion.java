@@ -0,0 +1,12 @@
+package edu.ucsb.cs156.example.models;
+
+/**
+ * This is one result of /api/autocomplete.
+ *
+ * @param type what kind of entity it is: organization or menuItem
+ * @param id id of the entity (the orgCode for organizations)
+ * @param label what to show for it: the translation of an organization, the name of a menu item
+ * @param popularity how popular it is (the number of reviews of a menu item; 1 for active organizations, 0 for inactive ones)
+ */
+public record Suggestion(String type, String id, String label, long popularity) {
+}
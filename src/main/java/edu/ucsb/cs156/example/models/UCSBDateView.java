@@ -0,0 +1,30 @@
+package edu.ucsb.cs156.example.models;
+
+import edu.ucsb.cs156.example.entities.UCSBDate;
+
+import java.time.LocalDateTime;
+
+/**
+ * This is a read-only view of a UCSBDate, as returned by the GET endpoints.
+ *
+ * @see edu.ucsb.cs156.example.entities.UCSBDate
+ */
+public record UCSBDateView(
+    long id,
+    String quarterYYYYQ,
+    String name,
+    LocalDateTime localDateTime) {
+
+  /**
+   * This method builds a view with the same values as the given entity.
+   * @param ucsbDate the entity
+   * @return the view
+   */
+  public static UCSBDateView from(UCSBDate ucsbDate) {
+    return new UCSBDateView(
+        ucsbDate.getId(),
+        ucsbDate.getQuarterYYYYQ(),
+        ucsbDate.getName(),
+        ucsbDate.getLocalDateTime());
+  }
+}
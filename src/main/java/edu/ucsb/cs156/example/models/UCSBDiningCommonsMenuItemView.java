@@ -0,0 +1,28 @@
+package edu.ucsb.cs156.example.models;
+
+import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
+
+/**
+ * This is a read-only view of a UCSBDiningCommonsMenuItem, as returned by the GET endpoints.
+ *
+ * @see edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem
+ */
+public record UCSBDiningCommonsMenuItemView(
+    long id,
+    String diningCommonsCode,
+    String name,
+    String station) {
+
+  /**
+   * This method builds a view with the same values as the given entity.
+   * @param menuItem the entity
+   * @return the view
+   */
+  public static UCSBDiningCommonsMenuItemView from(UCSBDiningCommonsMenuItem menuItem) {
+    return new UCSBDiningCommonsMenuItemView(
+        menuItem.getId(),
+        menuItem.getDiningCommonsCode(),
+        menuItem.getName(),
+        menuItem.getStation());
+  }
+}
@@ -0,0 +1,34 @@
+package edu.ucsb.cs156.example.models;
+
+import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
+
+/**
+ * This is a read-only view of a UCSBDiningCommons, as returned by the GET endpoints.
+ *
+ * @see edu.ucsb.cs156.example.entities.UCSBDiningCommons
+ */
+public record UCSBDiningCommonsView(
+    String code,
+    String name,
+    boolean hasSackMeal,
+    boolean hasTakeOutMeal,
+    boolean hasDiningCam,
+    Double latitude,
+    Double longitude) {
+
+  /**
+   * This method builds a view with the same values as the given entity.
+   * @param commons the entity
+   * @return the view
+   */
+  public static UCSBDiningCommonsView from(UCSBDiningCommons commons) {
+    return new UCSBDiningCommonsView(
+        commons.getCode(),
+        commons.getName(),
+        commons.getHasSackMeal(),
+        commons.getHasTakeOutMeal(),
+        commons.getHasDiningCam(),
+        commons.getLatitude(),
+        commons.getLongitude());
+  }
+}
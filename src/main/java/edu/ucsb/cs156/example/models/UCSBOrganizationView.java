@@ -0,0 +1,28 @@
+package edu.ucsb.cs156.example.models;
+
+import edu.ucsb.cs156.example.entities.UCSBOrganization;
+
+/**
+ * This is a read-only view of a UCSBOrganization, as returned by the GET endpoints.
+ *
+ * @see edu.ucsb.cs156.example.entities.UCSBOrganization
+ */
+public record UCSBOrganizationView(
+    String orgCode,
+    String orgTranslationShort,
+    String orgTranslation,
+    boolean inactive) {
+
+  /**
+   * This method builds a view with the same values as the given entity.
+   * @param org the entity
+   * @return the view
+   */
+  public static UCSBOrganizationView from(UCSBOrganization org) {
+    return new UCSBOrganizationView(
+        org.getOrgCode(),
+        org.getOrgTranslationShort(),
+        org.getOrgTranslation(),
+        org.getInactive());
+  }
+}
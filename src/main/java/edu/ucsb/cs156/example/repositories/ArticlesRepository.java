@@ -1,11 +1,95 @@
 package edu.ucsb.cs156.example.repositories;
 
 import edu.ucsb.cs156.example.entities.Articles;
+import edu.ucsb.cs156.example.models.ArticlesView;
 
-
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface ArticlesRepository extends CrudRepository<Articles, Long> {
+
+  /**
+   * This method returns all Articles entities as read-only views.
+   * @return a view of every Articles
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+  @Query("select new edu.ucsb.cs156.example.models.ArticlesView(a.id, a.title, a.url, a.explanation, a.email, a.dateAdded) from articles a")
+  List<ArticlesView> findAllViews();
+
+  /**
+   * This method returns a single Articles entity as a read-only view.
+   * @param id id of the Articles
+   * @return Optional of ArticlesView (empty if not found)
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+  @Query("select new edu.ucsb.cs156.example.models.ArticlesView(a.id, a.title, a.url, a.explanation, a.email, a.dateAdded) from articles a where a.id = :id")
+  Optional<ArticlesView> findViewById(@Param("id") Long id);
+
+  /**
+   * This method returns the Articles with the given ids as read-only views.
+   * @param ids ids of the Articles
+   * @return a view of each Articles that exists, in no particular order
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+  @Query("select new edu.ucsb.cs156.example.models.ArticlesView(a.id, a.title, a.url, a.explanation, a.email, a.dateAdded) from articles a where a.id in :ids")
+  List<ArticlesView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+  /**
+   * One hit of {@link #searchPostgres}.
+   */
+  interface SearchRow {
+    /** @return id of the Articles */
+    Long getId();
+
+    /** @return ts_rank of the Articles for the query */
+    Double getRank();
+
+    /** @return the title, not escaped, with the matching words between CHR(2) and CHR(3) */
+    String getTitleSnippet();
+
+    /** @return the explanation, not escaped, with the matching words between CHR(2) and CHR(3) */
+    String getExplanationSnippet();
+  }
+
+  /**
+   * This method searches title and explanation with the Postgres full-text
+   * index on SEARCH_VECTOR (title weighted above explanation). The snippets
+   * are escaped and marked up by ArticlesSearchService.
+   * @param q the search, in web search syntax (words, "quoted phrases", or, -word)
+   * @param limit the most hits to return
+   * @param offset how many of the best hits to skip
+   * @return the hits, best first
+   */
+  @Query(nativeQuery = true, value = """
+      SELECT A.ID AS "id",
+             CAST(TS_RANK(A.SEARCH_VECTOR, Q.QUERY) AS DOUBLE PRECISION) AS "rank",
+             TS_HEADLINE('english', TRANSLATE(COALESCE(A.TITLE, ''), CHR(2) || CHR(3), ''), Q.QUERY,
+                         'StartSel=' || CHR(2) || ', StopSel=' || CHR(3) || ', HighlightAll=true') AS "titleSnippet",
+             TS_HEADLINE('english', TRANSLATE(COALESCE(A.EXPLANATION, ''), CHR(2) || CHR(3), ''), Q.QUERY,
+                         'StartSel=' || CHR(2) || ', StopSel=' || CHR(3) || ', HighlightAll=true') AS "explanationSnippet"
+      FROM ARTICLES A, WEBSEARCH_TO_TSQUERY('english', :q) AS Q(QUERY)
+      WHERE A.SEARCH_VECTOR @@ Q.QUERY
+      ORDER BY "rank" DESC, A.ID
+      LIMIT :limit OFFSET :offset""")
+  List<SearchRow> searchPostgres(@Param("q") String q, @Param("limit") int limit, @Param("offset") int offset);
+
+  /**
+   * This method searches title and explanation with the H2 full-text index.
+   * Every word of the search must match; H2 does not rank the hits.
+   * @param q the words to search for
+   * @return ids of the matching Articles
+   */
+  @Query(nativeQuery = true, value = """
+      SELECT CAST(FT.KEYS[1] AS BIGINT) FROM FT_SEARCH_DATA(:q, 0, 0) FT WHERE FT."TABLE" = 'ARTICLES'""")
+  List<Long> searchH2(@Param("q") String q);
 }
@@ -1,19 +1,134 @@
 package edu.ucsb.cs156.example.repositories;
 
 import edu.ucsb.cs156.example.entities.HelpRequest;
+import edu.ucsb.cs156.example.models.HelpRequestView;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
+/**
+ * The HelpRequestRepository is a repository for HelpRequest entities.
+ */
 
 @Repository
 public interface HelpRequestRepository extends CrudRepository<HelpRequest, Long> {
   /**
-   * This method returns all UCSBDate entities with a given quarterYYYYQ.
-   * @param quarterYYYYQ quarter in the format YYYYQ (e.g. 20241 for Winter 2024, 20242 for Spring 2024, 20243 for Summer 2024, 20244 for Fall 2024)
-   * @return all UCSBDate entities with a given quarterYYYYQ
-   *  Iterable<HelpRequest> findAllByQuarterYYYYQ(String quarterYYYYQ);
+   * This method sets the solved flag of the HelpRequest entities with the given ids
+   * in a single UPDATE ... RETURNING statement. Each updated row also gets a new
+   * change sequence number. Postgres only.
+   * @param ids ids of the HelpRequest entities to update (not empty)
+   * @param solved the new value of the solved flag
+   * @return the ids of the rows that were updated
    */
+  @Transactional
+  @Query(value = "update helprequests set solved = :solved, change_seq = nextval('change_seq')"
+      + " where id in (:ids) returning id", nativeQuery = true)
+  List<Long> updateSolvedByIdInPostgres(@Param("ids") Collection<Long> ids, @Param("solved") boolean solved);
 
-}
\ No newline at end of file
+  /**
+   * This method is {@link #updateSolvedByIdInPostgres} for H2, which has no
+   * RETURNING but can select from the rows an UPDATE changed.
+   * @param ids ids of the HelpRequest entities to update (not empty)
+   * @param solved the new value of the solved flag
+   * @return the ids of the rows that were updated
+   */
+  @Transactional
+  @Query(value = "select id from final table (update helprequests set solved = :solved, change_seq = nextval('change_seq')"
+      + " where id in (:ids))", nativeQuery = true)
+  List<Long> updateSolvedByIdInH2(@Param("ids") Collection<Long> ids, @Param("solved") boolean solved);
+
+  /**
+   * This method sets the solved flag of every HelpRequest of a team in a single
+   * UPDATE ... RETURNING statement. Each updated row also gets a new change
+   * sequence number. Postgres only.
+   * @param teamId the team id, e.g. "s22-5pm-3"
+   * @param solved the new value of the solved flag
+   * @return the ids of the rows that were updated
+   */
+  @Transactional
+  @Query(value = "update helprequests set solved = :solved, change_seq = nextval('change_seq')"
+      + " where team_id = :teamId returning id", nativeQuery = true)
+  List<Long> updateSolvedByTeamIdPostgres(@Param("teamId") String teamId, @Param("solved") boolean solved);
+
+  /**
+   * This method is {@link #updateSolvedByTeamIdPostgres} for H2.
+   * @param teamId the team id, e.g. "s22-5pm-3"
+   * @param solved the new value of the solved flag
+   * @return the ids of the rows that were updated
+   */
+  @Transactional
+  @Query(value = "select id from final table (update helprequests set solved = :solved, change_seq = nextval('change_seq')"
+      + " where team_id = :teamId)", nativeQuery = true)
+  List<Long> updateSolvedByTeamIdH2(@Param("teamId") String teamId, @Param("solved") boolean solved);
+
+  /**
+   * This method returns all HelpRequest entities as read-only views.
+   * @return a view of every HelpRequest
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+  @Query("select new edu.ucsb.cs156.example.models.HelpRequestView(h.id, h.requesterEmail, h.teamId, h.tableOrBreakoutRoom, h.requestTime, h.explanation, h.solved, h.claimedBy, h.claimedAt) from helprequests h")
+  List<HelpRequestView> findAllViews();
+
+  /**
+   * This method returns a single HelpRequest entity as a read-only view.
+   * @param id id of the HelpRequest
+   * @return Optional of HelpRequestView (empty if not found)
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+  @Query("select new edu.ucsb.cs156.example.models.HelpRequestView(h.id, h.requesterEmail, h.teamId, h.tableOrBreakoutRoom, h.requestTime, h.explanation, h.solved, h.claimedBy, h.claimedAt) from helprequests h where h.id = :id")
+  Optional<HelpRequestView> findViewById(@Param("id") Long id);
+
+  /**
+   * This method locks the oldest unsolved, unclaimed HelpRequest (with
+   * SELECT ... FOR UPDATE SKIP LOCKED) and returns its id. Rows locked by
+   * other transactions are skipped rather than waited for. Postgres only.
+   * @param teamId only consider help requests from this team (null for any)
+   * @param tableOrBreakoutRoom only consider help requests from this table or breakout room (null for any)
+   * @return the id, or an empty list if there is no such HelpRequest
+   */
+  @Query(value = "select id from helprequests where not solved and claimed_by is null"
+      + " and (cast(:teamId as varchar) is null or team_id = :teamId)"
+      + " and (cast(:tableOrBreakoutRoom as varchar) is null or table_or_breakout_room = :tableOrBreakoutRoom)"
+      + " order by request_time, id limit 1 for update skip locked", nativeQuery = true)
+  List<Long> lockNextClaimableId(@Param("teamId") String teamId, @Param("tableOrBreakoutRoom") String tableOrBreakoutRoom);
+
+  /**
+   * This method returns the ids of the oldest unsolved, unclaimed HelpRequests, without locking them.
+   * @param teamId only consider help requests from this team (null for any)
+   * @param tableOrBreakoutRoom only consider help requests from this table or breakout room (null for any)
+   * @param limit the most ids to return
+   * @return the ids, oldest first
+   */
+  @Query("select h.id from helprequests h where h.solved = false and h.claimedBy is null"
+      + " and (:teamId is null or h.teamId = :teamId)"
+      + " and (:tableOrBreakoutRoom is null or h.tableOrBreakoutRoom = :tableOrBreakoutRoom)"
+      + " order by h.requestTime, h.id")
+  List<Long> findClaimableIds(@Param("teamId") String teamId, @Param("tableOrBreakoutRoom") String tableOrBreakoutRoom, Limit limit);
+
+  /**
+   * This method claims a HelpRequest if it is still unsolved and unclaimed,
+   * in a single UPDATE statement. The row also gets a new change sequence number.
+   * @param id id of the HelpRequest
+   * @param claimedBy email of whoever claims it
+   * @param claimedAt when it is claimed
+   * @return 1 if it was claimed, 0 if it was already solved, claimed or deleted
+   */
+  @Transactional
+  @Modifying
+  @Query("update helprequests h set h.claimedBy = :claimedBy, h.claimedAt = :claimedAt, h.changeSeq = function('nextval', 'change_seq')"
+      + " where h.id = :id and h.solved = false and h.claimedBy is null")
+  int claim(@Param("id") long id, @Param("claimedBy") String claimedBy, @Param("claimedAt") LocalDateTime claimedAt);
+}
@@ -1,10 +1,19 @@
 package edu.ucsb.cs156.example.repositories;
 
 import edu.ucsb.cs156.example.entities.MenuItemReview;
+import edu.ucsb.cs156.example.models.MenuItemReviewView;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 /**
  * The MenuItemReviewRepository is a repository for MenuItemReview entities.
  */
@@ -17,4 +26,40 @@ public interface MenuItemReviewRepository extends CrudRepository<MenuItemReview,
    * @return all UCSBDate entities with a given quarterYYYYQ
    */
   Iterable<MenuItemReview> findAllByItemId(long itemId);
-}
\ No newline at end of file
+
+  /**
+   * This method returns all MenuItemReview entities as read-only views.
+   * @return a view of every MenuItemReview
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+  @Query("select new edu.ucsb.cs156.example.models.MenuItemReviewView(r.id, r.itemId, r.reviewerEmail, r.stars, r.dateReviewed, r.comments) from menuitemreview r")
+  List<MenuItemReviewView> findAllViews();
+
+  /**
+   * This method returns a single MenuItemReview entity as a read-only view.
+   * @param id id of the MenuItemReview
+   * @return Optional of MenuItemReviewView (empty if not found)
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+  @Query("select new edu.ucsb.cs156.example.models.MenuItemReviewView(r.id, r.itemId, r.reviewerEmail, r.stars, r.dateReviewed, r.comments) from menuitemreview r where r.id = :id")
+  Optional<MenuItemReviewView> findViewById(@Param("id") Long id);
+
+  /**
+   * One row of {@link #countReviewsByItem()}.
+   */
+  interface ReviewCount {
+    /** @return id of the menu item */
+    Long getItemId();
+
+    /** @return how many reviews the menu item has */
+    Long getReviews();
+  }
+
+  /**
+   * This method counts the reviews of each menu item that has any.
+   * @return one row per reviewed menu item
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+  @Query("select r.itemId as itemId, count(r) as reviews from menuitemreview r group by r.itemId")
+  List<ReviewCount> countReviewsByItem();
+}
@@ -0,0 +1,22 @@
+package edu.ucsb.cs156.example.repositories;
+
+import edu.ucsb.cs156.example.entities.RecommendationReminder;
+
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * The RecommendationReminderRepository is a repository for RecommendationReminder entities.
+ */
+@Repository
+public interface RecommendationReminderRepository extends CrudRepository<RecommendationReminder, Long> {
+  /**
+   * This method checks whether the reminder for a RecommendationRequest has been sent.
+   * @param recommendationRequestId id of the RecommendationRequest
+   * @param dateNeeded the date needed the reminder was for
+   * @return whether it has been sent
+   */
+  boolean existsByRecommendationRequestIdAndDateNeeded(long recommendationRequestId, LocalDateTime dateNeeded);
+}
@@ -1,14 +1,100 @@
 package edu.ucsb.cs156.example.repositories;
 
 import edu.ucsb.cs156.example.entities.RecommendationRequest;
+import edu.ucsb.cs156.example.models.RecommendationRequestView;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * The RecommendationRequestRepository is a repository for RecommendationRequest entities
  */
 @Repository
 public interface RecommendationRequestRepository extends CrudRepository<RecommendationRequest, Long> {
-    
+  /**
+   * This method sets the done flag of the RecommendationRequest entities with the
+   * given ids in a single UPDATE ... RETURNING statement. Each updated row also
+   * gets a new change sequence number. Postgres only.
+   * @param ids ids of the RecommendationRequest entities to update (not empty)
+   * @param done the new value of the done flag
+   * @return the ids of the rows that were updated
+   */
+  @Transactional
+  @Query(value = "update recommendationrequests set done = :done, change_seq = nextval('change_seq')"
+      + " where id in (:ids) returning id", nativeQuery = true)
+  List<Long> updateDoneByIdInPostgres(@Param("ids") Collection<Long> ids, @Param("done") boolean done);
+
+  /**
+   * This method is {@link #updateDoneByIdInPostgres} for H2, which has no
+   * RETURNING but can select from the rows an UPDATE changed.
+   * @param ids ids of the RecommendationRequest entities to update (not empty)
+   * @param done the new value of the done flag
+   * @return the ids of the rows that were updated
+   */
+  @Transactional
+  @Query(value = "select id from final table (update recommendationrequests set done = :done, change_seq = nextval('change_seq')"
+      + " where id in (:ids))", nativeQuery = true)
+  List<Long> updateDoneByIdInH2(@Param("ids") Collection<Long> ids, @Param("done") boolean done);
+
+  /**
+   * This method returns all RecommendationRequest entities as read-only views.
+   * @return a view of every RecommendationRequest
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+  @Query("select new edu.ucsb.cs156.example.models.RecommendationRequestView(r.id, r.requesterEmail, r.professorEmail, r.explanation, r.dateRequested, r.dateNeeded, r.done) from recommendationrequests r")
+  List<RecommendationRequestView> findAllViews();
+
+  /**
+   * This method returns a single RecommendationRequest entity as a read-only view.
+   * @param id id of the RecommendationRequest
+   * @return Optional of RecommendationRequestView (empty if not found)
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+  @Query("select new edu.ucsb.cs156.example.models.RecommendationRequestView(r.id, r.requesterEmail, r.professorEmail, r.explanation, r.dateRequested, r.dateNeeded, r.done) from recommendationrequests r where r.id = :id")
+  Optional<RecommendationRequestView> findViewById(@Param("id") Long id);
+
+  /**
+   * One row of {@link #findPendingDeadlines}.
+   */
+  interface Deadline {
+    /** @return id of the RecommendationRequest */
+    Long getId();
+
+    /** @return when the recommendation is needed */
+    LocalDateTime getDateNeeded();
+  }
+
+  /**
+   * This method returns the RecommendationRequest entities that are not done,
+   * are needed after a given time and have not had their reminder sent yet.
+   * It uses the index on (DONE, DATE_NEEDED).
+   * @param after only requests needed after this time are returned
+   * @return the id and date needed of each such request
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+  @Query("select r.id as id, r.dateNeeded as dateNeeded from recommendationrequests r where r.done = false and r.dateNeeded > :after"
+      + " and not exists (select m.id from recommendationreminders m where m.recommendationRequestId = r.id and m.dateNeeded = r.dateNeeded)")
+  List<Deadline> findPendingDeadlines(@Param("after") LocalDateTime after);
+
+  /**
+   * This method is {@link #findPendingDeadlines}, for some RecommendationRequest entities only.
+   * @param ids ids of the RecommendationRequest entities
+   * @param after only requests needed after this time are returned
+   * @return the id and date needed of each such request
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+  @Query("select r.id as id, r.dateNeeded as dateNeeded from recommendationrequests r where r.id in :ids and r.done = false and r.dateNeeded > :after"
+      + " and not exists (select m.id from recommendationreminders m where m.recommendationRequestId = r.id and m.dateNeeded = r.dateNeeded)")
+  List<Deadline> findPendingDeadlinesByIdIn(@Param("ids") Collection<Long> ids, @Param("after") LocalDateTime after);
 }
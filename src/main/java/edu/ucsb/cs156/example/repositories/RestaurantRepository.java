@@ -1,13 +1,39 @@
 package edu.ucsb.cs156.example.repositories;
 
 import edu.ucsb.cs156.example.entities.Restaurant;
+import edu.ucsb.cs156.example.models.RestaurantView;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 /**
  * The RestaurantRepository is a repository for Restaurant entities
  */
 @Repository
 public interface RestaurantRepository extends CrudRepository<Restaurant, Long> {
+
+  /**
+   * This method returns all Restaurant entities as read-only views.
+   * @return a view of every Restaurant
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+  @Query("select new edu.ucsb.cs156.example.models.RestaurantView(r.id, r.name, r.description) from restaurants r")
+  List<RestaurantView> findAllViews();
+
+  /**
+   * This method returns a single Restaurant entity as a read-only view.
+   * @param id id of the Restaurant
+   * @return Optional of RestaurantView (empty if not found)
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+  @Query("select new edu.ucsb.cs156.example.models.RestaurantView(r.id, r.name, r.description) from restaurants r where r.id = :id")
+  Optional<RestaurantView> findViewById(@Param("id") Long id);
 }
@@ -0,0 +1,13 @@
+package edu.ucsb.cs156.example.repositories;
+
+import edu.ucsb.cs156.example.entities.TombstoneHorizon;
+
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * The TombstoneHorizonRepository is a repository for TombstoneHorizon entities.
+ */
+@Repository
+public interface TombstoneHorizonRepository extends CrudRepository<TombstoneHorizon, String> {
+}
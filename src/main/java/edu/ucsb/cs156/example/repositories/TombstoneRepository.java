@@ -0,0 +1,60 @@
+package edu.ucsb.cs156.example.repositories;
+
+import edu.ucsb.cs156.example.entities.Tombstone;
+import edu.ucsb.cs156.example.entities.TombstoneHorizon;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The TombstoneRepository is a repository for Tombstone entities.
+ */
+@Repository
+public interface TombstoneRepository extends CrudRepository<Tombstone, Long> {
+  /**
+   * This method returns the largest change sequence number of the deletions of one
+   * entity type after a given sequence number.
+   * @param entityType simple class name of the deleted entities, e.g. "HelpRequest"
+   * @param since only deletions with a larger change sequence number count
+   * @return the largest change sequence number, or null if there were no such deletions
+   */
+  @Query("select max(t.changeSeq) from tombstones t where t.entityType = :entityType and t.changeSeq > :since")
+  Long findMaxChangeSeq(@Param("entityType") String entityType, @Param("since") long since);
+
+  /**
+   * This method returns the ids of the entities of one type that were deleted
+   * in a range of change sequence numbers, oldest first.
+   * @param entityType simple class name of the deleted entities, e.g. "HelpRequest"
+   * @param since exclusive lower bound of the range
+   * @param upTo inclusive upper bound of the range
+   * @return the ids of the deleted entities, as strings
+   */
+  @Query("select t.entityId from tombstones t where t.entityType = :entityType and t.changeSeq > :since and t.changeSeq <= :upTo order by t.changeSeq")
+  List<String> findEntityIds(@Param("entityType") String entityType, @Param("since") long since, @Param("upTo") long upTo);
+
+  /**
+   * This method returns, for each entity type, the largest change sequence number
+   * of the deletions made before a given time.
+   * @param cutoff only deletions before this time count
+   * @return one (unsaved) horizon per entity type that has such deletions
+   */
+  @Query("select new edu.ucsb.cs156.example.entities.TombstoneHorizon(t.entityType, max(t.changeSeq))"
+      + " from tombstones t where t.deletedAt < :cutoff group by t.entityType")
+  List<TombstoneHorizon> findHorizonsBefore(@Param("cutoff") LocalDateTime cutoff);
+
+  /**
+   * This method deletes the tombstones of one entity type up to a change sequence number.
+   * @param entityType simple class name of the deleted entities, e.g. "HelpRequest"
+   * @param upTo inclusive upper bound of the change sequence numbers
+   * @return how many tombstones were deleted
+   */
+  @Modifying
+  @Query("delete from tombstones t where t.entityType = :entityType and t.changeSeq <= :upTo")
+  int deleteUpTo(@Param("entityType") String entityType, @Param("upTo") long upTo);
+}
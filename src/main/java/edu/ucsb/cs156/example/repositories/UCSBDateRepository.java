@@ -1,10 +1,19 @@
 package edu.ucsb.cs156.example.repositories;
 
 import edu.ucsb.cs156.example.entities.UCSBDate;
+import edu.ucsb.cs156.example.models.UCSBDateView;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 /**
  * The UCSBDateRepository is a repository for UCSBDate entities.
  */
@@ -16,5 +25,49 @@ public interface UCSBDateRepository extends CrudRepository<UCSBDate, Long> {
    * @param quarterYYYYQ quarter in the format YYYYQ (e.g. 20241 for Winter 2024, 20242 for Spring 2024, 20243 for Summer 2024, 20244 for Fall 2024)
    * @return all UCSBDate entities with a given quarterYYYYQ
    */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
   Iterable<UCSBDate> findAllByQuarterYYYYQ(String quarterYYYYQ);
-}
\ No newline at end of file
+
+  /**
+   * This method returns all UCSBDate entities. The result is kept in the query cache
+   * until the table is next written.
+   * @return every UCSBDate
+   */
+  @Override
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+  Iterable<UCSBDate> findAll();
+
+  /**
+   * This method returns all UCSBDate entities as read-only views.
+   * @return a view of every UCSBDate
+   */
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+      @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true") })
+  @Query("select new edu.ucsb.cs156.example.models.UCSBDateView(d.id, d.quarterYYYYQ, d.name, d.localDateTime) from ucsbdates d")
+  List<UCSBDateView> findAllViews();
+
+  /**
+   * This method returns a single UCSBDate entity as a read-only view.
+   * @param id id of the UCSBDate
+   * @return Optional of UCSBDateView (empty if not found)
+   */
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+      @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true") })
+  @Query("select new edu.ucsb.cs156.example.models.UCSBDateView(d.id, d.quarterYYYYQ, d.name, d.localDateTime) from ucsbdates d where d.id = :id")
+  Optional<UCSBDateView> findViewById(@Param("id") Long id);
+
+  /**
+   * This method returns the UCSBDates of a range of quarters as read-only views.
+   * @param from first quarter to include, e.g. 20241
+   * @param to last quarter to include, e.g. 20244
+   * @return the views, by quarter and then in time order
+   */
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+      @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true") })
+  @Query("select new edu.ucsb.cs156.example.models.UCSBDateView(d.id, d.quarterYYYYQ, d.name, d.localDateTime) from ucsbdates d"
+      + " where d.quarterKey between :from and :to order by d.quarterKey, d.localDateTime")
+  List<UCSBDateView> findViewsByQuarterKeyBetween(@Param("from") int from, @Param("to") int to);
+}
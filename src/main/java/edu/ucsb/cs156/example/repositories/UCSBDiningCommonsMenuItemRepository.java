@@ -1,10 +1,19 @@
 package edu.ucsb.cs156.example.repositories;
 
 import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
+import edu.ucsb.cs156.example.models.UCSBDiningCommonsMenuItemView;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 /**
  * The UCSBDiningCommonsMenuItemRepository is a repository for UCSBDiningCommonsMenuItem entities.
  */
@@ -13,4 +22,21 @@ import org.springframework.stereotype.Repository;
 public interface UCSBDiningCommonsMenuItemRepository extends CrudRepository<UCSBDiningCommonsMenuItem, Long> {
   
   Iterable<UCSBDiningCommonsMenuItem> findAllByDiningCommonsCode(String diningCommonsCode);
-}
\ No newline at end of file
+
+  /**
+   * This method returns all UCSBDiningCommonsMenuItem entities as read-only views.
+   * @return a view of every UCSBDiningCommonsMenuItem
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+  @Query("select new edu.ucsb.cs156.example.models.UCSBDiningCommonsMenuItemView(m.id, m.diningCommonsCode, m.name, m.station) from ucsbdiningcommonsmenuitem m")
+  List<UCSBDiningCommonsMenuItemView> findAllViews();
+
+  /**
+   * This method returns a single UCSBDiningCommonsMenuItem entity as a read-only view.
+   * @param id id of the UCSBDiningCommonsMenuItem
+   * @return Optional of UCSBDiningCommonsMenuItemView (empty if not found)
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+  @Query("select new edu.ucsb.cs156.example.models.UCSBDiningCommonsMenuItemView(m.id, m.diningCommonsCode, m.name, m.station) from ucsbdiningcommonsmenuitem m where m.id = :id")
+  Optional<UCSBDiningCommonsMenuItemView> findViewById(@Param("id") Long id);
+}
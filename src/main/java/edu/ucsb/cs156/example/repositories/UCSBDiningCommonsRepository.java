@@ -1,15 +1,53 @@
 package edu.ucsb.cs156.example.repositories;
 
 import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
+import edu.ucsb.cs156.example.models.UCSBDiningCommonsView;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.beans.propertyeditors.StringArrayPropertyEditor;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 /**
  * The UCSBDiningCommonsRepository is a repository for UCSBDiningCommons entities
  */
 @Repository
 public interface UCSBDiningCommonsRepository extends CrudRepository<UCSBDiningCommons, String> {
- 
-}
\ No newline at end of file
+
+  /**
+   * This method returns all UCSBDiningCommons entities. The result is kept in the query cache
+   * until the table is next written.
+   * @return every UCSBDiningCommons
+   */
+  @Override
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+  Iterable<UCSBDiningCommons> findAll();
+
+  /**
+   * This method returns all UCSBDiningCommons entities as read-only views.
+   * @return a view of every UCSBDiningCommons
+   */
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+      @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true") })
+  @Query("select new edu.ucsb.cs156.example.models.UCSBDiningCommonsView(c.code, c.name, c.hasSackMeal, c.hasTakeOutMeal, c.hasDiningCam, c.latitude, c.longitude) from ucsbdiningcommons c")
+  List<UCSBDiningCommonsView> findAllViews();
+
+  /**
+   * This method returns a single UCSBDiningCommons entity as a read-only view.
+   * @param code code of the UCSBDiningCommons
+   * @return Optional of UCSBDiningCommonsView (empty if not found)
+   */
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+      @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true") })
+  @Query("select new edu.ucsb.cs156.example.models.UCSBDiningCommonsView(c.code, c.name, c.hasSackMeal, c.hasTakeOutMeal, c.hasDiningCam, c.latitude, c.longitude) from ucsbdiningcommons c where c.code = :code")
+  Optional<UCSBDiningCommonsView> findViewById(@Param("code") String code);
+}
@@ -1,14 +1,51 @@
 package edu.ucsb.cs156.example.repositories;
 
 import edu.ucsb.cs156.example.entities.UCSBOrganization;
+import edu.ucsb.cs156.example.models.UCSBOrganizationView;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.beans.propertyeditors.StringArrayPropertyEditor;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface UCSBOrganizationRepository extends CrudRepository<UCSBOrganization, String> 
 {
 
-}
\ No newline at end of file
+  /**
+   * This method returns all UCSBOrganization entities. The result is kept in the query cache
+   * until the table is next written.
+   * @return every UCSBOrganization
+   */
+  @Override
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+  Iterable<UCSBOrganization> findAll();
+
+  /**
+   * This method returns all UCSBOrganization entities as read-only views.
+   * @return a view of every UCSBOrganization
+   */
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+      @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true") })
+  @Query("select new edu.ucsb.cs156.example.models.UCSBOrganizationView(o.orgCode, o.orgTranslationShort, o.orgTranslation, o.inactive) from ucsborganization o")
+  List<UCSBOrganizationView> findAllViews();
+
+  /**
+   * This method returns a single UCSBOrganization entity as a read-only view.
+   * @param orgCode orgCode of the UCSBOrganization
+   * @return Optional of UCSBOrganizationView (empty if not found)
+   */
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+      @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true") })
+  @Query("select new edu.ucsb.cs156.example.models.UCSBOrganizationView(o.orgCode, o.orgTranslationShort, o.orgTranslation, o.inactive) from ucsborganization o where o.orgCode = :orgCode")
+  Optional<UCSBOrganizationView> findViewById(@Param("orgCode") String orgCode);
+}
@@ -1,9 +1,13 @@
 package edu.ucsb.cs156.example.repositories;
 
 import edu.ucsb.cs156.example.entities.User;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -17,4 +21,26 @@ public interface UserRepository extends CrudRepository<User, Long> {
    * @return Optional of User (empty if not found)
    */
   Optional<User> findByEmail(String email);
+
+  /**
+   * This method returns a page of users in id order.
+   * @param after only return users with an id greater than this (0 for the first page)
+   * @param limit maximum number of users to return
+   * @return the users
+   */
+  List<User> findByIdGreaterThanOrderByIdAsc(long after, Limit limit);
+
+  /**
+   * This method returns a page of the users whose email, full name, given name
+   * or family name starts with a prefix, in id order.
+   * @param after only return users with an id greater than this (0 for the first page)
+   * @param prefix a lower case LIKE pattern ending in %, with backslash, % and _ escaped by a backslash
+   * @param limit maximum number of users to return
+   * @return the users
+   */
+  @Query("select u from users u where u.id > :after and ("
+      + "lower(u.email) like :prefix escape '\\' or lower(u.fullName) like :prefix escape '\\' "
+      + "or lower(u.givenName) like :prefix escape '\\' or lower(u.familyName) like :prefix escape '\\') "
+      + "order by u.id")
+  List<User> searchByPrefix(@Param("after") long after, @Param("prefix") String prefix, Limit limit);
 }
@@ -0,0 +1,129 @@
+package edu.ucsb.cs156.example.services;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import edu.ucsb.cs156.example.models.QuarterSpan;
+import edu.ucsb.cs156.example.models.UCSBDateView;
+import edu.ucsb.cs156.example.repositories.UCSBDateRepository;
+
+/**
+ * This component keeps the academic calendar in memory, sorted by time, so
+ * that time-range lookups are binary searches instead of queries.
+ *
+ * The index is an immutable snapshot. A write to UCSBDate (reported by
+ * AcademicCalendarListener) makes it stale once the transaction commits, and
+ * it is rebuilt from the database in the background (see RebuiltSnapshot).
+ * Dates without a localDateTime are not in the index.
+ */
+@Component
+public class AcademicCalendarIndex {
+
+  private record Snapshot(LocalDateTime[] times, UCSBDateView[] dates,
+      LocalDateTime[] quarterStarts, QuarterSpan[] quarters) {
+
+    static Snapshot of(List<UCSBDateView> views) {
+      UCSBDateView[] dates = views.stream()
+          .filter(view -> view.localDateTime() != null)
+          .sorted(Comparator.comparing(UCSBDateView::localDateTime))
+          .toArray(UCSBDateView[]::new);
+
+      Map<String, QuarterSpan> spans = new LinkedHashMap<>();
+      for (UCSBDateView date : dates) {
+        if (date.quarterYYYYQ() == null) {
+          continue;
+        }
+        spans.merge(date.quarterYYYYQ(),
+            new QuarterSpan(date.quarterYYYYQ(), date.localDateTime(), date.localDateTime()),
+            (span, next) -> new QuarterSpan(span.quarterYYYYQ(), span.start(), next.end()));
+      }
+      // dates are in time order, so the spans already are, by start
+      QuarterSpan[] quarters = spans.values().toArray(QuarterSpan[]::new);
+
+      return new Snapshot(
+          Arrays.stream(dates).map(UCSBDateView::localDateTime).toArray(LocalDateTime[]::new),
+          dates,
+          Arrays.stream(quarters).map(QuarterSpan::start).toArray(LocalDateTime[]::new),
+          quarters);
+    }
+  }
+
+  @Autowired
+  UCSBDateRepository ucsbDateRepository;
+
+  final RebuiltSnapshot<Snapshot> snapshot =
+      new RebuiltSnapshot<>("academic-calendar-index", () -> Snapshot.of(ucsbDateRepository.findAllViews()));
+
+  /**
+   * This method returns the UCSBDates from start (inclusive) to end (exclusive).
+   * @param start the earliest date and time to include
+   * @param end the first date and time not to include
+   * @return the UCSBDates in that range, in time order
+   */
+  public List<UCSBDateView> between(LocalDateTime start, LocalDateTime end) {
+    Snapshot s = snapshot.get();
+    int from = firstNotBefore(s.times(), start);
+    int to = Math.max(from, firstNotBefore(s.times(), end));
+    return List.of(Arrays.copyOfRange(s.dates(), from, to));
+  }
+
+  /**
+   * This method finds the quarter whose span contains an instant. If spans
+   * overlap, the one that starts last wins.
+   * @param instant the date and time to look up
+   * @return the span of the quarter, or null if the instant is in no quarter
+   */
+  public QuarterSpan quarterContaining(LocalDateTime instant) {
+    Snapshot s = snapshot.get();
+    int after = firstAfter(s.quarterStarts(), instant);
+    if (after == 0 || s.quarters()[after - 1].end().isBefore(instant)) {
+      return null;
+    }
+    return s.quarters()[after - 1];
+  }
+
+  /**
+   * This method makes the index stale once the current transaction commits
+   * (or at once, outside a transaction).
+   */
+  public void written() {
+    snapshot.invalidateAfterCommit();
+  }
+
+  /** Index of the first element that is not before key (the length if there is none). */
+  private static int firstNotBefore(LocalDateTime[] sorted, LocalDateTime key) {
+    int low = 0;
+    int high = sorted.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (sorted[mid].isBefore(key)) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /** Index of the first element that is after key (the length if there is none). */
+  private static int firstAfter(LocalDateTime[] sorted, LocalDateTime key) {
+    int low = 0;
+    int high = sorted.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (sorted[mid].isAfter(key)) {
+        high = mid;
+      } else {
+        low = mid + 1;
+      }
+    }
+    return low;
+  }
+}
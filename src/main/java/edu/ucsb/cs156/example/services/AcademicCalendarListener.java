@@ -0,0 +1,32 @@
+package edu.ucsb.cs156.example.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * This JPA entity listener tells the AcademicCalendarIndex about every insert,
+ * update and delete of a UCSBDate, so that the index is rebuilt.
+ */
+public class AcademicCalendarListener {
+
+  // lazy, because the index needs UCSBDateRepository, which needs the
+  // EntityManagerFactory that is being built when this listener is created
+  @Lazy
+  @Autowired
+  AcademicCalendarIndex academicCalendarIndex;
+
+  /**
+   * This method is called by JPA after a UCSBDate is written.
+   * @param entity the UCSBDate
+   */
+  @PostPersist
+  @PostUpdate
+  @PostRemove
+  void written(Object entity) {
+    academicCalendarIndex.written();
+  }
+}
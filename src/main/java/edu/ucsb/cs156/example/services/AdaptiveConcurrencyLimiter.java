@@ -0,0 +1,111 @@
+package edu.ucsb.cs156.example.services;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class limits how many requests may be in flight at once, and adjusts
+ * that limit to the latency it measures (the "gradient" algorithm from
+ * Netflix's concurrency-limits library).
+ *
+ * It keeps a slow moving average of request latency as the baseline. Each
+ * completed request compares its own latency with the baseline: while the two
+ * are within {@code RTT_TOLERANCE} of each other the limit grows by about its
+ * square root, and once requests get slower than that (because they queue in
+ * front of the database) the limit shrinks in proportion, by up to half. A
+ * request that arrives when the limit is reached is turned away at once rather
+ * than queued, so the requests that are admitted keep their latency.
+ *
+ * {@link #tryAcquire()} is a single atomic update; only {@link #release(long)}
+ * takes a lock, to update the estimate.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+  /** How much slower than the baseline a request may be before the limit shrinks. */
+  static final double RTT_TOLERANCE = 1.5;
+
+  /** How much of each new estimate goes into the limit. */
+  static final double SMOOTHING = 0.2;
+
+  /** Number of samples the baseline latency averages over. */
+  static final int BASELINE_WINDOW = 600;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final AtomicInteger inFlight = new AtomicInteger();
+
+  private volatile int limit;
+
+  // guarded by this
+  private double estimatedLimit;
+  private double baselineRtt;
+
+  /**
+   * Creates a limiter
+   * @param initialLimit the limit to start with
+   * @param minLimit the limit never goes below this
+   * @param maxLimit the limit never goes above this
+   */
+  public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.estimatedLimit = initialLimit;
+    this.limit = initialLimit;
+  }
+
+  /**
+   * This method admits a request if fewer than {@link #getLimit()} are in flight.
+   * Every admitted request must be ended with {@link #release(long)}.
+   * @return true if the request may go ahead, false if it must be turned away
+   */
+  public boolean tryAcquire() {
+    int current = limit;
+    return inFlight.getAndUpdate(n -> n < current ? n + 1 : n) < current;
+  }
+
+  /**
+   * This method ends a request admitted by {@link #tryAcquire()} and feeds its
+   * latency into the limit.
+   * @param rttNanos how long the request took, in nanoseconds
+   */
+  public void release(long rttNanos) {
+    int inFlightBefore = inFlight.getAndDecrement();
+    onSample(Math.max(1, rttNanos), inFlightBefore);
+  }
+
+  private synchronized void onSample(long rtt, int inFlightBefore) {
+    if (baselineRtt == 0) {
+      baselineRtt = rtt;
+    } else {
+      baselineRtt += (rtt - baselineRtt) / BASELINE_WINDOW;
+    }
+    // after a long slow period, let the baseline come back down quickly
+    if (baselineRtt > 2 * rtt) {
+      baselineRtt *= 0.95;
+    }
+
+    // a request that did not have to share the limit says nothing about raising it
+    if (inFlightBefore < estimatedLimit / 2) {
+      return;
+    }
+
+    double gradient = Math.max(0.5, Math.min(1.0, RTT_TOLERANCE * baselineRtt / rtt));
+    double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+    newLimit = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+    estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    limit = (int) estimatedLimit;
+  }
+
+  /**
+   * @return how many requests may currently be in flight
+   */
+  public int getLimit() {
+    return limit;
+  }
+
+  /**
+   * @return how many requests are in flight
+   */
+  public int getInFlight() {
+    return inFlight.get();
+  }
+}
@@ -0,0 +1,83 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.Articles;
+import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.models.ArticlesView;
+import edu.ucsb.cs156.example.models.Changes;
+import edu.ucsb.cs156.example.repositories.ArticlesRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This is a service for reading Articles entities.
+ *
+ * Each method runs in a read-only transaction and returns ArticlesView records
+ * rather than managed entities.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ArticlesReadService {
+
+  @Autowired
+  ArticlesRepository articlesRepository;
+
+  @Autowired
+  SparseFieldsetService sparseFieldsetService;
+
+  @Autowired
+  ChangeFeedService changeFeedService;
+
+  /**
+   * This method returns every Articles.
+   * @return a list of ArticlesView
+   */
+  public List<ArticlesView> findAll() {
+    return articlesRepository.findAllViews();
+  }
+
+  /**
+   * This method returns a single Articles.
+   * @param id id of the Articles
+   * @return the ArticlesView
+   * @throws EntityNotFoundException if there is no Articles with that id
+   */
+  public ArticlesView findById(Long id) {
+    return articlesRepository.findViewById(id)
+        .orElseThrow(() -> new EntityNotFoundException(Articles.class, id));
+  }
+
+  /**
+   * This method returns only the given fields of every Articles.
+   * @param fields names of the fields to return
+   * @return one map (field name to value) per Articles
+   */
+  public List<Map<String, Object>> findAll(List<String> fields) {
+    return sparseFieldsetService.findAll(Articles.class, ArticlesView.class, fields);
+  }
+
+  /**
+   * This method returns only the given fields of a single Articles.
+   * @param id id of the Articles
+   * @param fields names of the fields to return
+   * @return a map from field name to value
+   * @throws EntityNotFoundException if there is no Articles with that id
+   */
+  public Map<String, Object> findById(Long id, List<String> fields) {
+    return sparseFieldsetService.findById(Articles.class, ArticlesView.class, id, fields)
+        .orElseThrow(() -> new EntityNotFoundException(Articles.class, id));
+  }
+
+  /**
+   * This method returns the Articless that were created, updated or deleted after a sync token.
+   * @param since token from the previous call (0 for a full sync)
+   * @return the changes and the token to use next time
+   */
+  public Changes<ArticlesView> changesSince(long since) {
+    return changeFeedService.changesSince(Articles.class, ArticlesView.class, since);
+  }
+}
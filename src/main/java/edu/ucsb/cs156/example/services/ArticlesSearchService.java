@@ -0,0 +1,144 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.models.ArticleSearchHit;
+import edu.ucsb.cs156.example.models.ArticlesView;
+import edu.ucsb.cs156.example.repositories.ArticlesRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * This is a service for full-text search over the title and explanation of
+ * Articles.
+ *
+ * On Postgres the search uses the SEARCH_VECTOR column (kept up to date by the
+ * database, see the Articles changelog) and its GIN index, which also rank the
+ * hits and highlight the snippets. On H2 (development and tests) it uses H2's
+ * full-text index to find the articles that contain every word of the search
+ * (it has no phrases or operators), then ranks and highlights them here the
+ * same way: a match in the title counts 1, a match in the explanation 0.4,
+ * like ts_rank's default weights for A and B.
+ *
+ * Titles and explanations come from users, so the snippets are HTML escaped:
+ * matches are first marked with the control characters START and STOP (on
+ * Postgres by ts_headline, which gets the text with them removed), the text
+ * is escaped, and only then are the marks replaced with &lt;mark&gt; tags.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ArticlesSearchService {
+
+  static final double TITLE_WEIGHT = 1.0;
+  static final double EXPLANATION_WEIGHT = 0.4;
+  /** Marks the start of a match in a snippet before it is escaped; CHR(2) in ArticlesRepository. */
+  static final char START = '\u0002';
+  /** Marks the end of a match in a snippet before it is escaped; CHR(3) in ArticlesRepository. */
+  static final char STOP = '\u0003';
+
+  @Autowired
+  ArticlesRepository articlesRepository;
+
+  @Autowired
+  EntityManagerFactory entityManagerFactory;
+
+  // set on first use
+  Boolean postgres;
+
+  /**
+   * This method searches the title and explanation of every Articles.
+   * @param q the words to search for
+   * @param offset how many of the best hits to skip
+   * @param limit the most hits to return
+   * @return the hits, best first
+   */
+  public List<ArticleSearchHit> search(String q, int offset, int limit) {
+    if (q == null || q.isBlank()) {
+      return List.of();
+    }
+    return usesPostgres() ? searchPostgres(q, offset, limit) : searchH2(q, offset, limit);
+  }
+
+  private boolean usesPostgres() {
+    if (postgres == null) {
+      postgres = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+          .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+    }
+    return postgres;
+  }
+
+  private List<ArticleSearchHit> searchPostgres(String q, int offset, int limit) {
+    List<ArticlesRepository.SearchRow> rows = articlesRepository.searchPostgres(q, limit, offset);
+    Map<Long, ArticlesView> views = articlesRepository.findViewsByIdIn(rows.stream().map(ArticlesRepository.SearchRow::getId).toList())
+        .stream().collect(Collectors.toMap(ArticlesView::id, Function.identity()));
+    return rows.stream()
+        .filter(row -> views.containsKey(row.getId()))
+        .map(row -> new ArticleSearchHit(views.get(row.getId()), row.getRank(),
+            snippet(row.getTitleSnippet()), snippet(row.getExplanationSnippet())))
+        .toList();
+  }
+
+  private List<ArticleSearchHit> searchH2(String q, int offset, int limit) {
+    List<String> terms = terms(q);
+    if (terms.isEmpty()) {
+      return List.of();
+    }
+    Pattern pattern = termPattern(terms);
+    return articlesRepository.findViewsByIdIn(articlesRepository.searchH2(String.join(" ", terms))).stream()
+        .map(view -> new ArticleSearchHit(view,
+            TITLE_WEIGHT * count(pattern, view.title()) + EXPLANATION_WEIGHT * count(pattern, view.explanation()),
+            highlight(pattern, view.title()),
+            highlight(pattern, view.explanation())))
+        .sorted(Comparator.comparingDouble(ArticleSearchHit::rank).reversed()
+            .thenComparing(hit -> hit.article().id()))
+        .skip(offset)
+        .limit(limit)
+        .toList();
+  }
+
+  /** The words of a search; H2 requires all of them to match. */
+  static List<String> terms(String q) {
+    return Arrays.stream(q.split("[^\\p{L}\\p{N}]+"))
+        .filter(term -> !term.isEmpty())
+        .distinct()
+        .toList();
+  }
+
+  private static Pattern termPattern(List<String> terms) {
+    String alternatives = terms.stream().map(Pattern::quote).collect(Collectors.joining("|"));
+    return Pattern.compile("\\b(?:" + alternatives + ")\\b",
+        Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE | Pattern.UNICODE_CHARACTER_CLASS);
+  }
+
+  private static long count(Pattern pattern, String text) {
+    return text == null ? 0 : pattern.matcher(text).results().count();
+  }
+
+  private static String highlight(Pattern pattern, String text) {
+    if (text == null) {
+      return "";
+    }
+    return snippet(pattern.matcher(text.replace(String.valueOf(START), "").replace(String.valueOf(STOP), ""))
+        .replaceAll(START + "$0" + STOP));
+  }
+
+  /** HTML escapes a text whose matches are between START and STOP, then turns those into mark tags. */
+  static String snippet(String marked) {
+    return HtmlUtils.htmlEscape(marked)
+        .replace(String.valueOf(START), "<mark>")
+        .replace(String.valueOf(STOP), "</mark>");
+  }
+}
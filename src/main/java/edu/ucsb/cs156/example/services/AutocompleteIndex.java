@@ -0,0 +1,139 @@
+package edu.ucsb.cs156.example.services;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import edu.ucsb.cs156.example.models.Suggestion;
+import edu.ucsb.cs156.example.repositories.MenuItemReviewRepository;
+import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsMenuItemRepository;
+import edu.ucsb.cs156.example.repositories.UCSBOrganizationRepository;
+
+/**
+ * This component answers type-ahead lookups for organizations and dining
+ * commons menu items from two in-memory PrefixTries, one per type.
+ *
+ * Organizations are found by any word of orgTranslationShort or
+ * orgTranslation, menu items by any word of their name. The most popular
+ * matches come first: menu items by their number of reviews, active
+ * organizations before inactive ones.
+ *
+ * The tries are an immutable snapshot. A write to an organization, a menu
+ * item or a review (reported by AutocompleteListener) makes it stale once the
+ * transaction commits, and it is rebuilt in the background (see
+ * RebuiltSnapshot): lookups keep using the previous tries meanwhile, and a
+ * burst of reviews causes one or two rebuilds, not one per keystroke.
+ */
+@Component
+public class AutocompleteIndex {
+
+  /** The most suggestions a lookup returns. */
+  public static final int MAX_K = 10;
+
+  static final Comparator<Suggestion> RANKING = Comparator
+      .comparingLong(Suggestion::popularity).reversed()
+      .thenComparingInt((Suggestion suggestion) -> suggestion.label().length())
+      .thenComparing(Suggestion::label, String.CASE_INSENSITIVE_ORDER)
+      .thenComparing(Suggestion::type)
+      .thenComparing(Suggestion::id);
+
+  private record Entry(Suggestion suggestion, List<String> keys) {
+  }
+
+  private record Snapshot(Map<String, PrefixTrie<Entry>> tries) {
+  }
+
+  @Autowired
+  UCSBOrganizationRepository ucsbOrganizationRepository;
+
+  @Autowired
+  UCSBDiningCommonsMenuItemRepository ucsbDiningCommonsMenuItemRepository;
+
+  @Autowired
+  MenuItemReviewRepository menuItemReviewRepository;
+
+  final RebuiltSnapshot<Snapshot> snapshot = new RebuiltSnapshot<>("autocomplete-index", () -> new Snapshot(Map.of(
+      SearchIndex.ORGANIZATION, trie(organizations()),
+      SearchIndex.MENU_ITEM, trie(menuItems()))));
+
+  private List<Entry> organizations() {
+    return ucsbOrganizationRepository.findAllViews().stream()
+        .map(org -> new Entry(
+            new Suggestion(SearchIndex.ORGANIZATION, org.orgCode(),
+                Stream.of(org.orgTranslation(), org.orgTranslationShort(), org.orgCode())
+                    .filter(label -> label != null).findFirst().orElse(""),
+                org.inactive() ? 0 : 1),
+            keys(org.orgTranslationShort(), org.orgTranslation())))
+        .toList();
+  }
+
+  private List<Entry> menuItems() {
+    Map<Long, Long> reviews = menuItemReviewRepository.countReviewsByItem().stream()
+        .collect(Collectors.toMap(MenuItemReviewRepository.ReviewCount::getItemId,
+            MenuItemReviewRepository.ReviewCount::getReviews));
+    return ucsbDiningCommonsMenuItemRepository.findAllViews().stream()
+        .filter(item -> item.name() != null)
+        .map(item -> new Entry(
+            new Suggestion(SearchIndex.MENU_ITEM, String.valueOf(item.id()), item.name(),
+                reviews.getOrDefault(item.id(), 0L)),
+            keys(item.name())))
+        .toList();
+  }
+
+  private static PrefixTrie<Entry> trie(List<Entry> entries) {
+    return new PrefixTrie<>(entries, Entry::keys, Comparator.comparing(Entry::suggestion, RANKING), MAX_K);
+  }
+
+  /** Each text, and the rest of it from the start of each later word, so that any word can be typed first. */
+  static List<String> keys(String... texts) {
+    List<String> keys = new ArrayList<>();
+    for (String text : texts) {
+      if (text == null) {
+        continue;
+      }
+      for (int i = 0; i < text.length(); i++) {
+        boolean wordStart = Character.isLetterOrDigit(text.charAt(i))
+            && (i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1)));
+        if (wordStart) {
+          keys.add(text.substring(i));
+        }
+      }
+    }
+    return keys;
+  }
+
+  /**
+   * This method returns the most popular organizations and menu items with a
+   * word that starts with a prefix.
+   * @param prefix what has been typed so far
+   * @param type organization or menuItem, or null for both
+   * @param k how many suggestions to return (at most MAX_K)
+   * @return the suggestions, most popular first
+   */
+  public List<Suggestion> suggest(String prefix, String type, int k) {
+    Map<String, PrefixTrie<Entry>> tries = snapshot.get().tries();
+    Stream<PrefixTrie<Entry>> searched = type == null
+        ? tries.values().stream()
+        : Stream.ofNullable(tries.get(type));
+    return searched
+        .flatMap(trie -> trie.top(prefix, k).stream())
+        .map(Entry::suggestion)
+        .sorted(RANKING)
+        .limit(k)
+        .toList();
+  }
+
+  /**
+   * This method makes the tries stale once the current transaction commits
+   * (or at once, outside a transaction).
+   */
+  public void written() {
+    snapshot.invalidateAfterCommit();
+  }
+}
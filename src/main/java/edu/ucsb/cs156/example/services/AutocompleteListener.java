@@ -0,0 +1,31 @@
+package edu.ucsb.cs156.example.services;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * This JPA entity listener tells the AutocompleteIndex about every insert,
+ * update and delete of the entities it is attached to, so that its tries are
+ * rebuilt.
+ */
+public class AutocompleteListener {
+
+  // looked up on use, for the same reasons as in SearchIndexListener
+  @Autowired
+  ObjectProvider<AutocompleteIndex> autocompleteIndex;
+
+  /**
+   * This method is called by JPA after an entity is written.
+   * @param entity the entity
+   */
+  @PostPersist
+  @PostUpdate
+  @PostRemove
+  void written(Object entity) {
+    autocompleteIndex.ifAvailable(AutocompleteIndex::written);
+  }
+}
@@ -0,0 +1,92 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.repositories.HelpRequestRepository;
+import edu.ucsb.cs156.example.repositories.RecommendationRequestRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * This is a service for the bulk solved/done endpoints. Each of them sets a
+ * flag on many rows in a single UPDATE statement, and returns the ids of the
+ * rows that this statement actually changed (not of the rows that existed a
+ * moment before), so a row deleted in the meantime is never reported.
+ *
+ * On Postgres the ids come from UPDATE ... RETURNING. H2 (development and
+ * tests) has no RETURNING, so there the UPDATE is wrapped in
+ * SELECT ... FROM FINAL TABLE (...), which is still one statement.
+ */
+@Service
+@Transactional
+public class BulkUpdateService {
+
+  @Autowired
+  HelpRequestRepository helpRequestRepository;
+
+  @Autowired
+  RecommendationRequestRepository recommendationRequestRepository;
+
+  @Autowired
+  EntityManagerFactory entityManagerFactory;
+
+  // set on first use
+  Boolean postgres;
+
+  /**
+   * This method sets the solved flag of several HelpRequests.
+   * @param ids ids of the HelpRequests
+   * @param solved the new value of the solved flag
+   * @return the ids of the HelpRequests that were updated
+   */
+  public List<Long> setHelpRequestsSolved(Collection<Long> ids, boolean solved) {
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+    return usesPostgres()
+        ? helpRequestRepository.updateSolvedByIdInPostgres(ids, solved)
+        : helpRequestRepository.updateSolvedByIdInH2(ids, solved);
+  }
+
+  /**
+   * This method sets the solved flag of every HelpRequest of a team.
+   * @param teamId the team
+   * @param solved the new value of the solved flag
+   * @return the ids of the HelpRequests that were updated
+   */
+  public List<Long> setTeamHelpRequestsSolved(String teamId, boolean solved) {
+    return usesPostgres()
+        ? helpRequestRepository.updateSolvedByTeamIdPostgres(teamId, solved)
+        : helpRequestRepository.updateSolvedByTeamIdH2(teamId, solved);
+  }
+
+  /**
+   * This method sets the done flag of several RecommendationRequests.
+   * @param ids ids of the RecommendationRequests
+   * @param done the new value of the done flag
+   * @return the ids of the RecommendationRequests that were updated
+   */
+  public List<Long> setRecommendationRequestsDone(Collection<Long> ids, boolean done) {
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+    return usesPostgres()
+        ? recommendationRequestRepository.updateDoneByIdInPostgres(ids, done)
+        : recommendationRequestRepository.updateDoneByIdInH2(ids, done);
+  }
+
+  private boolean usesPostgres() {
+    if (postgres == null) {
+      postgres = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+          .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+    }
+    return postgres;
+  }
+}
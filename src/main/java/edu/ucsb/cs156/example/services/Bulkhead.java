@@ -0,0 +1,111 @@
+package edu.ucsb.cs156.example.services;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bulkhead caps how many requests of one kind (e.g. admin writes) may run
+ * at once, so that a burst of them cannot take every servlet thread and
+ * database connection away from requests of another kind.
+ *
+ * A request that finds the bulkhead full waits up to {@code maxWait} for a
+ * permit and is then turned away. The counts kept here are what the
+ * saturation metrics report.
+ */
+public class Bulkhead {
+
+  private final String name;
+  private final int maxConcurrent;
+  private final long maxWaitNanos;
+  private final Semaphore permits;
+  private final LongAdder admitted = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+
+  /**
+   * Creates a bulkhead
+   * @param name name of the bulkhead, used in metrics and error messages
+   * @param maxConcurrent how many requests may hold a permit at once
+   * @param maxWait how long a request may wait for a permit
+   */
+  public Bulkhead(String name, int maxConcurrent, Duration maxWait) {
+    this.name = name;
+    this.maxConcurrent = maxConcurrent;
+    this.maxWaitNanos = maxWait.toNanos();
+    this.permits = new Semaphore(maxConcurrent, true);
+  }
+
+  /**
+   * This method takes a permit, waiting up to maxWait for one.
+   * Every permit taken must be given back with {@link #release()}.
+   * @return true if the request may go ahead, false if it must be turned away
+   */
+  public boolean tryAcquire() {
+    boolean acquired;
+    try {
+      acquired = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      acquired = false;
+    }
+    (acquired ? admitted : rejected).increment();
+    return acquired;
+  }
+
+  /**
+   * This method gives back a permit taken by {@link #tryAcquire()}.
+   */
+  public void release() {
+    permits.release();
+  }
+
+  /**
+   * @return the name of the bulkhead
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return how many requests may hold a permit at once
+   */
+  public int getMaxConcurrent() {
+    return maxConcurrent;
+  }
+
+  /**
+   * @return how many permits are held
+   */
+  public int getInUse() {
+    return maxConcurrent - permits.availablePermits();
+  }
+
+  /**
+   * @return the fraction of permits held, from 0 to 1
+   */
+  public double getSaturation() {
+    return (double) getInUse() / maxConcurrent;
+  }
+
+  /**
+   * @return how many requests are waiting for a permit
+   */
+  public int getWaiting() {
+    return permits.getQueueLength();
+  }
+
+  /**
+   * @return how many requests have been admitted
+   */
+  public long getAdmitted() {
+    return admitted.sum();
+  }
+
+  /**
+   * @return how many requests have been turned away
+   */
+  public long getRejected() {
+    return rejected.sum();
+  }
+}
@@ -0,0 +1,209 @@
+package edu.ucsb.cs156.example.services;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import edu.ucsb.cs156.example.models.ChangeEvent;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * This component pushes entity changes to the clients of /api/events as
+ * Server-Sent Events, so that they do not have to poll the /all endpoints.
+ *
+ * Every subscriber has a bounded queue and its own virtual thread that
+ * writes the queue to its stream; the servlet thread is released as soon as
+ * the stream is opened. Publishing never blocks on a slow client: when a
+ * queue is full, everything in it is dropped and replaced by a single
+ * resync event, which tells the client to reload what it shows (from /all
+ * or /changes) instead.
+ *
+ * Events are published once the transaction that made the change commits,
+ * by ChangeEventListener for the writes that go through JPA and by the
+ * controllers and services for bulk updates.
+ */
+@Component
+public class ChangeEventBroadcaster {
+
+  /** Action of the events for inserts. */
+  public static final String CREATED = "created";
+  /** Action of the events for updates. */
+  public static final String UPDATED = "updated";
+  /** Action of the events for deletes. */
+  public static final String DELETED = "deleted";
+  /** Name of the event that replaces the events dropped for a slow client. */
+  public static final String RESYNC = "resync";
+
+  /** The most events a subscriber can fall behind before it has to resync. */
+  static final int QUEUE_CAPACITY = 256;
+  /** How long a stream can be idle before a comment is sent to keep it open. */
+  static final long HEARTBEAT_MILLIS = 25_000;
+  /** How long a stream stays open; EventSource clients reconnect by themselves. */
+  static final long TIMEOUT_MILLIS = 30 * 60 * 1000;
+
+  /** An event, already serialized, as it is written to the stream. */
+  record Frame(String entity, String name, String data) {
+  }
+
+  private static final Frame RESYNC_FRAME = new Frame(null, RESYNC, "{}");
+
+  @Autowired
+  ObjectMapper objectMapper;
+
+  @Autowired
+  EntityManagerFactory entityManagerFactory;
+
+  // a field so that tests can make it shorter
+  long heartbeatMillis = HEARTBEAT_MILLIS;
+
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+  private final ThreadFactory writers = Thread.ofVirtual().name("change-events-", 1).factory();
+
+  /** One open stream. */
+  final class Subscriber {
+
+    private final Set<String> entities;
+    private final SseEmitter emitter;
+    private final ArrayBlockingQueue<Frame> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    // not synchronized, so that a virtual thread waiting for it is not pinned
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile boolean closed;
+    private Thread writer;
+
+    Subscriber(Set<String> entities, SseEmitter emitter) {
+      this.entities = entities;
+      this.emitter = emitter;
+    }
+
+    boolean wants(String entity) {
+      return entities == null || entities.contains(entity);
+    }
+
+    void offer(Frame frame) {
+      lock.lock();
+      try {
+        if (!queue.offer(frame)) {
+          queue.clear();
+          queue.add(RESYNC_FRAME);
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    /** Runs on the subscriber's own virtual thread until the stream is closed. */
+    void write() {
+      try {
+        while (!closed) {
+          Frame frame = queue.poll(heartbeatMillis, TimeUnit.MILLISECONDS);
+          if (frame == null) {
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+          } else {
+            emitter.send(SseEmitter.event().name(frame.name()).data(frame.data()));
+          }
+        }
+      } catch (IOException | IllegalStateException e) {
+        // the client went away, or the stream was completed while writing
+      } catch (InterruptedException e) {
+        // closed while waiting for an event
+      } finally {
+        close();
+      }
+    }
+
+    void close() {
+      closed = true;
+      subscribers.remove(this);
+      writer.interrupt();
+    }
+  }
+
+  /**
+   * This method opens a stream of change events.
+   * @param entities the entity types to send events for, e.g. HelpRequest (null for all)
+   * @return the stream
+   */
+  public SseEmitter subscribe(Set<String> entities) {
+    SseEmitter emitter = newEmitter();
+    Subscriber subscriber = new Subscriber(entities, emitter);
+    emitter.onCompletion(subscriber::close);
+    emitter.onError(e -> subscriber.close());
+    emitter.onTimeout(emitter::complete);
+    subscriber.writer = writers.newThread(subscriber::write);
+    subscribers.add(subscriber);
+    subscriber.writer.start();
+    return emitter;
+  }
+
+  SseEmitter newEmitter() {
+    return new SseEmitter(TIMEOUT_MILLIS);
+  }
+
+  /**
+   * @return how many streams are open
+   */
+  public int subscriberCount() {
+    return subscribers.size();
+  }
+
+  /**
+   * This method publishes an event for an entity that was just written
+   * through JPA.
+   * @param entity the entity
+   * @param action created, updated or deleted
+   */
+  public void written(Object entity, String action) {
+    Object id = entityManagerFactory.getPersistenceUnitUtil().getIdentifier(entity);
+    publish(entity.getClass(), action, id, DELETED.equals(action) ? null : entity);
+  }
+
+  /**
+   * This method sends an event to the subscribers of its entity type once the
+   * current transaction commits (or at once, outside a transaction). Nothing
+   * is sent if the transaction rolls back, or to streams opened after the
+   * write.
+   * @param entityClass class of the entity, e.g. HelpRequest.class
+   * @param action created, updated or deleted
+   * @param id id of the entity
+   * @param data the entity, or its view (null if not loaded)
+   */
+  public void publish(Class<?> entityClass, String action, Object id, Object data) {
+    if (subscribers.isEmpty()) {
+      return;
+    }
+    String entity = entityClass.getSimpleName();
+    // serialized now, once for every subscriber, with the values as they were written
+    Frame frame = new Frame(entity, action,
+        objectMapper.valueToTree(new ChangeEvent(entity, action, id, data)).toString());
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      broadcast(frame);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        broadcast(frame);
+      }
+    });
+  }
+
+  private void broadcast(Frame frame) {
+    for (Subscriber subscriber : subscribers) {
+      if (subscriber.wants(frame.entity())) {
+        subscriber.offer(frame);
+      }
+    }
+  }
+}
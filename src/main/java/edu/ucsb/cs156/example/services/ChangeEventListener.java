@@ -0,0 +1,46 @@
+package edu.ucsb.cs156.example.services;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * This JPA entity listener publishes an event to the ChangeEventBroadcaster
+ * for every insert, update and delete of the entities it is attached to.
+ */
+public class ChangeEventListener {
+
+  // looked up on use, for the same reasons as in SearchIndexListener
+  @Autowired
+  ObjectProvider<ChangeEventBroadcaster> changeEventBroadcaster;
+
+  /**
+   * This method is called by JPA after an entity is inserted.
+   * @param entity the entity
+   */
+  @PostPersist
+  void created(Object entity) {
+    changeEventBroadcaster.ifAvailable(broadcaster -> broadcaster.written(entity, ChangeEventBroadcaster.CREATED));
+  }
+
+  /**
+   * This method is called by JPA after an entity is updated.
+   * @param entity the entity
+   */
+  @PostUpdate
+  void updated(Object entity) {
+    changeEventBroadcaster.ifAvailable(broadcaster -> broadcaster.written(entity, ChangeEventBroadcaster.UPDATED));
+  }
+
+  /**
+   * This method is called by JPA after an entity is deleted.
+   * @param entity the entity
+   */
+  @PostRemove
+  void deleted(Object entity) {
+    changeEventBroadcaster.ifAvailable(broadcaster -> broadcaster.written(entity, ChangeEventBroadcaster.DELETED));
+  }
+}
@@ -0,0 +1,220 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.ChangeSequenceGenerator;
+import edu.ucsb.cs156.example.entities.Tombstone;
+import edu.ucsb.cs156.example.entities.TombstoneHorizon;
+import edu.ucsb.cs156.example.errors.SyncTokenExpiredException;
+import edu.ucsb.cs156.example.models.Changes;
+import edu.ucsb.cs156.example.repositories.TombstoneHorizonRepository;
+import edu.ucsb.cs156.example.repositories.TombstoneRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This is a service for delta sync: it answers "what changed in this table since
+ * token N" and records deletions as tombstones.
+ *
+ * Every entity has a {@code changeSeq} column that is set from a single database
+ * sequence on each insert and update (see
+ * {@link edu.ucsb.cs156.example.entities.ChangeSequence}), and every delete writes
+ * a Tombstone with its own sequence number. A sync token is simply the largest
+ * sequence number the client has seen.
+ *
+ * Sequence numbers are taken in order but committed in any order, so a token is
+ * never larger than the commit-safe watermark: the last value the sequence had
+ * handed out app.changes.commit-lag ago. A transaction is assumed to commit within
+ * that time; changes show up in the feed that much later, and not at all in the
+ * first app.changes.commit-lag after this instance starts.
+ *
+ * Tombstones older than app.changes.tombstone-retention are pruned by
+ * TombstonePruner, which remembers per entity type up to which sequence number it
+ * pruned. A client whose token is older than that gets a SyncTokenExpiredException
+ * (410 Gone) and has to sync again from 0.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ChangeFeedService {
+
+  @PersistenceContext
+  EntityManager entityManager;
+
+  @Autowired
+  TombstoneRepository tombstoneRepository;
+
+  @Autowired
+  TombstoneHorizonRepository tombstoneHorizonRepository;
+
+  @Autowired
+  SparseFieldsetService sparseFieldsetService;
+
+  @Value("${app.changes.commit-lag:10s}")
+  Duration commitLag;
+
+  @Value("${app.changes.tombstone-retention:30d}")
+  Duration tombstoneRetention;
+
+  // a field so that tests can move the time along
+  Clock clock = Clock.systemDefaultZone();
+
+  // set on first use
+  Boolean postgres;
+
+  /**
+   * The last value the sequence had handed out at a point in time.
+   * @param millis when the sequence was read
+   * @param sequence the last value handed out by then
+   */
+  record Sample(long millis, long sequence) {
+  }
+
+  private final ReentrantLock lock = new ReentrantLock();
+  // oldest first; the first one is the newest that is at least commitLag old, if any is
+  private final Deque<Sample> samples = new ArrayDeque<>();
+
+  /**
+   * This method returns the rows of an entity that were created, updated or deleted
+   * after a sync token.
+   *
+   * The new token is computed first, capped by the commit-safe watermark, and both
+   * queries are bounded by it, so a row written while this method runs, or by a
+   * transaction that has not committed yet, is returned by a later call instead of
+   * being skipped.
+   * @param <T> the entity type
+   * @param <V> the view record type
+   * @param entityClass the entity class, e.g. HelpRequest.class
+   * @param viewClass the view class, e.g. HelpRequestView.class
+   * @param since token from the client's previous call (0 for a full sync)
+   * @return the changes and the next token
+   * @throws SyncTokenExpiredException if deletions after the token have been pruned
+   */
+  public <T, V extends Record> Changes<V> changesSince(Class<T> entityClass, Class<V> viewClass, long since) {
+    String entityType = entityClass.getSimpleName();
+    if (since > 0 && since < tombstoneHorizonRepository.findById(entityType).map(TombstoneHorizon::getChangeSeq).orElse(0L)) {
+      throw new SyncTokenExpiredException(entityClass, since);
+    }
+    long token = Math.max(since, Math.min(commitSafeWatermark(), Math.max(
+        maxChangeSeq(entityClass, since),
+        orZero(tombstoneRepository.findMaxChangeSeq(entityType, since)))));
+    if (token == since) {
+      return new Changes<>(since, List.of(), List.of());
+    }
+
+    Specification<T> inRange = (root, query, cb) -> cb.between(root.<Long>get("changeSeq"), since + 1, token);
+    List<V> changed = sparseFieldsetService.findAll(entityClass, viewClass, inRange, Sort.by("changeSeq"));
+    Class<?> idType = entityManager.getMetamodel().entity(entityClass).getIdType().getJavaType();
+    List<Object> deleted = tombstoneRepository.findEntityIds(entityType, since, token).stream()
+        .map(id -> idType == String.class ? id : (Object) Long.valueOf(id))
+        .toList();
+    return new Changes<>(token, changed, deleted);
+  }
+
+  /**
+   * This method records that an entity was deleted. Call it in the same transaction
+   * as the delete.
+   * @param entityClass the class of the deleted entity, e.g. HelpRequest.class
+   * @param id the id of the deleted entity
+   */
+  @Transactional
+  public void recordDeletion(Class<?> entityClass, Object id) {
+    tombstoneRepository.save(Tombstone.builder()
+        .entityType(entityClass.getSimpleName())
+        .entityId(id.toString())
+        .deletedAt(LocalDateTime.now(clock))
+        .build());
+  }
+
+  /**
+   * This method deletes the tombstones older than app.changes.tombstone-retention,
+   * and moves the horizon of their entity types past them.
+   * @return how many tombstones were deleted
+   */
+  @Transactional
+  public int pruneTombstones() {
+    int pruned = 0;
+    for (TombstoneHorizon oldest : tombstoneRepository.findHorizonsBefore(LocalDateTime.now(clock).minus(tombstoneRetention))) {
+      TombstoneHorizon horizon = tombstoneHorizonRepository.findById(oldest.getEntityType()).orElse(oldest);
+      horizon.setChangeSeq(Math.max(horizon.getChangeSeq(), oldest.getChangeSeq()));
+      tombstoneHorizonRepository.save(horizon);
+      pruned += tombstoneRepository.deleteUpTo(horizon.getEntityType(), horizon.getChangeSeq());
+    }
+    return pruned;
+  }
+
+  /**
+   * This method returns the last value the sequence had handed out commitLag ago.
+   * Every call samples the sequence; a new sample is kept only if the sequence has
+   * moved and the previous one is a tenth of commitLag old, so there are about
+   * ten of them.
+   * @return the commit-safe watermark, or 0 if this instance has not been up for commitLag
+   */
+  long commitSafeWatermark() {
+    long handedOut = lastSequenceValue();
+    long now = clock.millis();
+    lock.lock();
+    try {
+      Sample last = samples.peekLast();
+      if (last == null || (last.sequence() < handedOut && now - last.millis() >= commitLag.toMillis() / 10)) {
+        samples.addLast(new Sample(now, handedOut));
+      }
+      Sample safe = null;
+      while (!samples.isEmpty() && samples.peekFirst().millis() <= now - commitLag.toMillis()) {
+        safe = samples.pollFirst();
+      }
+      if (safe == null) {
+        return 0;
+      }
+      samples.addFirst(safe);
+      return safe.sequence();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private long lastSequenceValue() {
+    String sql = usesPostgres()
+        ? "select case when is_called then last_value else last_value - 1 end from " + ChangeSequenceGenerator.SEQUENCE
+        : "select base_value - 1 from information_schema.sequences where sequence_name = upper('" + ChangeSequenceGenerator.SEQUENCE + "')";
+    return ((Number) entityManager.createNativeQuery(sql).getSingleResult()).longValue();
+  }
+
+  private boolean usesPostgres() {
+    if (postgres == null) {
+      postgres = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+          .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+    }
+    return postgres;
+  }
+
+  private <T> long maxChangeSeq(Class<T> entityClass, long since) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Long> query = cb.createQuery(Long.class);
+    Root<T> root = query.from(entityClass);
+    query.select(cb.max(root.<Long>get("changeSeq")))
+        .where(cb.greaterThan(root.<Long>get("changeSeq"), since));
+    return orZero(entityManager.createQuery(query).getSingleResult());
+  }
+
+  private static long orZero(Long value) {
+    return value == null ? 0 : value;
+  }
+}
@@ -0,0 +1,65 @@
+package edu.ucsb.cs156.example.services;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * This component coalesces identical concurrent reads of an entity type, e.g.
+ * hundreds of students opening the dining pages at once, into one database
+ * query (see SingleFlight).
+ *
+ * Writes to a coalesced entity type must be reported with
+ * {@link #written(Class)}; entities annotated with
+ * {@code @EntityListeners(CoalescedReadsListener.class)} do that automatically.
+ *
+ * With a read replica (see ReplicaRoutingConfig), users who have just written
+ * read from the primary. Their loads are kept apart from everyone else's, so
+ * they never get a result that another user read from the replica.
+ */
+@Component
+public class CoalescedReads {
+
+  /** The key of a load by a user whose reads go to the primary. */
+  private record PrimaryKey(Object key) {
+  }
+
+  // only there with a read replica
+  @Autowired(required = false)
+  RecentWriters recentWriters;
+
+  private final Map<Class<?>, SingleFlight<Object, Object>> flights = new ConcurrentHashMap<>();
+
+  private SingleFlight<Object, Object> flightsFor(Class<?> entityClass) {
+    return flights.computeIfAbsent(entityClass, c -> new SingleFlight<>());
+  }
+
+  /**
+   * This method runs the loader, or shares the result of an identical load of
+   * the same entity type that is already running.
+   * @param <V> type of the result
+   * @param entityClass the entity type being read
+   * @param key identifies the query, including all of its parameters
+   * @param loader runs the query
+   * @return the result of the loader
+   */
+  @SuppressWarnings("unchecked")
+  public <V> V load(Class<?> entityClass, Object key, Supplier<V> loader) {
+    Object flightKey = recentWriters != null && recentWriters.wroteRecently(RecentWriters.currentPrincipal())
+        ? new PrimaryKey(key)
+        : key;
+    return (V) flightsFor(entityClass).load(flightKey, (Supplier<Object>) loader);
+  }
+
+  /**
+   * This method makes reads that start after the current transaction commits
+   * run a fresh query instead of joining one that may not see the write.
+   * @param entityClass the entity type that was written
+   */
+  public void written(Class<?> entityClass) {
+    flightsFor(entityClass).invalidateAfterCommit();
+  }
+}
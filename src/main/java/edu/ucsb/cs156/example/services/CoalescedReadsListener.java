@@ -0,0 +1,32 @@
+package edu.ucsb.cs156.example.services;
+
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * This JPA entity listener reports every insert, update and delete of the
+ * entities it is attached to to CoalescedReads.
+ *
+ * Bulk JPQL updates do not go through entity listeners; code that uses them on
+ * a coalesced entity must call CoalescedReads.written itself.
+ */
+public class CoalescedReadsListener {
+
+  @Autowired
+  CoalescedReads coalescedReads;
+
+  /**
+   * This method is called by JPA after an entity is written.
+   * @param entity the entity
+   */
+  @PostPersist
+  @PostUpdate
+  @PostRemove
+  void written(Object entity) {
+    coalescedReads.written(Hibernate.getClass(entity));
+  }
+}
@@ -21,6 +21,13 @@ public abstract class CurrentUserService {
    */
   public abstract User getUser();
 
+  /**
+   * This method returns the email of the logged in user, without looking the
+   * user up in the database.
+   * @return the email, or null if no user is logged in
+   */
+  public abstract String getEmail();
+
   /**
    * This method returns the current user as a CurrentUser object
    * @return the current user
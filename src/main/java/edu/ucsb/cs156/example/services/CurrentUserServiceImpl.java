@@ -119,6 +119,18 @@ public class CurrentUserServiceImpl extends CurrentUserService {
     return null;
   }
 
+  /**
+   * This method returns the email of the user that is logged in with OAuth2, if any.
+   * @return the email, or null if no user is logged in
+   */
+  public String getEmail() {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    if (authentication instanceof OAuth2AuthenticationToken token) {
+      return token.getPrincipal().getAttribute("email");
+    }
+    return null;
+  }
+
   /**
    * This method returns the roles of the current user.
    * @return a collection of roles
@@ -0,0 +1,106 @@
+package edu.ucsb.cs156.example.services;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import edu.ucsb.cs156.example.models.NearbyDiningCommons;
+import edu.ucsb.cs156.example.models.UCSBDiningCommonsView;
+import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsRepository;
+
+/**
+ * This component keeps the locations of the dining commons in memory, in a
+ * k-d tree (see GeoKdTree), so that nearest and bounding-box lookups do not
+ * have to compute the distance to every commons.
+ *
+ * The tree is an immutable snapshot. A write to UCSBDiningCommons (reported by
+ * DiningCommonsLocatorListener) makes it stale once the transaction commits,
+ * and it is rebuilt from the database in the background (see
+ * RebuiltSnapshot). Commons without a latitude or longitude are not in the tree.
+ */
+@Component
+public class DiningCommonsLocator {
+
+  /**
+   * Which commons a lookup returns: each criterion that is not null must match.
+   * @param hasSackMeal whether the commons must (or must not) have sack meals
+   * @param hasTakeOutMeal whether the commons must (or must not) have take out meals
+   * @param hasDiningCam whether the commons must (or must not) have a dining cam
+   */
+  public record Filter(Boolean hasSackMeal, Boolean hasTakeOutMeal, Boolean hasDiningCam)
+      implements Predicate<UCSBDiningCommonsView> {
+
+    /** A filter that matches every commons. */
+    public static final Filter ANY = new Filter(null, null, null);
+
+    @Override
+    public boolean test(UCSBDiningCommonsView commons) {
+      return (hasSackMeal == null || hasSackMeal == commons.hasSackMeal())
+          && (hasTakeOutMeal == null || hasTakeOutMeal == commons.hasTakeOutMeal())
+          && (hasDiningCam == null || hasDiningCam == commons.hasDiningCam());
+    }
+  }
+
+  private record Snapshot(GeoKdTree<UCSBDiningCommonsView> tree) {
+
+    static Snapshot of(List<UCSBDiningCommonsView> views) {
+      List<UCSBDiningCommonsView> located = views.stream()
+          .filter(view -> view.latitude() != null && view.longitude() != null)
+          .toList();
+      return new Snapshot(
+          new GeoKdTree<>(located, UCSBDiningCommonsView::latitude, UCSBDiningCommonsView::longitude));
+    }
+  }
+
+  @Autowired
+  UCSBDiningCommonsRepository ucsbDiningCommonsRepository;
+
+  final RebuiltSnapshot<Snapshot> snapshot =
+      new RebuiltSnapshot<>("dining-commons-locator", () -> Snapshot.of(ucsbDiningCommonsRepository.findAllViews()));
+
+  private GeoKdTree<UCSBDiningCommonsView> tree() {
+    return snapshot.get().tree();
+  }
+
+  /**
+   * This method finds the k commons closest to a point.
+   * @param latitude latitude of the point, in degrees
+   * @param longitude longitude of the point, in degrees
+   * @param k how many commons to return at most
+   * @param filter which commons to consider
+   * @return the closest commons with their distances, nearest first
+   */
+  public List<NearbyDiningCommons> nearest(double latitude, double longitude, int k, Filter filter) {
+    return tree().nearest(latitude, longitude, k, filter).stream()
+        .map(neighbor -> new NearbyDiningCommons(neighbor.item(), neighbor.distanceMeters()))
+        .toList();
+  }
+
+  /**
+   * This method finds the commons inside a bounding box. If minLongitude is
+   * greater than maxLongitude, the box is taken to cross the antimeridian.
+   * @param minLatitude southern edge, in degrees
+   * @param maxLatitude northern edge, in degrees
+   * @param minLongitude western edge, in degrees
+   * @param maxLongitude eastern edge, in degrees
+   * @param filter which commons to consider
+   * @return the commons in the box, by code
+   */
+  public List<UCSBDiningCommonsView> within(double minLatitude, double maxLatitude,
+      double minLongitude, double maxLongitude, Filter filter) {
+    return tree().within(minLatitude, maxLatitude, minLongitude, maxLongitude, filter).stream()
+        .sorted(Comparator.comparing(UCSBDiningCommonsView::code))
+        .toList();
+  }
+
+  /**
+   * This method makes the tree stale once the current transaction commits
+   * (or at once, outside a transaction).
+   */
+  public void written() {
+    snapshot.invalidateAfterCommit();
+  }
+}
@@ -0,0 +1,32 @@
+package edu.ucsb.cs156.example.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * This JPA entity listener tells the DiningCommonsLocator about every insert,
+ * update and delete of a UCSBDiningCommons, so that its tree is rebuilt.
+ */
+public class DiningCommonsLocatorListener {
+
+  // lazy, because the locator needs UCSBDiningCommonsRepository, which needs
+  // the EntityManagerFactory that is being built when this listener is created
+  @Lazy
+  @Autowired
+  DiningCommonsLocator diningCommonsLocator;
+
+  /**
+   * This method is called by JPA after a UCSBDiningCommons is written.
+   * @param entity the UCSBDiningCommons
+   */
+  @PostPersist
+  @PostUpdate
+  @PostRemove
+  void written(Object entity) {
+    diningCommonsLocator.written();
+  }
+}
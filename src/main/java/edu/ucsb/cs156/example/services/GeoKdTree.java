@@ -0,0 +1,225 @@
+package edu.ucsb.cs156.example.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * This is an immutable two dimensional k-d tree of points given by latitude
+ * and longitude (in degrees), for nearest-neighbour and bounding-box searches.
+ *
+ * The tree is stored implicitly in one array: the items are sorted so that
+ * the median of every range [low, high) sits in its middle, splitting it by
+ * latitude at even depths and by longitude at odd depths.
+ *
+ * Distances are great-circle distances on a spherical earth. A branch of the
+ * nearest-neighbour search is skipped only when a lower bound on the distance
+ * to anything on the other side of its splitting line is already too far, so
+ * the results are exact (including across the antimeridian).
+ *
+ * @param <T> type of the items
+ */
+public class GeoKdTree<T> {
+
+  /** Mean radius of the earth, in meters. */
+  static final double EARTH_RADIUS_METERS = 6_371_008.8;
+
+  /**
+   * An item found by {@link GeoKdTree#nearest}, with its distance from the query point.
+   * @param <T> type of the item
+   * @param item the item
+   * @param distanceMeters great-circle distance from the query point, in meters
+   */
+  public record Neighbor<T>(T item, double distanceMeters) {
+  }
+
+  private final Object[] items;
+  private final double[] latitudes;
+  private final double[] longitudes;
+
+  /**
+   * Builds a tree.
+   * @param items the items to put in the tree
+   * @param latitude gets the latitude of an item, in degrees
+   * @param longitude gets the longitude of an item, in degrees (between -180 and 180)
+   */
+  public GeoKdTree(List<T> items, ToDoubleFunction<T> latitude, ToDoubleFunction<T> longitude) {
+    @SuppressWarnings("unchecked")
+    T[] sorted = (T[]) items.toArray();
+    build(sorted, 0, sorted.length, 0, latitude, longitude);
+    this.items = sorted;
+    this.latitudes = Arrays.stream(sorted).mapToDouble(latitude).toArray();
+    this.longitudes = Arrays.stream(sorted).mapToDouble(longitude).toArray();
+  }
+
+  private static <T> void build(T[] items, int low, int high, int depth,
+      ToDoubleFunction<T> latitude, ToDoubleFunction<T> longitude) {
+    if (high - low <= 1) {
+      return;
+    }
+    Arrays.sort(items, low, high, Comparator.comparingDouble(depth % 2 == 0 ? latitude : longitude));
+    int mid = (low + high) >>> 1;
+    build(items, low, mid, depth + 1, latitude, longitude);
+    build(items, mid + 1, high, depth + 1, latitude, longitude);
+  }
+
+  /**
+   * @return how many items are in the tree
+   */
+  public int size() {
+    return items.length;
+  }
+
+  /**
+   * This method finds the k items closest to a point.
+   * @param latitude latitude of the point, in degrees
+   * @param longitude longitude of the point, in degrees
+   * @param k how many items to return at most
+   * @param filter only items that pass this are returned
+   * @return the closest items, nearest first
+   */
+  public List<Neighbor<T>> nearest(double latitude, double longitude, int k, Predicate<? super T> filter) {
+    PriorityQueue<Neighbor<T>> best = new PriorityQueue<>(
+        Comparator.comparingDouble((Neighbor<T> neighbor) -> neighbor.distanceMeters()).reversed());
+    if (k > 0) {
+      nearest(0, items.length, 0, latitude, longitude, k, filter, best);
+    }
+    List<Neighbor<T>> result = new ArrayList<>(best);
+    result.sort(Comparator.comparingDouble(Neighbor::distanceMeters));
+    return result;
+  }
+
+  private void nearest(int low, int high, int depth, double latitude, double longitude, int k,
+      Predicate<? super T> filter, PriorityQueue<Neighbor<T>> best) {
+    if (low >= high) {
+      return;
+    }
+    int mid = (low + high) >>> 1;
+    T item = item(mid);
+    if (filter.test(item)) {
+      double distance = distanceMeters(latitude, longitude, latitudes[mid], longitudes[mid]);
+      if (best.size() < k) {
+        best.add(new Neighbor<>(item, distance));
+      } else if (distance < best.peek().distanceMeters()) {
+        best.poll();
+        best.add(new Neighbor<>(item, distance));
+      }
+    }
+
+    boolean byLatitude = depth % 2 == 0;
+    double split = byLatitude ? latitudes[mid] : longitudes[mid];
+    boolean lowSideFirst = (byLatitude ? latitude : longitude) < split;
+    if (lowSideFirst) {
+      nearest(low, mid, depth + 1, latitude, longitude, k, filter, best);
+    } else {
+      nearest(mid + 1, high, depth + 1, latitude, longitude, k, filter, best);
+    }
+    double bound = byLatitude
+        ? latitudeBoundMeters(latitude, split)
+        : longitudeBoundMeters(latitude, longitude, split);
+    if (best.size() < k || bound < best.peek().distanceMeters()) {
+      if (lowSideFirst) {
+        nearest(mid + 1, high, depth + 1, latitude, longitude, k, filter, best);
+      } else {
+        nearest(low, mid, depth + 1, latitude, longitude, k, filter, best);
+      }
+    }
+  }
+
+  /**
+   * This method finds the items inside a bounding box. If minLongitude is
+   * greater than maxLongitude, the box is taken to cross the antimeridian.
+   * @param minLatitude southern edge, in degrees
+   * @param maxLatitude northern edge, in degrees
+   * @param minLongitude western edge, in degrees
+   * @param maxLongitude eastern edge, in degrees
+   * @param filter only items that pass this are returned
+   * @return the items in the box, in no particular order
+   */
+  public List<T> within(double minLatitude, double maxLatitude, double minLongitude, double maxLongitude,
+      Predicate<? super T> filter) {
+    List<T> result = new ArrayList<>();
+    if (minLongitude <= maxLongitude) {
+      within(0, items.length, 0, new double[] { minLatitude, maxLatitude, minLongitude, maxLongitude }, filter, result);
+    } else {
+      within(0, items.length, 0, new double[] { minLatitude, maxLatitude, minLongitude, 180 }, filter, result);
+      within(0, items.length, 0, new double[] { minLatitude, maxLatitude, -180, maxLongitude }, filter, result);
+    }
+    return result;
+  }
+
+  private void within(int low, int high, int depth, double[] box, Predicate<? super T> filter, List<T> result) {
+    if (low >= high) {
+      return;
+    }
+    int mid = (low + high) >>> 1;
+    double latitude = latitudes[mid];
+    double longitude = longitudes[mid];
+    if (latitude >= box[0] && latitude <= box[1] && longitude >= box[2] && longitude <= box[3]
+        && filter.test(item(mid))) {
+      result.add(item(mid));
+    }
+    double split = depth % 2 == 0 ? latitude : longitude;
+    double min = depth % 2 == 0 ? box[0] : box[2];
+    double max = depth % 2 == 0 ? box[1] : box[3];
+    if (min <= split) {
+      within(low, mid, depth + 1, box, filter, result);
+    }
+    if (max >= split) {
+      within(mid + 1, high, depth + 1, box, filter, result);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private T item(int index) {
+    return (T) items[index];
+  }
+
+  /**
+   * This method computes the great-circle distance between two points with the
+   * haversine formula.
+   * @param latitude1 latitude of the first point, in degrees
+   * @param longitude1 longitude of the first point, in degrees
+   * @param latitude2 latitude of the second point, in degrees
+   * @param longitude2 longitude of the second point, in degrees
+   * @return the distance in meters
+   */
+  public static double distanceMeters(double latitude1, double longitude1, double latitude2, double longitude2) {
+    double dLatitude = Math.toRadians(latitude2 - latitude1);
+    double dLongitude = Math.toRadians(longitude2 - longitude1);
+    double h = Math.pow(Math.sin(dLatitude / 2), 2)
+        + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2)) * Math.pow(Math.sin(dLongitude / 2), 2);
+    return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(h)));
+  }
+
+  /** No point on the other side of a line of latitude is closer than the change in latitude. */
+  private static double latitudeBoundMeters(double latitude, double split) {
+    return EARTH_RADIUS_METERS * Math.toRadians(Math.abs(latitude - split));
+  }
+
+  /**
+   * A point on the other side of a meridian is reached either by crossing that
+   * meridian or by crossing the antimeridian (going round the other way), so
+   * the distance to the nearer of the two is a lower bound.
+   */
+  private static double longitudeBoundMeters(double latitude, double longitude, double split) {
+    double toSplit = Math.abs(longitude - split);
+    toSplit = Math.min(toSplit, 360 - toSplit);
+    double toAntimeridian = 180 - Math.abs(longitude);
+    return Math.min(halfMeridianMeters(latitude, toSplit), halfMeridianMeters(latitude, toAntimeridian));
+  }
+
+  /** Distance from a point to the meridian dLongitude degrees away (from pole to pole). */
+  private static double halfMeridianMeters(double latitude, double dLongitude) {
+    if (dLongitude >= 90) {
+      // the closest point of the meridian is the nearer pole
+      return EARTH_RADIUS_METERS * Math.toRadians(90 - Math.abs(latitude));
+    }
+    return EARTH_RADIUS_METERS
+        * Math.asin(Math.cos(Math.toRadians(latitude)) * Math.sin(Math.toRadians(dLongitude)));
+  }
+}
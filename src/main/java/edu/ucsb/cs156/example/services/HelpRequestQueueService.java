@@ -0,0 +1,92 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.HelpRequest;
+import edu.ucsb.cs156.example.models.HelpRequestView;
+import edu.ucsb.cs156.example.repositories.HelpRequestRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * This is a service for treating the unsolved HelpRequests as a queue that
+ * several TAs take from at once. Each one claims the oldest request nobody
+ * has claimed yet, and no request is ever claimed twice.
+ *
+ * On Postgres the oldest claimable row is locked with FOR UPDATE SKIP
+ * LOCKED, so TAs claiming at the same moment each get a different row
+ * instead of queueing behind one lock. H2 (development and tests) has no
+ * SKIP LOCKED, so there the claim is a conditional UPDATE (only if the row
+ * is still unclaimed) of each of the oldest few candidates in turn, until
+ * one succeeds.
+ */
+@Service
+@Transactional
+public class HelpRequestQueueService {
+
+  /** How many candidates to read at once when claiming without SKIP LOCKED. */
+  static final int CANDIDATES = 8;
+
+  @Autowired
+  HelpRequestRepository helpRequestRepository;
+
+  @Autowired
+  EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  ChangeEventBroadcaster changeEventBroadcaster;
+
+  // set on first use
+  Boolean postgres;
+
+  /**
+   * This method claims the oldest unsolved HelpRequest that nobody has claimed.
+   * @param teamId only claim a help request from this team (null for any)
+   * @param tableOrBreakoutRoom only claim a help request from this table or breakout room (null for any)
+   * @param claimedBy email of whoever claims it
+   * @return the claimed HelpRequest, or empty if there is none to claim
+   */
+  public Optional<HelpRequestView> claimNext(String teamId, String tableOrBreakoutRoom, String claimedBy) {
+    Optional<HelpRequestView> claimed = claim(teamId, tableOrBreakoutRoom, claimedBy, LocalDateTime.now());
+    // claim() is a bulk update, which skips the entity listeners
+    claimed.ifPresent(view -> changeEventBroadcaster.publish(HelpRequest.class, ChangeEventBroadcaster.UPDATED, view.id(), view));
+    return claimed;
+  }
+
+  private Optional<HelpRequestView> claim(String teamId, String tableOrBreakoutRoom, String claimedBy, LocalDateTime claimedAt) {
+    if (usesPostgres()) {
+      return helpRequestRepository.lockNextClaimableId(teamId, tableOrBreakoutRoom).stream()
+          .findFirst()
+          .filter(id -> helpRequestRepository.claim(id, claimedBy, claimedAt) == 1)
+          .flatMap(helpRequestRepository::findViewById);
+    }
+    List<Long> candidates = helpRequestRepository.findClaimableIds(teamId, tableOrBreakoutRoom, Limit.of(CANDIDATES));
+    while (!candidates.isEmpty()) {
+      for (long id : candidates) {
+        if (helpRequestRepository.claim(id, claimedBy, claimedAt) == 1) {
+          return helpRequestRepository.findViewById(id);
+        }
+      }
+      // every candidate was claimed by someone else in the meantime
+      candidates = helpRequestRepository.findClaimableIds(teamId, tableOrBreakoutRoom, Limit.of(CANDIDATES));
+    }
+    return Optional.empty();
+  }
+
+  private boolean usesPostgres() {
+    if (postgres == null) {
+      postgres = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+          .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+    }
+    return postgres;
+  }
+}
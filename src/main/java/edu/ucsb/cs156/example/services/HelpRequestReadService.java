@@ -0,0 +1,119 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.HelpRequest;
+import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.errors.UnknownFieldException;
+import edu.ucsb.cs156.example.models.Changes;
+import edu.ucsb.cs156.example.models.HelpRequestView;
+import edu.ucsb.cs156.example.repositories.HelpRequestRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This is a service for reading HelpRequest entities.
+ *
+ * Each method runs in a read-only transaction and returns HelpRequestView records
+ * rather than managed entities.
+ */
+@Service
+@Transactional(readOnly = true)
+public class HelpRequestReadService {
+
+  /** Fields that /all may be sorted by; each has an index behind it. */
+  static final Set<String> SORTABLE_FIELDS = Set.of("id", "requestTime");
+
+  @Autowired
+  HelpRequestRepository helpRequestRepository;
+
+  @Autowired
+  SparseFieldsetService sparseFieldsetService;
+
+  @Autowired
+  ChangeFeedService changeFeedService;
+
+  /**
+   * This method returns every HelpRequest.
+   * @return a list of HelpRequestView
+   */
+  public List<HelpRequestView> findAll() {
+    return helpRequestRepository.findAllViews();
+  }
+
+  /**
+   * This method returns a single HelpRequest.
+   * @param id id of the HelpRequest
+   * @return the HelpRequestView
+   * @throws EntityNotFoundException if there is no HelpRequest with that id
+   */
+  public HelpRequestView findById(Long id) {
+    return helpRequestRepository.findViewById(id)
+        .orElseThrow(() -> new EntityNotFoundException(HelpRequest.class, id));
+  }
+
+  /**
+   * This method returns only the given fields of a single HelpRequest.
+   * @param id id of the HelpRequest
+   * @param fields names of the fields to return
+   * @return a map from field name to value
+   * @throws EntityNotFoundException if there is no HelpRequest with that id
+   */
+  public Map<String, Object> findById(Long id, List<String> fields) {
+    return sparseFieldsetService.findById(HelpRequest.class, HelpRequestView.class, id, fields)
+        .orElseThrow(() -> new EntityNotFoundException(HelpRequest.class, id));
+  }
+
+  /**
+   * This method returns the HelpRequests that match the given filters, in the given order.
+   * @param solved only list help requests that are (true) or are not (false) solved (null for any)
+   * @param teamId only list help requests from this team, e.g. s22-5pm-3 (null for any)
+   * @param sort order of the results; may only use id and requestTime
+   * @return a list of HelpRequestView
+   * @throws UnknownFieldException if the sort uses any other field
+   */
+  public List<HelpRequestView> findAll(Boolean solved, String teamId, Sort sort) {
+    if (solved == null && teamId == null && sort.isUnsorted()) {
+      return findAll();
+    }
+    return sparseFieldsetService.findAll(HelpRequest.class, HelpRequestView.class, filter(solved, teamId), checkSort(sort));
+  }
+
+  /**
+   * This method returns only the given fields of the HelpRequests that match the given
+   * filters, in the given order.
+   * @param solved only list help requests that are (true) or are not (false) solved (null for any)
+   * @param teamId only list help requests from this team, e.g. s22-5pm-3 (null for any)
+   * @param sort order of the results; may only use id and requestTime
+   * @param fields names of the fields to return
+   * @return one map (field name to value) per HelpRequest
+   * @throws UnknownFieldException if the sort or fields use an unknown field
+   */
+  public List<Map<String, Object>> findAll(Boolean solved, String teamId, Sort sort, List<String> fields) {
+    return sparseFieldsetService.findAll(HelpRequest.class, HelpRequestView.class, fields, filter(solved, teamId), checkSort(sort));
+  }
+
+  private static Specification<HelpRequest> filter(Boolean solved, String teamId) {
+    return Specification.<HelpRequest>where(ListFilters.equalTo("solved", solved))
+        .and(ListFilters.equalTo("teamId", teamId));
+  }
+
+  private static Sort checkSort(Sort sort) {
+    return ListFilters.restrictTo(HelpRequest.class, sort, SORTABLE_FIELDS);
+  }
+
+  /**
+   * This method returns the HelpRequests that were created, updated or deleted after a sync token.
+   * @param since token from the previous call (0 for a full sync)
+   * @return the changes and the token to use next time
+   */
+  public Changes<HelpRequestView> changesSince(long since) {
+    return changeFeedService.changesSince(HelpRequest.class, HelpRequestView.class, since);
+  }
+}
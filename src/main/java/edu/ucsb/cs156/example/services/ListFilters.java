@@ -0,0 +1,51 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.errors.UnknownFieldException;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Set;
+
+/**
+ * Helpers for the query parameters of the /all listing endpoints.
+ *
+ * Filters are turned into JPA Specifications so that they run as SQL predicates,
+ * and sort orders are restricted to the fields that have an index behind them.
+ */
+public final class ListFilters {
+
+  private ListFilters() {
+  }
+
+  /**
+   * This method returns a Specification for {@code attribute = value}.
+   * @param <T> the entity type
+   * @param attribute name of the entity attribute
+   * @param value the value to compare with; null means "no filter"
+   * @return the Specification, or null if value is null
+   */
+  public static <T> Specification<T> equalTo(String attribute, Object value) {
+    if (value == null) {
+      return null;
+    }
+    return (root, query, cb) -> cb.equal(root.get(attribute), value);
+  }
+
+  /**
+   * This method checks that a sort only uses the given (indexed) fields.
+   * @param entityType the entity class, used in the error message
+   * @param sort the requested sort
+   * @param sortableFields the fields that may be sorted by
+   * @return the sort, unchanged
+   * @throws UnknownFieldException if the sort uses any other field
+   */
+  public static Sort restrictTo(Class<?> entityType, Sort sort, Set<String> sortableFields) {
+    for (Sort.Order order : sort) {
+      if (!sortableFields.contains(order.getProperty())) {
+        throw UnknownFieldException.notSortable(entityType, order.getProperty());
+      }
+    }
+    return sort;
+  }
+}
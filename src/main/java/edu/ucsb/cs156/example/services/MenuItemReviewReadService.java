@@ -0,0 +1,83 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.MenuItemReview;
+import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.models.Changes;
+import edu.ucsb.cs156.example.models.MenuItemReviewView;
+import edu.ucsb.cs156.example.repositories.MenuItemReviewRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This is a service for reading MenuItemReview entities.
+ *
+ * Each method runs in a read-only transaction and returns MenuItemReviewView records
+ * rather than managed entities.
+ */
+@Service
+@Transactional(readOnly = true)
+public class MenuItemReviewReadService {
+
+  @Autowired
+  MenuItemReviewRepository menuItemReviewRepository;
+
+  @Autowired
+  SparseFieldsetService sparseFieldsetService;
+
+  @Autowired
+  ChangeFeedService changeFeedService;
+
+  /**
+   * This method returns every MenuItemReview.
+   * @return a list of MenuItemReviewView
+   */
+  public List<MenuItemReviewView> findAll() {
+    return menuItemReviewRepository.findAllViews();
+  }
+
+  /**
+   * This method returns a single MenuItemReview.
+   * @param id id of the MenuItemReview
+   * @return the MenuItemReviewView
+   * @throws EntityNotFoundException if there is no MenuItemReview with that id
+   */
+  public MenuItemReviewView findById(Long id) {
+    return menuItemReviewRepository.findViewById(id)
+        .orElseThrow(() -> new EntityNotFoundException(MenuItemReview.class, id));
+  }
+
+  /**
+   * This method returns only the given fields of every MenuItemReview.
+   * @param fields names of the fields to return
+   * @return one map (field name to value) per MenuItemReview
+   */
+  public List<Map<String, Object>> findAll(List<String> fields) {
+    return sparseFieldsetService.findAll(MenuItemReview.class, MenuItemReviewView.class, fields);
+  }
+
+  /**
+   * This method returns only the given fields of a single MenuItemReview.
+   * @param id id of the MenuItemReview
+   * @param fields names of the fields to return
+   * @return a map from field name to value
+   * @throws EntityNotFoundException if there is no MenuItemReview with that id
+   */
+  public Map<String, Object> findById(Long id, List<String> fields) {
+    return sparseFieldsetService.findById(MenuItemReview.class, MenuItemReviewView.class, id, fields)
+        .orElseThrow(() -> new EntityNotFoundException(MenuItemReview.class, id));
+  }
+
+  /**
+   * This method returns the MenuItemReviews that were created, updated or deleted after a sync token.
+   * @param since token from the previous call (0 for a full sync)
+   * @return the changes and the token to use next time
+   */
+  public Changes<MenuItemReviewView> changesSince(long since) {
+    return changeFeedService.changesSince(MenuItemReview.class, MenuItemReviewView.class, since);
+  }
+}
@@ -0,0 +1,113 @@
+package edu.ucsb.cs156.example.services;
+
+import java.util.Arrays;
+
+/**
+ * A postings list: the increasing ids of the documents that contain a term.
+ *
+ * The ids are kept as the gaps between consecutive ids, each written as a
+ * variable-length integer (seven bits per byte, high bit set on all but the
+ * last byte). Ids handed out in order are close together, so most gaps take
+ * one byte instead of four.
+ *
+ * Ids can only be appended, and must be larger than the last one. Removing a
+ * document is left to the caller (see SearchIndex).
+ */
+public class PostingsList {
+
+  private byte[] bytes = new byte[4];
+  private int length;
+  private int size;
+  private int last = -1;
+
+  /**
+   * This method appends a document id.
+   * @param id the id, larger than every id already in the list
+   * @throws IllegalArgumentException if id is not larger than the last id
+   */
+  public void add(int id) {
+    if (id <= last) {
+      throw new IllegalArgumentException("Postings must be added in increasing order: %d after %d".formatted(id, last));
+    }
+    int gap = id - last;
+    last = id;
+    size++;
+    if (length + 5 > bytes.length) {
+      bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + 5));
+    }
+    while (gap >= 0x80) {
+      bytes[length++] = (byte) (gap | 0x80);
+      gap >>>= 7;
+    }
+    bytes[length++] = (byte) gap;
+  }
+
+  /**
+   * @return how many ids are in the list
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return how many bytes the encoded ids take
+   */
+  public int encodedLength() {
+    return length;
+  }
+
+  /**
+   * @return a cursor positioned before the first id
+   */
+  public Cursor cursor() {
+    return new Cursor();
+  }
+
+  /**
+   * Reads the ids of a postings list in order.
+   */
+  public final class Cursor {
+
+    private int position;
+    private int current = -1;
+
+    private Cursor() {
+    }
+
+    /**
+     * This method moves to the next id.
+     * @return the id, or -1 if there are no more
+     */
+    public int next() {
+      if (position >= length) {
+        return -1;
+      }
+      int gap = 0;
+      int shift = 0;
+      byte b;
+      do {
+        b = bytes[position++];
+        gap |= (b & 0x7F) << shift;
+        shift += 7;
+      } while (b < 0);
+      current += gap;
+      return current;
+    }
+
+    /**
+     * This method moves to the first id that is at least target.
+     * @param target the smallest id wanted
+     * @return the id, or -1 if there is none
+     */
+    public int advanceTo(int target) {
+      int id = current;
+      while (id < target) {
+        id = next();
+        if (id == -1) {
+          return -1;
+        }
+      }
+      return id;
+    }
+  }
+}
@@ -0,0 +1,142 @@
+package edu.ucsb.cs156.example.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * This is an immutable trie for type-ahead: given a prefix, it returns the
+ * best few items that have a key starting with it.
+ *
+ * Every node stores its best {@code maxK} items (by the given ranking), so a
+ * lookup walks down the prefix and copies that list, whatever the number of
+ * matching items. Keys are matched case-insensitively.
+ *
+ * To keep it compact, the nodes are flattened into arrays after they are
+ * built: the children of a node are a sorted run of {@code childChars}
+ * (found by binary search), and the best items are indexes into the item
+ * array.
+ *
+ * @param <T> type of the items
+ */
+public class PrefixTrie<T> {
+
+  private final Object[] items;
+  private final char[] childChars;
+  private final int[] firstChild;
+  private final int[] childCount;
+  private final int[][] best;
+
+  /** A node while the trie is built. */
+  private static final class Node {
+    private final TreeMap<Character, Node> children = new TreeMap<>();
+    private final List<Integer> items = new ArrayList<>();
+    private int[] best;
+  }
+
+  /**
+   * Builds a trie.
+   * @param items the items
+   * @param keys the keys each item can be found by
+   * @param ranking which items come first, among items with the same prefix
+   * @param maxK the most items a lookup can return
+   */
+  public PrefixTrie(List<T> items, Function<T, List<String>> keys, Comparator<? super T> ranking, int maxK) {
+    this.items = items.toArray();
+    Node root = new Node();
+    for (int i = 0; i < items.size(); i++) {
+      for (String key : keys.apply(items.get(i))) {
+        Node node = root;
+        for (char c : normalize(key).toCharArray()) {
+          node = node.children.computeIfAbsent(c, ch -> new Node());
+        }
+        node.items.add(i);
+      }
+    }
+    Comparator<Integer> byRank = Comparator.comparing(this::item, ranking);
+    rank(root, byRank, maxK);
+
+    // breadth first, so that the children of each node are next to each other
+    List<Node> nodes = new ArrayList<>(List.of(root));
+    List<Character> chars = new ArrayList<>(List.of('\0'));
+    int[] first = new int[16];
+    for (int n = 0; n < nodes.size(); n++) {
+      if (n == first.length) {
+        first = Arrays.copyOf(first, first.length * 2);
+      }
+      first[n] = nodes.size();
+      nodes.addAll(nodes.get(n).children.values());
+      chars.addAll(nodes.get(n).children.keySet());
+    }
+    this.childChars = new char[chars.size()];
+    this.firstChild = Arrays.copyOf(first, nodes.size());
+    this.childCount = new int[nodes.size()];
+    this.best = new int[nodes.size()][];
+    for (int n = 0; n < nodes.size(); n++) {
+      childChars[n] = chars.get(n);
+      childCount[n] = nodes.get(n).children.size();
+      best[n] = nodes.get(n).best;
+    }
+  }
+
+  private static void rank(Node node, Comparator<Integer> byRank, int maxK) {
+    List<Integer> candidates = new ArrayList<>(node.items);
+    for (Node child : node.children.values()) {
+      rank(child, byRank, maxK);
+      Arrays.stream(child.best).forEach(candidates::add);
+    }
+    node.best = candidates.stream()
+        .distinct()
+        .sorted(byRank)
+        .limit(maxK)
+        .mapToInt(Integer::intValue)
+        .toArray();
+  }
+
+  @SuppressWarnings("unchecked")
+  private T item(int index) {
+    return (T) items[index];
+  }
+
+  /**
+   * This method returns the best items with a key that starts with a prefix.
+   * @param prefix the start of the key (case does not matter)
+   * @param k how many items to return at most (no more than the maxK the trie was built with)
+   * @return the items, best first
+   */
+  public List<T> top(String prefix, int k) {
+    int node = 0;
+    for (char c : normalize(prefix).toCharArray()) {
+      node = child(node, c);
+      if (node == -1) {
+        return List.of();
+      }
+    }
+    int[] found = best[node];
+    List<T> result = new ArrayList<>(Math.min(k, found.length));
+    for (int i = 0; i < found.length && i < k; i++) {
+      result.add(item(found[i]));
+    }
+    return result;
+  }
+
+  private int child(int node, char c) {
+    int index = Arrays.binarySearch(childChars, firstChild[node], firstChild[node] + childCount[node], c);
+    return index < 0 ? -1 : index;
+  }
+
+  /**
+   * @return how many nodes the trie has
+   */
+  public int nodeCount() {
+    return best.length;
+  }
+
+  private static String normalize(String key) {
+    return key.toLowerCase(Locale.ROOT);
+  }
+}
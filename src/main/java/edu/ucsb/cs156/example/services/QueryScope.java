@@ -0,0 +1,134 @@
+package edu.ucsb.cs156.example.services;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * A `QueryScope` holds the time budget for the database queries of one API
+ * request, and the JDBC statements the request has open, so that they can be
+ * cancelled from another thread, e.g. when the client of an async request
+ * goes away.
+ *
+ * The scope is attached to the thread that runs the request's queries; the
+ * data source reads it from there to give each new statement a query timeout
+ * of the time left.
+ */
+public class QueryScope {
+
+  private static final ThreadLocal<QueryScope> CURRENT = new ThreadLocal<>();
+
+  private final String endpoint;
+  private final long deadline;
+  private final LongSupplier nanoTime;
+  private final Set<Statement> statements = ConcurrentHashMap.newKeySet();
+  private volatile boolean cancelled;
+
+  /**
+   * Creates a scope whose time starts now
+   * @param endpoint name of the endpoint, used in metrics
+   * @param timeout how long all of the request's queries together may take
+   */
+  public QueryScope(String endpoint, Duration timeout) {
+    this(endpoint, timeout, System::nanoTime);
+  }
+
+  QueryScope(String endpoint, Duration timeout, LongSupplier nanoTime) {
+    this.endpoint = endpoint;
+    this.nanoTime = nanoTime;
+    this.deadline = nanoTime.getAsLong() + timeout.toNanos();
+  }
+
+  /**
+   * @return the scope attached to the current thread, or null if there is none
+   */
+  public static QueryScope current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * This method attaches the scope to the current thread.
+   */
+  public void attach() {
+    CURRENT.set(this);
+  }
+
+  /**
+   * This method detaches whatever scope is attached to the current thread.
+   */
+  public static void detach() {
+    CURRENT.remove();
+  }
+
+  /**
+   * @return name of the endpoint the scope belongs to
+   */
+  public String getEndpoint() {
+    return endpoint;
+  }
+
+  /**
+   * This method gives the query timeout for a new statement. JDBC counts
+   * query timeouts in whole seconds, so the time left is rounded up, and a
+   * statement gets at least one second even once the time is up.
+   * @return the time left, in seconds
+   */
+  public int remainingSeconds() {
+    long remaining = deadline - nanoTime.getAsLong();
+    return (int) Math.max(1, Math.ceilDiv(remaining, 1_000_000_000L));
+  }
+
+  /**
+   * This method adds a statement to those cancelled by {@link #cancel()}.
+   * A statement added after the scope was cancelled is cancelled at once.
+   * @param statement the statement the request opened
+   */
+  public void track(Statement statement) {
+    statements.add(statement);
+    if (cancelled) {
+      cancel(statement);
+    }
+  }
+
+  /**
+   * This method removes a statement once it is closed.
+   * @param statement the statement the request closed
+   */
+  public void untrack(Statement statement) {
+    statements.remove(statement);
+  }
+
+  /**
+   * This method cancels every statement of the request that is still open,
+   * and any it opens later.
+   */
+  public void cancel() {
+    cancelled = true;
+    statements.forEach(QueryScope::cancel);
+  }
+
+  /**
+   * @return true if {@link #cancel()} has been called
+   */
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  /**
+   * @return how many statements are open
+   */
+  public int size() {
+    return statements.size();
+  }
+
+  private static void cancel(Statement statement) {
+    try {
+      statement.cancel();
+    } catch (SQLException e) {
+      // the statement has already finished or been closed
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package edu.ucsb.cs156.example.services;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * This class keeps one {@link TokenBucket} per key (e.g. user, controller and
+ * read/write) and tells callers whether they may go ahead.
+ *
+ * At most {@code maxKeys} buckets are kept. When that many exist and a new key
+ * shows up, buckets that have refilled completely are dropped first, since a
+ * new bucket for the same key would behave exactly the same. Only if every
+ * tracked key is still draining its bucket are arbitrary buckets dropped
+ * (down to three quarters of the limit); those keys start over with a full
+ * bucket.
+ */
+public class RateLimiter {
+
+  /**
+   * How many requests a key may make: bursts of up to {@code capacity},
+   * refilled over {@code refillPeriod}.
+   * @param capacity the largest burst
+   * @param refillPeriod time to refill an empty bucket
+   */
+  public record Budget(int capacity, Duration refillPeriod) {
+  }
+
+  private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+  private final int maxKeys;
+  private final LongSupplier nanoTime;
+
+  /**
+   * Creates a rate limiter
+   * @param maxKeys the most buckets to keep at once
+   */
+  public RateLimiter(int maxKeys) {
+    this(maxKeys, System::nanoTime);
+  }
+
+  RateLimiter(int maxKeys, LongSupplier nanoTime) {
+    this.maxKeys = maxKeys;
+    this.nanoTime = nanoTime;
+  }
+
+  /**
+   * This method takes a token from the key's bucket, creating a full bucket
+   * for the key if it has none.
+   * @param key who is making the request
+   * @param budget the size of the bucket, used only if the key has none yet
+   * @return 0 if the request may go ahead, otherwise the time until it may be retried
+   */
+  public Duration tryAcquire(String key, Budget budget) {
+    long now = nanoTime.getAsLong();
+    TokenBucket bucket = buckets.get(key);
+    if (bucket == null) {
+      if (buckets.size() >= maxKeys) {
+        evict(now);
+      }
+      bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(budget.capacity(), budget.refillPeriod(), now));
+    }
+    return Duration.ofNanos(bucket.tryConsume(now));
+  }
+
+  /**
+   * @return how many buckets are kept
+   */
+  public int size() {
+    return buckets.size();
+  }
+
+  private void evict(long now) {
+    buckets.values().removeIf(bucket -> bucket.isFull(now));
+    if (buckets.size() < maxKeys) {
+      return;
+    }
+    buckets.keySet().stream()
+        .limit(Math.max(0, buckets.size() - maxKeys * 3 / 4))
+        .toList()
+        .forEach(buckets::remove);
+  }
+}
@@ -0,0 +1,151 @@
+package edu.ucsb.cs156.example.services;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * This class holds an immutable snapshot built from the database, for the
+ * in-memory indexes (AcademicCalendarIndex, DiningCommonsLocator,
+ * AutocompleteIndex).
+ *
+ * After a write commits, the snapshot is rebuilt on a thread of its own while
+ * lookups keep getting the previous one, so a lookup never pays for a
+ * rebuild, and any number of writes and lookups cause at most one rebuild at
+ * a time (plus one more if a write commits while it runs). Only the lookups
+ * that find no snapshot at all, the first ones or those after a failed first
+ * build, wait for one.
+ *
+ * Builds run outside any request, so ReplicaRoutingDataSource sends their
+ * queries to the primary: a snapshot is shared by every user, and one built
+ * from a replica that has not caught up with the write would stay stale until
+ * the next write.
+ *
+ * @param <S> type of the snapshot
+ */
+@Slf4j
+public class RebuiltSnapshot<S> {
+
+  private final String name;
+  private final Supplier<S> builder;
+
+  // a field so that tests can build on the calling thread
+  Executor executor;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition built = lock.newCondition();
+  private S snapshot;
+  // whether the snapshot misses a committed write (or there is none yet)
+  private boolean stale = true;
+  private boolean building;
+  // why the last build failed, for the lookups waiting for a first snapshot
+  private RuntimeException failure;
+
+  /**
+   * Creates the holder; nothing is built until the first lookup
+   * @param name name of the threads that build the snapshot
+   * @param builder reads the database and builds a snapshot (never null)
+   */
+  public RebuiltSnapshot(String name, Supplier<S> builder) {
+    this.name = name;
+    this.builder = builder;
+    this.executor = runnable -> Thread.ofPlatform().name(name).daemon().start(runnable);
+  }
+
+  /**
+   * This method returns the latest snapshot, and starts a rebuild if it is
+   * stale and none is running.
+   * @return the snapshot
+   */
+  public S get() {
+    lock.lock();
+    try {
+      if (stale) {
+        startBuild();
+      }
+      while (snapshot == null) {
+        if (failure != null) {
+          throw failure;
+        }
+        built.awaitUninterruptibly();
+      }
+      return snapshot;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * This method makes the snapshot stale once the current transaction commits
+   * (or at once, outside a transaction), and starts rebuilding it if it has
+   * been built before.
+   */
+  public void invalidateAfterCommit() {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      invalidate();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        invalidate();
+      }
+    });
+  }
+
+  private void invalidate() {
+    lock.lock();
+    try {
+      stale = true;
+      if (snapshot != null) {
+        startBuild();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void startBuild() {
+    if (building) {
+      return;
+    }
+    building = true;
+    stale = false;
+    failure = null;
+    executor.execute(this::build);
+  }
+
+  private void build() {
+    S next = null;
+    RuntimeException error = null;
+    try {
+      next = builder.get();
+    } catch (RuntimeException e) {
+      log.warn("Could not build the {} snapshot", name, e);
+      error = e;
+    }
+    lock.lock();
+    try {
+      building = false;
+      if (error != null) {
+        // the next lookup tries again
+        stale = true;
+        failure = error;
+      } else {
+        snapshot = next;
+        if (stale) {
+          startBuild();
+        }
+      }
+      built.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+}
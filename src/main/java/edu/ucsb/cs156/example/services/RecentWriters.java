@@ -0,0 +1,87 @@
+package edu.ucsb.cs156.example.services;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * This class remembers, for a short window, which users have just written to
+ * the database, so that their next reads can go to the primary database
+ * instead of a replica that may not have caught up yet ("read your writes").
+ *
+ * Users whose window has passed are forgotten whenever more than
+ * {@code maxEntries} are tracked, so at most about that many users, plus
+ * those who wrote within the last window, are remembered.
+ */
+public class RecentWriters {
+
+  private final long windowNanos;
+  private final int maxEntries;
+  private final LongSupplier nanoTime;
+  private final ConcurrentHashMap<String, Long> windowEnds = new ConcurrentHashMap<>();
+
+  /**
+   * Creates the tracker
+   * @param window how long after a write the user's reads stay on the primary
+   * @param maxEntries how many users to track before forgetting expired ones
+   */
+  public RecentWriters(Duration window, int maxEntries) {
+    this(window, maxEntries, System::nanoTime);
+  }
+
+  RecentWriters(Duration window, int maxEntries, LongSupplier nanoTime) {
+    this.windowNanos = window.toNanos();
+    this.maxEntries = maxEntries;
+    this.nanoTime = nanoTime;
+  }
+
+  /**
+   * This method records that a user has just written.
+   * @param principal name of the user (null for nobody)
+   */
+  public void wrote(String principal) {
+    if (principal == null) {
+      return;
+    }
+    long now = nanoTime.getAsLong();
+    windowEnds.put(principal, now + windowNanos);
+    if (windowEnds.size() > maxEntries) {
+      windowEnds.values().removeIf(end -> end - now <= 0);
+    }
+  }
+
+  /**
+   * This method tells whether a user wrote within the window.
+   * @param principal name of the user (null for nobody)
+   * @return true if the user's reads should go to the primary
+   */
+  public boolean wroteRecently(String principal) {
+    if (principal == null) {
+      return false;
+    }
+    Long end = windowEnds.get(principal);
+    return end != null && end - nanoTime.getAsLong() > 0;
+  }
+
+  /**
+   * @return name of the user of the current request, or null for nobody
+   */
+  public static String currentPrincipal() {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+      return null;
+    }
+    return authentication.getName();
+  }
+
+  /**
+   * @return how many users are tracked
+   */
+  public int size() {
+    return windowEnds.size();
+  }
+}
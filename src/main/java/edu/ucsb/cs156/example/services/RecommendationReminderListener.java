@@ -0,0 +1,40 @@
+package edu.ucsb.cs156.example.services;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import edu.ucsb.cs156.example.entities.RecommendationRequest;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * This JPA entity listener tells RecommendationReminders about every insert,
+ * update and delete of a RecommendationRequest, so that its reminder is
+ * scheduled, moved or cancelled.
+ */
+public class RecommendationReminderListener {
+
+  // looked up on use, for the same reasons as in SearchIndexListener
+  @Autowired
+  ObjectProvider<RecommendationReminders> recommendationReminders;
+
+  /**
+   * This method is called by JPA after a RecommendationRequest is inserted or updated.
+   * @param request the RecommendationRequest
+   */
+  @PostPersist
+  @PostUpdate
+  void written(RecommendationRequest request) {
+    recommendationReminders.ifAvailable(reminders -> reminders.written(request));
+  }
+
+  /**
+   * This method is called by JPA after a RecommendationRequest is deleted.
+   * @param request the RecommendationRequest
+   */
+  @PostRemove
+  void removed(RecommendationRequest request) {
+    recommendationReminders.ifAvailable(reminders -> reminders.removed(request));
+  }
+}
@@ -0,0 +1,265 @@
+package edu.ucsb.cs156.example.services;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import edu.ucsb.cs156.example.entities.RecommendationReminder;
+import edu.ucsb.cs156.example.entities.RecommendationRequest;
+import edu.ucsb.cs156.example.repositories.RecommendationReminderRepository;
+import edu.ucsb.cs156.example.repositories.RecommendationRequestRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * This component sends a reminder for every RecommendationRequest that is
+ * not done app.reminders.lead-time before its date needed.
+ *
+ * Instead of scanning the table on a schedule, it keeps a timer per pending
+ * request in a TimingWheel, ticked every app.reminders.tick by a thread of
+ * its own. The wheel is loaded at startup with the requests that are not
+ * done and have not had their reminder yet (using the index on DONE and
+ * DATE_NEEDED), and kept up to date by RecommendationReminderListener and the
+ * bulk done endpoint once their transactions commit.
+ *
+ * A reminder is a RecommendationReminder row, published as an application
+ * event for whatever delivers it. The row is keyed by the request and its
+ * date needed, so a reminder is sent once, across restarts and instances;
+ * moving the date needed makes the request due for a new one.
+ */
+@Slf4j
+@Component
+public class RecommendationReminders {
+
+  /** log2 of the number of slots in each level of the wheel. */
+  static final int WHEEL_BITS = 6;
+  /** Levels of the wheel; with one minute ticks they cover 64^4 minutes, about 32 years. */
+  static final int WHEEL_LEVELS = 4;
+
+  /**
+   * A timer of the wheel.
+   * @param recommendationRequestId id of the RecommendationRequest
+   * @param dateNeeded the date needed the reminder is for
+   */
+  record Reminder(long recommendationRequestId, LocalDateTime dateNeeded) {
+  }
+
+  @Autowired
+  RecommendationRequestRepository recommendationRequestRepository;
+
+  @Autowired
+  RecommendationReminderRepository recommendationReminderRepository;
+
+  @Autowired
+  ApplicationEventPublisher applicationEventPublisher;
+
+  @Value("${app.reminders.lead-time:3d}")
+  Duration leadTime;
+
+  @Value("${app.reminders.tick:1m}")
+  Duration tick;
+
+  // a field so that tests can move the time along
+  Clock clock = Clock.systemDefaultZone();
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private TimingWheel<Long, Reminder> wheel;
+  // changes made while load() reads the database, replayed on the new wheel
+  private List<Consumer<TimingWheel<Long, Reminder>>> pending;
+  private ScheduledExecutorService ticker;
+
+  /**
+   * This method loads the wheel and starts ticking it.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    load();
+    ticker = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("recommendation-reminders").daemon().factory());
+    ticker.scheduleWithFixedDelay(this::tick, tick.toMillis(), tick.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * This method stops ticking the wheel.
+   */
+  @PreDestroy
+  void stop() {
+    if (ticker != null) {
+      ticker.shutdownNow();
+    }
+  }
+
+  /**
+   * This method replaces the wheel with one loaded from the database. Changes
+   * committed while it runs are not lost.
+   */
+  void load() {
+    lock.lock();
+    try {
+      pending = new ArrayList<>();
+    } finally {
+      lock.unlock();
+    }
+
+    TimingWheel<Long, Reminder> loaded = new TimingWheel<>(tick.toMillis(), WHEEL_BITS, WHEEL_LEVELS, clock.millis());
+    recommendationRequestRepository.findPendingDeadlines(LocalDateTime.now(clock))
+        .forEach(deadline -> schedule(loaded, deadline.getId(), deadline.getDateNeeded()));
+
+    lock.lock();
+    try {
+      pending.forEach(change -> change.accept(loaded));
+      pending = null;
+      wheel = loaded;
+    } finally {
+      lock.unlock();
+    }
+    log.info("Scheduled reminders for {} recommendation requests", loaded.size());
+  }
+
+  /**
+   * This method sends the reminders that are due; it runs on the ticker thread.
+   */
+  void tick() {
+    List<Reminder> due;
+    lock.lock();
+    try {
+      due = wheel.advance(clock.millis());
+    } finally {
+      lock.unlock();
+    }
+    due.forEach(this::send);
+  }
+
+  private void send(Reminder reminder) {
+    try {
+      if (recommendationReminderRepository.existsByRecommendationRequestIdAndDateNeeded(
+          reminder.recommendationRequestId(), reminder.dateNeeded())) {
+        return;
+      }
+      RecommendationReminder sent = recommendationReminderRepository.save(RecommendationReminder.builder()
+          .recommendationRequestId(reminder.recommendationRequestId())
+          .dateNeeded(reminder.dateNeeded())
+          .firedAt(LocalDateTime.now(clock))
+          .build());
+      log.info("Reminder for recommendation request {}, needed {}", reminder.recommendationRequestId(), reminder.dateNeeded());
+      applicationEventPublisher.publishEvent(sent);
+    } catch (DataIntegrityViolationException e) {
+      // sent by another instance in the meantime
+    } catch (RuntimeException e) {
+      log.warn("Could not send the reminder for recommendation request {}, retrying on the next tick",
+          reminder.recommendationRequestId(), e);
+      long retryMillis = clock.millis() + tick.toMillis();
+      apply(wheel -> {
+        if (!wheel.contains(reminder.recommendationRequestId())) {
+          wheel.schedule(reminder.recommendationRequestId(), reminder, retryMillis);
+        }
+      });
+    }
+  }
+
+  /**
+   * @return how many reminders are scheduled
+   */
+  public int size() {
+    lock.lock();
+    try {
+      return wheel == null ? 0 : wheel.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * This method schedules the reminder for a RecommendationRequest (or cancels
+   * it, if the request is done) once the current transaction commits.
+   * @param request the RecommendationRequest that was inserted or updated
+   */
+  public void written(RecommendationRequest request) {
+    long id = request.getId();
+    LocalDateTime dateNeeded = request.getDone() ? null : request.getDateNeeded();
+    afterCommit(wheel -> schedule(wheel, id, dateNeeded));
+  }
+
+  /**
+   * This method cancels the reminder for a RecommendationRequest once the
+   * current transaction commits.
+   * @param request the RecommendationRequest that was deleted
+   */
+  public void removed(RecommendationRequest request) {
+    long id = request.getId();
+    afterCommit(wheel -> wheel.cancel(id));
+  }
+
+  /**
+   * This method updates the reminders of RecommendationRequest entities whose
+   * done flag was set by a bulk update, which skips the entity listeners.
+   * @param ids ids of the RecommendationRequest entities
+   * @param done the new value of the done flag
+   */
+  public void doneChanged(Collection<Long> ids, boolean done) {
+    if (done) {
+      List<Long> cancelled = List.copyOf(ids);
+      afterCommit(wheel -> cancelled.forEach(wheel::cancel));
+      return;
+    }
+    List<RecommendationRequestRepository.Deadline> deadlines =
+        recommendationRequestRepository.findPendingDeadlinesByIdIn(ids, LocalDateTime.now(clock));
+    afterCommit(wheel -> deadlines.forEach(deadline -> schedule(wheel, deadline.getId(), deadline.getDateNeeded())));
+  }
+
+  /** Sets the timer of a request, or cancels it if the request is not needed in the future. */
+  private void schedule(TimingWheel<Long, Reminder> wheel, long id, LocalDateTime dateNeeded) {
+    LocalDateTime now = LocalDateTime.now(clock);
+    if (dateNeeded == null || !dateNeeded.isAfter(now)) {
+      wheel.cancel(id);
+      return;
+    }
+    long remindAtMillis = dateNeeded.minus(leadTime).atZone(clock.getZone()).toInstant().toEpochMilli();
+    wheel.schedule(id, new Reminder(id, dateNeeded), remindAtMillis);
+  }
+
+  private void afterCommit(Consumer<TimingWheel<Long, Reminder>> change) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      apply(change);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        apply(change);
+      }
+    });
+  }
+
+  private void apply(Consumer<TimingWheel<Long, Reminder>> change) {
+    lock.lock();
+    try {
+      if (wheel != null) {
+        change.accept(wheel);
+      }
+      if (pending != null) {
+        pending.add(change);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+}
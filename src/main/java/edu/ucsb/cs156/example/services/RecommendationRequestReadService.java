@@ -0,0 +1,119 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.RecommendationRequest;
+import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.errors.UnknownFieldException;
+import edu.ucsb.cs156.example.models.Changes;
+import edu.ucsb.cs156.example.models.RecommendationRequestView;
+import edu.ucsb.cs156.example.repositories.RecommendationRequestRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This is a service for reading RecommendationRequest entities.
+ *
+ * Each method runs in a read-only transaction and returns RecommendationRequestView records
+ * rather than managed entities.
+ */
+@Service
+@Transactional(readOnly = true)
+public class RecommendationRequestReadService {
+
+  /** Fields that /all may be sorted by; each has an index behind it. */
+  static final Set<String> SORTABLE_FIELDS = Set.of("id", "dateNeeded");
+
+  @Autowired
+  RecommendationRequestRepository recommendationRequestRepository;
+
+  @Autowired
+  SparseFieldsetService sparseFieldsetService;
+
+  @Autowired
+  ChangeFeedService changeFeedService;
+
+  /**
+   * This method returns every RecommendationRequest.
+   * @return a list of RecommendationRequestView
+   */
+  public List<RecommendationRequestView> findAll() {
+    return recommendationRequestRepository.findAllViews();
+  }
+
+  /**
+   * This method returns a single RecommendationRequest.
+   * @param id id of the RecommendationRequest
+   * @return the RecommendationRequestView
+   * @throws EntityNotFoundException if there is no RecommendationRequest with that id
+   */
+  public RecommendationRequestView findById(Long id) {
+    return recommendationRequestRepository.findViewById(id)
+        .orElseThrow(() -> new EntityNotFoundException(RecommendationRequest.class, id));
+  }
+
+  /**
+   * This method returns only the given fields of a single RecommendationRequest.
+   * @param id id of the RecommendationRequest
+   * @param fields names of the fields to return
+   * @return a map from field name to value
+   * @throws EntityNotFoundException if there is no RecommendationRequest with that id
+   */
+  public Map<String, Object> findById(Long id, List<String> fields) {
+    return sparseFieldsetService.findById(RecommendationRequest.class, RecommendationRequestView.class, id, fields)
+        .orElseThrow(() -> new EntityNotFoundException(RecommendationRequest.class, id));
+  }
+
+  /**
+   * This method returns the RecommendationRequests that match the given filters, in the given order.
+   * @param done only list recommendation requests that are (true) or are not (false) done (null for any)
+   * @param professorEmail only list recommendation requests sent to this professor (null for any)
+   * @param sort order of the results; may only use id and dateNeeded
+   * @return a list of RecommendationRequestView
+   * @throws UnknownFieldException if the sort uses any other field
+   */
+  public List<RecommendationRequestView> findAll(Boolean done, String professorEmail, Sort sort) {
+    if (done == null && professorEmail == null && sort.isUnsorted()) {
+      return findAll();
+    }
+    return sparseFieldsetService.findAll(RecommendationRequest.class, RecommendationRequestView.class, filter(done, professorEmail), checkSort(sort));
+  }
+
+  /**
+   * This method returns only the given fields of the RecommendationRequests that match the given
+   * filters, in the given order.
+   * @param done only list recommendation requests that are (true) or are not (false) done (null for any)
+   * @param professorEmail only list recommendation requests sent to this professor (null for any)
+   * @param sort order of the results; may only use id and dateNeeded
+   * @param fields names of the fields to return
+   * @return one map (field name to value) per RecommendationRequest
+   * @throws UnknownFieldException if the sort or fields use an unknown field
+   */
+  public List<Map<String, Object>> findAll(Boolean done, String professorEmail, Sort sort, List<String> fields) {
+    return sparseFieldsetService.findAll(RecommendationRequest.class, RecommendationRequestView.class, fields, filter(done, professorEmail), checkSort(sort));
+  }
+
+  private static Specification<RecommendationRequest> filter(Boolean done, String professorEmail) {
+    return Specification.<RecommendationRequest>where(ListFilters.equalTo("done", done))
+        .and(ListFilters.equalTo("professorEmail", professorEmail));
+  }
+
+  private static Sort checkSort(Sort sort) {
+    return ListFilters.restrictTo(RecommendationRequest.class, sort, SORTABLE_FIELDS);
+  }
+
+  /**
+   * This method returns the RecommendationRequests that were created, updated or deleted after a sync token.
+   * @param since token from the previous call (0 for a full sync)
+   * @return the changes and the token to use next time
+   */
+  public Changes<RecommendationRequestView> changesSince(long since) {
+    return changeFeedService.changesSince(RecommendationRequest.class, RecommendationRequestView.class, since);
+  }
+}
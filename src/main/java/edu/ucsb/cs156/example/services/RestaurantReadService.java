@@ -0,0 +1,83 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.Restaurant;
+import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.models.Changes;
+import edu.ucsb.cs156.example.models.RestaurantView;
+import edu.ucsb.cs156.example.repositories.RestaurantRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This is a service for reading Restaurant entities.
+ *
+ * Each method runs in a read-only transaction and returns RestaurantView records
+ * rather than managed entities.
+ */
+@Service
+@Transactional(readOnly = true)
+public class RestaurantReadService {
+
+  @Autowired
+  RestaurantRepository restaurantRepository;
+
+  @Autowired
+  SparseFieldsetService sparseFieldsetService;
+
+  @Autowired
+  ChangeFeedService changeFeedService;
+
+  /**
+   * This method returns every Restaurant.
+   * @return a list of RestaurantView
+   */
+  public List<RestaurantView> findAll() {
+    return restaurantRepository.findAllViews();
+  }
+
+  /**
+   * This method returns a single Restaurant.
+   * @param id id of the Restaurant
+   * @return the RestaurantView
+   * @throws EntityNotFoundException if there is no Restaurant with that id
+   */
+  public RestaurantView findById(Long id) {
+    return restaurantRepository.findViewById(id)
+        .orElseThrow(() -> new EntityNotFoundException(Restaurant.class, id));
+  }
+
+  /**
+   * This method returns only the given fields of every Restaurant.
+   * @param fields names of the fields to return
+   * @return one map (field name to value) per Restaurant
+   */
+  public List<Map<String, Object>> findAll(List<String> fields) {
+    return sparseFieldsetService.findAll(Restaurant.class, RestaurantView.class, fields);
+  }
+
+  /**
+   * This method returns only the given fields of a single Restaurant.
+   * @param id id of the Restaurant
+   * @param fields names of the fields to return
+   * @return a map from field name to value
+   * @throws EntityNotFoundException if there is no Restaurant with that id
+   */
+  public Map<String, Object> findById(Long id, List<String> fields) {
+    return sparseFieldsetService.findById(Restaurant.class, RestaurantView.class, id, fields)
+        .orElseThrow(() -> new EntityNotFoundException(Restaurant.class, id));
+  }
+
+  /**
+   * This method returns the Restaurants that were created, updated or deleted after a sync token.
+   * @param since token from the previous call (0 for a full sync)
+   * @return the changes and the token to use next time
+   */
+  public Changes<RestaurantView> changesSince(long since) {
+    return changeFeedService.changesSince(Restaurant.class, RestaurantView.class, since);
+  }
+}
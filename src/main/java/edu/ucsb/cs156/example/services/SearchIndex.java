@@ -0,0 +1,340 @@
+package edu.ucsb.cs156.example.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import edu.ucsb.cs156.example.entities.Articles;
+import edu.ucsb.cs156.example.entities.Restaurant;
+import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
+import edu.ucsb.cs156.example.entities.UCSBOrganization;
+import edu.ucsb.cs156.example.models.ArticlesView;
+import edu.ucsb.cs156.example.models.RestaurantView;
+import edu.ucsb.cs156.example.models.SearchHit;
+import edu.ucsb.cs156.example.models.UCSBDiningCommonsMenuItemView;
+import edu.ucsb.cs156.example.models.UCSBOrganizationView;
+import edu.ucsb.cs156.example.repositories.ArticlesRepository;
+import edu.ucsb.cs156.example.repositories.RestaurantRepository;
+import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsMenuItemRepository;
+import edu.ucsb.cs156.example.repositories.UCSBOrganizationRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * This component is an in-memory inverted index over the restaurants,
+ * organizations, dining commons menu items and articles, for the portal
+ * search box.
+ *
+ * Each entity is one document, with a numeric id handed out in order. For
+ * every word there is a PostingsList of the documents that contain it. A
+ * search intersects the lists of its words, so it never touches the database.
+ *
+ * The index is built at startup, and kept up to date by SearchIndexListener:
+ * once a transaction that wrote one of the entities commits, the entity's old
+ * document is marked deleted and a new one is added. Deleted documents stay
+ * in the postings lists (and are skipped) until there are more of them than
+ * live ones; then the index is rebuilt from the live documents.
+ */
+@Slf4j
+@Component
+public class SearchIndex {
+
+  /** Type of the documents for restaurants. */
+  public static final String RESTAURANT = "restaurant";
+  /** Type of the documents for organizations. */
+  public static final String ORGANIZATION = "organization";
+  /** Type of the documents for dining commons menu items. */
+  public static final String MENU_ITEM = "menuItem";
+  /** Type of the documents for articles. */
+  public static final String ARTICLE = "article";
+
+  /** Below this many deleted documents the index is never compacted. */
+  static final int MIN_DELETED_BEFORE_COMPACTING = 64;
+
+  /**
+   * What is indexed for one entity.
+   * @param type what kind of entity it is
+   * @param id id of the entity
+   * @param title what to show for it in the results (its words count double)
+   * @param text everything that is searched, including the title
+   */
+  record Document(String type, String id, String title, String text) {
+
+    String key() {
+      return type + ":" + id;
+    }
+  }
+
+  /** The documents and postings lists; guarded by lock. */
+  private static final class Index {
+
+    private final List<Document> documents = new ArrayList<>();
+    private final List<Set<String>> titleWords = new ArrayList<>();
+    private final List<Integer> wordCounts = new ArrayList<>();
+    private final Map<String, Integer> idsByKey = new HashMap<>();
+    private final Map<String, PostingsList> postings = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+
+    void put(Document document) {
+      remove(document.key());
+      int id = documents.size();
+      Set<String> words = words(document.text());
+      documents.add(document);
+      titleWords.add(words(document.title()));
+      wordCounts.add(words.size());
+      idsByKey.put(document.key(), id);
+      for (String word : words) {
+        postings.computeIfAbsent(word, w -> new PostingsList()).add(id);
+      }
+    }
+
+    void remove(String key) {
+      Integer id = idsByKey.remove(key);
+      if (id != null) {
+        deleted.set(id);
+      }
+    }
+
+    int size() {
+      return idsByKey.size();
+    }
+
+    boolean needsCompacting() {
+      int deletedCount = deleted.cardinality();
+      return deletedCount >= MIN_DELETED_BEFORE_COMPACTING && deletedCount > idsByKey.size();
+    }
+
+    Index compacted() {
+      Index compacted = new Index();
+      for (int id = deleted.nextClearBit(0); id < documents.size(); id = deleted.nextClearBit(id + 1)) {
+        compacted.put(documents.get(id));
+      }
+      return compacted;
+    }
+
+    List<SearchHit> search(Set<String> words, int limit) {
+      List<PostingsList> lists = new ArrayList<>();
+      for (String word : words) {
+        PostingsList list = postings.get(word);
+        if (list == null) {
+          return List.of();
+        }
+        lists.add(list);
+      }
+      lists.sort(Comparator.comparingInt(PostingsList::size));
+
+      List<PostingsList.Cursor> others = lists.stream().skip(1).map(PostingsList::cursor).toList();
+      PostingsList.Cursor first = lists.get(0).cursor();
+      List<SearchHit> hits = new ArrayList<>();
+      candidates:
+      for (int id = first.next(); id != -1; id = first.next()) {
+        for (PostingsList.Cursor other : others) {
+          int found = other.advanceTo(id);
+          if (found == -1) {
+            break candidates;
+          }
+          if (found != id) {
+            continue candidates;
+          }
+        }
+        if (!deleted.get(id)) {
+          hits.add(hit(id, words));
+        }
+      }
+      hits.sort(Comparator.comparingDouble(SearchHit::score).reversed()
+          .thenComparing(SearchHit::type)
+          .thenComparing(SearchHit::id));
+      return hits.size() > limit ? List.copyOf(hits.subList(0, limit)) : hits;
+    }
+
+    /**
+     * Every hit has all the words of the search; it scores higher the more of
+     * them are in its title and the fewer other words it has.
+     */
+    private SearchHit hit(int id, Set<String> words) {
+      Document document = documents.get(id);
+      long inTitle = words.stream().filter(titleWords.get(id)::contains).count();
+      double score = (words.size() + inTitle) / Math.sqrt(wordCounts.get(id));
+      return new SearchHit(document.type(), document.id(), document.title(), score);
+    }
+  }
+
+  @Autowired
+  RestaurantRepository restaurantRepository;
+
+  @Autowired
+  UCSBOrganizationRepository ucsbOrganizationRepository;
+
+  @Autowired
+  UCSBDiningCommonsMenuItemRepository ucsbDiningCommonsMenuItemRepository;
+
+  @Autowired
+  ArticlesRepository articlesRepository;
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private Index index = new Index();
+  // changes made while rebuild() reads the database, replayed on the new index
+  private List<Consumer<Index>> pending;
+
+  /**
+   * This method reads every searchable entity and replaces the index with one
+   * built from them. Changes committed while it runs are not lost.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  @Transactional(readOnly = true)
+  public void rebuild() {
+    long start = System.nanoTime();
+    lock.writeLock().lock();
+    try {
+      pending = new ArrayList<>();
+    } finally {
+      lock.writeLock().unlock();
+    }
+
+    Index rebuilt = new Index();
+    Stream.of(restaurantRepository.findAllViews(), ucsbOrganizationRepository.findAllViews(),
+            ucsbDiningCommonsMenuItemRepository.findAllViews(), articlesRepository.findAllViews())
+        .flatMap(List::stream)
+        .map(SearchIndex::document)
+        .forEach(rebuilt::put);
+
+    lock.writeLock().lock();
+    try {
+      pending.forEach(change -> change.accept(rebuilt));
+      pending = null;
+      index = rebuilt;
+    } finally {
+      lock.writeLock().unlock();
+    }
+    log.info("Indexed {} documents for search in {} ms", rebuilt.size(), (System.nanoTime() - start) / 1_000_000);
+  }
+
+  /**
+   * This method finds the documents that contain every word of a search.
+   * @param q the words to search for (case does not matter)
+   * @param limit the most hits to return
+   * @return the best hits, best first
+   */
+  public List<SearchHit> search(String q, int limit) {
+    Set<String> words = words(q);
+    if (words.isEmpty() || limit <= 0) {
+      return List.of();
+    }
+    lock.readLock().lock();
+    try {
+      return index.search(words, limit);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * @return how many documents are in the index
+   */
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return index.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * This method puts the current state of an entity in the index once the
+   * current transaction commits (or at once, outside a transaction).
+   * @param entity a Restaurant, UCSBOrganization, UCSBDiningCommonsMenuItem or Articles
+   */
+  public void written(Object entity) {
+    Document document = document(entity);
+    afterCommit(index -> index.put(document));
+  }
+
+  /**
+   * This method takes an entity out of the index once the current
+   * transaction commits (or at once, outside a transaction).
+   * @param entity a Restaurant, UCSBOrganization, UCSBDiningCommonsMenuItem or Articles
+   */
+  public void removed(Object entity) {
+    String key = document(entity).key();
+    afterCommit(index -> index.remove(key));
+  }
+
+  private void afterCommit(Consumer<Index> change) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      apply(change);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        apply(change);
+      }
+    });
+  }
+
+  private void apply(Consumer<Index> change) {
+    lock.writeLock().lock();
+    try {
+      change.accept(index);
+      if (pending != null) {
+        pending.add(change);
+      }
+      if (index.needsCompacting()) {
+        index = index.compacted();
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /** The document for an entity, or for the view of one. */
+  static Document document(Object entity) {
+    return switch (entity) {
+      case Restaurant restaurant -> document(RestaurantView.from(restaurant));
+      case UCSBOrganization org -> document(UCSBOrganizationView.from(org));
+      case UCSBDiningCommonsMenuItem menuItem -> document(UCSBDiningCommonsMenuItemView.from(menuItem));
+      case Articles article -> document(ArticlesView.from(article));
+      case RestaurantView restaurant -> new Document(RESTAURANT, String.valueOf(restaurant.id()),
+          restaurant.name(), join(restaurant.name(), restaurant.description()));
+      case UCSBOrganizationView org -> new Document(ORGANIZATION, org.orgCode(),
+          org.orgTranslation(), join(org.orgTranslation()));
+      case UCSBDiningCommonsMenuItemView menuItem -> new Document(MENU_ITEM, String.valueOf(menuItem.id()),
+          menuItem.name(), join(menuItem.name()));
+      case ArticlesView article -> new Document(ARTICLE, String.valueOf(article.id()),
+          article.title(), join(article.title(), article.explanation()));
+      default -> throw new IllegalArgumentException("Not searchable: " + entity.getClass().getName());
+    };
+  }
+
+  private static String join(String... parts) {
+    return Arrays.stream(parts).filter(part -> part != null).collect(Collectors.joining(" "));
+  }
+
+  /** The distinct words of a text, in lower case. */
+  static Set<String> words(String text) {
+    if (text == null) {
+      return Set.of();
+    }
+    return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+        .filter(word -> !word.isEmpty())
+        .collect(Collectors.toSet());
+  }
+}
@@ -0,0 +1,40 @@
+package edu.ucsb.cs156.example.services;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * This JPA entity listener tells the SearchIndex about every insert, update
+ * and delete of the entities it is attached to.
+ */
+public class SearchIndexListener {
+
+  // looked up on use, because the index needs repositories, which need the
+  // EntityManagerFactory that is being built when this listener is created;
+  // test slices without the index simply skip it
+  @Autowired
+  ObjectProvider<SearchIndex> searchIndex;
+
+  /**
+   * This method is called by JPA after an entity is inserted or updated.
+   * @param entity the entity
+   */
+  @PostPersist
+  @PostUpdate
+  void written(Object entity) {
+    searchIndex.ifAvailable(index -> index.written(entity));
+  }
+
+  /**
+   * This method is called by JPA after an entity is deleted.
+   * @param entity the entity
+   */
+  @PostRemove
+  void removed(Object entity) {
+    searchIndex.ifAvailable(index -> index.removed(entity));
+  }
+}
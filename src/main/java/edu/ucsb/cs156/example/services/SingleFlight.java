@@ -0,0 +1,94 @@
+package edu.ucsb.cs156.example.services;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * This class lets concurrent callers asking for the same key share a single
+ * load: the first caller runs the loader, and callers that arrive while it is
+ * still running wait for and get the same result (or exception). Nothing is
+ * kept once the load finishes, so this is not a cache.
+ *
+ * After a write, {@link #invalidate()} makes new callers start a fresh load
+ * instead of joining one that may have read the data before the write.
+ *
+ * @param <K> type of the keys
+ * @param <V> type of the results; a result is shared, so it must not be modified
+ */
+public class SingleFlight<K, V> {
+
+  private record Flight<V>(long generation, CompletableFuture<V> result) {
+  }
+
+  private final ConcurrentHashMap<K, Flight<V>> inFlight = new ConcurrentHashMap<>();
+  private final AtomicLong generation = new AtomicLong();
+
+  /**
+   * This method returns the result of the load for the key that is already in
+   * flight, or runs the loader on the calling thread if there is none.
+   * @param key identifies the load; equal keys must mean identical queries
+   * @param loader runs the query
+   * @return the result of the loader
+   */
+  public V load(K key, Supplier<V> loader) {
+    long current = generation.get();
+    CompletableFuture<V> mine = new CompletableFuture<>();
+    Flight<V> flight = inFlight.compute(key,
+        (k, existing) -> existing != null && existing.generation() == current ? existing : new Flight<>(current, mine));
+    if (flight.result() != mine) {
+      return join(flight.result());
+    }
+    try {
+      V value = loader.get();
+      mine.complete(value);
+      return value;
+    } catch (RuntimeException | Error e) {
+      mine.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, flight);
+    }
+  }
+
+  private static <V> V join(CompletableFuture<V> result) {
+    try {
+      return result.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw (Error) e.getCause();
+    }
+  }
+
+  /**
+   * This method stops callers from joining loads that started before now.
+   */
+  public void invalidate() {
+    generation.incrementAndGet();
+  }
+
+  /**
+   * This method calls {@link #invalidate()} once the current transaction
+   * commits (and not at all if it rolls back), or right away if there is no
+   * transaction.
+   */
+  public void invalidateAfterCommit() {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      invalidate();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        invalidate();
+      }
+    });
+  }
+}
@@ -0,0 +1,173 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.errors.UnknownFieldException;
+
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * This is a service for queries that return only some of the fields of an entity
+ * (a "sparse fieldset"), e.g. {@code GET /api/articles/all?fields=id,title}.
+ *
+ * The requested fields become the select list of the SQL query (built with the
+ * JPA Criteria API), so columns that were not asked for are never read from the
+ * database. Each row is returned as a map from field name to value, in the order
+ * the fields were requested. Only the components of the entity's view record
+ * (e.g. ArticlesView) may be requested, so columns that the API never returns
+ * cannot be selected either.
+ *
+ * It also runs filtered and sorted listings into view records (e.g. HelpRequestView),
+ * selecting exactly the record's components.
+ *
+ * Queries on entities marked {@link Cacheable} (the reference data in
+ * SecondLevelCacheConfig) go through Hibernate's query cache.
+ */
+@Service
+@Transactional(readOnly = true)
+public class SparseFieldsetService {
+
+  @PersistenceContext
+  EntityManager entityManager;
+
+  /**
+   * This method returns the requested fields of every entity of the given type.
+   * @param <T> the entity type
+   * @param <V> the view record type
+   * @param entityClass the entity class, e.g. Articles.class
+   * @param viewClass the view class, e.g. ArticlesView.class; only its components may be requested
+   * @param fields names of the fields to select
+   * @return one map per row
+   * @throws UnknownFieldException if one of the fields is not a component of the view
+   */
+  public <T, V extends Record> List<Map<String, Object>> findAll(Class<T> entityClass, Class<V> viewClass,
+      List<String> fields) {
+    return select(entityClass, viewClass, fields, null, Sort.unsorted());
+  }
+
+  /**
+   * This method returns the requested fields of the entities that match a
+   * Specification, in the given order.
+   * @param <T> the entity type
+   * @param <V> the view record type
+   * @param entityClass the entity class, e.g. HelpRequest.class
+   * @param viewClass the view class, e.g. HelpRequestView.class; only its components may be requested
+   * @param fields names of the fields to select
+   * @param spec the where clause (null for none)
+   * @param sort the order by clause
+   * @return one map per row
+   * @throws UnknownFieldException if one of the fields is not a component of the view
+   */
+  public <T, V extends Record> List<Map<String, Object>> findAll(Class<T> entityClass, Class<V> viewClass,
+      List<String> fields, Specification<T> spec, Sort sort) {
+    return select(entityClass, viewClass, fields, spec, sort);
+  }
+
+  /**
+   * This method returns the entities that match a Specification, in the given order,
+   * as view records. The record components must have the same names as entity attributes.
+   * @param <T> the entity type
+   * @param <V> the view record type
+   * @param entityClass the entity class, e.g. HelpRequest.class
+   * @param viewClass the view class, e.g. HelpRequestView.class
+   * @param spec the where clause (null for none)
+   * @param sort the order by clause
+   * @return one view per row
+   */
+  public <T, V extends Record> List<V> findAll(Class<T> entityClass, Class<V> viewClass,
+      Specification<T> spec, Sort sort) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<V> query = cb.createQuery(viewClass);
+    Root<T> root = query.from(entityClass);
+    query.select(cb.construct(viewClass, Arrays.stream(viewClass.getRecordComponents())
+        .map(component -> root.get(component.getName()))
+        .toArray(Selection<?>[]::new)));
+    whereAndOrderBy(query, root, cb, spec, sort);
+
+    return entityManager.createQuery(query)
+        .setHint(HibernateHints.HINT_READ_ONLY, true)
+        .setHint(HibernateHints.HINT_CACHEABLE, entityClass.isAnnotationPresent(Cacheable.class))
+        .getResultList();
+  }
+
+  /**
+   * This method returns the requested fields of a single entity.
+   * @param <T> the entity type
+   * @param <V> the view record type
+   * @param entityClass the entity class, e.g. Articles.class
+   * @param viewClass the view class, e.g. ArticlesView.class; only its components may be requested
+   * @param id the value of the entity's id
+   * @param fields names of the fields to select
+   * @return Optional of the row (empty if not found)
+   * @throws UnknownFieldException if one of the fields is not a component of the view
+   */
+  public <T, V extends Record> Optional<Map<String, Object>> findById(Class<T> entityClass, Class<V> viewClass,
+      Object id, List<String> fields) {
+    String idField = entityManager.getMetamodel().entity(entityClass).getSingularAttributes().stream()
+        .filter(SingularAttribute::isId)
+        .findFirst().orElseThrow().getName();
+    Specification<T> byId = (root, query, cb) -> cb.equal(root.get(idField), id);
+    return select(entityClass, viewClass, fields, byId, Sort.unsorted()).stream().findFirst();
+  }
+
+  private <T, V extends Record> List<Map<String, Object>> select(Class<T> entityClass, Class<V> viewClass,
+      List<String> fields, Specification<T> spec, Sort sort) {
+    // the view's components, not the entity's attributes: the entity may have
+    // columns that are never returned, e.g. changeSeq
+    for (String field : fields) {
+      if (Arrays.stream(viewClass.getRecordComponents()).noneMatch(c -> c.getName().equals(field))) {
+        throw new UnknownFieldException(entityClass, field);
+      }
+    }
+
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Tuple> query = cb.createTupleQuery();
+    Root<T> root = query.from(entityClass);
+    query.multiselect(fields.stream().<Selection<?>>map(f -> root.get(f).alias(f)).toList());
+    whereAndOrderBy(query, root, cb, spec, sort);
+
+    List<Tuple> rows = entityManager.createQuery(query)
+        .setHint(HibernateHints.HINT_READ_ONLY, true)
+        .setHint(HibernateHints.HINT_CACHEABLE, entityClass.isAnnotationPresent(Cacheable.class))
+        .getResultList();
+    return rows.stream().map(row -> toMap(row, fields)).toList();
+  }
+
+  private static <T> void whereAndOrderBy(CriteriaQuery<?> query, Root<T> root, CriteriaBuilder cb,
+      Specification<T> spec, Sort sort) {
+    if (spec != null) {
+      Predicate predicate = spec.toPredicate(root, query, cb);
+      if (predicate != null) {
+        query.where(predicate);
+      }
+    }
+    query.orderBy(QueryUtils.toOrders(sort, root, cb));
+  }
+
+  private static Map<String, Object> toMap(Tuple row, List<String> fields) {
+    Map<String, Object> map = new LinkedHashMap<>();
+    for (String field : fields) {
+      map.put(field, row.get(field));
+    }
+    return map;
+  }
+}
@@ -0,0 +1,171 @@
+package edu.ucsb.cs156.example.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This is a hierarchical timing wheel: a set of timers, each with a key, a
+ * value and a deadline, that hands back the values of the timers that are
+ * due as time advances.
+ *
+ * Time is counted in ticks of {@code tickMillis}. Level 0 has one slot per
+ * tick for the next {@code 2^bits} ticks; each level above has slots that
+ * are {@code 2^bits} times as wide. A timer goes in the lowest level whose
+ * range covers its deadline, at the slot given by the matching bits of its
+ * deadline tick. Every tick fires one slot of level 0; whenever the ticks of
+ * a level wrap around, the next slot of the level above is emptied and its
+ * timers are put back one or more levels down (as in the Linux kernel). So
+ * scheduling, cancelling and firing a timer each take constant time, however
+ * many timers there are.
+ *
+ * Deadlines are rounded up to a whole tick, and timers whose deadline has
+ * passed fire on the next tick. Deadlines beyond the range of the top level
+ * go round it again until they are in range.
+ *
+ * Instances are not thread safe.
+ *
+ * @param <K> type of the keys
+ * @param <V> type of the values
+ */
+public class TimingWheel<K, V> {
+
+  /** A timer, and where it is. */
+  private static final class Timer<K, V> {
+    private final K key;
+    private final V value;
+    private final long tick;
+    private int level;
+    private int slot;
+
+    private Timer(K key, V value, long tick) {
+      this.key = key;
+      this.value = value;
+      this.tick = tick;
+    }
+  }
+
+  private final long tickMillis;
+  private final int bits;
+  private final int mask;
+  private final List<List<Map<K, Timer<K, V>>>> levels = new ArrayList<>();
+  private final Map<K, Timer<K, V>> timers = new HashMap<>();
+  // every timer up to and including this tick has fired
+  private long currentTick;
+
+  /**
+   * Builds an empty wheel.
+   * @param tickMillis how long a tick is, in milliseconds
+   * @param bits log2 of the number of slots in each level
+   * @param levelCount how many levels there are
+   * @param startMillis the current time, in milliseconds since the epoch
+   */
+  public TimingWheel(long tickMillis, int bits, int levelCount, long startMillis) {
+    this.tickMillis = tickMillis;
+    this.bits = bits;
+    this.mask = (1 << bits) - 1;
+    for (int level = 0; level < levelCount; level++) {
+      List<Map<K, Timer<K, V>>> slots = new ArrayList<>(1 << bits);
+      for (int slot = 0; slot <= mask; slot++) {
+        slots.add(new LinkedHashMap<>());
+      }
+      levels.add(slots);
+    }
+    this.currentTick = Math.floorDiv(startMillis, tickMillis);
+  }
+
+  /**
+   * This method sets a timer, replacing the one with the same key if there is one.
+   * @param key the key of the timer
+   * @param value what {@link #advance} returns when the timer fires
+   * @param deadlineMillis when the timer fires, in milliseconds since the epoch
+   */
+  public void schedule(K key, V value, long deadlineMillis) {
+    cancel(key);
+    long tick = Math.max(Math.ceilDiv(deadlineMillis, tickMillis), currentTick + 1);
+    Timer<K, V> timer = new Timer<>(key, value, tick);
+    timers.put(key, timer);
+    place(timer);
+  }
+
+  /**
+   * This method removes a timer.
+   * @param key the key of the timer
+   * @return whether there was such a timer
+   */
+  public boolean cancel(K key) {
+    Timer<K, V> timer = timers.remove(key);
+    if (timer == null) {
+      return false;
+    }
+    levels.get(timer.level).get(timer.slot).remove(key);
+    return true;
+  }
+
+  /**
+   * @param key the key of a timer
+   * @return whether the timer is set (and has not fired yet)
+   */
+  public boolean contains(K key) {
+    return timers.containsKey(key);
+  }
+
+  /**
+   * @return how many timers are set
+   */
+  public int size() {
+    return timers.size();
+  }
+
+  /**
+   * This method moves the wheel forward to the current time, one tick at a time.
+   * @param nowMillis the current time, in milliseconds since the epoch
+   * @return the values of the timers that fired, earliest first
+   */
+  public List<V> advance(long nowMillis) {
+    long target = Math.floorDiv(nowMillis, tickMillis);
+    List<V> fired = new ArrayList<>();
+    while (currentTick < target) {
+      currentTick++;
+      for (int level = 1; level < levels.size() && (currentTick & ((1L << (bits * level)) - 1)) == 0; level++) {
+        cascade(level);
+      }
+      Map<K, Timer<K, V>> due = detach(0, slotOf(currentTick, 0));
+      for (Timer<K, V> timer : due.values()) {
+        timers.remove(timer.key);
+        fired.add(timer.value);
+      }
+    }
+    return fired;
+  }
+
+  private void cascade(int level) {
+    for (Timer<K, V> timer : detach(level, slotOf(currentTick, level)).values()) {
+      place(timer);
+    }
+  }
+
+  private Map<K, Timer<K, V>> detach(int level, int slot) {
+    List<Map<K, Timer<K, V>>> slots = levels.get(level);
+    Map<K, Timer<K, V>> detached = slots.get(slot);
+    slots.set(slot, new LinkedHashMap<>());
+    return detached;
+  }
+
+  private void place(Timer<K, V> timer) {
+    long delta = timer.tick - currentTick;
+    int level = 0;
+    while (level < levels.size() - 1 && delta >> (bits * (level + 1)) != 0) {
+      level++;
+    }
+    timer.level = level;
+    timer.slot = slotOf(timer.tick, level);
+    levels.get(level).get(timer.slot).put(timer.key, timer);
+  }
+
+  private int slotOf(long tick, int level) {
+    return (int) ((tick >> (bits * level)) & mask);
+  }
+}
@@ -0,0 +1,62 @@
+package edu.ucsb.cs156.example.services;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket that holds up to {@code capacity} tokens and refills
+ * completely over {@code refillPeriod}, i.e. one token every
+ * refillPeriod / capacity.
+ *
+ * Instead of a token count and a last-refill time, the whole state is the
+ * single instant at which the bucket will be full again. Taking a token moves
+ * that instant one token's worth into the future, and a token may be taken as
+ * long as the instant stays within one refill period of now. That makes
+ * {@link #tryConsume(long)} a compare-and-set on one AtomicLong, with no lock.
+ */
+public class TokenBucket {
+
+  private final long nanosPerToken;
+  private final long refillNanos;
+  private final AtomicLong fullAt;
+
+  /**
+   * Creates a bucket that starts full.
+   * @param capacity maximum number of tokens (the largest burst)
+   * @param refillPeriod time to refill an empty bucket
+   * @param now the current time, in the units of System.nanoTime()
+   */
+  public TokenBucket(int capacity, Duration refillPeriod, long now) {
+    this.nanosPerToken = Math.max(1, refillPeriod.toNanos() / capacity);
+    this.refillNanos = nanosPerToken * capacity;
+    this.fullAt = new AtomicLong(now);
+  }
+
+  /**
+   * This method takes one token if there is one.
+   * @param now the current time, in the units of System.nanoTime()
+   * @return 0 if a token was taken, otherwise how many nanoseconds until one will be available
+   */
+  public long tryConsume(long now) {
+    long previous = fullAt.getAndUpdate(current -> waitAfter(current, now) > 0 ? current : next(current, now));
+    return Math.max(0, waitAfter(previous, now));
+  }
+
+  private long next(long current, long now) {
+    return Math.max(current, now) + nanosPerToken;
+  }
+
+  private long waitAfter(long current, long now) {
+    return next(current, now) - now - refillNanos;
+  }
+
+  /**
+   * This method tells whether the bucket has refilled completely, i.e. whether
+   * forgetting it and later starting a new one would make no difference.
+   * @param now the current time, in the units of System.nanoTime()
+   * @return true if the bucket is full
+   */
+  public boolean isFull(long now) {
+    return fullAt.get() <= now;
+  }
+}
@@ -0,0 +1,68 @@
+package edu.ucsb.cs156.example.services;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * This component prunes the tombstones of the change feed every
+ * app.changes.prune-interval, on a thread of its own (see
+ * ChangeFeedService#pruneTombstones). Every instance prunes; the deletes
+ * are idempotent, so that is harmless.
+ */
+@Slf4j
+@Component
+public class TombstonePruner {
+
+  @Autowired
+  ChangeFeedService changeFeedService;
+
+  @Value("${app.changes.prune-interval:1h}")
+  Duration pruneInterval;
+
+  private ScheduledExecutorService pruner;
+
+  /**
+   * This method starts pruning, once right away and then every app.changes.prune-interval.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    pruner = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("tombstone-pruner").daemon().factory());
+    pruner.scheduleWithFixedDelay(this::prune, 0, pruneInterval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * This method stops pruning.
+   */
+  @PreDestroy
+  void stop() {
+    if (pruner != null) {
+      pruner.shutdownNow();
+    }
+  }
+
+  /**
+   * This method prunes the tombstones once; it runs on the pruner thread.
+   */
+  void prune() {
+    try {
+      int pruned = changeFeedService.pruneTombstones();
+      if (pruned > 0) {
+        log.info("Pruned {} tombstones", pruned);
+      }
+    } catch (RuntimeException e) {
+      log.warn("Could not prune tombstones, retrying in {}", pruneInterval, e);
+    }
+  }
+}
@@ -0,0 +1,155 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.UCSBDate;
+import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.errors.UnknownFieldException;
+import edu.ucsb.cs156.example.models.CalendarPosition;
+import edu.ucsb.cs156.example.models.Changes;
+import edu.ucsb.cs156.example.models.UCSBDateView;
+import edu.ucsb.cs156.example.repositories.UCSBDateRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This is a service for reading UCSBDate entities.
+ *
+ * Each method runs in a read-only transaction and returns UCSBDateView records
+ * rather than managed entities.
+ */
+@Service
+@Transactional(readOnly = true)
+public class UCSBDateReadService {
+
+  /** Fields that /all may be sorted by; each has an index behind it. */
+  static final Set<String> SORTABLE_FIELDS = Set.of("id", "localDateTime");
+
+  @Autowired
+  UCSBDateRepository ucsbDateRepository;
+
+  @Autowired
+  SparseFieldsetService sparseFieldsetService;
+
+  @Autowired
+  ChangeFeedService changeFeedService;
+
+  @Autowired
+  AcademicCalendarIndex academicCalendarIndex;
+
+  /**
+   * This method returns every UCSBDate.
+   * @return a list of UCSBDateView
+   */
+  public List<UCSBDateView> findAll() {
+    return ucsbDateRepository.findAllViews();
+  }
+
+  /**
+   * This method returns a single UCSBDate.
+   * @param id id of the UCSBDate
+   * @return the UCSBDateView
+   * @throws EntityNotFoundException if there is no UCSBDate with that id
+   */
+  public UCSBDateView findById(Long id) {
+    return ucsbDateRepository.findViewById(id)
+        .orElseThrow(() -> new EntityNotFoundException(UCSBDate.class, id));
+  }
+
+  /**
+   * This method returns only the given fields of a single UCSBDate.
+   * @param id id of the UCSBDate
+   * @param fields names of the fields to return
+   * @return a map from field name to value
+   * @throws EntityNotFoundException if there is no UCSBDate with that id
+   */
+  public Map<String, Object> findById(Long id, List<String> fields) {
+    return sparseFieldsetService.findById(UCSBDate.class, UCSBDateView.class, id, fields)
+        .orElseThrow(() -> new EntityNotFoundException(UCSBDate.class, id));
+  }
+
+  /**
+   * This method returns the UCSBDates that match the given filters, in the given order.
+   * @param quarterYYYYQ only list dates in this quarter, e.g. 20222 (null for any)
+   * @param sort order of the results; may only use id and localDateTime
+   * @return a list of UCSBDateView
+   * @throws UnknownFieldException if the sort uses any other field
+   */
+  public List<UCSBDateView> findAll(String quarterYYYYQ, Sort sort) {
+    if (quarterYYYYQ == null && sort.isUnsorted()) {
+      return findAll();
+    }
+    return sparseFieldsetService.findAll(UCSBDate.class, UCSBDateView.class, filter(quarterYYYYQ), checkSort(sort));
+  }
+
+  /**
+   * This method returns only the given fields of the UCSBDates that match the given
+   * filters, in the given order.
+   * @param quarterYYYYQ only list dates in this quarter, e.g. 20222 (null for any)
+   * @param sort order of the results; may only use id and localDateTime
+   * @param fields names of the fields to return
+   * @return one map (field name to value) per UCSBDate
+   * @throws UnknownFieldException if the sort or fields use an unknown field
+   */
+  public List<Map<String, Object>> findAll(String quarterYYYYQ, Sort sort, List<String> fields) {
+    return sparseFieldsetService.findAll(UCSBDate.class, UCSBDateView.class, fields, filter(quarterYYYYQ), checkSort(sort));
+  }
+
+  private static Specification<UCSBDate> filter(String quarterYYYYQ) {
+    return Specification.<UCSBDate>where(ListFilters.equalTo("quarterYYYYQ", quarterYYYYQ));
+  }
+
+  private static Sort checkSort(Sort sort) {
+    return ListFilters.restrictTo(UCSBDate.class, sort, SORTABLE_FIELDS);
+  }
+
+  /**
+   * This method returns the UCSBDates that were created, updated or deleted after a sync token.
+   * @param since token from the previous call (0 for a full sync)
+   * @return the changes and the token to use next time
+   */
+  public Changes<UCSBDateView> changesSince(long since) {
+    return changeFeedService.changesSince(UCSBDate.class, UCSBDateView.class, since);
+  }
+
+  /**
+   * This method returns the UCSBDates from start (inclusive) to end (exclusive),
+   * from the in-memory calendar index.
+   * @param start the earliest date and time to include
+   * @param end the first date and time not to include
+   * @return a list of UCSBDateView, in time order
+   */
+  public List<UCSBDateView> findBetween(LocalDateTime start, LocalDateTime end) {
+    return academicCalendarIndex.between(start, end);
+  }
+
+  /**
+   * This method tells which quarter contains an instant, and which UCSBDates
+   * fall on the same day, from the in-memory calendar index.
+   * @param instant the date and time to look up
+   * @return the quarter (if any) and the events of that day
+   */
+  public CalendarPosition findContaining(LocalDateTime instant) {
+    LocalDateTime startOfDay = instant.toLocalDate().atStartOfDay();
+    return new CalendarPosition(
+        academicCalendarIndex.quarterContaining(instant),
+        academicCalendarIndex.between(startOfDay, startOfDay.plusDays(1)));
+  }
+
+  /**
+   * This method returns the UCSBDates of a range of quarters.
+   * @param from first quarter to include, e.g. 20241
+   * @param to last quarter to include, e.g. 20244
+   * @return a list of UCSBDateView, by quarter and then in time order
+   */
+  public List<UCSBDateView> findInQuarters(int from, int to) {
+    return ucsbDateRepository.findViewsByQuarterKeyBetween(from, to);
+  }
+}
@@ -0,0 +1,127 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
+import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.errors.UnknownFieldException;
+import edu.ucsb.cs156.example.models.Changes;
+import edu.ucsb.cs156.example.models.UCSBDiningCommonsMenuItemView;
+import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsMenuItemRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This is a service for reading UCSBDiningCommonsMenuItem entities.
+ *
+ * Each method runs in a read-only transaction and returns UCSBDiningCommonsMenuItemView records
+ * rather than managed entities.
+ */
+@Service
+@Transactional(readOnly = true)
+public class UCSBDiningCommonsMenuItemReadService {
+
+  /** Fields that /all may be sorted by; each has an index behind it. */
+  static final Set<String> SORTABLE_FIELDS = Set.of("id", "name");
+
+  @Autowired
+  UCSBDiningCommonsMenuItemRepository ucsbDiningCommonsMenuItemRepository;
+
+  @Autowired
+  SparseFieldsetService sparseFieldsetService;
+
+  @Autowired
+  ChangeFeedService changeFeedService;
+
+  @Autowired
+  CoalescedReads coalescedReads;
+
+  /**
+   * This method returns every UCSBDiningCommonsMenuItem.
+   * Concurrent calls share one query (see CoalescedReads).
+   * @return a list of UCSBDiningCommonsMenuItemView
+   */
+  public List<UCSBDiningCommonsMenuItemView> findAll() {
+    return coalescedReads.load(UCSBDiningCommonsMenuItem.class, "all", ucsbDiningCommonsMenuItemRepository::findAllViews);
+  }
+
+  /**
+   * This method returns a single UCSBDiningCommonsMenuItem.
+   * @param id id of the UCSBDiningCommonsMenuItem
+   * @return the UCSBDiningCommonsMenuItemView
+   * @throws EntityNotFoundException if there is no UCSBDiningCommonsMenuItem with that id
+   */
+  public UCSBDiningCommonsMenuItemView findById(Long id) {
+    return ucsbDiningCommonsMenuItemRepository.findViewById(id)
+        .orElseThrow(() -> new EntityNotFoundException(UCSBDiningCommonsMenuItem.class, id));
+  }
+
+  /**
+   * This method returns only the given fields of a single UCSBDiningCommonsMenuItem.
+   * @param id id of the UCSBDiningCommonsMenuItem
+   * @param fields names of the fields to return
+   * @return a map from field name to value
+   * @throws EntityNotFoundException if there is no UCSBDiningCommonsMenuItem with that id
+   */
+  public Map<String, Object> findById(Long id, List<String> fields) {
+    return sparseFieldsetService.findById(UCSBDiningCommonsMenuItem.class, UCSBDiningCommonsMenuItemView.class, id, fields)
+        .orElseThrow(() -> new EntityNotFoundException(UCSBDiningCommonsMenuItem.class, id));
+  }
+
+  /**
+   * This method returns the UCSBDiningCommonsMenuItems that match the given filters, in the given order.
+   * Concurrent calls with the same arguments share one query (see CoalescedReads).
+   * @param diningCommonsCode only list menu items from this dining commons, e.g. ortega (null for any)
+   * @param station only list menu items from this station, e.g. Entrees (null for any)
+   * @param sort order of the results; may only use id and name
+   * @return a list of UCSBDiningCommonsMenuItemView
+   * @throws UnknownFieldException if the sort uses any other field
+   */
+  public List<UCSBDiningCommonsMenuItemView> findAll(String diningCommonsCode, String station, Sort sort) {
+    if (diningCommonsCode == null && station == null && sort.isUnsorted()) {
+      return findAll();
+    }
+    Sort checkedSort = checkSort(sort);
+    return coalescedReads.load(UCSBDiningCommonsMenuItem.class, Arrays.asList("all", diningCommonsCode, station, checkedSort),
+        () -> sparseFieldsetService.findAll(UCSBDiningCommonsMenuItem.class, UCSBDiningCommonsMenuItemView.class, filter(diningCommonsCode, station), checkedSort));
+  }
+
+  /**
+   * This method returns only the given fields of the UCSBDiningCommonsMenuItems that match the given
+   * filters, in the given order.
+   * @param diningCommonsCode only list menu items from this dining commons, e.g. ortega (null for any)
+   * @param station only list menu items from this station, e.g. Entrees (null for any)
+   * @param sort order of the results; may only use id and name
+   * @param fields names of the fields to return
+   * @return one map (field name to value) per UCSBDiningCommonsMenuItem
+   * @throws UnknownFieldException if the sort or fields use an unknown field
+   */
+  public List<Map<String, Object>> findAll(String diningCommonsCode, String station, Sort sort, List<String> fields) {
+    return sparseFieldsetService.findAll(UCSBDiningCommonsMenuItem.class, UCSBDiningCommonsMenuItemView.class, fields, filter(diningCommonsCode, station), checkSort(sort));
+  }
+
+  private static Specification<UCSBDiningCommonsMenuItem> filter(String diningCommonsCode, String station) {
+    return Specification.<UCSBDiningCommonsMenuItem>where(ListFilters.equalTo("diningCommonsCode", diningCommonsCode))
+        .and(ListFilters.equalTo("station", station));
+  }
+
+  private static Sort checkSort(Sort sort) {
+    return ListFilters.restrictTo(UCSBDiningCommonsMenuItem.class, sort, SORTABLE_FIELDS);
+  }
+
+  /**
+   * This method returns the UCSBDiningCommonsMenuItems that were created, updated or deleted after a sync token.
+   * @param since token from the previous call (0 for a full sync)
+   * @return the changes and the token to use next time
+   */
+  public Changes<UCSBDiningCommonsMenuItemView> changesSince(long since) {
+    return changeFeedService.changesSince(UCSBDiningCommonsMenuItem.class, UCSBDiningCommonsMenuItemView.class, since);
+  }
+}
@@ -0,0 +1,118 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
+import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.models.Changes;
+import edu.ucsb.cs156.example.models.NearbyDiningCommons;
+import edu.ucsb.cs156.example.models.UCSBDiningCommonsView;
+import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This is a service for reading UCSBDiningCommons entities.
+ *
+ * Each method runs in a read-only transaction and returns UCSBDiningCommonsView records
+ * rather than managed entities.
+ */
+@Service
+@Transactional(readOnly = true)
+public class UCSBDiningCommonsReadService {
+
+  @Autowired
+  UCSBDiningCommonsRepository ucsbDiningCommonsRepository;
+
+  @Autowired
+  SparseFieldsetService sparseFieldsetService;
+
+  @Autowired
+  ChangeFeedService changeFeedService;
+
+  @Autowired
+  CoalescedReads coalescedReads;
+
+  @Autowired
+  DiningCommonsLocator diningCommonsLocator;
+
+  /**
+   * This method returns every UCSBDiningCommons.
+   * Concurrent calls share one query (see CoalescedReads).
+   * @return a list of UCSBDiningCommonsView
+   */
+  public List<UCSBDiningCommonsView> findAll() {
+    return coalescedReads.load(UCSBDiningCommons.class, "all", ucsbDiningCommonsRepository::findAllViews);
+  }
+
+  /**
+   * This method returns a single UCSBDiningCommons.
+   * @param code code of the UCSBDiningCommons
+   * @return the UCSBDiningCommonsView
+   * @throws EntityNotFoundException if there is no UCSBDiningCommons with that code
+   */
+  public UCSBDiningCommonsView findById(String code) {
+    return ucsbDiningCommonsRepository.findViewById(code)
+        .orElseThrow(() -> new EntityNotFoundException(UCSBDiningCommons.class, code));
+  }
+
+  /**
+   * This method returns only the given fields of every UCSBDiningCommons.
+   * @param fields names of the fields to return
+   * @return one map (field name to value) per UCSBDiningCommons
+   */
+  public List<Map<String, Object>> findAll(List<String> fields) {
+    return sparseFieldsetService.findAll(UCSBDiningCommons.class, UCSBDiningCommonsView.class, fields);
+  }
+
+  /**
+   * This method returns only the given fields of a single UCSBDiningCommons.
+   * @param code code of the UCSBDiningCommons
+   * @param fields names of the fields to return
+   * @return a map from field name to value
+   * @throws EntityNotFoundException if there is no UCSBDiningCommons with that code
+   */
+  public Map<String, Object> findById(String code, List<String> fields) {
+    return sparseFieldsetService.findById(UCSBDiningCommons.class, UCSBDiningCommonsView.class, code, fields)
+        .orElseThrow(() -> new EntityNotFoundException(UCSBDiningCommons.class, code));
+  }
+
+  /**
+   * This method returns the UCSBDiningCommonss that were created, updated or deleted after a sync token.
+   * @param since token from the previous call (0 for a full sync)
+   * @return the changes and the token to use next time
+   */
+  public Changes<UCSBDiningCommonsView> changesSince(long since) {
+    return changeFeedService.changesSince(UCSBDiningCommons.class, UCSBDiningCommonsView.class, since);
+  }
+
+  /**
+   * This method returns the k UCSBDiningCommons closest to a point.
+   * @param latitude latitude of the point, in degrees
+   * @param longitude longitude of the point, in degrees
+   * @param k how many commons to return at most
+   * @param filter which commons to consider
+   * @return the closest commons with their distances, nearest first
+   */
+  public List<NearbyDiningCommons> findNearest(double latitude, double longitude, int k,
+      DiningCommonsLocator.Filter filter) {
+    return diningCommonsLocator.nearest(latitude, longitude, k, filter);
+  }
+
+  /**
+   * This method returns the UCSBDiningCommons inside a bounding box.
+   * @param minLatitude southern edge, in degrees
+   * @param maxLatitude northern edge, in degrees
+   * @param minLongitude western edge, in degrees (greater than maxLongitude if the box crosses the antimeridian)
+   * @param maxLongitude eastern edge, in degrees
+   * @param filter which commons to consider
+   * @return the commons in the box, by code
+   */
+  public List<UCSBDiningCommonsView> findWithin(double minLatitude, double maxLatitude,
+      double minLongitude, double maxLongitude, DiningCommonsLocator.Filter filter) {
+    return diningCommonsLocator.within(minLatitude, maxLatitude, minLongitude, maxLongitude, filter);
+  }
+}
@@ -0,0 +1,116 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.UCSBOrganization;
+import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.errors.UnknownFieldException;
+import edu.ucsb.cs156.example.models.Changes;
+import edu.ucsb.cs156.example.models.UCSBOrganizationView;
+import edu.ucsb.cs156.example.repositories.UCSBOrganizationRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This is a service for reading UCSBOrganization entities.
+ *
+ * Each method runs in a read-only transaction and returns UCSBOrganizationView records
+ * rather than managed entities.
+ */
+@Service
+@Transactional(readOnly = true)
+public class UCSBOrganizationReadService {
+
+  /** Fields that /all may be sorted by; each has an index behind it. */
+  static final Set<String> SORTABLE_FIELDS = Set.of("orgCode");
+
+  @Autowired
+  UCSBOrganizationRepository ucsbOrganizationRepository;
+
+  @Autowired
+  SparseFieldsetService sparseFieldsetService;
+
+  @Autowired
+  ChangeFeedService changeFeedService;
+
+  /**
+   * This method returns every UCSBOrganization.
+   * @return a list of UCSBOrganizationView
+   */
+  public List<UCSBOrganizationView> findAll() {
+    return ucsbOrganizationRepository.findAllViews();
+  }
+
+  /**
+   * This method returns a single UCSBOrganization.
+   * @param orgCode orgCode of the UCSBOrganization
+   * @return the UCSBOrganizationView
+   * @throws EntityNotFoundException if there is no UCSBOrganization with that orgCode
+   */
+  public UCSBOrganizationView findById(String orgCode) {
+    return ucsbOrganizationRepository.findViewById(orgCode)
+        .orElseThrow(() -> new EntityNotFoundException(UCSBOrganization.class, orgCode));
+  }
+
+  /**
+   * This method returns only the given fields of a single UCSBOrganization.
+   * @param orgCode orgCode of the UCSBOrganization
+   * @param fields names of the fields to return
+   * @return a map from field name to value
+   * @throws EntityNotFoundException if there is no UCSBOrganization with that orgCode
+   */
+  public Map<String, Object> findById(String orgCode, List<String> fields) {
+    return sparseFieldsetService.findById(UCSBOrganization.class, UCSBOrganizationView.class, orgCode, fields)
+        .orElseThrow(() -> new EntityNotFoundException(UCSBOrganization.class, orgCode));
+  }
+
+  /**
+   * This method returns the UCSBOrganizations that match the given filters, in the given order.
+   * @param inactive only list organizations that are (true) or are not (false) inactive (null for any)
+   * @param sort order of the results; may only use orgCode
+   * @return a list of UCSBOrganizationView
+   * @throws UnknownFieldException if the sort uses any other field
+   */
+  public List<UCSBOrganizationView> findAll(Boolean inactive, Sort sort) {
+    if (inactive == null && sort.isUnsorted()) {
+      return findAll();
+    }
+    return sparseFieldsetService.findAll(UCSBOrganization.class, UCSBOrganizationView.class, filter(inactive), checkSort(sort));
+  }
+
+  /**
+   * This method returns only the given fields of the UCSBOrganizations that match the given
+   * filters, in the given order.
+   * @param inactive only list organizations that are (true) or are not (false) inactive (null for any)
+   * @param sort order of the results; may only use orgCode
+   * @param fields names of the fields to return
+   * @return one map (field name to value) per UCSBOrganization
+   * @throws UnknownFieldException if the sort or fields use an unknown field
+   */
+  public List<Map<String, Object>> findAll(Boolean inactive, Sort sort, List<String> fields) {
+    return sparseFieldsetService.findAll(UCSBOrganization.class, UCSBOrganizationView.class, fields, filter(inactive), checkSort(sort));
+  }
+
+  private static Specification<UCSBOrganization> filter(Boolean inactive) {
+    return Specification.<UCSBOrganization>where(ListFilters.equalTo("inactive", inactive));
+  }
+
+  private static Sort checkSort(Sort sort) {
+    return ListFilters.restrictTo(UCSBOrganization.class, sort, SORTABLE_FIELDS);
+  }
+
+  /**
+   * This method returns the UCSBOrganizations that were created, updated or deleted after a sync token.
+   * @param since token from the previous call (0 for a full sync)
+   * @return the changes and the token to use next time
+   */
+  public Changes<UCSBOrganizationView> changesSince(long since) {
+    return changeFeedService.changesSince(UCSBOrganization.class, UCSBOrganizationView.class, since);
+  }
+}
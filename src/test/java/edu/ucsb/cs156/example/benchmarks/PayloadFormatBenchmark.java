@@ -0,0 +1,146 @@
+package edu.ucsb.cs156.example.benchmarks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import edu.ucsb.cs156.example.models.HelpRequestView;
+import edu.ucsb.cs156.example.models.MenuItemReviewView;
+
+/**
+ * Compares payload size and encode/decode time of JSON, CBOR and Smile for the
+ * /all listings that reporting consumers poll.
+ *
+ * This is not a unit test (the file name does not end in Tests, so plain
+ * `mvn test` skips it). Run it with:
+ *
+ * <pre>
+ * mvn test -Dtest=PayloadFormatBenchmark -Djacoco.skip=true
+ * </pre>
+ */
+public class PayloadFormatBenchmark {
+
+  private static final int ROWS = 2000;
+  private static final int WARMUP_ITERATIONS = 200;
+  private static final int ITERATIONS = 500;
+
+  private static final String[] COMMENTS = {
+      "Great, would order again",
+      "A bit too salty for my taste but the portion was generous",
+      "Cold by the time I got to the table",
+      "",
+      "Best thing on the menu at Ortega this quarter. The sauce is excellent." };
+
+  private static final String[] EXPLANATIONS = {
+      "Need help with Swagger-ui",
+      "Dokku problems: app crashes on startup after adding the new entity",
+      "Merge conflict in package-lock.json",
+      "Jacoco says a branch is not covered but we have a test for it",
+      "Frontend tests fail only on CI" };
+
+  private final ObjectMapper json = Jackson2ObjectMapperBuilder.json()
+      .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+      .build();
+
+  private final Map<String, ObjectMapper> formats = new LinkedHashMap<>();
+
+  {
+    formats.put("json", json);
+    formats.put("cbor", json.copyWith(new CBORFactory()));
+    formats.put("smile", json.copyWith(new SmileFactory()));
+  }
+
+  private static List<MenuItemReviewView> menuItemReviews() {
+    Random random = new Random(156);
+    LocalDateTime start = LocalDateTime.parse("2024-01-08T08:00:00");
+    List<MenuItemReviewView> reviews = new ArrayList<>();
+    for (int i = 1; i <= ROWS; i++) {
+      reviews.add(new MenuItemReviewView(
+          i,
+          1 + random.nextInt(300),
+          "student" + random.nextInt(5000) + "@ucsb.edu",
+          1 + random.nextInt(5),
+          start.plusMinutes(random.nextInt(60 * 24 * 70)),
+          COMMENTS[random.nextInt(COMMENTS.length)]));
+    }
+    return reviews;
+  }
+
+  private static List<HelpRequestView> helpRequests() {
+    Random random = new Random(156);
+    LocalDateTime start = LocalDateTime.parse("2024-01-08T08:00:00");
+    List<HelpRequestView> requests = new ArrayList<>();
+    for (int i = 1; i <= ROWS; i++) {
+      requests.add(new HelpRequestView(
+          i,
+          "student" + random.nextInt(5000) + "@ucsb.edu",
+          "w24-" + (5 + random.nextInt(3)) + "pm-" + (1 + random.nextInt(4)),
+          Integer.toString(1 + random.nextInt(12)),
+          start.plusMinutes(random.nextInt(60 * 24 * 70)),
+          EXPLANATIONS[random.nextInt(EXPLANATIONS.length)],
+          random.nextBoolean(),
+          null,
+          null));
+    }
+    return requests;
+  }
+
+  private <T> void compare(String name, List<T> rows, TypeReference<List<T>> type) throws Exception {
+    System.out.printf("%n%s (%d rows)%n", name, rows.size());
+    System.out.printf("%-6s %10s %12s %12s%n", "format", "bytes", "encode(us)", "decode(us)");
+    int jsonSize = 0;
+    for (Map.Entry<String, ObjectMapper> format : formats.entrySet()) {
+      ObjectMapper mapper = format.getValue();
+      byte[] encoded = mapper.writeValueAsBytes(rows);
+      assertEquals(rows, mapper.readValue(encoded, type));
+
+      for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+        mapper.readValue(mapper.writeValueAsBytes(rows), type);
+      }
+      long encodeNanos = 0;
+      long decodeNanos = 0;
+      for (int i = 0; i < ITERATIONS; i++) {
+        long t0 = System.nanoTime();
+        encoded = mapper.writeValueAsBytes(rows);
+        long t1 = System.nanoTime();
+        mapper.readValue(encoded, type);
+        long t2 = System.nanoTime();
+        encodeNanos += t1 - t0;
+        decodeNanos += t2 - t1;
+      }
+      System.out.printf("%-6s %10d %12d %12d%n", format.getKey(), encoded.length,
+          encodeNanos / ITERATIONS / 1000, decodeNanos / ITERATIONS / 1000);
+
+      if (format.getKey().equals("json")) {
+        jsonSize = encoded.length;
+      } else {
+        assertTrue(encoded.length < jsonSize);
+      }
+    }
+  }
+
+  @Test
+  public void menu_item_reviews() throws Exception {
+    compare("/api/menuitemreview/all", menuItemReviews(), new TypeReference<List<MenuItemReviewView>>() {});
+  }
+
+  @Test
+  public void help_requests() throws Exception {
+    compare("/api/helprequests/all", helpRequests(), new TypeReference<List<HelpRequestView>>() {});
+  }
+}
@@ -0,0 +1,15 @@
+package edu.ucsb.cs156.example.benchmarks;
+
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Runs {@link ThreadModelLoadBenchmark} on Tomcat's default platform thread pool.
+ */
+@ActiveProfiles("integration")
+public class PlatformThreadLoadBenchmark extends ThreadModelLoadBenchmark {
+
+  @Override
+  String expectedThreadKind() {
+    return "platform";
+  }
+}
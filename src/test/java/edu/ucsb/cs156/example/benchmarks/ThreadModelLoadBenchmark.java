@@ -0,0 +1,132 @@
+package edu.ucsb.cs156.example.benchmarks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import edu.ucsb.cs156.example.repositories.RestaurantRepository;
+
+/**
+ * Load test comparing request handling on Tomcat's platform thread pool with
+ * the virtualthreads profile: 2000 concurrent users each make a few requests
+ * to an endpoint that does a quick query and then waits 1 s, standing in
+ * for a slow Postgres call.
+ * 
+ * Not part of `mvn test`. Run both subclasses and compare the output with:
+ * 
+ * <pre>
+ * mvn test -Dtest='*ThreadLoadBenchmark' -Djacoco.skip=true
+ * </pre>
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "server.tomcat.accept-count=2000",
+    "logging.level.edu.ucsb.cs156.example.aop=WARN",
+    "logging.level.sql=WARN" })
+@Import(ThreadModelLoadBenchmark.SlowEndpoint.class)
+public abstract class ThreadModelLoadBenchmark {
+
+  static final int USERS = 2000;
+  static final int REQUESTS_PER_USER = 5;
+  static final Duration BACKEND_LATENCY = Duration.ofSeconds(1);
+
+  @RestController
+  static class SlowEndpoint {
+
+    @Autowired
+    RestaurantRepository restaurantRepository;
+
+    @GetMapping("/benchmark/slow")
+    public String slow() throws InterruptedException {
+      restaurantRepository.count();
+      Thread.sleep(BACKEND_LATENCY);
+      return Thread.currentThread().isVirtual() ? "virtual" : "platform";
+    }
+  }
+
+  @LocalServerPort
+  int port;
+
+  abstract String expectedThreadKind();
+
+  @Test
+  public void two_thousand_concurrent_users() throws Exception {
+    // the simulated users are asynchronous requests driven by a few client threads, so that
+    // the client doesn't compete with the server for CPU (or, in the virtual thread run,
+    // for carrier threads)
+    ExecutorService clientThreads = Executors.newFixedThreadPool(4);
+    HttpClient client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .executor(clientThreads)
+        .build();
+    HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/benchmark/slow"))
+        .timeout(Duration.ofSeconds(60))
+        .build();
+
+    // one warm-up round so class loading and JIT don't count against either mode
+    user(client, request, REQUESTS_PER_USER).join();
+    latencies.clear();
+
+    long t0 = System.nanoTime();
+    CompletableFuture.allOf(IntStream.range(0, USERS)
+        .mapToObj(u -> user(client, request, REQUESTS_PER_USER))
+        .toArray(CompletableFuture[]::new))
+        .join();
+    long elapsed = System.nanoTime() - t0;
+    clientThreads.shutdown();
+
+    List<Long> sorted = new ArrayList<>(latencies);
+    Collections.sort(sorted);
+    System.out.printf("%n%s threads: %d users x %d requests in %d ms (%.0f req/s), latency p50 %d ms, p99 %d ms, max %d ms%n",
+        expectedThreadKind(), USERS, REQUESTS_PER_USER, elapsed / 1_000_000,
+        sorted.size() / (elapsed / 1e9),
+        percentile(sorted, 50), percentile(sorted, 99), sorted.get(sorted.size() - 1) / 1_000_000);
+
+    assertEquals(USERS * REQUESTS_PER_USER, sorted.size());
+    assertEquals(0, wrongThreadKind.get());
+  }
+
+  private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger wrongThreadKind = new AtomicInteger();
+
+  /**
+   * One user making {@code remaining} requests, one after the other
+   */
+  private CompletableFuture<Void> user(HttpClient client, HttpRequest request, int remaining) {
+    if (remaining == 0) {
+      return CompletableFuture.completedFuture(null);
+    }
+    long t0 = System.nanoTime();
+    return client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).thenCompose(response -> {
+      latencies.add(System.nanoTime() - t0);
+      if (!response.body().equals(expectedThreadKind())) {
+        wrongThreadKind.incrementAndGet();
+      }
+      return user(client, request, remaining - 1);
+    });
+  }
+
+  private static long percentile(List<Long> sorted, int p) {
+    return sorted.get(Math.min(sorted.size() - 1, sorted.size() * p / 100)) / 1_000_000;
+  }
+}
@@ -0,0 +1,31 @@
+package edu.ucsb.cs156.example.benchmarks;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ActiveProfiles;
+
+import edu.ucsb.cs156.example.config.VirtualThreadPinningMonitor;
+
+/**
+ * Runs {@link ThreadModelLoadBenchmark} with the virtualthreads profile, and
+ * prints what the pinning monitor saw.
+ */
+@ActiveProfiles({ "integration", "virtualthreads" })
+public class VirtualThreadLoadBenchmark extends ThreadModelLoadBenchmark {
+
+  @Autowired
+  VirtualThreadPinningMonitor pinningMonitor;
+
+  @Override
+  String expectedThreadKind() {
+    return "virtual";
+  }
+
+  @AfterEach
+  void reportPinning() {
+    Map<String, Long> pinned = pinningMonitor.pinnedCounts();
+    System.out.printf("pinned virtual threads by call site: %s%n", pinned.isEmpty() ? "none" : pinned);
+  }
+}
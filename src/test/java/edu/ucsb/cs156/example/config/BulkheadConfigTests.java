@@ -0,0 +1,151 @@
+package edu.ucsb.cs156.example.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import edu.ucsb.cs156.example.ControllerTestCase;
+import edu.ucsb.cs156.example.controllers.ChangeEventsController;
+import edu.ucsb.cs156.example.controllers.UCSBOrganizationController;
+import edu.ucsb.cs156.example.controllers.UsersController;
+import edu.ucsb.cs156.example.repositories.UCSBOrganizationRepository;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.AdaptiveConcurrencyLimiter;
+import edu.ucsb.cs156.example.services.Bulkhead;
+import edu.ucsb.cs156.example.services.ChangeEventBroadcaster;
+import edu.ucsb.cs156.example.services.ChangeFeedService;
+import edu.ucsb.cs156.example.services.UCSBOrganizationReadService;
+import edu.ucsb.cs156.example.testconfig.TestConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@WebMvcTest(controllers = { UCSBOrganizationController.class, UsersController.class, ChangeEventsController.class })
+@Import(TestConfig.class)
+@TestPropertySource(properties = {
+    "app.bulkhead.user-read.max-concurrent=1",
+    "app.bulkhead.user-read.max-wait=0ms" })
+public class BulkheadConfigTests extends ControllerTestCase {
+
+  @MockBean
+  UCSBOrganizationRepository ucsbOrganizationRepository;
+
+  @MockBean
+  UCSBOrganizationReadService ucsbOrganizationReadService;
+
+  @MockBean
+  ChangeFeedService changeFeedService;
+
+  @MockBean
+  UserRepository userRepository;
+
+  @MockBean
+  ChangeEventBroadcaster changeEventBroadcaster;
+
+  @Autowired
+  Bulkhead adminWriteBulkhead;
+
+  @Autowired
+  Bulkhead userReadBulkhead;
+
+  @Autowired
+  MeterBinder bulkheadMetrics;
+
+  @Autowired
+  AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter;
+
+  @WithMockUser(roles = { "ADMIN", "USER" })
+  @Test
+  public void a_full_read_bulkhead_turns_away_reads_but_not_writes() throws Exception {
+    MvcResult streaming = mockMvc.perform(get("/api/admin/users"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    assertEquals(1, userReadBulkhead.getInUse());
+
+    mockMvc.perform(get("/api/ucsborganization/all"))
+        .andExpect(status().isServiceUnavailable())
+        .andExpect(header().string("Retry-After", "1"))
+        .andExpect(jsonPath("$.type").value("BulkheadFullException"))
+        .andExpect(jsonPath("$.message").value("Too many user-read requests in progress; please retry"));
+
+    mockMvc.perform(post("/api/ucsborganization/post")
+            .param("orgCode", "ZPR")
+            .param("orgTranslationShort", "ZETA PHI RHO")
+            .param("orgTranslation", "ZETA PHI RHO")
+            .param("inactive", "false")
+            .with(csrf()))
+        .andExpect(status().isOk());
+    assertEquals(1, adminWriteBulkhead.getAdmitted());
+    assertEquals(0, adminWriteBulkhead.getInUse());
+
+    mockMvc.perform(asyncDispatch(streaming)).andExpect(status().isOk());
+    assertEquals(0, userReadBulkhead.getInUse());
+
+    mockMvc.perform(get("/api/ucsborganization/all")).andExpect(status().isOk());
+    assertEquals(0, userReadBulkhead.getInUse());
+  }
+
+  @WithMockUser(roles = { "USER" })
+  @Test
+  public void open_event_streams_hold_no_permits() throws Exception {
+    SseEmitter first = new SseEmitter();
+    SseEmitter second = new SseEmitter();
+    when(changeEventBroadcaster.subscribe(null)).thenReturn(first, second);
+
+    mockMvc.perform(get("/api/events")).andExpect(request().asyncStarted());
+    mockMvc.perform(get("/api/events")).andExpect(request().asyncStarted());
+    assertEquals(0, userReadBulkhead.getInUse());
+    assertEquals(0, adaptiveConcurrencyLimiter.getInFlight());
+
+    mockMvc.perform(get("/api/ucsborganization/all")).andExpect(status().isOk());
+
+    first.complete();
+    second.complete();
+  }
+
+  @Test
+  public void each_bulkhead_reports_its_saturation() {
+    MeterRegistry registry = new SimpleMeterRegistry();
+    bulkheadMetrics.bindTo(registry);
+    userReadBulkhead.tryAcquire();
+    userReadBulkhead.tryAcquire();
+
+    assertEquals(1.0, registry.get("bulkhead.saturation").tag("bulkhead", "user-read").gauge().value());
+    assertEquals(1.0, registry.get("bulkhead.in.use").tag("bulkhead", "user-read").gauge().value());
+    assertEquals(1.0, registry.get("bulkhead.max").tag("bulkhead", "user-read").gauge().value());
+    assertEquals(0.0, registry.get("bulkhead.waiting").tag("bulkhead", "user-read").gauge().value());
+    assertEquals(userReadBulkhead.getAdmitted(),
+        registry.get("bulkhead.admitted").tag("bulkhead", "user-read").functionCounter().count());
+    assertEquals(userReadBulkhead.getRejected(),
+        registry.get("bulkhead.rejected").tag("bulkhead", "user-read").functionCounter().count());
+    assertEquals(0.0, registry.get("bulkhead.saturation").tag("bulkhead", "admin-write").gauge().value());
+
+    userReadBulkhead.release();
+  }
+
+  @Test
+  public void the_bulkheads_must_fit_in_the_connection_pool() {
+    BulkheadConfig.checkPoolSize(4, 16, 20);
+    IllegalStateException e = assertThrows(IllegalStateException.class, () -> BulkheadConfig.checkPoolSize(4, 16, 10));
+    assertEquals("app.bulkhead.admin-write.max-concurrent (4) + app.bulkhead.user-read.max-concurrent (16)"
+        + " exceed spring.datasource.hikari.maximum-pool-size (10), so reads could starve writes of connections", e.getMessage());
+  }
+}
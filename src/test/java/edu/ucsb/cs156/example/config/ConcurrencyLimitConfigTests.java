@@ -0,0 +1,73 @@
+package edu.ucsb.cs156.example.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MvcResult;
+
+import edu.ucsb.cs156.example.ControllerTestCase;
+import edu.ucsb.cs156.example.controllers.UCSBOrganizationController;
+import edu.ucsb.cs156.example.controllers.UsersController;
+import edu.ucsb.cs156.example.repositories.UCSBOrganizationRepository;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.AdaptiveConcurrencyLimiter;
+import edu.ucsb.cs156.example.services.ChangeFeedService;
+import edu.ucsb.cs156.example.services.UCSBOrganizationReadService;
+import edu.ucsb.cs156.example.testconfig.TestConfig;
+
+@WebMvcTest(controllers = { UCSBOrganizationController.class, UsersController.class })
+@Import(TestConfig.class)
+@TestPropertySource(properties = {
+    "app.concurrency.initial-limit=1",
+    "app.concurrency.min-limit=1",
+    "app.concurrency.max-limit=1" })
+public class ConcurrencyLimitConfigTests extends ControllerTestCase {
+
+  @MockBean
+  UCSBOrganizationRepository ucsbOrganizationRepository;
+
+  @MockBean
+  UCSBOrganizationReadService ucsbOrganizationReadService;
+
+  @MockBean
+  ChangeFeedService changeFeedService;
+
+  @MockBean
+  UserRepository userRepository;
+
+  @Autowired
+  AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter;
+
+  @WithMockUser(roles = { "ADMIN", "USER" })
+  @Test
+  public void requests_over_the_limit_get_503_until_the_request_in_flight_completes() throws Exception {
+    MvcResult streaming = mockMvc.perform(get("/api/admin/users"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    assertEquals(1, adaptiveConcurrencyLimiter.getInFlight());
+
+    mockMvc.perform(get("/api/ucsborganization/all"))
+        .andExpect(status().isServiceUnavailable())
+        .andExpect(header().string("Retry-After", "1"))
+        .andExpect(jsonPath("$.type").value("ServiceOverloadedException"))
+        .andExpect(jsonPath("$.message").value("Server is busy; please retry"));
+
+    mockMvc.perform(asyncDispatch(streaming)).andExpect(status().isOk());
+    assertEquals(0, adaptiveConcurrencyLimiter.getInFlight());
+
+    mockMvc.perform(get("/api/ucsborganization/all")).andExpect(status().isOk());
+    assertEquals(0, adaptiveConcurrencyLimiter.getInFlight());
+  }
+}
@@ -0,0 +1,126 @@
+package edu.ucsb.cs156.example.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import edu.ucsb.cs156.example.ControllerTestCase;
+import edu.ucsb.cs156.example.controllers.MenuItemReviewController;
+import edu.ucsb.cs156.example.repositories.MenuItemReviewRepository;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.ChangeFeedService;
+import edu.ucsb.cs156.example.services.MenuItemReviewReadService;
+import edu.ucsb.cs156.example.services.QueryScope;
+import edu.ucsb.cs156.example.testconfig.TestConfig;
+
+@WebMvcTest(controllers = MenuItemReviewController.class)
+@Import(TestConfig.class)
+@TestPropertySource(properties = {
+    "app.query-timeout.default=30s",
+    "app.query-timeout.endpoints[MenuItemReviewController.allMenuItemReviews]=2s" })
+public class QueryTimeoutConfigTests extends ControllerTestCase {
+
+  @MockBean
+  MenuItemReviewRepository menuItemReviewRepository;
+
+  @MockBean
+  MenuItemReviewReadService menuItemReviewReadService;
+
+  @MockBean
+  ChangeFeedService changeFeedService;
+
+  @MockBean
+  UserRepository userRepository;
+
+  @WithMockUser(roles = { "USER" })
+  @Test
+  public void queries_run_in_a_scope_with_the_endpoint_timeout() throws Exception {
+    AtomicReference<QueryScope> seen = new AtomicReference<>();
+    when(menuItemReviewReadService.findAll()).thenAnswer(invocation -> {
+      seen.set(QueryScope.current());
+      return List.of();
+    });
+
+    mockMvc.perform(asyncDispatch(mockMvc.perform(get("/api/menuitemreview/all"))
+        .andExpect(request().asyncStarted()).andReturn()))
+        .andExpect(status().isOk());
+
+    assertEquals("MenuItemReviewController.allMenuItemReviews", seen.get().getEndpoint());
+    assertTrue(seen.get().remainingSeconds() <= 2);
+  }
+
+  @WithMockUser(roles = { "USER" })
+  @Test
+  public void other_endpoints_get_the_default_timeout() throws Exception {
+    AtomicReference<QueryScope> seen = new AtomicReference<>();
+    when(menuItemReviewReadService.changesSince(0)).thenAnswer(invocation -> {
+      seen.set(QueryScope.current());
+      return null;
+    });
+
+    mockMvc.perform(get("/api/menuitemreview/changes")).andExpect(status().isOk());
+
+    assertEquals("MenuItemReviewController.changesSince", seen.get().getEndpoint());
+    assertTrue(seen.get().remainingSeconds() > 2);
+  }
+
+  @WithMockUser(roles = { "USER" })
+  @Test
+  public void a_query_timeout_is_a_503() throws Exception {
+    when(menuItemReviewReadService.findAll()).thenThrow(new QueryTimeoutException("select ... timed out"));
+
+    mockMvc.perform(asyncDispatch(mockMvc.perform(get("/api/menuitemreview/all"))
+        .andExpect(request().asyncStarted()).andReturn()))
+        .andExpect(status().isServiceUnavailable())
+        .andExpect(jsonPath("$.type").value("QueryTimeoutException"))
+        .andExpect(jsonPath("$.message").value("The database took too long to answer; please retry later"));
+  }
+
+  @WithMockUser(roles = { "USER" })
+  @Test
+  public void a_jpa_query_timeout_is_a_503() throws Exception {
+    when(menuItemReviewReadService.findAll(List.of("id")))
+        .thenThrow(new jakarta.persistence.QueryTimeoutException("timed out"));
+
+    mockMvc.perform(asyncDispatch(mockMvc.perform(get("/api/menuitemreview/all?fields=id"))
+        .andExpect(request().asyncStarted()).andReturn()))
+        .andExpect(status().isServiceUnavailable())
+        .andExpect(jsonPath("$.type").value("QueryTimeoutException"));
+  }
+
+  @Test
+  public void only_the_connection_pool_named_dataSource_is_wrapped() {
+    BeanPostProcessor postProcessor = QueryTimeoutConfig.queryTimeoutDataSourcePostProcessor();
+    HikariDataSource pool = new HikariDataSource();
+    LazyConnectionDataSourceProxy router = new LazyConnectionDataSourceProxy(pool);
+
+    QueryTimeoutDataSource wrapped = assertInstanceOf(QueryTimeoutDataSource.class,
+        postProcessor.postProcessAfterInitialization(pool, "dataSource"));
+    assertSame(pool, wrapped.getTargetDataSource());
+    // with a read replica, ReplicaRoutingConfig wraps its pools itself
+    assertSame(router, postProcessor.postProcessAfterInitialization(router, "dataSource"));
+    assertSame(pool, postProcessor.postProcessAfterInitialization(pool, "primaryDataSource"));
+  }
+}
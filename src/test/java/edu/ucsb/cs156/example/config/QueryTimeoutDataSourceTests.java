@@ -0,0 +1,149 @@
+package edu.ucsb.cs156.example.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.ucsb.cs156.example.services.QueryScope;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class QueryTimeoutDataSourceTests {
+
+  /** Takes far longer than any timeout in these tests, checking for cancellation as it goes. */
+  private static final String SLOW_QUERY = "SELECT SUM(X) FROM SYSTEM_RANGE(1, 10000000000)";
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private QueryTimeoutDataSource dataSource;
+
+  @BeforeEach
+  void setup() {
+    JdbcDataSource h2 = new JdbcDataSource();
+    h2.setURL("jdbc:h2:mem:querytimeout");
+    h2.setUser("sa");
+    dataSource = new QueryTimeoutDataSource(h2);
+    Metrics.addRegistry(registry);
+  }
+
+  @AfterEach
+  void teardown() {
+    QueryScope.detach();
+    Metrics.removeRegistry(registry);
+  }
+
+  private double count(String meter) {
+    return registry.get(meter).tag("endpoint", "Controller.method").counter().count();
+  }
+
+  @Test
+  void test_statements_outside_a_scope_are_unchanged() throws Exception {
+    try (Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement()) {
+      assertEquals(0, statement.getQueryTimeout());
+      assertEquals(false, connection.isClosed());
+    }
+  }
+
+  @Test
+  void test_statements_get_the_time_left_and_are_tracked_until_closed() throws Exception {
+    QueryScope scope = new QueryScope("Controller.method", Duration.ofMillis(2500));
+    scope.attach();
+
+    try (Connection connection = dataSource.getConnection("sa", "")) {
+      Statement statement = connection.createStatement();
+      PreparedStatement prepared = connection.prepareStatement("SELECT 1");
+      CallableStatement callable = connection.prepareCall("SELECT 1");
+      assertEquals(3, statement.getQueryTimeout());
+      assertInstanceOf(PreparedStatement.class, prepared);
+      assertInstanceOf(CallableStatement.class, callable);
+      assertEquals(3, scope.size());
+
+      try (ResultSet rs = prepared.executeQuery()) {
+        assertTrue(rs.next());
+      }
+      statement.close();
+      prepared.close();
+      callable.close();
+      assertEquals(0, scope.size());
+    }
+  }
+
+  @Test
+  void test_a_statement_past_its_timeout_fails_and_is_counted() throws Exception {
+    new QueryScope("Controller.method", Duration.ofMillis(1)).attach();
+
+    try (Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement()) {
+      SQLException e = assertThrows(SQLException.class, () -> statement.executeQuery(SLOW_QUERY));
+      assertEquals(QueryTimeoutDataSource.QUERY_CANCELED, e.getSQLState());
+    }
+    assertEquals(1, count("query.timeouts"));
+  }
+
+  @Test
+  void test_a_cancelled_scope_cancels_its_running_statement_and_is_counted() throws Exception {
+    QueryScope scope = new QueryScope("Controller.method", Duration.ofSeconds(30));
+    CompletableFuture<SQLException> failure = CompletableFuture.supplyAsync(() -> {
+      scope.attach();
+      try (Connection connection = dataSource.getConnection();
+          Statement statement = connection.createStatement()) {
+        statement.executeQuery(SLOW_QUERY);
+        return null;
+      } catch (SQLException e) {
+        return e;
+      } finally {
+        QueryScope.detach();
+      }
+    });
+    while (scope.size() == 0) {
+      Thread.onSpinWait();
+    }
+    Thread.sleep(200);
+
+    scope.cancel();
+
+    assertEquals(QueryTimeoutDataSource.QUERY_CANCELED, failure.get().getSQLState());
+    assertEquals(1, count("query.cancellations"));
+  }
+
+  @Test
+  void test_a_statement_of_a_cancelled_scope_does_not_start() throws Exception {
+    QueryScope scope = new QueryScope("Controller.method", Duration.ofMinutes(1));
+    scope.attach();
+
+    try (Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement()) {
+      scope.cancel();
+      SQLException e = assertThrows(SQLException.class, () -> statement.executeQuery("SELECT 1"));
+      assertEquals(QueryTimeoutDataSource.QUERY_CANCELED, e.getSQLState());
+    }
+    assertEquals(1, count("query.cancellations"));
+  }
+
+  @Test
+  void test_other_failures_are_not_counted() throws Exception {
+    new QueryScope("Controller.method", Duration.ofMinutes(1)).attach();
+
+    try (Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement()) {
+      assertThrows(SQLException.class, () -> statement.executeQuery("SELECT * FROM NO_SUCH_TABLE"));
+    }
+    assertEquals(0, registry.find("query.timeouts").counters().stream().mapToDouble(Counter::count).sum());
+  }
+}
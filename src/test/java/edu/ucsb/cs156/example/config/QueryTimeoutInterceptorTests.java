@@ -0,0 +1,102 @@
+package edu.ucsb.cs156.example.config;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.method.HandlerMethod;
+
+import edu.ucsb.cs156.example.controllers.UCSBDatesController;
+import edu.ucsb.cs156.example.services.QueryScope;
+import jakarta.servlet.DispatcherType;
+
+class QueryTimeoutInterceptorTests {
+
+  private final QueryTimeoutInterceptor interceptor = new QueryTimeoutInterceptor(Duration.ofSeconds(10), Map.of());
+  private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/ucsbdates/all");
+  private final MockHttpServletResponse response = new MockHttpServletResponse();
+  private final ServletWebRequest webRequest = new ServletWebRequest(request);
+  private final Callable<Object> task = () -> null;
+
+  @AfterEach
+  void teardown() {
+    QueryScope.detach();
+  }
+
+  private HandlerMethod handler(Class<?> type) {
+    return new HandlerMethod(new Object(), type.getDeclaredMethods()[0]) {
+      @Override
+      public Class<?> getBeanType() {
+        return type;
+      }
+    };
+  }
+
+  private QueryScope startAsyncRequest() {
+    interceptor.preHandle(request, response, handler(UCSBDatesController.class));
+    QueryScope scope = (QueryScope) request.getAttribute(QueryTimeoutInterceptor.SCOPE);
+    interceptor.afterConcurrentHandlingStarted(request, response, null);
+    assertNull(QueryScope.current());
+    return scope;
+  }
+
+  @Test
+  void test_the_scope_follows_the_request_to_the_callable_thread() throws Exception {
+    QueryScope scope = startAsyncRequest();
+
+    interceptor.preProcess(webRequest, task);
+    assertSame(scope, QueryScope.current());
+    interceptor.postProcess(webRequest, task, null);
+    assertNull(QueryScope.current());
+
+    interceptor.afterCompletion(request, response, null, null);
+    assertNull(request.getAttribute(QueryTimeoutInterceptor.SCOPE));
+    interceptor.preProcess(webRequest, task);
+    assertNull(QueryScope.current());
+  }
+
+  @Test
+  void test_an_async_timeout_cancels_the_scope() throws Exception {
+    QueryScope scope = startAsyncRequest();
+
+    assertSame(CallableProcessingInterceptor.RESULT_NONE, interceptor.handleTimeout(webRequest, task));
+    assertTrue(scope.isCancelled());
+  }
+
+  @Test
+  void test_an_async_error_cancels_the_scope() throws Exception {
+    QueryScope scope = startAsyncRequest();
+
+    assertSame(CallableProcessingInterceptor.RESULT_NONE,
+        interceptor.handleError(webRequest, task, new java.io.IOException("client went away")));
+    assertTrue(scope.isCancelled());
+  }
+
+  @Test
+  void test_a_finished_request_has_nothing_to_cancel() throws Exception {
+    assertSame(CallableProcessingInterceptor.RESULT_NONE, interceptor.handleTimeout(webRequest, task));
+  }
+
+  @Test
+  void test_no_scope_for_async_dispatches_or_other_handlers() {
+    request.setDispatcherType(DispatcherType.ASYNC);
+    assertTrue(interceptor.preHandle(request, response, handler(UCSBDatesController.class)));
+    request.setDispatcherType(DispatcherType.REQUEST);
+    assertTrue(interceptor.preHandle(request, response, handler(QueryTimeoutInterceptorTests.class)));
+    assertTrue(interceptor.preHandle(request, response, new Object()));
+
+    assertNull(QueryScope.current());
+    assertFalse(request.getAttributeNames().hasMoreElements());
+  }
+}
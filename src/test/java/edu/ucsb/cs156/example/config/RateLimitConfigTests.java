@@ -0,0 +1,122 @@
+package edu.ucsb.cs156.example.config;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.ResultActions;
+
+import edu.ucsb.cs156.example.ControllerTestCase;
+import edu.ucsb.cs156.example.controllers.UCSBOrganizationController;
+import edu.ucsb.cs156.example.controllers.UsersController;
+import edu.ucsb.cs156.example.repositories.UCSBOrganizationRepository;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.ChangeFeedService;
+import edu.ucsb.cs156.example.services.UCSBOrganizationReadService;
+import edu.ucsb.cs156.example.testconfig.TestConfig;
+
+/**
+ * Each test uses a different user, since the buckets live as long as the
+ * application context.
+ */
+@WebMvcTest(controllers = { UCSBOrganizationController.class, UsersController.class })
+@Import(TestConfig.class)
+@TestPropertySource(properties = {
+    "app.ratelimit.read.capacity=2",
+    "app.ratelimit.read.refill-period=1h",
+    "app.ratelimit.write.capacity=1",
+    "app.ratelimit.write.refill-period=1h" })
+public class RateLimitConfigTests extends ControllerTestCase {
+
+  @MockBean
+  UCSBOrganizationRepository ucsbOrganizationRepository;
+
+  @MockBean
+  UCSBOrganizationReadService ucsbOrganizationReadService;
+
+  @MockBean
+  ChangeFeedService changeFeedService;
+
+  @MockBean
+  UserRepository userRepository;
+
+  private ResultActions getOrgs() throws Exception {
+    return mockMvc.perform(get("/api/ucsborganization/all"));
+  }
+
+  private ResultActions postOrg() throws Exception {
+    return mockMvc.perform(post("/api/ucsborganization/post?orgCode=ZPR&orgTranslationShort=ZPR&orgTranslation=ZPR&inactive=false")
+        .with(csrf()));
+  }
+
+  @WithMockUser(username = "reader", roles = { "USER" })
+  @Test
+  public void reads_beyond_the_budget_get_429_with_retry_after() throws Exception {
+    getOrgs().andExpect(status().isOk());
+    getOrgs().andExpect(status().isOk());
+
+    getOrgs()
+        .andExpect(status().isTooManyRequests())
+        .andExpect(header().string("Retry-After", "1800"))
+        .andExpect(jsonPath("$.type").value("RateLimitExceededException"))
+        .andExpect(jsonPath("$.message").value("Too many requests; retry in 1800 seconds"));
+  }
+
+  @WithMockUser(username = "writer", roles = { "ADMIN", "USER" })
+  @Test
+  public void reads_and_writes_have_separate_budgets() throws Exception {
+    getOrgs();
+    getOrgs();
+    getOrgs().andExpect(status().isTooManyRequests());
+
+    postOrg().andExpect(status().isOk());
+    postOrg().andExpect(status().isTooManyRequests());
+  }
+
+  @WithMockUser(username = "admin2", roles = { "ADMIN", "USER" })
+  @Test
+  public void each_controller_has_its_own_budget_and_async_dispatch_is_not_charged() throws Exception {
+    getOrgs();
+    getOrgs();
+    getOrgs().andExpect(status().isTooManyRequests());
+
+    for (int i = 0; i < 2; i++) {
+      mockMvc.perform(asyncDispatch(mockMvc.perform(get("/api/admin/users"))
+          .andExpect(request().asyncStarted()).andReturn()))
+          .andExpect(status().isOk());
+    }
+    mockMvc.perform(get("/api/admin/users")).andExpect(status().isTooManyRequests());
+  }
+
+  @Test
+  public void users_that_are_not_logged_in_are_not_limited() throws Exception {
+    for (int i = 0; i < 3; i++) {
+      getOrgs().andExpect(status().isForbidden());
+    }
+  }
+
+  @Test
+  public void other_users_are_not_affected() throws Exception {
+    for (String username : List.of("alice", "bob")) {
+      for (int i = 0; i < 2; i++) {
+        mockMvc.perform(get("/api/ucsborganization/all")
+            .with(user(username).roles("USER")))
+            .andExpect(status().isOk());
+      }
+    }
+  }
+}
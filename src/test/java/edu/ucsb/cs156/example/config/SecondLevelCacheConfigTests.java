@@ -0,0 +1,176 @@
+package edu.ucsb.cs156.example.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import javax.cache.CacheManager;
+
+import org.ehcache.config.CacheRuntimeConfiguration;
+import org.ehcache.config.ResourceType;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import edu.ucsb.cs156.example.entities.UCSBDate;
+import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
+import edu.ucsb.cs156.example.entities.UCSBOrganization;
+import edu.ucsb.cs156.example.models.UCSBOrganizationView;
+import edu.ucsb.cs156.example.repositories.UCSBDateRepository;
+import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsRepository;
+import edu.ucsb.cs156.example.repositories.UCSBOrganizationRepository;
+import edu.ucsb.cs156.example.services.AcademicCalendarIndex;
+import edu.ucsb.cs156.example.services.DiningCommonsLocator;
+import edu.ucsb.cs156.example.services.ChangeFeedService;
+import edu.ucsb.cs156.example.services.CoalescedReads;
+import edu.ucsb.cs156.example.services.SparseFieldsetService;
+import edu.ucsb.cs156.example.services.UCSBDateReadService;
+import edu.ucsb.cs156.example.services.UCSBDiningCommonsReadService;
+import edu.ucsb.cs156.example.services.UCSBOrganizationReadService;
+import edu.ucsb.cs156.example.services.wiremock.WiremockService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest
+@ActiveProfiles("integration")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "app.cache.reference-data.max-entries=50" })
+@Import({ SecondLevelCacheConfig.class, SecondLevelCacheWarmup.class,
+    UCSBDiningCommonsReadService.class, UCSBOrganizationReadService.class, UCSBDateReadService.class,
+    SparseFieldsetService.class, ChangeFeedService.class, CoalescedReads.class, AcademicCalendarIndex.class,
+    DiningCommonsLocator.class })
+class SecondLevelCacheConfigTests {
+
+  @MockBean
+  WiremockService wiremockService;
+
+  @Autowired
+  EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  CacheManager hibernateCacheManager;
+
+  @Autowired
+  SecondLevelCacheWarmup secondLevelCacheWarmup;
+
+  @Autowired
+  UCSBOrganizationReadService ucsbOrganizationReadService;
+
+  @Autowired
+  UCSBDateReadService ucsbDateReadService;
+
+  @Autowired
+  UCSBOrganizationRepository ucsbOrganizationRepository;
+
+  @Autowired
+  UCSBDiningCommonsRepository ucsbDiningCommonsRepository;
+
+  @Autowired
+  UCSBDateRepository ucsbDateRepository;
+
+  private Statistics statistics;
+
+  private UCSBDate firstDay;
+
+  @BeforeEach
+  void setup() {
+    ucsbOrganizationRepository.save(UCSBOrganization.builder().orgCode("ZPR").orgTranslationShort("ZETA PHI RHO").build());
+    ucsbDiningCommonsRepository.save(UCSBDiningCommons.builder().code("ortega").name("Ortega").build());
+    firstDay = ucsbDateRepository.save(UCSBDate.builder()
+        .quarterYYYYQ("20222").name("firstDayOfClasses").localDateTime(LocalDateTime.parse("2022-03-28T00:00:00")).build());
+    ucsbDateRepository.save(UCSBDate.builder()
+        .quarterYYYYQ("20223").name("lastDayOfClasses").localDateTime(LocalDateTime.parse("2022-06-03T00:00:00")).build());
+
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+  }
+
+  @AfterEach
+  void cleanup() {
+    ucsbOrganizationRepository.deleteAll();
+    ucsbDiningCommonsRepository.deleteAll();
+    ucsbDateRepository.deleteAll();
+  }
+
+  @Test
+  void test_second_read_of_all_views_comes_from_the_query_cache() {
+    List<UCSBOrganizationView> first = ucsbOrganizationReadService.findAll();
+    List<UCSBOrganizationView> second = ucsbOrganizationReadService.findAll();
+
+    assertEquals(first, second);
+    assertEquals(1, statistics.getQueryCacheMissCount());
+    assertEquals(1, statistics.getQueryCacheHitCount());
+  }
+
+  @Test
+  void test_a_write_discards_cached_queries_on_that_table() {
+    ucsbOrganizationReadService.findAll();
+    ucsbOrganizationRepository.save(UCSBOrganization.builder().orgCode("SKY").orgTranslationShort("SKYDIVING CLUB").build());
+
+    assertEquals(2, ucsbOrganizationReadService.findAll().size());
+    assertEquals(0, statistics.getQueryCacheHitCount());
+  }
+
+  @Test
+  void test_findById_comes_from_the_entity_cache() {
+    ucsbDateRepository.findById(firstDay.getId());
+    statistics.clear();
+
+    assertEquals("firstDayOfClasses", ucsbDateRepository.findById(firstDay.getId()).orElseThrow().getName());
+
+    assertEquals(1, statistics.getSecondLevelCacheHitCount());
+    assertEquals(0, statistics.getEntityLoadCount());
+  }
+
+  @Test
+  void test_quarter_filter_is_cached() {
+    ucsbDateReadService.findAll("20222", Sort.unsorted());
+    assertEquals(1, ucsbDateReadService.findAll("20222", Sort.unsorted()).size());
+    ucsbDateRepository.findAllByQuarterYYYYQ("20223");
+    assertEquals("lastDayOfClasses", ucsbDateRepository.findAllByQuarterYYYYQ("20223").iterator().next().getName());
+
+    assertEquals(2, statistics.getQueryCacheMissCount());
+    assertEquals(2, statistics.getQueryCacheHitCount());
+  }
+
+  @Test
+  void test_warmup_fills_the_caches() {
+    entityManagerFactory.getCache().evictAll();
+    entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+
+    secondLevelCacheWarmup.warmUp();
+    statistics.clear();
+
+    ucsbDiningCommonsRepository.findAll();
+    ucsbOrganizationReadService.findAll();
+    ucsbDateReadService.findAll();
+
+    assertEquals(3, statistics.getQueryCacheHitCount());
+    assertEquals(0, statistics.getQueryCacheMissCount());
+  }
+
+  @Test
+  void test_entity_regions_are_bounded() {
+    for (Class<?> entity : SecondLevelCacheConfig.CACHED_ENTITIES) {
+      Eh107Configuration<?, ?> eh107 = hibernateCacheManager.getCache(entity.getName())
+          .getConfiguration(Eh107Configuration.class);
+      CacheRuntimeConfiguration<?, ?> configuration = eh107.unwrap(CacheRuntimeConfiguration.class);
+      assertEquals(50, configuration.getResourcePools().getPoolForResource(ResourceType.Core.HEAP).getSize());
+    }
+  }
+}
@@ -0,0 +1,103 @@
+package edu.ucsb.cs156.example.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordedStackTrace;
+
+class VirtualThreadPinningMonitorTests {
+
+  private final VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor();
+
+  private static RecordedFrame frame(String type, String method, int line, boolean java) {
+    RecordedClass recordedClass = mock(RecordedClass.class);
+    when(recordedClass.getName()).thenReturn(type);
+    RecordedMethod recordedMethod = mock(RecordedMethod.class);
+    when(recordedMethod.getType()).thenReturn(recordedClass);
+    when(recordedMethod.getName()).thenReturn(method);
+    RecordedFrame frame = mock(RecordedFrame.class);
+    when(frame.getMethod()).thenReturn(recordedMethod);
+    when(frame.getLineNumber()).thenReturn(line);
+    when(frame.isJavaFrame()).thenReturn(java);
+    return frame;
+  }
+
+  private static RecordedFrame frame(String type, String method, int line) {
+    return frame(type, method, line, true);
+  }
+
+  private static RecordedEvent pinned(RecordedFrame... frames) {
+    RecordedEvent event = mock(RecordedEvent.class);
+    when(event.getDuration()).thenReturn(Duration.ofMillis(25));
+    if (frames.length > 0) {
+      RecordedStackTrace stackTrace = mock(RecordedStackTrace.class);
+      when(stackTrace.getFrames()).thenReturn(Arrays.asList(frames));
+      when(event.getStackTrace()).thenReturn(stackTrace);
+    }
+    return event;
+  }
+
+  private static RecordedFrame site(int i) {
+    return frame("edu.ucsb.cs156.example.services.Site" + i, "run", 10);
+  }
+
+  @Test
+  void test_the_call_site_is_the_first_java_frame_outside_the_jdk() {
+    List<RecordedFrame> frames = List.of(
+        frame("java.lang.Object", "wait0", 0),
+        frame("jdk.internal.misc.Unsafe", "park", 0),
+        frame("sun.nio.ch.NioSocketImpl", "read", 312),
+        frame("org.h2.engine.Native", "poll", 0, false),
+        frame("org.postgresql.core.PGStream", "receiveChar", 467),
+        frame("edu.ucsb.cs156.example.services.BulkUpdateService", "setHelpRequestsSolved", 54));
+
+    assertEquals("org.postgresql.core.PGStream.receiveChar:467", VirtualThreadPinningMonitor.callSite(frames));
+  }
+
+  @Test
+  void test_stacks_without_a_call_site_count_as_other() {
+    assertEquals(VirtualThreadPinningMonitor.OTHER_SITES, VirtualThreadPinningMonitor.callSite(List.of()));
+    assertEquals(VirtualThreadPinningMonitor.OTHER_SITES,
+        VirtualThreadPinningMonitor.callSite(List.of(frame("java.lang.Thread", "sleep", 509))));
+  }
+
+  @Test
+  void test_pinned_events_are_counted_by_call_site() {
+    monitor.onPinned(pinned(frame("java.lang.Object", "wait0", 0), site(1)));
+    monitor.onPinned(pinned(site(1)));
+    monitor.onPinned(pinned(site(2)));
+    monitor.onPinned(pinned());
+
+    assertEquals(Map.of(
+        "edu.ucsb.cs156.example.services.Site1.run:10", 2L,
+        "edu.ucsb.cs156.example.services.Site2.run:10", 1L,
+        VirtualThreadPinningMonitor.OTHER_SITES, 1L), monitor.pinnedCounts());
+  }
+
+  @Test
+  void test_sites_beyond_the_limit_are_counted_as_other() {
+    for (int i = 0; i < VirtualThreadPinningMonitor.MAX_SITES; i++) {
+      monitor.onPinned(pinned(site(i)));
+    }
+    monitor.onPinned(pinned(site(VirtualThreadPinningMonitor.MAX_SITES)));
+    monitor.onPinned(pinned(site(VirtualThreadPinningMonitor.MAX_SITES + 1)));
+    monitor.onPinned(pinned(site(0)));
+
+    Map<String, Long> counts = monitor.pinnedCounts();
+    assertEquals(VirtualThreadPinningMonitor.MAX_SITES + 1, counts.size());
+    assertEquals(2L, counts.get(VirtualThreadPinningMonitor.OTHER_SITES));
+    assertEquals(2L, counts.get("edu.ucsb.cs156.example.services.Site0.run:10"));
+  }
+}
@@ -4,7 +4,15 @@ import edu.ucsb.cs156.example.repositories.UserRepository;
 import edu.ucsb.cs156.example.testconfig.TestConfig;
 import edu.ucsb.cs156.example.ControllerTestCase;
 import edu.ucsb.cs156.example.entities.Articles;
+import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.errors.UnknownFieldException;
+import edu.ucsb.cs156.example.models.ArticleSearchHit;
+import edu.ucsb.cs156.example.models.ArticlesView;
 import edu.ucsb.cs156.example.repositories.ArticlesRepository;
+import edu.ucsb.cs156.example.services.ArticlesReadService;
+import edu.ucsb.cs156.example.services.ArticlesSearchService;
+import edu.ucsb.cs156.example.models.Changes;
+import edu.ucsb.cs156.example.services.ChangeFeedService;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -13,6 +21,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MvcResult;
@@ -30,6 +39,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import java.util.List;
 
 @WebMvcTest(controllers = ArticlesController.class)
 @Import(TestConfig.class)
@@ -38,6 +48,15 @@ public class ArticlesControllerTests extends ControllerTestCase {
     @MockBean
     ArticlesRepository articlesRepository;
 
+    @MockBean
+    ArticlesReadService articlesReadService;
+
+    @MockBean
+    ArticlesSearchService articlesSearchService;
+
+    @MockBean
+    ChangeFeedService changeFeedService;
+
     @MockBean
     UserRepository userRepository;
 
@@ -66,12 +85,12 @@ public class ArticlesControllerTests extends ControllerTestCase {
                 .dateAdded(ldt)
                 .build();
 
-        when(articlesRepository.findById(eq(7L))).thenReturn(Optional.of(article));
+        when(articlesReadService.findById(eq(7L))).thenReturn(ArticlesView.from(article));
 
         MvcResult response = mockMvc.perform(get("/api/articles?id=7"))
                 .andExpect(status().isOk()).andReturn();
 
-        verify(articlesRepository, times(1)).findById(eq(7L));
+        verify(articlesReadService, times(1)).findById(eq(7L));
         String expectedJson = mapper.writeValueAsString(article);
         String responseString = response.getResponse().getContentAsString();
         assertEquals(expectedJson, responseString);
@@ -80,12 +99,12 @@ public class ArticlesControllerTests extends ControllerTestCase {
     @WithMockUser(roles = { "USER" })
     @Test
     public void test_that_logged_in_user_can_get_by_id_when_the_id_does_not_exist() throws Exception {
-        when(articlesRepository.findById(eq(7L))).thenReturn(Optional.empty());
+        when(articlesReadService.findById(eq(7L))).thenThrow(new EntityNotFoundException(Articles.class, 7L));
 
         MvcResult response = mockMvc.perform(get("/api/articles?id=7"))
                 .andExpect(status().isNotFound()).andReturn();
 
-        verify(articlesRepository, times(1)).findById(eq(7L));
+        verify(articlesReadService, times(1)).findById(eq(7L));
         Map<String, Object> json = responseToJson(response);
         assertEquals("EntityNotFoundException", json.get("type"));
         assertEquals("Articles with id 7 not found", json.get("message"));
@@ -113,12 +132,12 @@ public class ArticlesControllerTests extends ControllerTestCase {
                 .build();
 
         ArrayList<Articles> expectedArticles = new ArrayList<>(Arrays.asList(article1, article2));
-        when(articlesRepository.findAll()).thenReturn(expectedArticles);
+        when(articlesReadService.findAll()).thenReturn(expectedArticles.stream().map(ArticlesView::from).toList());
 
         MvcResult response = mockMvc.perform(get("/api/articles/all"))
                 .andExpect(status().isOk()).andReturn();
 
-        verify(articlesRepository, times(1)).findAll();
+        verify(articlesReadService, times(1)).findAll();
         String expectedJson = mapper.writeValueAsString(expectedArticles);
         String responseString = response.getResponse().getContentAsString();
         assertEquals(expectedJson, responseString);
@@ -177,6 +196,7 @@ public class ArticlesControllerTests extends ControllerTestCase {
 
         verify(articlesRepository, times(1)).findById(15L);
         verify(articlesRepository, times(1)).delete(any());
+        verify(changeFeedService, times(1)).recordDeletion(Articles.class, 15L);
 
         Map<String, Object> json = responseToJson(response);
         assertEquals("Article with id 15 deleted", json.get("message"));
@@ -271,4 +291,137 @@ public class ArticlesControllerTests extends ControllerTestCase {
         assertEquals("EntityNotFoundException", json.get("type"));
         assertEquals("Articles with id 15 not found", json.get("message"));
     }
+
+    @WithMockUser(roles = { "USER" })
+    @Test
+    public void logged_in_user_can_get_all_articles_with_only_some_fields() throws Exception {
+        // arrange
+        List<String> fields = List.of("id", "title");
+        List<Map<String, Object>> rows = List.of(Map.of("id", 7L, "title", "some value"));
+        when(articlesReadService.findAll(eq(fields))).thenReturn(rows);
+
+        // act
+        MvcResult response = mockMvc.perform(get("/api/articles/all?fields=id,title"))
+            .andExpect(status().isOk()).andReturn();
+
+        // assert
+        verify(articlesReadService, times(1)).findAll(eq(fields));
+        String expectedJson = mapper.writeValueAsString(rows);
+        String responseString = response.getResponse().getContentAsString();
+        assertEquals(expectedJson, responseString);
+    }
+
+    @WithMockUser(roles = { "USER" })
+    @Test
+    public void logged_in_user_can_get_only_some_fields_by_id() throws Exception {
+        // arrange
+        List<String> fields = List.of("id");
+        Map<String, Object> row = Map.of("id", 7L);
+        when(articlesReadService.findById(eq(7L), eq(fields))).thenReturn(row);
+
+        // act
+        MvcResult response = mockMvc.perform(get("/api/articles?id=7&fields=id"))
+            .andExpect(status().isOk()).andReturn();
+
+        // assert
+        verify(articlesReadService, times(1)).findById(eq(7L), eq(fields));
+        String expectedJson = mapper.writeValueAsString(row);
+        String responseString = response.getResponse().getContentAsString();
+        assertEquals(expectedJson, responseString);
+    }
+
+    @WithMockUser(roles = { "USER" })
+    @Test
+    public void unknown_field_returns_bad_request() throws Exception {
+        // arrange
+        when(articlesReadService.findAll(eq(List.of("bogus"))))
+            .thenThrow(new UnknownFieldException(Articles.class, "bogus"));
+
+        // act
+        MvcResult response = mockMvc.perform(get("/api/articles/all?fields=bogus"))
+            .andExpect(status().isBadRequest()).andReturn();
+
+        // assert
+        Map<String, Object> json = responseToJson(response);
+        assertEquals("UnknownFieldException", json.get("type"));
+        assertEquals("Articles has no field bogus", json.get("message"));
+    }
+
+    @Test
+    public void logged_out_users_cannot_get_changes() throws Exception {
+        mockMvc.perform(get("/api/articles/changes?since=0"))
+            .andExpect(status().is(403));
+    }
+
+    @WithMockUser(roles = { "USER" })
+    @Test
+    public void logged_in_user_can_get_changes_since_a_token() throws Exception {
+        // arrange
+        Changes<ArticlesView> changes = new Changes<>(12L, List.of(), List.of(7L));
+        when(articlesReadService.changesSince(5L)).thenReturn(changes);
+
+        // act
+        MvcResult response = mockMvc.perform(get("/api/articles/changes?since=5"))
+            .andExpect(status().isOk()).andReturn();
+
+        // assert
+        verify(articlesReadService, times(1)).changesSince(5L);
+        String expectedJson = mapper.writeValueAsString(changes);
+        String responseString = response.getResponse().getContentAsString();
+        assertEquals(expectedJson, responseString);
+    }
+
+    private static ArticleSearchHit hit(long id, double rank) {
+        ArticlesView article = new ArticlesView(id, "Java streams " + id, "https://example.org/" + id,
+                "How streams work", "cgaucho@ucsb.edu", LocalDateTime.parse("2024-01-08T00:00:00"));
+        return new ArticleSearchHit(article, rank, "Java <mark>streams</mark> " + id, "How <mark>streams</mark> work");
+    }
+
+    @Test
+    public void logged_out_users_cannot_search() throws Exception {
+        mockMvc.perform(get("/api/articles/search?q=streams"))
+                .andExpect(status().is(403));
+    }
+
+    @WithMockUser(roles = { "USER" })
+    @Test
+    public void logged_in_user_can_search_and_gets_a_link_to_the_next_page() throws Exception {
+        // arrange
+        List<ArticleSearchHit> hits = List.of(hit(3, 0.9), hit(1, 0.5), hit(2, 0.1));
+        when(articlesSearchService.search("streams", 2, 3)).thenReturn(hits);
+
+        // act
+        MvcResult response = mockMvc.perform(get("/api/articles/search?q=streams&page=1&size=2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.LINK,
+                        "<http://localhost/api/articles/search?q=streams&page=2&size=2>; rel=\"next\""))
+                .andReturn();
+
+        // assert
+        verify(articlesSearchService, times(1)).search("streams", 2, 3);
+        assertEquals(mapper.writeValueAsString(hits.subList(0, 2)), response.getResponse().getContentAsString());
+    }
+
+    @WithMockUser(roles = { "USER" })
+    @Test
+    public void search_last_page_has_no_link_and_page_and_size_are_clamped() throws Exception {
+        // arrange
+        List<ArticleSearchHit> hits = List.of(hit(3, 0.9));
+        when(articlesSearchService.search("streams", 0, ArticlesController.MAX_PAGE_SIZE + 1)).thenReturn(hits);
+
+        // act
+        MvcResult response = mockMvc.perform(get("/api/articles/search?q=streams&page=-1&size=1000"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.LINK))
+                .andReturn();
+        mockMvc.perform(get("/api/articles/search?q=streams&size=0"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/articles/search?q=streams"))
+                .andExpect(status().isOk());
+
+        // assert
+        assertEquals(mapper.writeValueAsString(hits), response.getResponse().getContentAsString());
+        verify(articlesSearchService).search("streams", 0, 2);
+        verify(articlesSearchService).search("streams", 0, ArticlesController.DEFAULT_PAGE_SIZE + 1);
+    }
 }
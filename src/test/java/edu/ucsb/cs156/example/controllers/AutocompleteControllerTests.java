@@ -0,0 +1,71 @@
+package edu.ucsb.cs156.example.controllers;
+
+import edu.ucsb.cs156.example.ControllerTestCase;
+import edu.ucsb.cs156.example.models.Suggestion;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.AutocompleteIndex;
+import edu.ucsb.cs156.example.services.SearchIndex;
+import edu.ucsb.cs156.example.testconfig.TestConfig;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = AutocompleteController.class)
+@Import(TestConfig.class)
+public class AutocompleteControllerTests extends ControllerTestCase {
+
+  @MockBean
+  UserRepository userRepository;
+
+  @MockBean
+  AutocompleteIndex autocompleteIndex;
+
+  @Test
+  public void logged_out_users_cannot_autocomplete() throws Exception {
+    mockMvc.perform(get("/api/autocomplete?prefix=ta"))
+        .andExpect(status().is(403));
+  }
+
+  @WithMockUser(roles = { "USER" })
+  @Test
+  public void logged_in_user_can_autocomplete() throws Exception {
+    // arrange
+    List<Suggestion> suggestions = List.of(
+        new Suggestion(SearchIndex.MENU_ITEM, "7", "Fish Tacos", 12),
+        new Suggestion(SearchIndex.MENU_ITEM, "3", "Tater Tots", 2));
+    when(autocompleteIndex.suggest("ta", SearchIndex.MENU_ITEM, 2)).thenReturn(suggestions);
+
+    // act
+    MvcResult response = mockMvc.perform(get("/api/autocomplete?prefix=ta&k=2&type=menuItem"))
+        .andExpect(status().isOk()).andReturn();
+
+    // assert
+    assertEquals(mapper.writeValueAsString(suggestions), response.getResponse().getContentAsString());
+  }
+
+  @WithMockUser(roles = { "USER" })
+  @Test
+  public void k_has_a_default_and_is_clamped() throws Exception {
+    // act
+    mockMvc.perform(get("/api/autocomplete?prefix=ta")).andExpect(status().isOk());
+    mockMvc.perform(get("/api/autocomplete?prefix=ta&k=1000")).andExpect(status().isOk());
+    mockMvc.perform(get("/api/autocomplete?prefix=ta&k=0")).andExpect(status().isOk());
+
+    // assert
+    verify(autocompleteIndex).suggest("ta", null, AutocompleteController.DEFAULT_K);
+    verify(autocompleteIndex).suggest("ta", null, AutocompleteIndex.MAX_K);
+    verify(autocompleteIndex).suggest("ta", null, 1);
+  }
+}
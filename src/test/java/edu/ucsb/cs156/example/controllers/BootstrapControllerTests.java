@@ -0,0 +1,108 @@
+package edu.ucsb.cs156.example.controllers;
+
+import edu.ucsb.cs156.example.ControllerTestCase;
+import edu.ucsb.cs156.example.models.SystemInfo;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.SystemInfoService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = BootstrapController.class)
+public class BootstrapControllerTests extends ControllerTestCase {
+
+  @MockBean
+  UserRepository userRepository;
+
+  @MockBean
+  SystemInfoService mockSystemInfoService;
+
+  SystemInfo systemInfo = SystemInfo
+      .builder()
+      .showSwaggerUILink(true)
+      .springH2ConsoleEnabled(true)
+      .oauthLogin("/oauth2/authorization/google")
+      .build();
+
+  @BeforeEach
+  public void setup() {
+    when(mockSystemInfoService.getSystemInfo()).thenReturn(systemInfo);
+  }
+
+  @Test
+  public void bootstrap__logged_out() throws Exception {
+
+    // act
+    MvcResult response = mockMvc.perform(get("/api/bootstrap"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("Cache-Control", "no-cache, private"))
+        .andExpect(header().exists("ETag"))
+        .andReturn();
+
+    // assert
+    Map<String, Object> json = responseToJson(response);
+    assertEquals(mapper.convertValue(systemInfo, Map.class), json.get("systemInfo"));
+    assertNull(json.get("currentUser"));
+  }
+
+  @WithMockUser(roles = { "USER" })
+  @Test
+  public void bootstrap__logged_in() throws Exception {
+
+    // arrange
+    String expectedCurrentUser = mapper.writeValueAsString(currentUserService.getCurrentUser());
+
+    // act
+    MvcResult response = mockMvc.perform(get("/api/bootstrap"))
+        .andExpect(status().isOk()).andReturn();
+
+    // assert
+    Map<String, Object> json = responseToJson(response);
+    assertEquals(mapper.convertValue(systemInfo, Map.class), json.get("systemInfo"));
+    assertEquals(expectedCurrentUser, mapper.writeValueAsString(json.get("currentUser")));
+  }
+
+  @WithMockUser(roles = { "USER" })
+  @Test
+  public void bootstrap__unchanged_response_is_not_modified() throws Exception {
+
+    // arrange
+    String eTag = mockMvc.perform(get("/api/bootstrap"))
+        .andReturn().getResponse().getHeader("ETag");
+
+    // act and assert
+    mockMvc.perform(get("/api/bootstrap").header("If-None-Match", eTag))
+        .andExpect(status().isNotModified())
+        .andExpect(content().string(""));
+  }
+
+  @WithMockUser(roles = { "USER" })
+  @Test
+  public void bootstrap__etag_changes_with_the_response() throws Exception {
+
+    // arrange
+    String eTag = mockMvc.perform(get("/api/bootstrap"))
+        .andReturn().getResponse().getHeader("ETag");
+    systemInfo.setShowSwaggerUILink(false);
+
+    // act
+    MvcResult response = mockMvc.perform(get("/api/bootstrap").header("If-None-Match", eTag))
+        .andExpect(status().isOk()).andReturn();
+
+    // assert
+    assertNotEquals(eTag, response.getResponse().getHeader("ETag"));
+  }
+}
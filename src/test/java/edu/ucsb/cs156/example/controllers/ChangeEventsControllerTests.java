@@ -0,0 +1,65 @@
+package edu.ucsb.cs156.example.controllers;
+
+import edu.ucsb.cs156.example.ControllerTestCase;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.ChangeEventBroadcaster;
+import edu.ucsb.cs156.example.testconfig.TestConfig;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = ChangeEventsController.class)
+@Import(TestConfig.class)
+public class ChangeEventsControllerTests extends ControllerTestCase {
+
+  @MockBean
+  UserRepository userRepository;
+
+  @MockBean
+  ChangeEventBroadcaster changeEventBroadcaster;
+
+  @Test
+  public void logged_out_users_cannot_subscribe() throws Exception {
+    mockMvc.perform(get("/api/events"))
+        .andExpect(status().is(403));
+  }
+
+  @WithMockUser(roles = { "USER" })
+  @Test
+  public void logged_in_user_can_subscribe_to_all_entities() throws Exception {
+    // arrange
+    when(changeEventBroadcaster.subscribe(null)).thenReturn(new SseEmitter());
+
+    // act
+    mockMvc.perform(get("/api/events"))
+        .andExpect(request().asyncStarted());
+
+    // assert
+    verify(changeEventBroadcaster).subscribe(null);
+  }
+
+  @WithMockUser(roles = { "USER" })
+  @Test
+  public void logged_in_user_can_subscribe_to_some_entities() throws Exception {
+    // arrange
+    when(changeEventBroadcaster.subscribe(Set.of("HelpRequest", "RecommendationRequest"))).thenReturn(new SseEmitter());
+
+    // act
+    mockMvc.perform(get("/api/events?entities=HelpRequest,RecommendationRequest"))
+        .andExpect(request().asyncStarted());
+
+    // assert
+    verify(changeEventBroadcaster).subscribe(Set.of("HelpRequest", "RecommendationRequest"));
+  }
+}
@@ -0,0 +1,156 @@
+package edu.ucsb.cs156.example.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.DigestUtils;
+
+import edu.ucsb.cs156.example.ControllerTestCase;
+import edu.ucsb.cs156.example.config.FrontendResourceConfig;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.testconfig.TestConfig;
+
+@WebMvcTest(controllers = FrontendController.class)
+@Import({ TestConfig.class, FrontendResourceConfig.class })
+public class FrontendControllerTests extends ControllerTestCase {
+
+  private static final byte[] HTML = "<html>index</html>".getBytes(StandardCharsets.UTF_8);
+  private static final byte[] BROTLI = "brotli bytes".getBytes(StandardCharsets.UTF_8);
+  private static final byte[] GZIP = "gzip bytes".getBytes(StandardCharsets.UTF_8);
+  private static final String HASH = DigestUtils.md5DigestAsHex(HTML);
+
+  @MockBean
+  UserRepository userRepository;
+
+  @Autowired
+  FrontendController frontendController;
+
+  @BeforeEach
+  void setup() {
+    frontendController.setIndexHtml(HTML, BROTLI, GZIP);
+  }
+
+  @Test
+  public void the_shell_is_revalidated_and_varies_by_encoding() throws Exception {
+    mockMvc.perform(get("/"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+        .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+        .andExpect(header().string(HttpHeaders.ETAG, "\"" + HASH + "\""))
+        .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+        .andExpect(content().bytes(HTML));
+
+    mockMvc.perform(get("/admin/users"))
+        .andExpect(status().isOk())
+        .andExpect(content().bytes(HTML));
+  }
+
+  @Test
+  public void brotli_is_preferred_when_accepted() throws Exception {
+    mockMvc.perform(get("/").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br, zstd"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "br"))
+        .andExpect(header().string(HttpHeaders.ETAG, "\"" + HASH + "-br\""))
+        .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+        .andExpect(content().bytes(BROTLI));
+  }
+
+  @Test
+  public void gzip_is_sent_when_brotli_is_refused_or_weighted_lower() throws Exception {
+    mockMvc.perform(get("/").header(HttpHeaders.ACCEPT_ENCODING, "gzip, br;q=0"))
+        .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+        .andExpect(header().string(HttpHeaders.ETAG, "\"" + HASH + "-gz\""))
+        .andExpect(content().bytes(GZIP));
+
+    mockMvc.perform(get("/").header(HttpHeaders.ACCEPT_ENCODING, "br;q=0.5, gzip;q=0.8"))
+        .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+        .andExpect(content().bytes(GZIP));
+  }
+
+  @Test
+  public void refused_encodings_are_not_sent() throws Exception {
+    mockMvc.perform(get("/").header(HttpHeaders.ACCEPT_ENCODING, "br;q=0, gzip;q=0.0"))
+        .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+        .andExpect(content().bytes(HTML));
+
+    mockMvc.perform(get("/").header(HttpHeaders.ACCEPT_ENCODING, "*;q=0"))
+        .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+        .andExpect(content().bytes(HTML));
+  }
+
+  @Test
+  public void missing_copies_fall_back_to_what_was_built() throws Exception {
+    frontendController.setIndexHtml(HTML, null, GZIP);
+    mockMvc.perform(get("/").header(HttpHeaders.ACCEPT_ENCODING, "br"))
+        .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+        .andExpect(content().bytes(HTML));
+    mockMvc.perform(get("/").header(HttpHeaders.ACCEPT_ENCODING, "*"))
+        .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+
+    frontendController.setIndexHtml(HTML, BROTLI, null);
+    mockMvc.perform(get("/").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+        .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+        .andExpect(content().bytes(HTML));
+
+    frontendController.setIndexHtml(null, null, null);
+    mockMvc.perform(get("/")).andExpect(status().isNotFound());
+  }
+
+  @Test
+  public void a_matching_etag_gets_a_304_only_for_the_same_encoding() throws Exception {
+    mockMvc.perform(get("/")
+            .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+            .header(HttpHeaders.IF_NONE_MATCH, "\"" + HASH + "-gz\""))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"" + HASH + "-gz\""))
+        .andExpect(content().bytes(new byte[0]));
+
+    mockMvc.perform(get("/")
+            .header(HttpHeaders.ACCEPT_ENCODING, "identity")
+            .header(HttpHeaders.IF_NONE_MATCH, "\"" + HASH + "-gz\""))
+        .andExpect(status().isOk())
+        .andExpect(content().bytes(HTML));
+  }
+
+  @Test
+  public void q_values_are_parsed_per_coding() {
+    assertEquals(1.0, FrontendController.quality("gzip, br", "br"));
+    assertEquals(0.5, FrontendController.quality("GZIP ; Q=0.5", "gzip"));
+    assertEquals(0.3, FrontendController.quality("gzip, *;q=0.3", "br"));
+    assertEquals(0.0, FrontendController.quality("gzip", "br"));
+    assertEquals(0.0, FrontendController.quality("br;q=high", "br"));
+    assertEquals(1.0, FrontendController.quality("br;level=5", "br"));
+    assertEquals(0.0, FrontendController.quality("", "br"));
+  }
+
+  @Test
+  public void bundle_files_are_cached_for_a_year_and_served_precompressed() throws Exception {
+    mockMvc.perform(get("/static/js/main.test.js").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+        .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"))
+        .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING));
+
+    mockMvc.perform(get("/static/js/main.test.js"))
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+        .andExpect(content().string("console.log(\"main\");\n"));
+  }
+
+  @Test
+  public void csrf_is_not_found() throws Exception {
+    mockMvc.perform(get("/csrf")).andExpect(status().isNotFound());
+  }
+}
@@ -4,11 +4,26 @@ import edu.ucsb.cs156.example.repositories.UserRepository;
 import edu.ucsb.cs156.example.testconfig.TestConfig;
 import edu.ucsb.cs156.example.ControllerTestCase;
 import edu.ucsb.cs156.example.entities.HelpRequest;
+import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.errors.SyncTokenExpiredException;
+import edu.ucsb.cs156.example.errors.UnknownFieldException;
+import edu.ucsb.cs156.example.models.HelpRequestView;
 import edu.ucsb.cs156.example.repositories.HelpRequestRepository;
+import edu.ucsb.cs156.example.services.HelpRequestQueueService;
+import edu.ucsb.cs156.example.services.HelpRequestReadService;
+import edu.ucsb.cs156.example.models.Changes;
+import edu.ucsb.cs156.example.services.BulkUpdateService;
+import edu.ucsb.cs156.example.services.ChangeEventBroadcaster;
+import edu.ucsb.cs156.example.services.ChangeFeedService;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -16,6 +31,7 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.data.domain.Sort;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -28,6 +44,7 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -39,6 +56,21 @@ public class HelpRequestControllerTests extends ControllerTestCase {
         @MockBean
         HelpRequestRepository helpRequestRepository;
 
+        @MockBean
+        HelpRequestReadService helpRequestReadService;
+
+        @MockBean
+        HelpRequestQueueService helpRequestQueueService;
+
+        @MockBean
+        ChangeFeedService changeFeedService;
+
+        @MockBean
+        ChangeEventBroadcaster changeEventBroadcaster;
+
+        @MockBean
+        BulkUpdateService bulkUpdateService;
+
         @MockBean
         UserRepository userRepository;
 
@@ -98,7 +130,7 @@ public class HelpRequestControllerTests extends ControllerTestCase {
                                 .build();
 
 
-                when(helpRequestRepository.findById(eq(7L))).thenReturn(Optional.of(helpRequest));
+                when(helpRequestReadService.findById(eq(7L))).thenReturn(HelpRequestView.from(helpRequest));
 
                 // act
                 MvcResult response = mockMvc.perform(get("/api/helprequests?id=7"))
@@ -106,7 +138,7 @@ public class HelpRequestControllerTests extends ControllerTestCase {
 
                 // assert
 
-                verify(helpRequestRepository, times(1)).findById(eq(7L));
+                verify(helpRequestReadService, times(1)).findById(eq(7L));
                 String expectedJson = mapper.writeValueAsString(helpRequest);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(expectedJson, responseString);
@@ -120,7 +152,7 @@ public class HelpRequestControllerTests extends ControllerTestCase {
 
                 // arrange
 
-                when(helpRequestRepository.findById(eq(7L))).thenReturn(Optional.empty());
+                when(helpRequestReadService.findById(eq(7L))).thenThrow(new EntityNotFoundException(HelpRequest.class, 7L));
 
                 // act
                 MvcResult response = mockMvc.perform(get("/api/helprequests?id=7"))
@@ -128,7 +160,7 @@ public class HelpRequestControllerTests extends ControllerTestCase {
 
                 // assert
 
-                verify(helpRequestRepository, times(1)).findById(eq(7L));
+                verify(helpRequestReadService, times(1)).findById(eq(7L));
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("EntityNotFoundException", json.get("type"));
                 assertEquals("HelpRequest with id 7 not found", json.get("message"));
@@ -246,6 +278,7 @@ public class HelpRequestControllerTests extends ControllerTestCase {
                 // assert
                 verify(helpRequestRepository, times(1)).findById(15L);
                 verify(helpRequestRepository, times(1)).delete(any());
+                verify(changeFeedService, times(1)).recordDeletion(HelpRequest.class, 15L);
 
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("HelpRequest with id 15 deleted", json.get("message"));
@@ -302,7 +335,7 @@ public class HelpRequestControllerTests extends ControllerTestCase {
                 ArrayList<HelpRequest> expectedDates = new ArrayList<>();
                 expectedDates.addAll(Arrays.asList(helpRequest1, helpRequest2));
 
-                when(helpRequestRepository.findAll()).thenReturn(expectedDates);
+                when(helpRequestReadService.findAll(null, null, Sort.unsorted())).thenReturn(expectedDates.stream().map(HelpRequestView::from).toList());
 
                 // act
                 MvcResult response = mockMvc.perform(get("/api/helprequests/all"))
@@ -310,12 +343,92 @@ public class HelpRequestControllerTests extends ControllerTestCase {
 
                 // assert
 
-                verify(helpRequestRepository, times(1)).findAll();
+                verify(helpRequestReadService, times(1)).findAll(null, null, Sort.unsorted());
                 String expectedJson = mapper.writeValueAsString(expectedDates);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(expectedJson, responseString);
         }
 
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_all_helprequests_as_cbor() throws Exception {
+
+                // arrange
+                HelpRequest first = HelpRequest.builder()
+                                .id(1L)
+                                .requesterEmail("cgaucho@ucsb.edu")
+                                .teamId("s22-5pm-3")
+                                .tableOrBreakoutRoom("7")
+                                .requestTime(LocalDateTime.parse("2022-01-03T00:00:00"))
+                                .explanation("Need help with Swagger-ui")
+                                .solved(false)
+                                .build();
+
+                HelpRequest second = HelpRequest.builder()
+                                .id(2L)
+                                .requesterEmail("ldelplaya@ucsb.edu")
+                                .teamId("s22-6pm-4")
+                                .tableOrBreakoutRoom("11")
+                                .requestTime(LocalDateTime.parse("2022-01-04T00:00:00"))
+                                .explanation("Dokku problems")
+                                .solved(true)
+                                .build();
+
+                List<HelpRequestView> expected = List.of(HelpRequestView.from(first), HelpRequestView.from(second));
+                when(helpRequestReadService.findAll(null, null, Sort.unsorted())).thenReturn(expected);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/helprequests/all").accept("application/cbor"))
+                                .andExpect(status().isOk())
+                                .andExpect(content().contentType("application/cbor"))
+                                .andReturn();
+
+                // assert
+                List<HelpRequestView> body = mapper.copyWith(new CBORFactory()).readValue(response.getResponse().getContentAsByteArray(),
+                                new TypeReference<List<HelpRequestView>>() {});
+                assertEquals(expected, body);
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_all_helprequests_as_smile() throws Exception {
+
+                // arrange
+                HelpRequest first = HelpRequest.builder()
+                                .id(1L)
+                                .requesterEmail("cgaucho@ucsb.edu")
+                                .teamId("s22-5pm-3")
+                                .tableOrBreakoutRoom("7")
+                                .requestTime(LocalDateTime.parse("2022-01-03T00:00:00"))
+                                .explanation("Need help with Swagger-ui")
+                                .solved(false)
+                                .build();
+
+                HelpRequest second = HelpRequest.builder()
+                                .id(2L)
+                                .requesterEmail("ldelplaya@ucsb.edu")
+                                .teamId("s22-6pm-4")
+                                .tableOrBreakoutRoom("11")
+                                .requestTime(LocalDateTime.parse("2022-01-04T00:00:00"))
+                                .explanation("Dokku problems")
+                                .solved(true)
+                                .build();
+
+                List<HelpRequestView> expected = List.of(HelpRequestView.from(first), HelpRequestView.from(second));
+                when(helpRequestReadService.findAll(null, null, Sort.unsorted())).thenReturn(expected);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/helprequests/all").accept("application/x-jackson-smile"))
+                                .andExpect(status().isOk())
+                                .andExpect(content().contentType("application/x-jackson-smile"))
+                                .andReturn();
+
+                // assert
+                List<HelpRequestView> body = mapper.copyWith(new SmileFactory()).readValue(response.getResponse().getContentAsByteArray(),
+                                new TypeReference<List<HelpRequestView>>() {});
+                assertEquals(expected, body);
+        }
+
          @WithMockUser(roles = { "ADMIN", "USER" })
         @Test
         public void an_admin_user_can_post_a_new_helprequest() throws Exception {
@@ -347,4 +460,268 @@ public class HelpRequestControllerTests extends ControllerTestCase {
                 assertEquals(expectedJson, responseString);
         }
 
-}
\ No newline at end of file
+
+        // Tests for bulk updates of the solved flag
+
+        @Test
+        public void logged_out_users_cannot_update_solved_in_bulk() throws Exception {
+                mockMvc.perform(put("/api/helprequests/solved?ids=1,2&solved=true").with(csrf()))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_regular_users_cannot_update_solved_in_bulk() throws Exception {
+                mockMvc.perform(put("/api/helprequests/solved/team?teamId=303&solved=true").with(csrf()))
+                                .andExpect(status().is(403)); // only admins can update
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void admin_can_mark_a_list_of_helprequests_solved() throws Exception {
+                // arrange
+
+                when(bulkUpdateService.setHelpRequestsSolved(eq(List.of(1L, 2L, 3L)), eq(true))).thenReturn(List.of(1L, 3L));
+
+                // act
+                MvcResult response = mockMvc.perform(
+                                put("/api/helprequests/solved?ids=1,2,3&solved=true")
+                                                .with(csrf()))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(bulkUpdateService, times(1)).setHelpRequestsSolved(List.of(1L, 2L, 3L), true);
+                verify(changeEventBroadcaster).publish(HelpRequest.class, ChangeEventBroadcaster.UPDATED, 1L, null);
+                verify(changeEventBroadcaster).publish(HelpRequest.class, ChangeEventBroadcaster.UPDATED, 3L, null);
+                assertEquals("[1,3]", response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void admin_marking_nonexistent_helprequests_solved_updates_nothing() throws Exception {
+                // arrange
+
+                when(bulkUpdateService.setHelpRequestsSolved(eq(List.of(8L, 9L)), eq(false))).thenReturn(List.of());
+
+                // act
+                MvcResult response = mockMvc.perform(
+                                put("/api/helprequests/solved?ids=8,9&solved=false")
+                                                .with(csrf()))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(bulkUpdateService, times(1)).setHelpRequestsSolved(List.of(8L, 9L), false);
+                verify(changeEventBroadcaster, never()).publish(any(), any(), any(), any());
+                assertEquals("[]", response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void admin_can_mark_all_helprequests_of_a_team_unsolved() throws Exception {
+                // arrange
+
+                when(bulkUpdateService.setTeamHelpRequestsSolved(eq("303"), eq(false))).thenReturn(List.of(4L, 5L));
+
+                // act
+                MvcResult response = mockMvc.perform(
+                                put("/api/helprequests/solved/team?teamId=303&solved=false")
+                                                .with(csrf()))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(bulkUpdateService, times(1)).setTeamHelpRequestsSolved("303", false);
+                verify(changeEventBroadcaster).publish(HelpRequest.class, ChangeEventBroadcaster.UPDATED, 4L, null);
+                verify(changeEventBroadcaster).publish(HelpRequest.class, ChangeEventBroadcaster.UPDATED, 5L, null);
+                assertEquals("[4,5]", response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_filter_and_sort_helprequests() throws Exception {
+                // arrange
+                HelpRequest helpRequest = HelpRequest.builder()
+                        .id(7L)
+                        .requesterEmail("requesterEmail value")
+                        .teamId("teamId value")
+                        .tableOrBreakoutRoom("tableOrBreakoutRoom value")
+                        .requestTime(LocalDateTime.parse("2022-01-03T00:00:00"))
+                        .explanation("explanation value")
+                        .solved(true)
+                        .build();
+                Sort sort = Sort.by(Sort.Direction.DESC, "requestTime");
+                when(helpRequestReadService.findAll(false, "s22-5pm-3", sort)).thenReturn(List.of(HelpRequestView.from(helpRequest)));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/helprequests/all?solved=false&teamId=s22-5pm-3&sort=requestTime,desc"))
+                        .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(helpRequestReadService, times(1)).findAll(false, "s22-5pm-3", sort);
+                String expectedJson = mapper.writeValueAsString(List.of(helpRequest));
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void sorting_by_an_unindexed_field_returns_bad_request() throws Exception {
+                // arrange
+                when(helpRequestReadService.findAll(null, null, Sort.by("explanation")))
+                        .thenThrow(UnknownFieldException.notSortable(HelpRequest.class, "explanation"));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/helprequests/all?sort=explanation"))
+                        .andExpect(status().isBadRequest()).andReturn();
+
+                // assert
+                Map<String, Object> json = responseToJson(response);
+                assertEquals("UnknownFieldException", json.get("type"));
+                assertEquals("HelpRequest cannot be sorted by explanation", json.get("message"));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_all_helprequests_with_only_some_fields() throws Exception {
+                // arrange
+                List<String> fields = List.of("id", "requesterEmail");
+                List<Map<String, Object>> rows = List.of(Map.of("id", 7L, "requesterEmail", "some value"));
+                when(helpRequestReadService.findAll(null, null, Sort.unsorted(), fields)).thenReturn(rows);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/helprequests/all?fields=id,requesterEmail"))
+                        .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(helpRequestReadService, times(1)).findAll(null, null, Sort.unsorted(), fields);
+                String expectedJson = mapper.writeValueAsString(rows);
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_only_some_fields_by_id() throws Exception {
+                // arrange
+                List<String> fields = List.of("id");
+                Map<String, Object> row = Map.of("id", 7L);
+                when(helpRequestReadService.findById(eq(7L), eq(fields))).thenReturn(row);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/helprequests?id=7&fields=id"))
+                        .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(helpRequestReadService, times(1)).findById(eq(7L), eq(fields));
+                String expectedJson = mapper.writeValueAsString(row);
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void unknown_field_returns_bad_request() throws Exception {
+                // arrange
+                when(helpRequestReadService.findAll(null, null, Sort.unsorted(), List.of("bogus")))
+                        .thenThrow(new UnknownFieldException(HelpRequest.class, "bogus"));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/helprequests/all?fields=bogus"))
+                        .andExpect(status().isBadRequest()).andReturn();
+
+                // assert
+                Map<String, Object> json = responseToJson(response);
+                assertEquals("UnknownFieldException", json.get("type"));
+                assertEquals("HelpRequest has no field bogus", json.get("message"));
+        }
+
+        @Test
+        public void logged_out_users_cannot_get_changes() throws Exception {
+                mockMvc.perform(get("/api/helprequests/changes?since=0"))
+                        .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_changes_since_a_token() throws Exception {
+                // arrange
+                Changes<HelpRequestView> changes = new Changes<>(12L, List.of(), List.of(7L));
+                when(helpRequestReadService.changesSince(5L)).thenReturn(changes);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/helprequests/changes?since=5"))
+                        .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(helpRequestReadService, times(1)).changesSince(5L);
+                String expectedJson = mapper.writeValueAsString(changes);
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void an_expired_sync_token_is_gone() throws Exception {
+                // arrange
+                when(helpRequestReadService.changesSince(5L)).thenThrow(new SyncTokenExpiredException(HelpRequest.class, 5L));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/helprequests/changes?since=5"))
+                        .andExpect(status().isGone()).andReturn();
+
+                // assert
+                Map<String, Object> json = responseToJson(response);
+                assertEquals("SyncTokenExpiredException", json.get("type"));
+                assertEquals("Sync token 5 for HelpRequest has expired; sync again from 0", json.get("message"));
+        }
+
+        // Tests for /api/helprequests/claim
+
+        @Test
+        public void logged_out_users_cannot_claim() throws Exception {
+                mockMvc.perform(post("/api/helprequests/claim").with(csrf()))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_regular_users_cannot_claim() throws Exception {
+                mockMvc.perform(post("/api/helprequests/claim").with(csrf()))
+                                .andExpect(status().is(403));
+                verify(helpRequestQueueService, never()).claimNext(any(), any(), any());
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void admin_can_claim_the_next_help_request() throws Exception {
+                // arrange
+                HelpRequestView claimed = new HelpRequestView(7L, "cgaucho@ucsb.edu", "s22-5pm-3", "7",
+                                LocalDateTime.parse("2022-01-03T00:00:00"), "tests fail", false,
+                                "user@example.org", LocalDateTime.parse("2022-01-03T00:05:00"));
+                when(helpRequestQueueService.claimNext("s22-5pm-3", "7", "user@example.org"))
+                                .thenReturn(Optional.of(claimed));
+
+                // act
+                MvcResult response = mockMvc.perform(
+                                post("/api/helprequests/claim?teamId=s22-5pm-3&tableOrBreakoutRoom=7")
+                                                .with(csrf()))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                assertEquals(mapper.writeValueAsString(claimed), response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void admin_gets_no_content_when_there_is_nothing_to_claim() throws Exception {
+                // arrange
+                when(helpRequestQueueService.claimNext(null, null, "user@example.org")).thenReturn(Optional.empty());
+
+                // act
+                MvcResult response = mockMvc.perform(post("/api/helprequests/claim").with(csrf()))
+                                .andExpect(status().isNoContent()).andReturn();
+
+                // assert
+                verify(helpRequestQueueService, times(1)).claimNext(null, null, "user@example.org");
+                assertEquals("", response.getResponse().getContentAsString());
+        }
+}
@@ -4,11 +4,21 @@ import edu.ucsb.cs156.example.repositories.UserRepository;
 import edu.ucsb.cs156.example.testconfig.TestConfig;
 import edu.ucsb.cs156.example.ControllerTestCase;
 import edu.ucsb.cs156.example.entities.MenuItemReview;
+import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.errors.UnknownFieldException;
+import edu.ucsb.cs156.example.models.MenuItemReviewView;
 import edu.ucsb.cs156.example.repositories.MenuItemReviewRepository;
+import edu.ucsb.cs156.example.services.MenuItemReviewReadService;
+import edu.ucsb.cs156.example.models.Changes;
+import edu.ucsb.cs156.example.services.ChangeFeedService;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Map;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -31,6 +41,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import java.util.List;
 
 @WebMvcTest(controllers = MenuItemReviewController.class)
 @Import(TestConfig.class)
@@ -39,6 +50,12 @@ public class MenuItemReviewControllerTests extends ControllerTestCase {
         @MockBean
         MenuItemReviewRepository menuItemReviewRepository;
 
+        @MockBean
+        MenuItemReviewReadService menuItemReviewReadService;
+
+        @MockBean
+        ChangeFeedService changeFeedService;
+
         @MockBean
         UserRepository userRepository;
 
@@ -68,7 +85,7 @@ public class MenuItemReviewControllerTests extends ControllerTestCase {
                                 .comments("fire")
                                 .build();
 
-                when(menuItemReviewRepository.findById(eq(7L))).thenReturn(Optional.of(menuItemReview));
+                when(menuItemReviewReadService.findById(eq(7L))).thenReturn(MenuItemReviewView.from(menuItemReview));
 
                 // act
                 MvcResult response = mockMvc.perform(get("/api/menuitemreview?id=7"))
@@ -76,7 +93,7 @@ public class MenuItemReviewControllerTests extends ControllerTestCase {
 
                 // assert
 
-                verify(menuItemReviewRepository, times(1)).findById(eq(7L));
+                verify(menuItemReviewReadService, times(1)).findById(eq(7L));
                 String expectedJson = mapper.writeValueAsString(menuItemReview);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(expectedJson, responseString);
@@ -88,7 +105,7 @@ public class MenuItemReviewControllerTests extends ControllerTestCase {
 
                 // arrange
 
-                when(menuItemReviewRepository.findById(eq(7L))).thenReturn(Optional.empty());
+                when(menuItemReviewReadService.findById(eq(7L))).thenThrow(new EntityNotFoundException(MenuItemReview.class, 7L));
 
                 // act
                 MvcResult response = mockMvc.perform(get("/api/menuitemreview?id=7"))
@@ -96,7 +113,7 @@ public class MenuItemReviewControllerTests extends ControllerTestCase {
 
                 // assert
 
-                verify(menuItemReviewRepository, times(1)).findById(eq(7L));
+                verify(menuItemReviewReadService, times(1)).findById(eq(7L));
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("EntityNotFoundException", json.get("type"));
                 assertEquals("MenuItemReview with id 7 not found", json.get("message"));
@@ -113,7 +130,8 @@ public class MenuItemReviewControllerTests extends ControllerTestCase {
         @WithMockUser(roles = { "USER" })
         @Test
         public void logged_in_users_can_get_all() throws Exception {
-                mockMvc.perform(get("/api/menuitemreview/all"))
+                mockMvc.perform(asyncDispatch(mockMvc.perform(get("/api/menuitemreview/all"))
+                                .andExpect(request().asyncStarted()).andReturn()))
                                 .andExpect(status().is(200)); // logged
         }
 
@@ -145,20 +163,99 @@ public class MenuItemReviewControllerTests extends ControllerTestCase {
                 ArrayList<MenuItemReview> expectedReviews = new ArrayList<>();
                 expectedReviews.addAll(Arrays.asList(review1, review2));
 
-                when(menuItemReviewRepository.findAll()).thenReturn(expectedReviews);
+                when(menuItemReviewReadService.findAll()).thenReturn(expectedReviews.stream().map(MenuItemReviewView::from).toList());
 
                 // act
-                MvcResult response = mockMvc.perform(get("/api/menuitemreview/all"))
+                MvcResult response = mockMvc.perform(asyncDispatch(mockMvc.perform(get("/api/menuitemreview/all"))
+                                .andExpect(request().asyncStarted()).andReturn()))
                                 .andExpect(status().isOk()).andReturn();
 
                 // assert
 
-                verify(menuItemReviewRepository, times(1)).findAll();
+                verify(menuItemReviewReadService, times(1)).findAll();
                 String expectedJson = mapper.writeValueAsString(expectedReviews);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(expectedJson, responseString);
         }
 
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_all_reviews_as_cbor() throws Exception {
+
+                // arrange
+                MenuItemReview first = MenuItemReview.builder()
+                                .id(1L)
+                                .itemId(1)
+                                .reviewerEmail("dqiao@ucsb.edu")
+                                .stars(5)
+                                .dateReviewed(LocalDateTime.parse("2022-01-03T00:00:00"))
+                                .comments("fire")
+                                .build();
+
+                MenuItemReview second = MenuItemReview.builder()
+                                .id(2L)
+                                .itemId(2)
+                                .reviewerEmail("lmao@ucsb.edu")
+                                .stars(2)
+                                .dateReviewed(LocalDateTime.parse("2022-03-11T00:00:00"))
+                                .comments("garbage")
+                                .build();
+
+                List<MenuItemReviewView> expected = List.of(MenuItemReviewView.from(first), MenuItemReviewView.from(second));
+                when(menuItemReviewReadService.findAll()).thenReturn(expected);
+
+                // act
+                MvcResult response = mockMvc.perform(asyncDispatch(mockMvc.perform(get("/api/menuitemreview/all").accept("application/cbor"))
+                                .andExpect(request().asyncStarted()).andReturn()))
+                                .andExpect(status().isOk())
+                                .andExpect(content().contentType("application/cbor"))
+                                .andReturn();
+
+                // assert
+                List<MenuItemReviewView> body = mapper.copyWith(new CBORFactory()).readValue(response.getResponse().getContentAsByteArray(),
+                                new TypeReference<List<MenuItemReviewView>>() {});
+                assertEquals(expected, body);
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_all_reviews_as_smile() throws Exception {
+
+                // arrange
+                MenuItemReview first = MenuItemReview.builder()
+                                .id(1L)
+                                .itemId(1)
+                                .reviewerEmail("dqiao@ucsb.edu")
+                                .stars(5)
+                                .dateReviewed(LocalDateTime.parse("2022-01-03T00:00:00"))
+                                .comments("fire")
+                                .build();
+
+                MenuItemReview second = MenuItemReview.builder()
+                                .id(2L)
+                                .itemId(2)
+                                .reviewerEmail("lmao@ucsb.edu")
+                                .stars(2)
+                                .dateReviewed(LocalDateTime.parse("2022-03-11T00:00:00"))
+                                .comments("garbage")
+                                .build();
+
+                List<MenuItemReviewView> expected = List.of(MenuItemReviewView.from(first), MenuItemReviewView.from(second));
+                when(menuItemReviewReadService.findAll()).thenReturn(expected);
+
+                // act
+                MvcResult response = mockMvc.perform(asyncDispatch(mockMvc.perform(get("/api/menuitemreview/all").accept("application/x-jackson-smile"))
+                                .andExpect(request().asyncStarted()).andReturn()))
+                                .andExpect(status().isOk())
+                                .andExpect(content().contentType("application/x-jackson-smile"))
+                                .andReturn();
+
+                // assert
+                List<MenuItemReviewView> body = mapper.copyWith(new SmileFactory()).readValue(response.getResponse().getContentAsByteArray(),
+                                new TypeReference<List<MenuItemReviewView>>() {});
+                assertEquals(expected, body);
+        }
+
         // tests for POST
 
         @Test
@@ -232,6 +329,7 @@ public class MenuItemReviewControllerTests extends ControllerTestCase {
                 // assert
                 verify(menuItemReviewRepository, times(1)).findById(15L);
                 verify(menuItemReviewRepository, times(1)).delete(any());
+                verify(changeFeedService, times(1)).recordDeletion(MenuItemReview.class, 15L);
 
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("MenuItemReview with id 15 deleted", json.get("message"));
@@ -447,5 +545,84 @@ public class MenuItemReviewControllerTests extends ControllerTestCase {
 
         }
 
-        
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_all_menuitemreview_with_only_some_fields() throws Exception {
+                // arrange
+                List<String> fields = List.of("id", "itemId");
+                List<Map<String, Object>> rows = List.of(Map.of("id", 7L, "itemId", 42L));
+                when(menuItemReviewReadService.findAll(eq(fields))).thenReturn(rows);
+
+                // act
+                MvcResult response = mockMvc.perform(asyncDispatch(mockMvc.perform(get("/api/menuitemreview/all?fields=id,itemId"))
+                        .andExpect(request().asyncStarted()).andReturn()))
+                        .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(menuItemReviewReadService, times(1)).findAll(eq(fields));
+                String expectedJson = mapper.writeValueAsString(rows);
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_only_some_fields_by_id() throws Exception {
+                // arrange
+                List<String> fields = List.of("id");
+                Map<String, Object> row = Map.of("id", 7L);
+                when(menuItemReviewReadService.findById(eq(7L), eq(fields))).thenReturn(row);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/menuitemreview?id=7&fields=id"))
+                        .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(menuItemReviewReadService, times(1)).findById(eq(7L), eq(fields));
+                String expectedJson = mapper.writeValueAsString(row);
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void unknown_field_returns_bad_request() throws Exception {
+                // arrange
+                when(menuItemReviewReadService.findAll(eq(List.of("bogus"))))
+                        .thenThrow(new UnknownFieldException(MenuItemReview.class, "bogus"));
+
+                // act
+                MvcResult response = mockMvc.perform(asyncDispatch(mockMvc.perform(get("/api/menuitemreview/all?fields=bogus"))
+                        .andExpect(request().asyncStarted()).andReturn()))
+                        .andExpect(status().isBadRequest()).andReturn();
+
+                // assert
+                Map<String, Object> json = responseToJson(response);
+                assertEquals("UnknownFieldException", json.get("type"));
+                assertEquals("MenuItemReview has no field bogus", json.get("message"));
+        }
+
+        @Test
+        public void logged_out_users_cannot_get_changes() throws Exception {
+                mockMvc.perform(get("/api/menuitemreview/changes?since=0"))
+                        .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_changes_since_a_token() throws Exception {
+                // arrange
+                Changes<MenuItemReviewView> changes = new Changes<>(12L, List.of(), List.of(7L));
+                when(menuItemReviewReadService.changesSince(5L)).thenReturn(changes);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/menuitemreview/changes?since=5"))
+                        .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(menuItemReviewReadService, times(1)).changesSince(5L);
+                String expectedJson = mapper.writeValueAsString(changes);
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
 }
@@ -5,10 +5,20 @@ import edu.ucsb.cs156.example.testconfig.TestConfig;
 import edu.ucsb.cs156.example.ControllerTestCase;
 import edu.ucsb.cs156.example.entities.RecommendationRequest;
 import edu.ucsb.cs156.example.entities.UCSBDate;
+import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.errors.UnknownFieldException;
+import edu.ucsb.cs156.example.models.RecommendationRequestView;
 import edu.ucsb.cs156.example.repositories.RecommendationRequestRepository;
+import edu.ucsb.cs156.example.services.RecommendationRequestReadService;
+import edu.ucsb.cs156.example.models.Changes;
+import edu.ucsb.cs156.example.services.BulkUpdateService;
+import edu.ucsb.cs156.example.services.ChangeEventBroadcaster;
+import edu.ucsb.cs156.example.services.ChangeFeedService;
+import edu.ucsb.cs156.example.services.RecommendationReminders;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -17,6 +27,7 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.data.domain.Sort;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -29,6 +40,7 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -40,6 +52,21 @@ public class RecommendationRequestControllerTests extends ControllerTestCase {
     @MockBean
     RecommendationRequestRepository recommendationRequestRepository;
 
+    @MockBean
+    RecommendationRequestReadService recommendationRequestReadService;
+
+    @MockBean
+    ChangeFeedService changeFeedService;
+
+    @MockBean
+    ChangeEventBroadcaster changeEventBroadcaster;
+
+    @MockBean
+    BulkUpdateService bulkUpdateService;
+
+    @MockBean
+    RecommendationReminders recommendationReminders;
+
     @MockBean
     UserRepository userRepository;
 
@@ -98,7 +125,7 @@ public class RecommendationRequestControllerTests extends ControllerTestCase {
             ArrayList<RecommendationRequest> expectedRecommendationRequests = new ArrayList<>();
             expectedRecommendationRequests.addAll(Arrays.asList(request1, request2));
 
-            when(recommendationRequestRepository.findAll()).thenReturn(expectedRecommendationRequests);
+            when(recommendationRequestReadService.findAll(null, null, Sort.unsorted())).thenReturn(expectedRecommendationRequests.stream().map(RecommendationRequestView::from).toList());
 
             // act
             MvcResult response = mockMvc.perform(get("/api/recommendationrequests/all"))
@@ -106,7 +133,7 @@ public class RecommendationRequestControllerTests extends ControllerTestCase {
 
             // assert
 
-            verify(recommendationRequestRepository, times(1)).findAll();
+            verify(recommendationRequestReadService, times(1)).findAll(null, null, Sort.unsorted());
             String expectedJson = mapper.writeValueAsString(expectedRecommendationRequests);
             String responseString = response.getResponse().getContentAsString();
             assertEquals(expectedJson, responseString);
@@ -179,7 +206,7 @@ public class RecommendationRequestControllerTests extends ControllerTestCase {
                             .done(true)
                             .build();
 
-                when(recommendationRequestRepository.findById(eq(7L))).thenReturn(Optional.of(recommendationRequest));
+                when(recommendationRequestReadService.findById(eq(7L))).thenReturn(RecommendationRequestView.from(recommendationRequest));
 
                 // act
                 MvcResult response = mockMvc.perform(get("/api/recommendationrequests?id=7"))
@@ -187,7 +214,7 @@ public class RecommendationRequestControllerTests extends ControllerTestCase {
 
                 // assert
 
-                verify(recommendationRequestRepository, times(1)).findById(eq(7L));
+                verify(recommendationRequestReadService, times(1)).findById(eq(7L));
                 String expectedJson = mapper.writeValueAsString(recommendationRequest);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(expectedJson, responseString);
@@ -199,7 +226,7 @@ public class RecommendationRequestControllerTests extends ControllerTestCase {
 
                 // arrange
 
-                when(recommendationRequestRepository.findById(eq(7L))).thenReturn(Optional.empty());
+                when(recommendationRequestReadService.findById(eq(7L))).thenThrow(new EntityNotFoundException(RecommendationRequest.class, 7L));
 
                 // act
                 MvcResult response = mockMvc.perform(get("/api/recommendationrequests?id=7"))
@@ -207,7 +234,7 @@ public class RecommendationRequestControllerTests extends ControllerTestCase {
 
                 // assert
 
-                verify(recommendationRequestRepository, times(1)).findById(eq(7L));
+                verify(recommendationRequestReadService, times(1)).findById(eq(7L));
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("EntityNotFoundException", json.get("type"));
                 assertEquals("RecommendationRequest with id 7 not found", json.get("message"));
@@ -241,6 +268,7 @@ public class RecommendationRequestControllerTests extends ControllerTestCase {
                 // assert
                 verify(recommendationRequestRepository, times(1)).findById(15L);
                 verify(recommendationRequestRepository, times(1)).delete(any());
+                verify(changeFeedService, times(1)).recordDeletion(RecommendationRequest.class, 15L);
 
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("RecommendationRequest with id 15 deleted", json.get("message"));
@@ -353,4 +381,183 @@ public class RecommendationRequestControllerTests extends ControllerTestCase {
 
         }
 
+
+    // Tests for bulk updates of the done flag
+
+    @Test
+    public void logged_out_users_cannot_update_done_in_bulk() throws Exception {
+            mockMvc.perform(put("/api/recommendationrequests/done?ids=1,2&done=true").with(csrf()))
+                            .andExpect(status().is(403));
+    }
+
+    @WithMockUser(roles = { "USER" })
+    @Test
+    public void logged_in_regular_users_cannot_update_done_in_bulk() throws Exception {
+            mockMvc.perform(put("/api/recommendationrequests/done?ids=1,2&done=true").with(csrf()))
+                            .andExpect(status().is(403)); // only admins can update
+    }
+
+    @WithMockUser(roles = { "ADMIN", "USER" })
+    @Test
+    public void admin_can_mark_a_list_of_recommendation_requests_done() throws Exception {
+            // arrange
+
+            when(bulkUpdateService.setRecommendationRequestsDone(eq(List.of(1L, 2L, 3L)), eq(true))).thenReturn(List.of(2L, 3L));
+
+            // act
+            MvcResult response = mockMvc.perform(
+                            put("/api/recommendationrequests/done?ids=1,2,3&done=true")
+                                            .with(csrf()))
+                            .andExpect(status().isOk()).andReturn();
+
+            // assert
+            verify(bulkUpdateService, times(1)).setRecommendationRequestsDone(List.of(1L, 2L, 3L), true);
+            verify(changeEventBroadcaster).publish(RecommendationRequest.class, ChangeEventBroadcaster.UPDATED, 2L, null);
+            verify(changeEventBroadcaster).publish(RecommendationRequest.class, ChangeEventBroadcaster.UPDATED, 3L, null);
+            verify(recommendationReminders).doneChanged(List.of(2L, 3L), true);
+            assertEquals("[2,3]", response.getResponse().getContentAsString());
+    }
+
+    @WithMockUser(roles = { "ADMIN", "USER" })
+    @Test
+    public void admin_marking_nonexistent_recommendation_requests_done_updates_nothing() throws Exception {
+            // arrange
+
+            when(bulkUpdateService.setRecommendationRequestsDone(eq(List.of(8L)), eq(false))).thenReturn(List.of());
+
+            // act
+            MvcResult response = mockMvc.perform(
+                            put("/api/recommendationrequests/done?ids=8&done=false")
+                                            .with(csrf()))
+                            .andExpect(status().isOk()).andReturn();
+
+            // assert
+            verify(bulkUpdateService, times(1)).setRecommendationRequestsDone(List.of(8L), false);
+            verify(changeEventBroadcaster, never()).publish(any(), any(), any(), any());
+            verify(recommendationReminders, never()).doneChanged(any(), eq(false));
+            assertEquals("[]", response.getResponse().getContentAsString());
+    }
+
+    @WithMockUser(roles = { "USER" })
+    @Test
+    public void logged_in_user_can_filter_and_sort_recommendationrequests() throws Exception {
+        // arrange
+        RecommendationRequest request1 = RecommendationRequest.builder()
+            .id(7L)
+            .requesterEmail("requesterEmail value")
+            .professorEmail("professorEmail value")
+            .explanation("explanation value")
+            .dateRequested(LocalDateTime.parse("2022-01-03T00:00:00"))
+            .dateNeeded(LocalDateTime.parse("2022-01-03T00:00:00"))
+            .done(true)
+            .build();
+        Sort sort = Sort.by(Sort.Direction.DESC, "dateNeeded");
+        when(recommendationRequestReadService.findAll(false, "prof@ucsb.edu", sort)).thenReturn(List.of(RecommendationRequestView.from(request1)));
+
+        // act
+        MvcResult response = mockMvc.perform(get("/api/recommendationrequests/all?done=false&professorEmail=prof@ucsb.edu&sort=dateNeeded,desc"))
+            .andExpect(status().isOk()).andReturn();
+
+        // assert
+        verify(recommendationRequestReadService, times(1)).findAll(false, "prof@ucsb.edu", sort);
+        String expectedJson = mapper.writeValueAsString(List.of(request1));
+        String responseString = response.getResponse().getContentAsString();
+        assertEquals(expectedJson, responseString);
+    }
+
+    @WithMockUser(roles = { "USER" })
+    @Test
+    public void sorting_by_an_unindexed_field_returns_bad_request() throws Exception {
+        // arrange
+        when(recommendationRequestReadService.findAll(null, null, Sort.by("explanation")))
+            .thenThrow(UnknownFieldException.notSortable(RecommendationRequest.class, "explanation"));
+
+        // act
+        MvcResult response = mockMvc.perform(get("/api/recommendationrequests/all?sort=explanation"))
+            .andExpect(status().isBadRequest()).andReturn();
+
+        // assert
+        Map<String, Object> json = responseToJson(response);
+        assertEquals("UnknownFieldException", json.get("type"));
+        assertEquals("RecommendationRequest cannot be sorted by explanation", json.get("message"));
+    }
+
+    @WithMockUser(roles = { "USER" })
+    @Test
+    public void logged_in_user_can_get_all_recommendationrequests_with_only_some_fields() throws Exception {
+        // arrange
+        List<String> fields = List.of("id", "requesterEmail");
+        List<Map<String, Object>> rows = List.of(Map.of("id", 7L, "requesterEmail", "some value"));
+        when(recommendationRequestReadService.findAll(null, null, Sort.unsorted(), fields)).thenReturn(rows);
+
+        // act
+        MvcResult response = mockMvc.perform(get("/api/recommendationrequests/all?fields=id,requesterEmail"))
+            .andExpect(status().isOk()).andReturn();
+
+        // assert
+        verify(recommendationRequestReadService, times(1)).findAll(null, null, Sort.unsorted(), fields);
+        String expectedJson = mapper.writeValueAsString(rows);
+        String responseString = response.getResponse().getContentAsString();
+        assertEquals(expectedJson, responseString);
+    }
+
+    @WithMockUser(roles = { "USER" })
+    @Test
+    public void logged_in_user_can_get_only_some_fields_by_id() throws Exception {
+        // arrange
+        List<String> fields = List.of("id");
+        Map<String, Object> row = Map.of("id", 7L);
+        when(recommendationRequestReadService.findById(eq(7L), eq(fields))).thenReturn(row);
+
+        // act
+        MvcResult response = mockMvc.perform(get("/api/recommendationrequests?id=7&fields=id"))
+            .andExpect(status().isOk()).andReturn();
+
+        // assert
+        verify(recommendationRequestReadService, times(1)).findById(eq(7L), eq(fields));
+        String expectedJson = mapper.writeValueAsString(row);
+        String responseString = response.getResponse().getContentAsString();
+        assertEquals(expectedJson, responseString);
+    }
+
+    @WithMockUser(roles = { "USER" })
+    @Test
+    public void unknown_field_returns_bad_request() throws Exception {
+        // arrange
+        when(recommendationRequestReadService.findAll(null, null, Sort.unsorted(), List.of("bogus")))
+            .thenThrow(new UnknownFieldException(RecommendationRequest.class, "bogus"));
+
+        // act
+        MvcResult response = mockMvc.perform(get("/api/recommendationrequests/all?fields=bogus"))
+            .andExpect(status().isBadRequest()).andReturn();
+
+        // assert
+        Map<String, Object> json = responseToJson(response);
+        assertEquals("UnknownFieldException", json.get("type"));
+        assertEquals("RecommendationRequest has no field bogus", json.get("message"));
+    }
+
+    @Test
+    public void logged_out_users_cannot_get_changes() throws Exception {
+        mockMvc.perform(get("/api/recommendationrequests/changes?since=0"))
+            .andExpect(status().is(403));
+    }
+
+    @WithMockUser(roles = { "USER" })
+    @Test
+    public void logged_in_user_can_get_changes_since_a_token() throws Exception {
+        // arrange
+        Changes<RecommendationRequestView> changes = new Changes<>(12L, List.of(), List.of(7L));
+        when(recommendationRequestReadService.changesSince(5L)).thenReturn(changes);
+
+        // act
+        MvcResult response = mockMvc.perform(get("/api/recommendationrequests/changes?since=5"))
+            .andExpect(status().isOk()).andReturn();
+
+        // assert
+        verify(recommendationRequestReadService, times(1)).changesSince(5L);
+        String expectedJson = mapper.writeValueAsString(changes);
+        String responseString = response.getResponse().getContentAsString();
+        assertEquals(expectedJson, responseString);
+    }
 }
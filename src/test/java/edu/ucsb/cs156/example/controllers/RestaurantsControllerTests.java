@@ -4,7 +4,13 @@ import edu.ucsb.cs156.example.repositories.UserRepository;
 import edu.ucsb.cs156.example.testconfig.TestConfig;
 import edu.ucsb.cs156.example.ControllerTestCase;
 import edu.ucsb.cs156.example.entities.Restaurant;
+import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.errors.UnknownFieldException;
+import edu.ucsb.cs156.example.models.RestaurantView;
 import edu.ucsb.cs156.example.repositories.RestaurantRepository;
+import edu.ucsb.cs156.example.services.RestaurantReadService;
+import edu.ucsb.cs156.example.models.Changes;
+import edu.ucsb.cs156.example.services.ChangeFeedService;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -29,6 +35,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import java.util.List;
 
 @WebMvcTest(controllers = RestaurantsController.class)
 @Import(TestConfig.class)
@@ -37,6 +44,12 @@ public class RestaurantsControllerTests extends ControllerTestCase {
         @MockBean
         RestaurantRepository restaurantRepository;
 
+        @MockBean
+        RestaurantReadService restaurantReadService;
+
+        @MockBean
+        ChangeFeedService changeFeedService;
+
         @MockBean
         UserRepository userRepository;
 
@@ -90,7 +103,7 @@ public class RestaurantsControllerTests extends ControllerTestCase {
                                 .description("Mexican")
                                 .build();
 
-                when(restaurantRepository.findById(eq(7L))).thenReturn(Optional.of(restaurant));  // Check not sure why id is 7
+                when(restaurantReadService.findById(eq(7L))).thenReturn(RestaurantView.from(restaurant));  // Check not sure why id is 7
 
                 // act
                 MvcResult response = mockMvc.perform(get("/api/restaurants?id=7"))
@@ -98,7 +111,7 @@ public class RestaurantsControllerTests extends ControllerTestCase {
 
                 // assert
 
-                verify(restaurantRepository, times(1)).findById(eq(7L));
+                verify(restaurantReadService, times(1)).findById(eq(7L));
                 String expectedJson = mapper.writeValueAsString(restaurant);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(expectedJson, responseString);
@@ -110,7 +123,7 @@ public class RestaurantsControllerTests extends ControllerTestCase {
 
                 // arrange
 
-                when(restaurantRepository.findById(eq(7L))).thenReturn(Optional.empty());
+                when(restaurantReadService.findById(eq(7L))).thenThrow(new EntityNotFoundException(Restaurant.class, 7L));
 
                 // act
                 MvcResult response = mockMvc.perform(get("/api/restaurants?id=7"))
@@ -118,7 +131,7 @@ public class RestaurantsControllerTests extends ControllerTestCase {
 
                 // assert
 
-                verify(restaurantRepository, times(1)).findById(eq(7L));
+                verify(restaurantReadService, times(1)).findById(eq(7L));
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("EntityNotFoundException", json.get("type"));
                 assertEquals("Restaurant with id 7 not found", json.get("message"));
@@ -143,7 +156,7 @@ public class RestaurantsControllerTests extends ControllerTestCase {
                 ArrayList<Restaurant> expectedRestaurants = new ArrayList<>();
                 expectedRestaurants.addAll(Arrays.asList(restaurant1, restaurant2));
 
-                when(restaurantRepository.findAll()).thenReturn(expectedRestaurants);
+                when(restaurantReadService.findAll()).thenReturn(expectedRestaurants.stream().map(RestaurantView::from).toList());
 
                 // act
                 MvcResult response = mockMvc.perform(get("/api/restaurants/all"))
@@ -151,7 +164,7 @@ public class RestaurantsControllerTests extends ControllerTestCase {
 
                 // assert
 
-                verify(restaurantRepository, times(1)).findAll();
+                verify(restaurantReadService, times(1)).findAll();
                 String expectedJson = mapper.writeValueAsString(expectedRestaurants);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(expectedJson, responseString);
@@ -203,6 +216,7 @@ public class RestaurantsControllerTests extends ControllerTestCase {
                 // assert
                 verify(restaurantRepository, times(1)).findById(15L);
                 verify(restaurantRepository, times(1)).delete(any());
+                verify(changeFeedService, times(1)).recordDeletion(Restaurant.class, 15L);
 
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("Restaurant with id 15 deleted", json.get("message"));
@@ -294,4 +308,83 @@ public class RestaurantsControllerTests extends ControllerTestCase {
                 assertEquals("Restaurant with id 67 not found", json.get("message"));
 
         }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_all_restaurants_with_only_some_fields() throws Exception {
+                // arrange
+                List<String> fields = List.of("id", "name");
+                List<Map<String, Object>> rows = List.of(Map.of("id", 7L, "name", "some value"));
+                when(restaurantReadService.findAll(eq(fields))).thenReturn(rows);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/restaurants/all?fields=id,name"))
+                        .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(restaurantReadService, times(1)).findAll(eq(fields));
+                String expectedJson = mapper.writeValueAsString(rows);
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_only_some_fields_by_id() throws Exception {
+                // arrange
+                List<String> fields = List.of("id");
+                Map<String, Object> row = Map.of("id", 7L);
+                when(restaurantReadService.findById(eq(7L), eq(fields))).thenReturn(row);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/restaurants?id=7&fields=id"))
+                        .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(restaurantReadService, times(1)).findById(eq(7L), eq(fields));
+                String expectedJson = mapper.writeValueAsString(row);
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void unknown_field_returns_bad_request() throws Exception {
+                // arrange
+                when(restaurantReadService.findAll(eq(List.of("bogus"))))
+                        .thenThrow(new UnknownFieldException(Restaurant.class, "bogus"));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/restaurants/all?fields=bogus"))
+                        .andExpect(status().isBadRequest()).andReturn();
+
+                // assert
+                Map<String, Object> json = responseToJson(response);
+                assertEquals("UnknownFieldException", json.get("type"));
+                assertEquals("Restaurant has no field bogus", json.get("message"));
+        }
+
+        @Test
+        public void logged_out_users_cannot_get_changes() throws Exception {
+                mockMvc.perform(get("/api/restaurants/changes?since=0"))
+                        .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_changes_since_a_token() throws Exception {
+                // arrange
+                Changes<RestaurantView> changes = new Changes<>(12L, List.of(), List.of(7L));
+                when(restaurantReadService.changesSince(5L)).thenReturn(changes);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/restaurants/changes?since=5"))
+                        .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(restaurantReadService, times(1)).changesSince(5L);
+                String expectedJson = mapper.writeValueAsString(changes);
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
 }
@@ -0,0 +1,70 @@
+package edu.ucsb.cs156.example.controllers;
+
+import edu.ucsb.cs156.example.ControllerTestCase;
+import edu.ucsb.cs156.example.models.SearchHit;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.SearchIndex;
+import edu.ucsb.cs156.example.testconfig.TestConfig;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = SearchController.class)
+@Import(TestConfig.class)
+public class SearchControllerTests extends ControllerTestCase {
+
+  @MockBean
+  UserRepository userRepository;
+
+  @MockBean
+  SearchIndex searchIndex;
+
+  @Test
+  public void logged_out_users_cannot_search() throws Exception {
+    mockMvc.perform(get("/api/search?q=tacos"))
+        .andExpect(status().is(403));
+  }
+
+  @WithMockUser(roles = { "USER" })
+  @Test
+  public void logged_in_user_can_search() throws Exception {
+    // arrange
+    List<SearchHit> hits = List.of(
+        new SearchHit(SearchIndex.RESTAURANT, "3", "Tacos Vallarta", 1.2),
+        new SearchHit(SearchIndex.MENU_ITEM, "7", "Fish tacos", 0.9));
+    when(searchIndex.search("tacos", 5)).thenReturn(hits);
+
+    // act
+    MvcResult response = mockMvc.perform(get("/api/search?q=tacos&limit=5"))
+        .andExpect(status().isOk()).andReturn();
+
+    // assert
+    assertEquals(mapper.writeValueAsString(hits), response.getResponse().getContentAsString());
+  }
+
+  @WithMockUser(roles = { "USER" })
+  @Test
+  public void limit_has_a_default_and_is_clamped() throws Exception {
+    // act
+    mockMvc.perform(get("/api/search?q=tacos")).andExpect(status().isOk());
+    mockMvc.perform(get("/api/search?q=tacos&limit=1000")).andExpect(status().isOk());
+    mockMvc.perform(get("/api/search?q=tacos&limit=0")).andExpect(status().isOk());
+
+    // assert
+    verify(searchIndex).search("tacos", SearchController.DEFAULT_LIMIT);
+    verify(searchIndex).search("tacos", SearchController.MAX_LIMIT);
+    verify(searchIndex).search("tacos", 1);
+  }
+}
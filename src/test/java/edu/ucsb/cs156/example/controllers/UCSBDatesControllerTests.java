@@ -4,7 +4,15 @@ import edu.ucsb.cs156.example.repositories.UserRepository;
 import edu.ucsb.cs156.example.testconfig.TestConfig;
 import edu.ucsb.cs156.example.ControllerTestCase;
 import edu.ucsb.cs156.example.entities.UCSBDate;
+import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.errors.UnknownFieldException;
+import edu.ucsb.cs156.example.models.CalendarPosition;
+import edu.ucsb.cs156.example.models.QuarterSpan;
+import edu.ucsb.cs156.example.models.UCSBDateView;
 import edu.ucsb.cs156.example.repositories.UCSBDateRepository;
+import edu.ucsb.cs156.example.services.UCSBDateReadService;
+import edu.ucsb.cs156.example.models.Changes;
+import edu.ucsb.cs156.example.services.ChangeFeedService;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -16,6 +24,7 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.data.domain.Sort;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -31,6 +40,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import java.util.List;
 
 @WebMvcTest(controllers = UCSBDatesController.class)
 @Import(TestConfig.class)
@@ -39,6 +49,12 @@ public class UCSBDatesControllerTests extends ControllerTestCase {
         @MockBean
         UCSBDateRepository ucsbDateRepository;
 
+        @MockBean
+        UCSBDateReadService ucsbDateReadService;
+
+        @MockBean
+        ChangeFeedService changeFeedService;
+
         @MockBean
         UserRepository userRepository;
 
@@ -94,7 +110,7 @@ public class UCSBDatesControllerTests extends ControllerTestCase {
                                 .localDateTime(ldt)
                                 .build();
 
-                when(ucsbDateRepository.findById(eq(7L))).thenReturn(Optional.of(ucsbDate));
+                when(ucsbDateReadService.findById(eq(7L))).thenReturn(UCSBDateView.from(ucsbDate));
 
                 // act
                 MvcResult response = mockMvc.perform(get("/api/ucsbdates?id=7"))
@@ -102,7 +118,7 @@ public class UCSBDatesControllerTests extends ControllerTestCase {
 
                 // assert
 
-                verify(ucsbDateRepository, times(1)).findById(eq(7L));
+                verify(ucsbDateReadService, times(1)).findById(eq(7L));
                 String expectedJson = mapper.writeValueAsString(ucsbDate);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(expectedJson, responseString);
@@ -114,7 +130,7 @@ public class UCSBDatesControllerTests extends ControllerTestCase {
 
                 // arrange
 
-                when(ucsbDateRepository.findById(eq(7L))).thenReturn(Optional.empty());
+                when(ucsbDateReadService.findById(eq(7L))).thenThrow(new EntityNotFoundException(UCSBDate.class, 7L));
 
                 // act
                 MvcResult response = mockMvc.perform(get("/api/ucsbdates?id=7"))
@@ -122,7 +138,7 @@ public class UCSBDatesControllerTests extends ControllerTestCase {
 
                 // assert
 
-                verify(ucsbDateRepository, times(1)).findById(eq(7L));
+                verify(ucsbDateReadService, times(1)).findById(eq(7L));
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("EntityNotFoundException", json.get("type"));
                 assertEquals("UCSBDate with id 7 not found", json.get("message"));
@@ -152,7 +168,7 @@ public class UCSBDatesControllerTests extends ControllerTestCase {
                 ArrayList<UCSBDate> expectedDates = new ArrayList<>();
                 expectedDates.addAll(Arrays.asList(ucsbDate1, ucsbDate2));
 
-                when(ucsbDateRepository.findAll()).thenReturn(expectedDates);
+                when(ucsbDateReadService.findAll(null, Sort.unsorted())).thenReturn(expectedDates.stream().map(UCSBDateView::from).toList());
 
                 // act
                 MvcResult response = mockMvc.perform(get("/api/ucsbdates/all"))
@@ -160,7 +176,7 @@ public class UCSBDatesControllerTests extends ControllerTestCase {
 
                 // assert
 
-                verify(ucsbDateRepository, times(1)).findAll();
+                verify(ucsbDateReadService, times(1)).findAll(null, Sort.unsorted());
                 String expectedJson = mapper.writeValueAsString(expectedDates);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(expectedJson, responseString);
@@ -218,6 +234,7 @@ public class UCSBDatesControllerTests extends ControllerTestCase {
                 // assert
                 verify(ucsbDateRepository, times(1)).findById(15L);
                 verify(ucsbDateRepository, times(1)).delete(any());
+                verify(changeFeedService, times(1)).recordDeletion(UCSBDate.class, 15L);
 
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("UCSBDate with id 15 deleted", json.get("message"));
@@ -315,4 +332,199 @@ public class UCSBDatesControllerTests extends ControllerTestCase {
                 assertEquals("UCSBDate with id 67 not found", json.get("message"));
 
         }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_filter_and_sort_ucsbdates() throws Exception {
+                // arrange
+                UCSBDate ucsbDate = UCSBDate.builder()
+                        .id(7L)
+                        .quarterYYYYQ("quarterYYYYQ value")
+                        .name("name value")
+                        .localDateTime(LocalDateTime.parse("2022-01-03T00:00:00"))
+                        .build();
+                Sort sort = Sort.by(Sort.Direction.DESC, "localDateTime");
+                when(ucsbDateReadService.findAll("20222", sort)).thenReturn(List.of(UCSBDateView.from(ucsbDate)));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsbdates/all?quarterYYYYQ=20222&sort=localDateTime,desc"))
+                        .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(ucsbDateReadService, times(1)).findAll("20222", sort);
+                String expectedJson = mapper.writeValueAsString(List.of(ucsbDate));
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void sorting_by_an_unindexed_field_returns_bad_request() throws Exception {
+                // arrange
+                when(ucsbDateReadService.findAll(null, Sort.by("name")))
+                        .thenThrow(UnknownFieldException.notSortable(UCSBDate.class, "name"));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsbdates/all?sort=name"))
+                        .andExpect(status().isBadRequest()).andReturn();
+
+                // assert
+                Map<String, Object> json = responseToJson(response);
+                assertEquals("UnknownFieldException", json.get("type"));
+                assertEquals("UCSBDate cannot be sorted by name", json.get("message"));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_all_ucsbdates_with_only_some_fields() throws Exception {
+                // arrange
+                List<String> fields = List.of("id", "quarterYYYYQ");
+                List<Map<String, Object>> rows = List.of(Map.of("id", 7L, "quarterYYYYQ", "some value"));
+                when(ucsbDateReadService.findAll(null, Sort.unsorted(), fields)).thenReturn(rows);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsbdates/all?fields=id,quarterYYYYQ"))
+                        .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(ucsbDateReadService, times(1)).findAll(null, Sort.unsorted(), fields);
+                String expectedJson = mapper.writeValueAsString(rows);
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_only_some_fields_by_id() throws Exception {
+                // arrange
+                List<String> fields = List.of("id");
+                Map<String, Object> row = Map.of("id", 7L);
+                when(ucsbDateReadService.findById(eq(7L), eq(fields))).thenReturn(row);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsbdates?id=7&fields=id"))
+                        .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(ucsbDateReadService, times(1)).findById(eq(7L), eq(fields));
+                String expectedJson = mapper.writeValueAsString(row);
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void unknown_field_returns_bad_request() throws Exception {
+                // arrange
+                when(ucsbDateReadService.findAll(null, Sort.unsorted(), List.of("bogus")))
+                        .thenThrow(new UnknownFieldException(UCSBDate.class, "bogus"));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsbdates/all?fields=bogus"))
+                        .andExpect(status().isBadRequest()).andReturn();
+
+                // assert
+                Map<String, Object> json = responseToJson(response);
+                assertEquals("UnknownFieldException", json.get("type"));
+                assertEquals("UCSBDate has no field bogus", json.get("message"));
+        }
+
+        @Test
+        public void logged_out_users_cannot_get_changes() throws Exception {
+                mockMvc.perform(get("/api/ucsbdates/changes?since=0"))
+                        .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_changes_since_a_token() throws Exception {
+                // arrange
+                Changes<UCSBDateView> changes = new Changes<>(12L, List.of(), List.of(7L));
+                when(ucsbDateReadService.changesSince(5L)).thenReturn(changes);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsbdates/changes?since=5"))
+                        .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(ucsbDateReadService, times(1)).changesSince(5L);
+                String expectedJson = mapper.writeValueAsString(changes);
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        @Test
+        public void logged_out_users_cannot_get_dates_between() throws Exception {
+                mockMvc.perform(get("/api/ucsbdates/between?start=2024-01-01T00:00:00&end=2024-02-01T00:00:00"))
+                        .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_dates_between_two_instants() throws Exception {
+                // arrange
+                LocalDateTime start = LocalDateTime.parse("2024-01-01T00:00:00");
+                LocalDateTime end = LocalDateTime.parse("2024-02-01T00:00:00");
+                List<UCSBDateView> dates = List.of(
+                        new UCSBDateView(1L, "20241", "firstDayOfClasses", LocalDateTime.parse("2024-01-08T00:00:00")));
+                when(ucsbDateReadService.findBetween(start, end)).thenReturn(dates);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsbdates/between?start=2024-01-01T00:00:00&end=2024-02-01T00:00:00"))
+                        .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(ucsbDateReadService, times(1)).findBetween(start, end);
+                assertEquals(mapper.writeValueAsString(dates), response.getResponse().getContentAsString());
+        }
+
+        @Test
+        public void logged_out_users_cannot_get_dates_containing() throws Exception {
+                mockMvc.perform(get("/api/ucsbdates/containing?instant=2024-02-14T12:00:00"))
+                        .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_the_quarter_containing_an_instant() throws Exception {
+                // arrange
+                LocalDateTime instant = LocalDateTime.parse("2024-02-14T12:00:00");
+                QuarterSpan quarter = new QuarterSpan("20241",
+                        LocalDateTime.parse("2024-01-08T00:00:00"), LocalDateTime.parse("2024-03-22T00:00:00"));
+                CalendarPosition position = new CalendarPosition(quarter, List.of(
+                        new UCSBDateView(2L, "20241", "valentines", LocalDateTime.parse("2024-02-14T09:00:00"))));
+                when(ucsbDateReadService.findContaining(instant)).thenReturn(position);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsbdates/containing?instant=2024-02-14T12:00:00"))
+                        .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(ucsbDateReadService, times(1)).findContaining(instant);
+                assertEquals(mapper.writeValueAsString(position), response.getResponse().getContentAsString());
+        }
+
+        @Test
+        public void logged_out_users_cannot_get_dates_in_quarters() throws Exception {
+                mockMvc.perform(get("/api/ucsbdates/quarters?from=20241&to=20242"))
+                        .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_dates_in_a_range_of_quarters() throws Exception {
+                // arrange
+                List<UCSBDateView> dates = List.of(
+                        new UCSBDateView(1L, "20241", "firstDayOfClasses", LocalDateTime.parse("2024-01-08T00:00:00")),
+                        new UCSBDateView(3L, "20242", "firstDayOfClasses", LocalDateTime.parse("2024-04-01T00:00:00")));
+                when(ucsbDateReadService.findInQuarters(20241, 20242)).thenReturn(dates);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsbdates/quarters?from=20241&to=20242"))
+                        .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(ucsbDateReadService, times(1)).findInQuarters(20241, 20242);
+                assertEquals(mapper.writeValueAsString(dates), response.getResponse().getContentAsString());
+        }
 }
@@ -4,7 +4,15 @@ import edu.ucsb.cs156.example.repositories.UserRepository;
 import edu.ucsb.cs156.example.testconfig.TestConfig;
 import edu.ucsb.cs156.example.ControllerTestCase;
 import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
+import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.errors.UnknownFieldException;
+import edu.ucsb.cs156.example.models.NearbyDiningCommons;
+import edu.ucsb.cs156.example.models.UCSBDiningCommonsView;
 import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsRepository;
+import edu.ucsb.cs156.example.services.UCSBDiningCommonsReadService;
+import edu.ucsb.cs156.example.models.Changes;
+import edu.ucsb.cs156.example.services.ChangeFeedService;
+import edu.ucsb.cs156.example.services.DiningCommonsLocator;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -29,6 +37,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import java.util.List;
 
 @WebMvcTest(controllers = UCSBDiningCommonsController.class)
 @Import(TestConfig.class)
@@ -37,6 +46,12 @@ public class UCSBDiningCommonsControllerTests extends ControllerTestCase {
         @MockBean
         UCSBDiningCommonsRepository ucsbDiningCommonsRepository;
 
+        @MockBean
+        UCSBDiningCommonsReadService ucsbDiningCommonsReadService;
+
+        @MockBean
+        ChangeFeedService changeFeedService;
+
         @MockBean
         UserRepository userRepository;
 
@@ -95,7 +110,7 @@ public class UCSBDiningCommonsControllerTests extends ControllerTestCase {
                                 .longitude(-119.85277)
                                 .build();
 
-                when(ucsbDiningCommonsRepository.findById(eq("carrillo"))).thenReturn(Optional.of(commons));
+                when(ucsbDiningCommonsReadService.findById(eq("carrillo"))).thenReturn(UCSBDiningCommonsView.from(commons));
 
                 // act
                 MvcResult response = mockMvc.perform(get("/api/ucsbdiningcommons?code=carrillo"))
@@ -103,7 +118,7 @@ public class UCSBDiningCommonsControllerTests extends ControllerTestCase {
 
                 // assert
 
-                verify(ucsbDiningCommonsRepository, times(1)).findById(eq("carrillo"));
+                verify(ucsbDiningCommonsReadService, times(1)).findById(eq("carrillo"));
                 String expectedJson = mapper.writeValueAsString(commons);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(expectedJson, responseString);
@@ -115,7 +130,7 @@ public class UCSBDiningCommonsControllerTests extends ControllerTestCase {
 
                 // arrange
 
-                when(ucsbDiningCommonsRepository.findById(eq("munger-hall"))).thenReturn(Optional.empty());
+                when(ucsbDiningCommonsReadService.findById(eq("munger-hall"))).thenThrow(new EntityNotFoundException(UCSBDiningCommons.class, "munger-hall"));
 
                 // act
                 MvcResult response = mockMvc.perform(get("/api/ucsbdiningcommons?code=munger-hall"))
@@ -123,7 +138,7 @@ public class UCSBDiningCommonsControllerTests extends ControllerTestCase {
 
                 // assert
 
-                verify(ucsbDiningCommonsRepository, times(1)).findById(eq("munger-hall"));
+                verify(ucsbDiningCommonsReadService, times(1)).findById(eq("munger-hall"));
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("EntityNotFoundException", json.get("type"));
                 assertEquals("UCSBDiningCommons with id munger-hall not found", json.get("message"));
@@ -158,7 +173,7 @@ public class UCSBDiningCommonsControllerTests extends ControllerTestCase {
                 ArrayList<UCSBDiningCommons> expectedCommons = new ArrayList<>();
                 expectedCommons.addAll(Arrays.asList(carrillo, dlg));
 
-                when(ucsbDiningCommonsRepository.findAll()).thenReturn(expectedCommons);
+                when(ucsbDiningCommonsReadService.findAll()).thenReturn(expectedCommons.stream().map(UCSBDiningCommonsView::from).toList());
 
                 // act
                 MvcResult response = mockMvc.perform(get("/api/ucsbdiningcommons/all"))
@@ -166,7 +181,7 @@ public class UCSBDiningCommonsControllerTests extends ControllerTestCase {
 
                 // assert
 
-                verify(ucsbDiningCommonsRepository, times(1)).findAll();
+                verify(ucsbDiningCommonsReadService, times(1)).findAll();
                 String expectedJson = mapper.writeValueAsString(expectedCommons);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(expectedJson, responseString);
@@ -228,6 +243,7 @@ public class UCSBDiningCommonsControllerTests extends ControllerTestCase {
                 // assert
                 verify(ucsbDiningCommonsRepository, times(1)).findById("portola");
                 verify(ucsbDiningCommonsRepository, times(1)).delete(any());
+                verify(changeFeedService, times(1)).recordDeletion(UCSBDiningCommons.class, "portola");
 
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("UCSBDiningCommons with id portola deleted", json.get("message"));
@@ -332,4 +348,152 @@ public class UCSBDiningCommonsControllerTests extends ControllerTestCase {
                 assertEquals("UCSBDiningCommons with id munger-hall not found", json.get("message"));
 
         }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_all_ucsbdiningcommons_with_only_some_fields() throws Exception {
+                // arrange
+                List<String> fields = List.of("code", "name");
+                List<Map<String, Object>> rows = List.of(Map.of("code", "zpr", "name", "some value"));
+                when(ucsbDiningCommonsReadService.findAll(eq(fields))).thenReturn(rows);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsbdiningcommons/all?fields=code,name"))
+                        .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(ucsbDiningCommonsReadService, times(1)).findAll(eq(fields));
+                String expectedJson = mapper.writeValueAsString(rows);
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_only_some_fields_by_code() throws Exception {
+                // arrange
+                List<String> fields = List.of("code");
+                Map<String, Object> row = Map.of("code", "zpr");
+                when(ucsbDiningCommonsReadService.findById(eq("zpr"), eq(fields))).thenReturn(row);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsbdiningcommons?code=zpr&fields=code"))
+                        .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(ucsbDiningCommonsReadService, times(1)).findById(eq("zpr"), eq(fields));
+                String expectedJson = mapper.writeValueAsString(row);
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void unknown_field_returns_bad_request() throws Exception {
+                // arrange
+                when(ucsbDiningCommonsReadService.findAll(eq(List.of("bogus"))))
+                        .thenThrow(new UnknownFieldException(UCSBDiningCommons.class, "bogus"));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsbdiningcommons/all?fields=bogus"))
+                        .andExpect(status().isBadRequest()).andReturn();
+
+                // assert
+                Map<String, Object> json = responseToJson(response);
+                assertEquals("UnknownFieldException", json.get("type"));
+                assertEquals("UCSBDiningCommons has no field bogus", json.get("message"));
+        }
+
+        @Test
+        public void logged_out_users_cannot_get_changes() throws Exception {
+                mockMvc.perform(get("/api/ucsbdiningcommons/changes?since=0"))
+                        .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_changes_since_a_token() throws Exception {
+                // arrange
+                Changes<UCSBDiningCommonsView> changes = new Changes<>(12L, List.of(), List.of("zpr"));
+                when(ucsbDiningCommonsReadService.changesSince(5L)).thenReturn(changes);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsbdiningcommons/changes?since=5"))
+                        .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(ucsbDiningCommonsReadService, times(1)).changesSince(5L);
+                String expectedJson = mapper.writeValueAsString(changes);
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        @Test
+        public void logged_out_users_cannot_get_nearest() throws Exception {
+                mockMvc.perform(get("/api/ucsbdiningcommons/nearest?lat=34.41&lon=-119.85"))
+                        .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_nearest_commons_with_filters() throws Exception {
+                // arrange
+                DiningCommonsLocator.Filter filter = new DiningCommonsLocator.Filter(null, true, false);
+                List<NearbyDiningCommons> nearby = List.of(new NearbyDiningCommons(
+                        new UCSBDiningCommonsView("ortega", "Ortega", true, true, false, 34.4110, -119.8473), 150.0));
+                when(ucsbDiningCommonsReadService.findNearest(34.41, -119.85, 2, filter)).thenReturn(nearby);
+
+                // act
+                MvcResult response = mockMvc.perform(
+                        get("/api/ucsbdiningcommons/nearest?lat=34.41&lon=-119.85&k=2&hasTakeOutMeal=true&hasDiningCam=false"))
+                        .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(ucsbDiningCommonsReadService, times(1)).findNearest(34.41, -119.85, 2, filter);
+                assertEquals(mapper.writeValueAsString(nearby), response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void nearest_uses_default_k_and_clamps_it() throws Exception {
+                // act
+                mockMvc.perform(get("/api/ucsbdiningcommons/nearest?lat=34.41&lon=-119.85"))
+                        .andExpect(status().isOk());
+                mockMvc.perform(get("/api/ucsbdiningcommons/nearest?lat=34.41&lon=-119.85&k=1000"))
+                        .andExpect(status().isOk());
+                mockMvc.perform(get("/api/ucsbdiningcommons/nearest?lat=34.41&lon=-119.85&k=0"))
+                        .andExpect(status().isOk());
+
+                // assert
+                verify(ucsbDiningCommonsReadService).findNearest(34.41, -119.85, UCSBDiningCommonsController.DEFAULT_NEAREST,
+                        DiningCommonsLocator.Filter.ANY);
+                verify(ucsbDiningCommonsReadService).findNearest(34.41, -119.85, UCSBDiningCommonsController.MAX_NEAREST,
+                        DiningCommonsLocator.Filter.ANY);
+                verify(ucsbDiningCommonsReadService).findNearest(34.41, -119.85, 1, DiningCommonsLocator.Filter.ANY);
+        }
+
+        @Test
+        public void logged_out_users_cannot_get_commons_within_a_box() throws Exception {
+                mockMvc.perform(get("/api/ucsbdiningcommons/within?minLat=34.40&maxLat=34.42&minLon=-119.86&maxLon=-119.84"))
+                        .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_commons_within_a_box() throws Exception {
+                // arrange
+                DiningCommonsLocator.Filter filter = new DiningCommonsLocator.Filter(true, null, null);
+                List<UCSBDiningCommonsView> commons = List.of(
+                        new UCSBDiningCommonsView("carrillo", "Carrillo", true, false, true, 34.4096, -119.8525));
+                when(ucsbDiningCommonsReadService.findWithin(34.40, 34.42, -119.86, -119.84, filter)).thenReturn(commons);
+
+                // act
+                MvcResult response = mockMvc.perform(
+                        get("/api/ucsbdiningcommons/within?minLat=34.40&maxLat=34.42&minLon=-119.86&maxLon=-119.84&hasSackMeal=true"))
+                        .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(ucsbDiningCommonsReadService, times(1)).findWithin(34.40, 34.42, -119.86, -119.84, filter);
+                assertEquals(mapper.writeValueAsString(commons), response.getResponse().getContentAsString());
+        }
 }
@@ -4,7 +4,13 @@ import edu.ucsb.cs156.example.repositories.UserRepository;
 import edu.ucsb.cs156.example.testconfig.TestConfig;
 import edu.ucsb.cs156.example.ControllerTestCase;
 import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
+import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.errors.UnknownFieldException;
+import edu.ucsb.cs156.example.models.UCSBDiningCommonsMenuItemView;
 import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsMenuItemRepository;
+import edu.ucsb.cs156.example.services.UCSBDiningCommonsMenuItemReadService;
+import edu.ucsb.cs156.example.models.Changes;
+import edu.ucsb.cs156.example.services.ChangeFeedService;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -16,6 +22,7 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.data.domain.Sort;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -31,6 +38,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import java.util.List;
 
 @WebMvcTest(controllers = UCSBDiningCommonsMenuItemController.class)
 @Import(TestConfig.class)
@@ -39,6 +47,12 @@ public class UCSBDiningCommonsMenuItemControllerTests extends ControllerTestCase
         @MockBean
         UCSBDiningCommonsMenuItemRepository ucsbDiningCommonsMenuItemRepository;
 
+        @MockBean
+        UCSBDiningCommonsMenuItemReadService ucsbDiningCommonsMenuItemReadService;
+
+        @MockBean
+        ChangeFeedService changeFeedService;
+
         @MockBean
         UserRepository userRepository;
 
@@ -91,12 +105,12 @@ public class UCSBDiningCommonsMenuItemControllerTests extends ControllerTestCase
                                 .station("Entree Specials")
                                 .build();
 
-                when(ucsbDiningCommonsMenuItemRepository.findById(eq(7L))).thenReturn(Optional.of(ucsbDiningCommonsMenuItem));
+                when(ucsbDiningCommonsMenuItemReadService.findById(eq(7L))).thenReturn(UCSBDiningCommonsMenuItemView.from(ucsbDiningCommonsMenuItem));
 
                 MvcResult response = mockMvc.perform(get("/api/ucsbdiningcommonsmenuitem?id=7"))
                                 .andExpect(status().isOk()).andReturn();
 
-                verify(ucsbDiningCommonsMenuItemRepository, times(1)).findById(eq(7L));
+                verify(ucsbDiningCommonsMenuItemReadService, times(1)).findById(eq(7L));
                 String expectedJson = mapper.writeValueAsString(ucsbDiningCommonsMenuItem);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(expectedJson, responseString);
@@ -106,12 +120,12 @@ public class UCSBDiningCommonsMenuItemControllerTests extends ControllerTestCase
         @Test
         public void test_that_logged_in_user_can_get_by_id_when_the_id_does_not_exist() throws Exception {
 
-                when(ucsbDiningCommonsMenuItemRepository.findById(eq(7L))).thenReturn(Optional.empty());
+                when(ucsbDiningCommonsMenuItemReadService.findById(eq(7L))).thenThrow(new EntityNotFoundException(UCSBDiningCommonsMenuItem.class, 7L));
 
                 MvcResult response = mockMvc.perform(get("/api/ucsbdiningcommonsmenuitem?id=7"))
                                 .andExpect(status().isNotFound()).andReturn();
 
-                verify(ucsbDiningCommonsMenuItemRepository, times(1)).findById(eq(7L));
+                verify(ucsbDiningCommonsMenuItemReadService, times(1)).findById(eq(7L));
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("EntityNotFoundException", json.get("type"));
                 assertEquals("UCSBDiningCommonsMenuItem with id 7 not found", json.get("message"));
@@ -136,12 +150,12 @@ public class UCSBDiningCommonsMenuItemControllerTests extends ControllerTestCase
                 ArrayList<UCSBDiningCommonsMenuItem> expectedDiningCommonsMenuItem = new ArrayList<>();
                 expectedDiningCommonsMenuItem.addAll(Arrays.asList(ucsbDiningCommonsMenuItem1, ucsbDiningCommonsMenuItem2));
 
-                when(ucsbDiningCommonsMenuItemRepository.findAll()).thenReturn(expectedDiningCommonsMenuItem);
+                when(ucsbDiningCommonsMenuItemReadService.findAll(null, null, Sort.unsorted())).thenReturn(expectedDiningCommonsMenuItem.stream().map(UCSBDiningCommonsMenuItemView::from).toList());
 
                 MvcResult response = mockMvc.perform(get("/api/ucsbdiningcommonsmenuitem/all"))
                                 .andExpect(status().isOk()).andReturn();
 
-                verify(ucsbDiningCommonsMenuItemRepository, times(1)).findAll();
+                verify(ucsbDiningCommonsMenuItemReadService, times(1)).findAll(null, null, Sort.unsorted());
                 String expectedJson = mapper.writeValueAsString(expectedDiningCommonsMenuItem);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(expectedJson, responseString);
@@ -189,6 +203,7 @@ public class UCSBDiningCommonsMenuItemControllerTests extends ControllerTestCase
 
                 verify(ucsbDiningCommonsMenuItemRepository, times(1)).findById(15L);
                 verify(ucsbDiningCommonsMenuItemRepository, times(1)).delete(any());
+                verify(changeFeedService, times(1)).recordDeletion(UCSBDiningCommonsMenuItem.class, 15L);
 
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("UCSBDiningCommonsMenuItem with id 15 deleted", json.get("message"));
@@ -271,4 +286,124 @@ public class UCSBDiningCommonsMenuItemControllerTests extends ControllerTestCase
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("UCSBDiningCommonsMenuItem with id 67 not found", json.get("message"));
         }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_filter_and_sort_ucsbdiningcommonsmenuitem() throws Exception {
+                // arrange
+                UCSBDiningCommonsMenuItem ucsbDiningCommonsMenuItem = UCSBDiningCommonsMenuItem.builder()
+                        .id(7L)
+                        .diningCommonsCode("diningCommonsCode value")
+                        .name("name value")
+                        .station("station value")
+                        .build();
+                Sort sort = Sort.by(Sort.Direction.DESC, "name");
+                when(ucsbDiningCommonsMenuItemReadService.findAll("ortega", "Entrees", sort)).thenReturn(List.of(UCSBDiningCommonsMenuItemView.from(ucsbDiningCommonsMenuItem)));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsbdiningcommonsmenuitem/all?diningCommonsCode=ortega&station=Entrees&sort=name,desc"))
+                        .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(ucsbDiningCommonsMenuItemReadService, times(1)).findAll("ortega", "Entrees", sort);
+                String expectedJson = mapper.writeValueAsString(List.of(ucsbDiningCommonsMenuItem));
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void sorting_by_an_unindexed_field_returns_bad_request() throws Exception {
+                // arrange
+                when(ucsbDiningCommonsMenuItemReadService.findAll(null, null, Sort.by("station")))
+                        .thenThrow(UnknownFieldException.notSortable(UCSBDiningCommonsMenuItem.class, "station"));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsbdiningcommonsmenuitem/all?sort=station"))
+                        .andExpect(status().isBadRequest()).andReturn();
+
+                // assert
+                Map<String, Object> json = responseToJson(response);
+                assertEquals("UnknownFieldException", json.get("type"));
+                assertEquals("UCSBDiningCommonsMenuItem cannot be sorted by station", json.get("message"));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_all_ucsbdiningcommonsmenuitem_with_only_some_fields() throws Exception {
+                // arrange
+                List<String> fields = List.of("id", "diningCommonsCode");
+                List<Map<String, Object>> rows = List.of(Map.of("id", 7L, "diningCommonsCode", "some value"));
+                when(ucsbDiningCommonsMenuItemReadService.findAll(null, null, Sort.unsorted(), fields)).thenReturn(rows);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsbdiningcommonsmenuitem/all?fields=id,diningCommonsCode"))
+                        .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(ucsbDiningCommonsMenuItemReadService, times(1)).findAll(null, null, Sort.unsorted(), fields);
+                String expectedJson = mapper.writeValueAsString(rows);
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_only_some_fields_by_id() throws Exception {
+                // arrange
+                List<String> fields = List.of("id");
+                Map<String, Object> row = Map.of("id", 7L);
+                when(ucsbDiningCommonsMenuItemReadService.findById(eq(7L), eq(fields))).thenReturn(row);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsbdiningcommonsmenuitem?id=7&fields=id"))
+                        .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(ucsbDiningCommonsMenuItemReadService, times(1)).findById(eq(7L), eq(fields));
+                String expectedJson = mapper.writeValueAsString(row);
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void unknown_field_returns_bad_request() throws Exception {
+                // arrange
+                when(ucsbDiningCommonsMenuItemReadService.findAll(null, null, Sort.unsorted(), List.of("bogus")))
+                        .thenThrow(new UnknownFieldException(UCSBDiningCommonsMenuItem.class, "bogus"));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsbdiningcommonsmenuitem/all?fields=bogus"))
+                        .andExpect(status().isBadRequest()).andReturn();
+
+                // assert
+                Map<String, Object> json = responseToJson(response);
+                assertEquals("UnknownFieldException", json.get("type"));
+                assertEquals("UCSBDiningCommonsMenuItem has no field bogus", json.get("message"));
+        }
+
+        @Test
+        public void logged_out_users_cannot_get_changes() throws Exception {
+                mockMvc.perform(get("/api/ucsbdiningcommonsmenuitem/changes?since=0"))
+                        .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_changes_since_a_token() throws Exception {
+                // arrange
+                Changes<UCSBDiningCommonsMenuItemView> changes = new Changes<>(12L, List.of(), List.of(7L));
+                when(ucsbDiningCommonsMenuItemReadService.changesSince(5L)).thenReturn(changes);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsbdiningcommonsmenuitem/changes?since=5"))
+                        .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(ucsbDiningCommonsMenuItemReadService, times(1)).changesSince(5L);
+                String expectedJson = mapper.writeValueAsString(changes);
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
 }
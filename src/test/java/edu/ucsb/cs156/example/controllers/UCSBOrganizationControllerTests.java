@@ -5,7 +5,13 @@ import edu.ucsb.cs156.example.testconfig.TestConfig;
 import edu.ucsb.cs156.example.ControllerTestCase;
 import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
 import edu.ucsb.cs156.example.entities.UCSBOrganization;
+import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.errors.UnknownFieldException;
+import edu.ucsb.cs156.example.models.UCSBOrganizationView;
 import edu.ucsb.cs156.example.repositories.UCSBOrganizationRepository;
+import edu.ucsb.cs156.example.services.UCSBOrganizationReadService;
+import edu.ucsb.cs156.example.models.Changes;
+import edu.ucsb.cs156.example.services.ChangeFeedService;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -17,6 +23,7 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.data.domain.Sort;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -30,6 +37,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import java.util.List;
 
 @WebMvcTest(controllers = UCSBOrganizationController.class)
 @Import(TestConfig.class)
@@ -38,6 +46,12 @@ public class UCSBOrganizationControllerTests extends ControllerTestCase
     @MockBean
     UCSBOrganizationRepository ucsbOrganizationRepository;
 
+    @MockBean
+    UCSBOrganizationReadService ucsbOrganizationReadService;
+
+    @MockBean
+    ChangeFeedService changeFeedService;
+
     @MockBean
     UserRepository userRepository;
 
@@ -85,7 +99,7 @@ public class UCSBOrganizationControllerTests extends ControllerTestCase
              ArrayList<UCSBOrganization> expectedOrganizations = new ArrayList<>();
              expectedOrganizations.addAll(Arrays.asList(zpr, cdt));
 
-             when(ucsbOrganizationRepository.findAll()).thenReturn(expectedOrganizations);
+             when(ucsbOrganizationReadService.findAll(null, Sort.unsorted())).thenReturn(expectedOrganizations.stream().map(UCSBOrganizationView::from).toList());
 
              // act
              MvcResult response = mockMvc.perform(get("/api/ucsborganization/all"))
@@ -93,7 +107,7 @@ public class UCSBOrganizationControllerTests extends ControllerTestCase
 
              // assert
 
-             verify(ucsbOrganizationRepository, times(1)).findAll();
+             verify(ucsbOrganizationReadService, times(1)).findAll(null, Sort.unsorted());
              String expectedJson = mapper.writeValueAsString(expectedOrganizations);
              String responseString = response.getResponse().getContentAsString();
              assertEquals(expectedJson, responseString);
@@ -154,12 +168,12 @@ public class UCSBOrganizationControllerTests extends ControllerTestCase
                                 .inactive(false)
                                 .build();
 
-                when(ucsbOrganizationRepository.findById(eq("zpr"))).thenReturn(Optional.of(zpr));
+                when(ucsbOrganizationReadService.findById(eq("zpr"))).thenReturn(UCSBOrganizationView.from(zpr));
 
                 MvcResult response = mockMvc.perform(get("/api/ucsborganization?orgCode=zpr"))
                                 .andExpect(status().isOk()).andReturn();
 
-                verify(ucsbOrganizationRepository, times(1)).findById(eq("zpr"));
+                verify(ucsbOrganizationReadService, times(1)).findById(eq("zpr"));
                 String expectedJson = mapper.writeValueAsString(zpr);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(expectedJson, responseString);
@@ -169,12 +183,12 @@ public class UCSBOrganizationControllerTests extends ControllerTestCase
         @Test
         public void test_that_logged_in_user_can_get_by_id_when_the_id_does_not_exist() throws Exception {
 
-                when(ucsbOrganizationRepository.findById(eq("cdt"))).thenReturn(Optional.empty());
+                when(ucsbOrganizationReadService.findById(eq("cdt"))).thenThrow(new EntityNotFoundException(UCSBOrganization.class, "cdt"));
 
                 MvcResult response = mockMvc.perform(get("/api/ucsborganization?orgCode=cdt"))
                                 .andExpect(status().isNotFound()).andReturn();
 
-                verify(ucsbOrganizationRepository, times(1)).findById(eq("cdt"));
+                verify(ucsbOrganizationReadService, times(1)).findById(eq("cdt"));
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("EntityNotFoundException", json.get("type"));
                 assertEquals("UCSBOrganization with id cdt not found", json.get("message"));
@@ -275,6 +289,7 @@ public class UCSBOrganizationControllerTests extends ControllerTestCase
                 // assert
                 verify(ucsbOrganizationRepository, times(1)).findById("cdt");
                 verify(ucsbOrganizationRepository, times(1)).delete(any());
+                verify(changeFeedService, times(1)).recordDeletion(UCSBOrganization.class, "cdt");
 
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("UCSBOrganization with id cdt deleted", json.get("message"));
@@ -299,4 +314,124 @@ public class UCSBOrganizationControllerTests extends ControllerTestCase
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("UCSBOrganization with id zpr not found", json.get("message"));
         }
+
+    @WithMockUser(roles = { "USER" })
+    @Test
+    public void logged_in_user_can_filter_and_sort_ucsborganization() throws Exception {
+        // arrange
+        UCSBOrganization zpr = UCSBOrganization.builder()
+            .orgCode("ZPR")
+            .orgTranslationShort("orgTranslationShort value")
+            .orgTranslation("orgTranslation value")
+            .inactive(true)
+            .build();
+        Sort sort = Sort.by(Sort.Direction.DESC, "orgCode");
+        when(ucsbOrganizationReadService.findAll(false, sort)).thenReturn(List.of(UCSBOrganizationView.from(zpr)));
+
+        // act
+        MvcResult response = mockMvc.perform(get("/api/ucsborganization/all?inactive=false&sort=orgCode,desc"))
+            .andExpect(status().isOk()).andReturn();
+
+        // assert
+        verify(ucsbOrganizationReadService, times(1)).findAll(false, sort);
+        String expectedJson = mapper.writeValueAsString(List.of(zpr));
+        String responseString = response.getResponse().getContentAsString();
+        assertEquals(expectedJson, responseString);
+    }
+
+    @WithMockUser(roles = { "USER" })
+    @Test
+    public void sorting_by_an_unindexed_field_returns_bad_request() throws Exception {
+        // arrange
+        when(ucsbOrganizationReadService.findAll(null, Sort.by("orgTranslation")))
+            .thenThrow(UnknownFieldException.notSortable(UCSBOrganization.class, "orgTranslation"));
+
+        // act
+        MvcResult response = mockMvc.perform(get("/api/ucsborganization/all?sort=orgTranslation"))
+            .andExpect(status().isBadRequest()).andReturn();
+
+        // assert
+        Map<String, Object> json = responseToJson(response);
+        assertEquals("UnknownFieldException", json.get("type"));
+        assertEquals("UCSBOrganization cannot be sorted by orgTranslation", json.get("message"));
+    }
+
+    @WithMockUser(roles = { "USER" })
+    @Test
+    public void logged_in_user_can_get_all_ucsborganization_with_only_some_fields() throws Exception {
+        // arrange
+        List<String> fields = List.of("orgCode", "orgTranslationShort");
+        List<Map<String, Object>> rows = List.of(Map.of("orgCode", "zpr", "orgTranslationShort", "some value"));
+        when(ucsbOrganizationReadService.findAll(null, Sort.unsorted(), fields)).thenReturn(rows);
+
+        // act
+        MvcResult response = mockMvc.perform(get("/api/ucsborganization/all?fields=orgCode,orgTranslationShort"))
+            .andExpect(status().isOk()).andReturn();
+
+        // assert
+        verify(ucsbOrganizationReadService, times(1)).findAll(null, Sort.unsorted(), fields);
+        String expectedJson = mapper.writeValueAsString(rows);
+        String responseString = response.getResponse().getContentAsString();
+        assertEquals(expectedJson, responseString);
+    }
+
+    @WithMockUser(roles = { "USER" })
+    @Test
+    public void logged_in_user_can_get_only_some_fields_by_orgCode() throws Exception {
+        // arrange
+        List<String> fields = List.of("orgCode");
+        Map<String, Object> row = Map.of("orgCode", "zpr");
+        when(ucsbOrganizationReadService.findById(eq("zpr"), eq(fields))).thenReturn(row);
+
+        // act
+        MvcResult response = mockMvc.perform(get("/api/ucsborganization?orgCode=zpr&fields=orgCode"))
+            .andExpect(status().isOk()).andReturn();
+
+        // assert
+        verify(ucsbOrganizationReadService, times(1)).findById(eq("zpr"), eq(fields));
+        String expectedJson = mapper.writeValueAsString(row);
+        String responseString = response.getResponse().getContentAsString();
+        assertEquals(expectedJson, responseString);
+    }
+
+    @WithMockUser(roles = { "USER" })
+    @Test
+    public void unknown_field_returns_bad_request() throws Exception {
+        // arrange
+        when(ucsbOrganizationReadService.findAll(null, Sort.unsorted(), List.of("bogus")))
+            .thenThrow(new UnknownFieldException(UCSBOrganization.class, "bogus"));
+
+        // act
+        MvcResult response = mockMvc.perform(get("/api/ucsborganization/all?fields=bogus"))
+            .andExpect(status().isBadRequest()).andReturn();
+
+        // assert
+        Map<String, Object> json = responseToJson(response);
+        assertEquals("UnknownFieldException", json.get("type"));
+        assertEquals("UCSBOrganization has no field bogus", json.get("message"));
+    }
+
+    @Test
+    public void logged_out_users_cannot_get_changes() throws Exception {
+        mockMvc.perform(get("/api/ucsborganization/changes?since=0"))
+            .andExpect(status().is(403));
+    }
+
+    @WithMockUser(roles = { "USER" })
+    @Test
+    public void logged_in_user_can_get_changes_since_a_token() throws Exception {
+        // arrange
+        Changes<UCSBOrganizationView> changes = new Changes<>(12L, List.of(), List.of("zpr"));
+        when(ucsbOrganizationReadService.changesSince(5L)).thenReturn(changes);
+
+        // act
+        MvcResult response = mockMvc.perform(get("/api/ucsborganization/changes?since=5"))
+            .andExpect(status().isOk()).andReturn();
+
+        // assert
+        verify(ucsbOrganizationReadService, times(1)).changesSince(5L);
+        String expectedJson = mapper.writeValueAsString(changes);
+        String responseString = response.getResponse().getContentAsString();
+        assertEquals(expectedJson, responseString);
+    }
 }
@@ -9,6 +9,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MvcResult;
 
@@ -21,6 +23,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.stream.LongStream;
 
 @WebMvcTest(controllers = UsersController.class)
 @Import(TestConfig.class)
@@ -55,19 +59,139 @@ public class UsersControllerTests extends ControllerTestCase {
     ArrayList<User> expectedUsers = new ArrayList<>();
     expectedUsers.addAll(Arrays.asList(u1, u2, u));
 
-    when(userRepository.findAll()).thenReturn(expectedUsers);
+    when(userRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(1000))).thenReturn(expectedUsers);
     String expectedJson = mapper.writeValueAsString(expectedUsers);
     
     // act
 
-    MvcResult response = mockMvc.perform(get("/api/admin/users"))
-        .andExpect(status().isOk()).andReturn();
+    MvcResult response = mockMvc.perform(asyncDispatch(mockMvc.perform(get("/api/admin/users"))
+        .andExpect(request().asyncStarted()).andReturn()))
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist(HttpHeaders.LINK))
+        .andReturn();
 
     // assert
 
-    verify(userRepository, times(1)).findAll();
+    verify(userRepository, times(1)).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(1000));
     String responseString = response.getResponse().getContentAsString();
     assertEquals(expectedJson, responseString);
 
   }
+
+  @WithMockUser(roles = { "ADMIN", "USER" })
+  @Test
+  public void users__without_paging_parameters_lists_every_user() throws Exception {
+
+    // arrange
+
+    List<User> first = LongStream.rangeClosed(1, 1000).mapToObj(id -> User.builder().id(id).build()).toList();
+    List<User> second = List.of(User.builder().id(1005L).build());
+    when(userRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(1000))).thenReturn(first);
+    when(userRepository.findByIdGreaterThanOrderByIdAsc(1000L, Limit.of(1000))).thenReturn(second);
+
+    // act
+
+    MvcResult response = mockMvc.perform(asyncDispatch(mockMvc.perform(get("/api/admin/users"))
+        .andExpect(request().asyncStarted()).andReturn()))
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist(HttpHeaders.LINK))
+        .andReturn();
+
+    // assert
+
+    List<User> all = new ArrayList<>(first);
+    all.addAll(second);
+    assertEquals(mapper.writeValueAsString(all), response.getResponse().getContentAsString());
+  }
+
+  @WithMockUser(roles = { "ADMIN", "USER" })
+  @Test
+  public void users__after_without_size_returns_a_default_page() throws Exception {
+
+    // arrange
+
+    when(userRepository.findByIdGreaterThanOrderByIdAsc(5L, Limit.of(101))).thenReturn(List.of());
+
+    // act
+
+    MvcResult response = mockMvc.perform(asyncDispatch(mockMvc.perform(get("/api/admin/users?after=5"))
+        .andExpect(request().asyncStarted()).andReturn()))
+        .andExpect(status().isOk())
+        .andReturn();
+
+    // assert
+
+    verify(userRepository, times(1)).findByIdGreaterThanOrderByIdAsc(5L, Limit.of(101));
+    assertEquals("[]", response.getResponse().getContentAsString());
+  }
+
+  @WithMockUser(roles = { "ADMIN", "USER" })
+  @Test
+  public void users__full_page_links_to_the_next_page() throws Exception {
+
+    // arrange
+
+    User u1 = User.builder().id(3L).build();
+    User u2 = User.builder().id(7L).build();
+    User u3 = User.builder().id(9L).build();
+
+    when(userRepository.searchByPrefix(1L, "phill%", Limit.of(3))).thenReturn(List.of(u1, u2, u3));
+
+    // act
+
+    MvcResult response = mockMvc.perform(asyncDispatch(mockMvc.perform(get("/api/admin/users?q=Phill&after=1&size=2"))
+        .andExpect(request().asyncStarted()).andReturn()))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.LINK, "<http://localhost/api/admin/users?q=Phill&after=7&size=2>; rel=\"next\""))
+        .andReturn();
+
+    // assert
+
+    assertEquals(mapper.writeValueAsString(List.of(u1, u2)), response.getResponse().getContentAsString());
+  }
+
+  @WithMockUser(roles = { "ADMIN", "USER" })
+  @Test
+  public void users__search_escapes_like_wildcards() throws Exception {
+
+    // arrange
+
+    when(userRepository.searchByPrefix(0L, "a\\_b\\%c\\\\%", Limit.of(1000))).thenReturn(List.of());
+
+    // act
+
+    MvcResult response = mockMvc.perform(asyncDispatch(mockMvc.perform(get("/api/admin/users").param("q", " A_b%c\\ "))
+        .andExpect(request().asyncStarted()).andReturn()))
+        .andExpect(status().isOk())
+        .andReturn();
+
+    // assert
+
+    verify(userRepository, times(1)).searchByPrefix(0L, "a\\_b\\%c\\\\%", Limit.of(1000));
+    assertEquals("[]", response.getResponse().getContentAsString());
+  }
+
+  @WithMockUser(roles = { "ADMIN", "USER" })
+  @Test
+  public void users__blank_search_and_out_of_range_sizes() throws Exception {
+
+    // arrange
+
+    when(userRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(1001))).thenReturn(List.of());
+    when(userRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2))).thenReturn(List.of());
+
+    // act
+
+    mockMvc.perform(asyncDispatch(mockMvc.perform(get("/api/admin/users?size=5000").param("q", " "))
+        .andExpect(request().asyncStarted()).andReturn()))
+        .andExpect(status().isOk());
+    mockMvc.perform(asyncDispatch(mockMvc.perform(get("/api/admin/users?size=0"))
+        .andExpect(request().asyncStarted()).andReturn()))
+        .andExpect(status().isOk());
+
+    // assert
+
+    verify(userRepository, times(1)).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(1001));
+    verify(userRepository, times(1)).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2));
+  }
 }
@@ -0,0 +1,186 @@
+package edu.ucsb.cs156.example.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+
+import edu.ucsb.cs156.example.config.ReplicaRoutingDataSource;
+import edu.ucsb.cs156.example.entities.Restaurant;
+import edu.ucsb.cs156.example.repositories.RestaurantRepository;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.QueryScope;
+import edu.ucsb.cs156.example.testconfig.TestConfig;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+/**
+ * Runs the app against two H2 databases, one standing in for the primary and
+ * one for the read replica. Nothing copies rows from one to the other, so
+ * a row that is visible tells which database a request read from.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+                "app.datasource.replica.url=jdbc:h2:mem:replica-${random.uuid}",
+                "app.datasource.replica.username=sa",
+                "app.datasource.replica.password=password",
+                "app.datasource.replica.init-schema=true",
+                "app.datasource.replica.read-your-writes-window=2s"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("integration")
+@Import(TestConfig.class)
+@DirtiesContext(classMode = ClassMode.BEFORE_EACH_TEST_METHOD)
+public class ReplicaRoutingIT {
+
+        @Autowired
+        public MockMvc mockMvc;
+
+        @Autowired
+        RestaurantRepository restaurantRepository;
+
+        @Autowired
+        TransactionTemplate transactionTemplate;
+
+        @Autowired
+        DataSource dataSource;
+
+        @Autowired
+        HikariDataSource primaryDataSource;
+
+        @Autowired
+        HikariDataSource replicaDataSource;
+
+        @MockBean
+        UserRepository userRepository;
+
+        private String postRestaurantAs(String username) throws Exception {
+                return mockMvc.perform(post("/api/restaurants/post?name=Chipotle&description=Mexican")
+                                .with(user(username).roles("ADMIN", "USER"))
+                                .with(csrf()))
+                                .andExpect(status().isOk())
+                                .andReturn().getResponse().getContentAsString();
+        }
+
+        private String getRestaurantsAs(String username) throws Exception {
+                return mockMvc.perform(get("/api/restaurants/all").with(user(username).roles("USER")))
+                                .andExpect(status().isOk())
+                                .andReturn().getResponse().getContentAsString();
+        }
+
+        private void postDateAs(String username, String name, String localDateTime) throws Exception {
+                mockMvc.perform(post("/api/ucsbdates/post")
+                                .param("quarterYYYYQ", "20241")
+                                .param("name", name)
+                                .param("localDateTime", localDateTime)
+                                .with(user(username).roles("ADMIN", "USER"))
+                                .with(csrf()))
+                                .andExpect(status().isOk());
+        }
+
+        private String getDatesAs(String username) throws Exception {
+                return mockMvc.perform(get("/api/ucsbdates/between?start=2024-01-01T00:00:00&end=2024-12-31T00:00:00")
+                                .with(user(username).roles("USER")))
+                                .andExpect(status().isOk())
+                                .andReturn().getResponse().getContentAsString();
+        }
+
+        @Test
+        public void writes_and_reads_outside_get_requests_go_to_the_primary() {
+                restaurantRepository.save(Restaurant.builder().name("Taco Bell").description("Mexican").build());
+
+                assertEquals(1L, restaurantRepository.count());
+                transactionTemplate.setReadOnly(true);
+                Long count = transactionTemplate.execute(status -> restaurantRepository.count());
+                assertEquals(1L, count);
+        }
+
+        @Test
+        public void the_writer_reads_from_the_primary_and_everyone_else_from_the_replica() throws Exception {
+                String posted = postRestaurantAs("admin");
+
+                assertEquals("[" + posted + "]", getRestaurantsAs("admin"));
+                assertEquals("[]", getRestaurantsAs("somebody-else"));
+        }
+
+        @Test
+        public void the_writer_reads_from_the_replica_once_the_window_has_passed() throws Exception {
+                String posted = postRestaurantAs("admin");
+                assertEquals("[" + posted + "]", getRestaurantsAs("admin"));
+
+                Thread.sleep(2100);
+
+                assertEquals("[]", getRestaurantsAs("admin"));
+        }
+
+        @Test
+        public void each_database_has_its_own_pool() {
+                assertEquals(List.of("primary", "replica"),
+                                List.of(primaryDataSource.getPoolName(), replicaDataSource.getPoolName()));
+        }
+
+        @Test
+        public void the_queries_of_a_request_get_its_timeout_on_either_database() throws Exception {
+                LazyConnectionDataSourceProxy lazy = (LazyConnectionDataSourceProxy) dataSource;
+                ReplicaRoutingDataSource router = (ReplicaRoutingDataSource) lazy.getTargetDataSource();
+                Map<Object, DataSource> targets = router.getResolvedDataSources();
+                assertEquals(primaryDataSource,
+                                ((DelegatingDataSource) targets.get(ReplicaRoutingDataSource.Target.PRIMARY)).getTargetDataSource());
+                assertEquals(replicaDataSource,
+                                ((DelegatingDataSource) targets.get(ReplicaRoutingDataSource.Target.REPLICA)).getTargetDataSource());
+
+                QueryScope scope = new QueryScope("ReplicaRoutingIT", Duration.ofSeconds(3));
+                scope.attach();
+                try (Connection connection = dataSource.getConnection();
+                                Statement statement = connection.createStatement()) {
+                        assertEquals(3, statement.getQueryTimeout());
+                        assertEquals(1, scope.size());
+                } finally {
+                        QueryScope.detach();
+                }
+        }
+
+        @Test
+        public void the_shared_calendar_index_is_built_from_the_primary() throws Exception {
+                postDateAs("admin", "winter-start", "2024-01-08T00:00:00");
+
+                // the replica has no dates, so these come from the primary
+                assertTrue(getDatesAs("somebody-else").contains("winter-start"));
+
+                postDateAs("admin", "winter-end", "2024-03-22T00:00:00");
+                long deadline = System.currentTimeMillis() + 5000;
+                String dates = getDatesAs("somebody-else");
+                while (!dates.contains("winter-end") && System.currentTimeMillis() < deadline) {
+                        Thread.sleep(10);
+                        dates = getDatesAs("somebody-else");
+                }
+                assertTrue(dates.contains("winter-end"));
+        }
+}
@@ -0,0 +1,93 @@
+package edu.ucsb.cs156.example.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import edu.ucsb.cs156.example.entities.RecommendationReminder;
+import edu.ucsb.cs156.example.entities.RecommendationRequest;
+import edu.ucsb.cs156.example.services.wiremock.WiremockService;
+
+import jakarta.persistence.EntityManager;
+
+@DataJpaTest
+@ActiveProfiles("integration")
+class RecommendationRequestRepositoryTests {
+
+  private static final LocalDateTime NOW = LocalDateTime.parse("2024-05-01T09:00:00");
+
+  @MockBean
+  WiremockService wiremockService;
+
+  @Autowired
+  RecommendationRequestRepository recommendationRequestRepository;
+
+  @Autowired
+  RecommendationReminderRepository recommendationReminderRepository;
+
+  @Autowired
+  EntityManager entityManager;
+
+  private long save(LocalDateTime dateNeeded, boolean done) {
+    RecommendationRequest request = recommendationRequestRepository.save(RecommendationRequest.builder()
+        .requesterEmail("cgaucho@ucsb.edu")
+        .professorEmail("phtcon@ucsb.edu")
+        .dateNeeded(dateNeeded)
+        .done(done)
+        .build());
+    entityManager.flush();
+    return request.getId();
+  }
+
+  private void remind(long id, LocalDateTime dateNeeded) {
+    recommendationReminderRepository.save(RecommendationReminder.builder()
+        .recommendationRequestId(id)
+        .dateNeeded(dateNeeded)
+        .firedAt(NOW)
+        .build());
+    entityManager.flush();
+  }
+
+  private static List<Long> ids(List<RecommendationRequestRepository.Deadline> deadlines) {
+    return deadlines.stream().map(RecommendationRequestRepository.Deadline::getId).sorted().toList();
+  }
+
+  @Test
+  void test_pending_deadlines_are_not_done_in_the_future_and_not_reminded_yet() {
+    long pending = save(NOW.plusDays(5), false);
+    save(NOW.plusDays(5), true);
+    save(NOW.minusDays(1), false);
+    long reminded = save(NOW.plusDays(5), false);
+    remind(reminded, NOW.plusDays(5));
+    long moved = save(NOW.plusDays(6), false);
+    remind(moved, NOW.plusDays(5));
+
+    List<RecommendationRequestRepository.Deadline> deadlines = recommendationRequestRepository.findPendingDeadlines(NOW);
+    assertEquals(List.of(pending, moved), ids(deadlines));
+    assertEquals(NOW.plusDays(6), deadlines.stream().filter(deadline -> deadline.getId() == moved).findFirst().get().getDateNeeded());
+
+    assertEquals(List.of(moved), ids(recommendationRequestRepository.findPendingDeadlinesByIdIn(List.of(moved, reminded), NOW)));
+  }
+
+  @Test
+  void test_a_reminder_is_recorded_once_per_date_needed() {
+    long id = save(NOW.plusDays(5), false);
+    assertFalse(recommendationReminderRepository.existsByRecommendationRequestIdAndDateNeeded(id, NOW.plusDays(5)));
+    remind(id, NOW.plusDays(5));
+    assertTrue(recommendationReminderRepository.existsByRecommendationRequestIdAndDateNeeded(id, NOW.plusDays(5)));
+    assertFalse(recommendationReminderRepository.existsByRecommendationRequestIdAndDateNeeded(id, NOW.plusDays(6)));
+
+    assertThrows(DataIntegrityViolationException.class, () -> remind(id, NOW.plusDays(5)));
+  }
+}
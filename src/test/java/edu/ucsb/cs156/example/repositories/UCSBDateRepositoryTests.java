@@ -0,0 +1,90 @@
+package edu.ucsb.cs156.example.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import edu.ucsb.cs156.example.entities.UCSBDate;
+import edu.ucsb.cs156.example.models.UCSBDateView;
+import edu.ucsb.cs156.example.services.AcademicCalendarIndex;
+import edu.ucsb.cs156.example.services.wiremock.WiremockService;
+
+import jakarta.persistence.EntityManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@DataJpaTest
+@ActiveProfiles("integration")
+@Import(AcademicCalendarIndex.class)
+class UCSBDateRepositoryTests {
+
+  @MockBean
+  WiremockService wiremockService;
+
+  @SpyBean
+  AcademicCalendarIndex academicCalendarIndex;
+
+  @Autowired
+  UCSBDateRepository ucsbDateRepository;
+
+  @Autowired
+  EntityManager entityManager;
+
+  private UCSBDate save(String quarterYYYYQ, String name, String localDateTime) {
+    UCSBDate date = ucsbDateRepository.save(UCSBDate.builder()
+        .quarterYYYYQ(quarterYYYYQ)
+        .name(name)
+        .localDateTime(LocalDateTime.parse(localDateTime))
+        .build());
+    entityManager.flush();
+    return date;
+  }
+
+  @Test
+  void test_quarter_key_follows_quarterYYYYQ() {
+    UCSBDate date = save("20241", "first day", "2024-01-08T00:00:00");
+    assertEquals(20241, date.getQuarterKey());
+
+    date.setQuarterYYYYQ("W24");
+    ucsbDateRepository.save(date);
+    entityManager.flush();
+    assertNull(date.getQuarterKey());
+
+    assertNull(UCSBDate.quarterKey(null));
+    assertNull(UCSBDate.quarterKey("20245"));
+  }
+
+  @Test
+  void test_quarters_are_found_by_range_in_time_order() {
+    UCSBDate springEnd = save("20242", "spring end", "2024-06-14T00:00:00");
+    UCSBDate winterEnd = save("20241", "winter end", "2024-03-22T00:00:00");
+    UCSBDate winterStart = save("20241", "winter start", "2024-01-08T00:00:00");
+    save("20243", "summer start", "2024-06-24T00:00:00");
+    save("20234", "fall start", "2023-09-28T00:00:00");
+
+    assertEquals(List.of(UCSBDateView.from(winterStart), UCSBDateView.from(winterEnd), UCSBDateView.from(springEnd)),
+        ucsbDateRepository.findViewsByQuarterKeyBetween(20241, 20242));
+  }
+
+  @Test
+  void test_writes_are_reported_to_the_calendar_index() {
+    UCSBDate date = save("20241", "first day", "2024-01-08T00:00:00");
+    date.setName("first day of classes");
+    ucsbDateRepository.save(date);
+    entityManager.flush();
+    ucsbDateRepository.delete(date);
+    entityManager.flush();
+
+    verify(academicCalendarIndex, times(3)).written();
+  }
+}
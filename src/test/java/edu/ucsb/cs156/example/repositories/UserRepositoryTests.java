@@ -0,0 +1,68 @@
+package edu.ucsb.cs156.example.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import edu.ucsb.cs156.example.entities.User;
+import edu.ucsb.cs156.example.services.wiremock.WiremockService;
+
+import java.util.List;
+
+@DataJpaTest
+@ActiveProfiles("integration")
+class UserRepositoryTests {
+
+  @MockBean
+  WiremockService wiremockService;
+
+  @Autowired
+  UserRepository userRepository;
+
+  private User phill;
+  private User chris;
+  private User percent;
+
+  private User save(String email, String givenName, String familyName) {
+    return userRepository.save(User.builder()
+        .email(email)
+        .givenName(givenName)
+        .familyName(familyName)
+        .fullName(givenName + " " + familyName)
+        .build());
+  }
+
+  @BeforeEach
+  void setup() {
+    phill = save("phtcon@ucsb.edu", "Phill", "Conrad");
+    chris = save("cgaucho@ucsb.edu", "Chris", "Gaucho");
+    percent = save("100%_done@ucsb.edu", "Test", "User");
+  }
+
+  @Test
+  void test_pages_are_in_id_order() {
+    assertEquals(List.of(phill, chris), userRepository.findByIdGreaterThanOrderByIdAsc(0, Limit.of(2)));
+    assertEquals(List.of(percent), userRepository.findByIdGreaterThanOrderByIdAsc(chris.getId(), Limit.of(2)));
+  }
+
+  @Test
+  void test_search_matches_email_and_name_prefixes() {
+    assertEquals(List.of(phill), userRepository.searchByPrefix(0, "phtc%", Limit.of(10)));
+    assertEquals(List.of(chris), userRepository.searchByPrefix(0, "gau%", Limit.of(10)));
+    assertEquals(List.of(phill, chris), userRepository.searchByPrefix(0, "c%", Limit.of(10)));
+    assertEquals(List.of(chris), userRepository.searchByPrefix(phill.getId(), "c%", Limit.of(10)));
+    assertEquals(List.of(), userRepository.searchByPrefix(0, "ucsb%", Limit.of(10)));
+  }
+
+  @Test
+  void test_search_treats_escaped_wildcards_literally() {
+    assertEquals(List.of(percent), userRepository.searchByPrefix(0, "100\\%\\_%", Limit.of(10)));
+    assertEquals(List.of(), userRepository.searchByPrefix(0, "1\\%%", Limit.of(10)));
+  }
+}
@@ -0,0 +1,117 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import edu.ucsb.cs156.example.models.QuarterSpan;
+import edu.ucsb.cs156.example.models.UCSBDateView;
+import edu.ucsb.cs156.example.repositories.UCSBDateRepository;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = AcademicCalendarIndex.class)
+class AcademicCalendarIndexTests {
+
+  @MockBean
+  UCSBDateRepository ucsbDateRepository;
+
+  @Autowired
+  AcademicCalendarIndex academicCalendarIndex;
+
+  private static UCSBDateView date(long id, String quarter, String time) {
+    return new UCSBDateView(id, quarter, "date " + id, time == null ? null : LocalDateTime.parse(time));
+  }
+
+  private static LocalDateTime at(String time) {
+    return LocalDateTime.parse(time);
+  }
+
+  private final UCSBDateView winterStart = date(1, "20241", "2024-01-08T00:00:00");
+  private final UCSBDateView winterMidterm = date(2, "20241", "2024-02-14T09:00:00");
+  private final UCSBDateView winterEnd = date(3, "20241", "2024-03-22T17:00:00");
+  private final UCSBDateView springStart = date(4, "20242", "2024-04-01T00:00:00");
+  private final UCSBDateView springEnd = date(5, "20242", "2024-06-14T17:00:00");
+  private final UCSBDateView undated = date(6, "20242", null);
+  private final UCSBDateView noQuarter = date(7, null, "2024-02-14T12:00:00");
+
+  @BeforeEach
+  void setup() {
+    when(ucsbDateRepository.findAllViews()).thenReturn(
+        List.of(springEnd, winterMidterm, undated, winterEnd, springStart, noQuarter, winterStart));
+    // build on the test's thread; the context (and so the index) is shared between tests
+    academicCalendarIndex.snapshot.executor = Runnable::run;
+    academicCalendarIndex.written();
+  }
+
+  @Test
+  void test_between_includes_start_and_excludes_end() {
+    assertEquals(List.of(winterMidterm, noQuarter, winterEnd),
+        academicCalendarIndex.between(at("2024-02-14T09:00:00"), at("2024-04-01T00:00:00")));
+    assertEquals(List.of(winterStart, winterMidterm, noQuarter, winterEnd, springStart, springEnd),
+        academicCalendarIndex.between(at("2000-01-01T00:00:00"), at("2100-01-01T00:00:00")));
+    assertEquals(List.of(), academicCalendarIndex.between(at("2024-03-23T00:00:00"), at("2024-03-31T00:00:00")));
+    assertEquals(List.of(), academicCalendarIndex.between(at("2024-06-01T00:00:00"), at("2024-01-01T00:00:00")));
+  }
+
+  @Test
+  void test_quarterContaining_finds_the_quarter_whose_dates_span_the_instant() {
+    QuarterSpan winter = new QuarterSpan("20241", winterStart.localDateTime(), winterEnd.localDateTime());
+    QuarterSpan spring = new QuarterSpan("20242", springStart.localDateTime(), springEnd.localDateTime());
+
+    assertEquals(winter, academicCalendarIndex.quarterContaining(at("2024-01-08T00:00:00")));
+    assertEquals(winter, academicCalendarIndex.quarterContaining(at("2024-02-20T00:00:00")));
+    assertEquals(winter, academicCalendarIndex.quarterContaining(at("2024-03-22T17:00:00")));
+    assertEquals(spring, academicCalendarIndex.quarterContaining(at("2024-05-01T00:00:00")));
+    assertNull(academicCalendarIndex.quarterContaining(at("2024-03-25T00:00:00")));
+    assertNull(academicCalendarIndex.quarterContaining(at("2023-12-31T00:00:00")));
+    assertNull(academicCalendarIndex.quarterContaining(at("2024-07-01T00:00:00")));
+  }
+
+  @Test
+  void test_the_index_is_built_once_until_written() {
+    academicCalendarIndex.between(at("2024-01-01T00:00:00"), at("2024-02-01T00:00:00"));
+    academicCalendarIndex.quarterContaining(at("2024-01-10T00:00:00"));
+    verify(ucsbDateRepository, times(1)).findAllViews();
+
+    when(ucsbDateRepository.findAllViews()).thenReturn(List.of(winterStart));
+    academicCalendarIndex.written();
+
+    assertEquals(List.of(winterStart),
+        academicCalendarIndex.between(at("2024-01-01T00:00:00"), at("2024-12-31T00:00:00")));
+    verify(ucsbDateRepository, times(2)).findAllViews();
+  }
+
+  @Test
+  void test_a_write_in_a_transaction_takes_effect_after_commit() {
+    academicCalendarIndex.between(at("2024-01-01T00:00:00"), at("2024-02-01T00:00:00"));
+
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      academicCalendarIndex.written();
+      academicCalendarIndex.between(at("2024-01-01T00:00:00"), at("2024-02-01T00:00:00"));
+      verify(ucsbDateRepository, times(1)).findAllViews();
+
+      TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    academicCalendarIndex.between(at("2024-01-01T00:00:00"), at("2024-02-01T00:00:00"));
+    verify(ucsbDateRepository, times(2)).findAllViews();
+  }
+}
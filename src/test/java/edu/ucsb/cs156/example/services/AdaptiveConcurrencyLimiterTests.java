@@ -0,0 +1,95 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTests {
+
+  /** Admit as many requests as the limit allows, then end them all after rttMillis. */
+  private static void fullBatch(AdaptiveConcurrencyLimiter limiter, long rttMillis) {
+    int admitted = 0;
+    while (limiter.tryAcquire()) {
+      admitted++;
+    }
+    for (int i = 0; i < admitted; i++) {
+      limiter.release(TimeUnit.MILLISECONDS.toNanos(rttMillis));
+    }
+  }
+
+  @Test
+  void test_requests_beyond_the_limit_are_turned_away() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10);
+
+    assertTrue(limiter.tryAcquire());
+    assertTrue(limiter.tryAcquire());
+    assertFalse(limiter.tryAcquire());
+    assertEquals(2, limiter.getInFlight());
+
+    limiter.release(TimeUnit.MILLISECONDS.toNanos(10));
+    assertEquals(1, limiter.getInFlight());
+    assertTrue(limiter.tryAcquire());
+  }
+
+  @Test
+  void test_limit_grows_while_latency_stays_flat() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 1000);
+
+    for (int i = 0; i < 20; i++) {
+      fullBatch(limiter, 10);
+    }
+
+    assertTrue(limiter.getLimit() > 20, "limit was " + limiter.getLimit());
+  }
+
+  @Test
+  void test_limit_shrinks_when_latency_rises_and_recovers_when_it_falls() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 1, 1000);
+    for (int i = 0; i < 5; i++) {
+      fullBatch(limiter, 10);
+    }
+    int before = limiter.getLimit();
+
+    for (int i = 0; i < 5; i++) {
+      fullBatch(limiter, 200);
+    }
+    int slow = limiter.getLimit();
+    assertTrue(slow < before / 2, "limit went from " + before + " to " + slow);
+
+    for (int i = 0; i < 20; i++) {
+      fullBatch(limiter, 10);
+    }
+    assertTrue(limiter.getLimit() > slow, "limit stayed at " + limiter.getLimit());
+  }
+
+  @Test
+  void test_limit_stays_within_bounds() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 5, 12);
+
+    for (int i = 0; i < 50; i++) {
+      fullBatch(limiter, 10);
+    }
+    assertEquals(12, limiter.getLimit());
+
+    for (int i = 0; i < 50; i++) {
+      fullBatch(limiter, 10_000);
+    }
+    assertEquals(5, limiter.getLimit());
+  }
+
+  @Test
+  void test_lightly_loaded_requests_do_not_change_the_limit() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100);
+
+    for (int i = 0; i < 50; i++) {
+      limiter.tryAcquire();
+      limiter.release(TimeUnit.MILLISECONDS.toNanos(i % 2 == 0 ? 1 : 1000));
+    }
+
+    assertEquals(10, limiter.getLimit());
+  }
+}
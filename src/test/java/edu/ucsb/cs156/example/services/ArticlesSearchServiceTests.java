@@ -0,0 +1,145 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import edu.ucsb.cs156.example.entities.Articles;
+import edu.ucsb.cs156.example.models.ArticleSearchHit;
+import edu.ucsb.cs156.example.models.ArticlesView;
+import edu.ucsb.cs156.example.repositories.ArticlesRepository;
+import edu.ucsb.cs156.example.services.wiremock.WiremockService;
+
+@DataJpaTest
+@ActiveProfiles("integration")
+@Import(ArticlesSearchService.class)
+class ArticlesSearchServiceTests {
+
+  @MockBean
+  WiremockService wiremockService;
+
+  @Autowired
+  ArticlesRepository articlesRepository;
+
+  @Autowired
+  ArticlesSearchService articlesSearchService;
+
+  private Articles streams;
+  private Articles lambdas;
+  private Articles spring;
+
+  private Articles save(String title, String explanation) {
+    return articlesRepository.save(Articles.builder()
+        .title(title)
+        .url("https://example.org/" + explanation)
+        .explanation(explanation)
+        .email("cgaucho@ucsb.edu")
+        .dateAdded(LocalDateTime.parse("2024-01-08T00:00:00"))
+        .build());
+  }
+
+  @BeforeEach
+  void setup() {
+    streams = save("Java streams", "How streams work in Java");
+    lambdas = save("Lambdas", "Lambdas make Java streams shorter");
+    spring = save("Spring", null);
+  }
+
+  private static List<Long> ids(List<ArticleSearchHit> hits) {
+    return hits.stream().map(hit -> hit.article().id()).toList();
+  }
+
+  @Test
+  void test_h2_search_ranks_title_matches_first_and_highlights_them() {
+    List<ArticleSearchHit> hits = articlesSearchService.search("streams", 0, 10);
+
+    assertEquals(List.of(streams.getId(), lambdas.getId()), ids(hits));
+    assertEquals(ArticlesView.from(streams), hits.get(0).article());
+    assertEquals(1.4, hits.get(0).rank(), 1e-9);
+    assertEquals(0.4, hits.get(1).rank(), 1e-9);
+    assertEquals("Java <mark>streams</mark>", hits.get(0).titleSnippet());
+    assertEquals("How <mark>streams</mark> work in Java", hits.get(0).explanationSnippet());
+    assertEquals("Lambdas", hits.get(1).titleSnippet());
+  }
+
+  @Test
+  void test_h2_search_requires_every_word_and_pages() {
+    assertEquals(List.of(lambdas.getId()), ids(articlesSearchService.search("JAVA, lambdas!", 0, 10)));
+    assertEquals(List.of(lambdas.getId()), ids(articlesSearchService.search("streams", 1, 10)));
+    assertEquals(List.of(streams.getId()), ids(articlesSearchService.search("streams", 0, 1)));
+    assertEquals(List.of(spring.getId()), ids(articlesSearchService.search("spring", 0, 10)));
+    assertEquals("", articlesSearchService.search("spring", 0, 10).get(0).explanationSnippet());
+
+    Articles untitled = save(null, "Notes on Kotlin");
+    ArticleSearchHit kotlin = articlesSearchService.search("kotlin", 0, 10).get(0);
+    assertEquals(untitled.getId(), kotlin.article().id());
+    assertEquals(0.4, kotlin.rank(), 1e-9);
+    assertEquals("", kotlin.titleSnippet());
+  }
+
+  @Test
+  void test_h2_search_sees_new_articles_and_nothing_matches_empty_searches() {
+    Articles more = save("More streams", "Even more");
+    assertEquals(List.of(streams.getId(), more.getId(), lambdas.getId()), ids(articlesSearchService.search("streams", 0, 10)));
+
+    assertEquals(List.of(), articlesSearchService.search("rust", 0, 10));
+    assertEquals(List.of(), articlesSearchService.search("  ", 0, 10));
+    assertEquals(List.of(), articlesSearchService.search(null, 0, 10));
+    assertEquals(List.of(), articlesSearchService.search("!! ??", 0, 10));
+  }
+
+  @Test
+  void test_h2_snippets_are_html_escaped() {
+    save("<script>alert('streams')</script>", "Streams & \u0002lambdas\u0003 <img src=x onerror=alert(1)>");
+
+    ArticleSearchHit hit = articlesSearchService.search("alert streams", 0, 10).get(0);
+
+    assertEquals("&lt;script&gt;<mark>alert</mark>(&#39;<mark>streams</mark>&#39;)&lt;/script&gt;", hit.titleSnippet());
+    assertEquals("<mark>Streams</mark> &amp; lambdas &lt;img src=x onerror=<mark>alert</mark>(1)&gt;", hit.explanationSnippet());
+  }
+
+  @Test
+  void test_terms_drop_punctuation_and_duplicates() {
+    assertEquals(List.of("java", "streams", "Java"), ArticlesSearchService.terms("(java) streams java, Java!"));
+  }
+
+  @Test
+  void test_postgres_search_uses_the_ranked_native_query() {
+    ArticlesSearchService postgresSearch = new ArticlesSearchService();
+    postgresSearch.articlesRepository = mock(ArticlesRepository.class);
+    postgresSearch.postgres = true;
+
+    ArticlesRepository.SearchRow first = row(lambdas.getId(), 0.6, "\u0002Lambdas\u0003", "\u0002Lambdas\u0003 make Java streams <b>shorter</b>");
+    ArticlesRepository.SearchRow deleted = row(99L, 0.5, "Gone", "");
+    ArticlesRepository.SearchRow second = row(streams.getId(), 0.1, "Java streams", "How streams work in Java");
+    when(postgresSearch.articlesRepository.searchPostgres("lambdas", 11, 10)).thenReturn(List.of(first, deleted, second));
+    ArticlesView one = ArticlesView.from(streams);
+    ArticlesView two = ArticlesView.from(lambdas);
+    when(postgresSearch.articlesRepository.findViewsByIdIn(List.of(lambdas.getId(), 99L, streams.getId()))).thenReturn(List.of(one, two));
+
+    assertEquals(List.of(
+        new ArticleSearchHit(two, 0.6, "<mark>Lambdas</mark>", "<mark>Lambdas</mark> make Java streams &lt;b&gt;shorter&lt;/b&gt;"),
+        new ArticleSearchHit(one, 0.1, "Java streams", "How streams work in Java")),
+        postgresSearch.search("lambdas", 10, 11));
+  }
+
+  private static ArticlesRepository.SearchRow row(Long id, Double rank, String titleSnippet, String explanationSnippet) {
+    ArticlesRepository.SearchRow row = mock(ArticlesRepository.SearchRow.class);
+    when(row.getId()).thenReturn(id);
+    when(row.getRank()).thenReturn(rank);
+    when(row.getTitleSnippet()).thenReturn(titleSnippet);
+    when(row.getExplanationSnippet()).thenReturn(explanationSnippet);
+    return row;
+  }
+}
@@ -0,0 +1,123 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import edu.ucsb.cs156.example.models.Suggestion;
+import edu.ucsb.cs156.example.models.UCSBDiningCommonsMenuItemView;
+import edu.ucsb.cs156.example.models.UCSBOrganizationView;
+import edu.ucsb.cs156.example.repositories.MenuItemReviewRepository;
+import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsMenuItemRepository;
+import edu.ucsb.cs156.example.repositories.UCSBOrganizationRepository;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = AutocompleteIndex.class)
+class AutocompleteIndexTests {
+
+  @MockBean
+  UCSBOrganizationRepository ucsbOrganizationRepository;
+
+  @MockBean
+  UCSBDiningCommonsMenuItemRepository ucsbDiningCommonsMenuItemRepository;
+
+  @MockBean
+  MenuItemReviewRepository menuItemReviewRepository;
+
+  @Autowired
+  AutocompleteIndex autocompleteIndex;
+
+  private record Count(Long getItemId, Long getReviews) implements MenuItemReviewRepository.ReviewCount {
+  }
+
+  @BeforeEach
+  void setup() {
+    when(ucsbOrganizationRepository.findAllViews()).thenReturn(List.of(
+        new UCSBOrganizationView("MEXSA", "MEXSA", "Mexican Student Association", false),
+        new UCSBOrganizationView("FTC", "Taco Club", null, true),
+        new UCSBOrganizationView("ZZ", null, null, false)));
+    when(ucsbDiningCommonsMenuItemRepository.findAllViews()).thenReturn(List.of(
+        new UCSBDiningCommonsMenuItemView(1, "ortega", "Fish Tacos", "Entrees"),
+        new UCSBDiningCommonsMenuItemView(2, "ortega", "Tacos al Pastor", "Entrees"),
+        new UCSBDiningCommonsMenuItemView(3, "carrillo", "Tater Tots", "Sides"),
+        new UCSBDiningCommonsMenuItemView(4, "carrillo", null, "Sides")));
+    when(menuItemReviewRepository.countReviewsByItem()).thenReturn(List.of(new Count(1L, 4L), new Count(3L, 1L)));
+    // build on the test's thread; the context (and so the index) is shared between tests
+    autocompleteIndex.snapshot.executor = Runnable::run;
+    autocompleteIndex.written();
+  }
+
+  @Test
+  void test_keys_start_at_every_word() {
+    assertEquals(List.of("Fish Tacos", "Tacos"), AutocompleteIndex.keys("Fish Tacos"));
+    assertEquals(List.of("Mac & Cheese)", "Cheese)", "B2"), AutocompleteIndex.keys("(Mac & Cheese)", null, "B2"));
+  }
+
+  @Test
+  void test_suggest_ranks_by_popularity() {
+    assertEquals(List.of(
+        new Suggestion(SearchIndex.MENU_ITEM, "1", "Fish Tacos", 4),
+        new Suggestion(SearchIndex.MENU_ITEM, "3", "Tater Tots", 1),
+        new Suggestion(SearchIndex.ORGANIZATION, "FTC", "Taco Club", 0),
+        new Suggestion(SearchIndex.MENU_ITEM, "2", "Tacos al Pastor", 0)),
+        autocompleteIndex.suggest("t", null, 10));
+    assertEquals(List.of(new Suggestion(SearchIndex.MENU_ITEM, "1", "Fish Tacos", 4)),
+        autocompleteIndex.suggest("TACOS", null, 1));
+  }
+
+  @Test
+  void test_suggest_by_type() {
+    assertEquals(List.of(
+        new Suggestion(SearchIndex.ORGANIZATION, "MEXSA", "Mexican Student Association", 1),
+        new Suggestion(SearchIndex.ORGANIZATION, "FTC", "Taco Club", 0)),
+        autocompleteIndex.suggest("", SearchIndex.ORGANIZATION, 10));
+    assertEquals(List.of(new Suggestion(SearchIndex.ORGANIZATION, "MEXSA", "Mexican Student Association", 1)),
+        autocompleteIndex.suggest("stud", SearchIndex.ORGANIZATION, 10));
+    assertEquals(List.of(), autocompleteIndex.suggest("stud", SearchIndex.MENU_ITEM, 10));
+    assertEquals(List.of(), autocompleteIndex.suggest("t", "restaurant", 10));
+  }
+
+  @Test
+  void test_suggestions_are_rebuilt_after_a_write() {
+    autocompleteIndex.suggest("t", null, 10);
+    autocompleteIndex.suggest("f", null, 10);
+    verify(ucsbOrganizationRepository, times(1)).findAllViews();
+
+    when(menuItemReviewRepository.countReviewsByItem()).thenReturn(List.of(new Count(2L, 9L)));
+    autocompleteIndex.written();
+
+    assertEquals(List.of(new Suggestion(SearchIndex.MENU_ITEM, "2", "Tacos al Pastor", 9)),
+        autocompleteIndex.suggest("ta", SearchIndex.MENU_ITEM, 1));
+    verify(ucsbOrganizationRepository, times(2)).findAllViews();
+  }
+
+  @Test
+  void test_writes_in_a_transaction_apply_after_commit() {
+    autocompleteIndex.suggest("t", null, 10);
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      autocompleteIndex.written();
+      autocompleteIndex.suggest("t", null, 10);
+      verify(ucsbOrganizationRepository, times(1)).findAllViews();
+
+      TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    autocompleteIndex.suggest("t", null, 10);
+    verify(ucsbOrganizationRepository, times(2)).findAllViews();
+  }
+}
@@ -0,0 +1,86 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import edu.ucsb.cs156.example.entities.MenuItemReview;
+import edu.ucsb.cs156.example.entities.User;
+import edu.ucsb.cs156.example.repositories.MenuItemReviewRepository;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.wiremock.WiremockService;
+
+import jakarta.persistence.EntityManager;
+
+@DataJpaTest
+@ActiveProfiles("integration")
+@Import(AutocompleteIndex.class)
+class AutocompleteListenerTests {
+
+  @MockBean
+  WiremockService wiremockService;
+
+  @SpyBean
+  AutocompleteIndex autocompleteIndex;
+
+  @Autowired
+  MenuItemReviewRepository menuItemReviewRepository;
+
+  @Autowired
+  UserRepository userRepository;
+
+  @Autowired
+  EntityManager entityManager;
+
+  private MenuItemReview review(long itemId) {
+    return MenuItemReview.builder().itemId(itemId).reviewerEmail("cgaucho@ucsb.edu").stars(5)
+        .dateReviewed(LocalDateTime.parse("2024-01-08T12:00:00")).comments("Great").build();
+  }
+
+  @Test
+  void test_inserts_updates_and_deletes_are_reported() {
+    MenuItemReview review = menuItemReviewRepository.save(review(7));
+    entityManager.flush();
+    verify(autocompleteIndex).written();
+
+    review.setStars(4);
+    menuItemReviewRepository.save(review);
+    entityManager.flush();
+    menuItemReviewRepository.delete(review);
+    entityManager.flush();
+
+    verify(autocompleteIndex, times(3)).written();
+  }
+
+  @Test
+  void test_other_entities_are_not_reported() {
+    userRepository.save(User.builder().email("cgaucho@ucsb.edu").givenName("Chris").familyName("Gaucho").build());
+    entityManager.flush();
+
+    verify(autocompleteIndex, never()).written();
+  }
+
+  @Test
+  void test_reviews_are_counted_by_item() {
+    menuItemReviewRepository.saveAll(List.of(review(7), review(7), review(8)));
+    entityManager.flush();
+
+    List<String> counts = menuItemReviewRepository.countReviewsByItem().stream()
+        .map(count -> count.getItemId() + ":" + count.getReviews())
+        .sorted()
+        .toList();
+    assertEquals(List.of("7:2", "8:1"), counts);
+  }
+}
@@ -0,0 +1,128 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import edu.ucsb.cs156.example.entities.HelpRequest;
+import edu.ucsb.cs156.example.entities.RecommendationRequest;
+import edu.ucsb.cs156.example.repositories.HelpRequestRepository;
+import edu.ucsb.cs156.example.repositories.RecommendationRequestRepository;
+import edu.ucsb.cs156.example.services.wiremock.WiremockService;
+
+import jakarta.persistence.EntityManager;
+
+@DataJpaTest
+@ActiveProfiles("integration")
+@Import(BulkUpdateService.class)
+class BulkUpdateServiceTests {
+
+  @MockBean
+  WiremockService wiremockService;
+
+  @Autowired
+  HelpRequestRepository helpRequestRepository;
+
+  @Autowired
+  RecommendationRequestRepository recommendationRequestRepository;
+
+  @Autowired
+  BulkUpdateService bulkUpdateService;
+
+  @Autowired
+  EntityManager entityManager;
+
+  private HelpRequest helpRequest(String teamId) {
+    HelpRequest helpRequest = helpRequestRepository.save(HelpRequest.builder()
+        .requesterEmail("cgaucho@ucsb.edu")
+        .teamId(teamId)
+        .requestTime(LocalDateTime.parse("2022-01-03T00:00:00"))
+        .build());
+    entityManager.flush();
+    return helpRequest;
+  }
+
+  private HelpRequest reload(HelpRequest helpRequest) {
+    entityManager.clear();
+    return helpRequestRepository.findById(helpRequest.getId()).get();
+  }
+
+  @Test
+  void test_help_requests_are_updated_and_only_existing_ids_are_returned() {
+    HelpRequest first = helpRequest("s22-5pm-3");
+    HelpRequest second = helpRequest("s22-5pm-3");
+    HelpRequest other = helpRequest("s22-5pm-4");
+
+    List<Long> updated = bulkUpdateService.setHelpRequestsSolved(List.of(first.getId(), second.getId(), 999L), true);
+
+    assertEquals(List.of(first.getId(), second.getId()), updated.stream().sorted().toList());
+    assertTrue(reload(first).getSolved());
+    assertTrue(reload(second).getSolved());
+    assertFalse(reload(other).getSolved());
+    assertNotEquals(first.getChangeSeq(), reload(first).getChangeSeq());
+  }
+
+  @Test
+  void test_help_requests_of_a_team_are_updated() {
+    HelpRequest first = helpRequest("s22-5pm-3");
+    HelpRequest other = helpRequest("s22-5pm-4");
+
+    assertEquals(List.of(first.getId()), bulkUpdateService.setTeamHelpRequestsSolved("s22-5pm-3", true));
+    assertEquals(List.of(), bulkUpdateService.setTeamHelpRequestsSolved("s22-5pm-9", true));
+    assertTrue(reload(first).getSolved());
+    assertFalse(reload(other).getSolved());
+  }
+
+  @Test
+  void test_recommendation_requests_are_updated_and_only_existing_ids_are_returned() {
+    RecommendationRequest request = recommendationRequestRepository.save(RecommendationRequest.builder()
+        .requesterEmail("cgaucho@ucsb.edu")
+        .professorEmail("phtcon@ucsb.edu")
+        .build());
+    entityManager.flush();
+
+    assertEquals(List.of(request.getId()), bulkUpdateService.setRecommendationRequestsDone(List.of(request.getId(), 999L), true));
+    entityManager.clear();
+    assertTrue(recommendationRequestRepository.findById(request.getId()).get().getDone());
+  }
+
+  @Test
+  void test_empty_lists_of_ids_update_nothing() {
+    BulkUpdateService service = new BulkUpdateService();
+    service.helpRequestRepository = mock(HelpRequestRepository.class);
+    service.recommendationRequestRepository = mock(RecommendationRequestRepository.class);
+
+    assertEquals(List.of(), service.setHelpRequestsSolved(List.of(), true));
+    assertEquals(List.of(), service.setRecommendationRequestsDone(List.of(), true));
+    verifyNoInteractions(service.helpRequestRepository, service.recommendationRequestRepository);
+  }
+
+  @Test
+  void test_postgres_uses_update_returning() {
+    BulkUpdateService service = new BulkUpdateService();
+    service.helpRequestRepository = mock(HelpRequestRepository.class);
+    service.recommendationRequestRepository = mock(RecommendationRequestRepository.class);
+    service.postgres = true;
+    when(service.helpRequestRepository.updateSolvedByIdInPostgres(List.of(1L, 2L), true)).thenReturn(List.of(1L));
+    when(service.helpRequestRepository.updateSolvedByTeamIdPostgres("s22-5pm-3", false)).thenReturn(List.of(3L));
+    when(service.recommendationRequestRepository.updateDoneByIdInPostgres(List.of(4L), true)).thenReturn(List.of(4L));
+
+    assertEquals(List.of(1L), service.setHelpRequestsSolved(List.of(1L, 2L), true));
+    assertEquals(List.of(3L), service.setTeamHelpRequestsSolved("s22-5pm-3", false));
+    assertEquals(List.of(4L), service.setRecommendationRequestsDone(List.of(4L), true));
+  }
+}
@@ -0,0 +1,64 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class BulkheadTests {
+
+  @Test
+  void test_permits_are_limited_and_counted() {
+    Bulkhead bulkhead = new Bulkhead("test", 2, Duration.ZERO);
+
+    assertTrue(bulkhead.tryAcquire());
+    assertEquals(0.5, bulkhead.getSaturation());
+    assertTrue(bulkhead.tryAcquire());
+    assertFalse(bulkhead.tryAcquire());
+
+    assertEquals("test", bulkhead.getName());
+    assertEquals(2, bulkhead.getMaxConcurrent());
+    assertEquals(2, bulkhead.getInUse());
+    assertEquals(1.0, bulkhead.getSaturation());
+    assertEquals(0, bulkhead.getWaiting());
+    assertEquals(2, bulkhead.getAdmitted());
+    assertEquals(1, bulkhead.getRejected());
+
+    bulkhead.release();
+    assertEquals(1, bulkhead.getInUse());
+    assertTrue(bulkhead.tryAcquire());
+  }
+
+  @Test
+  void test_a_request_waits_for_a_permit_to_be_released() throws Exception {
+    Bulkhead bulkhead = new Bulkhead("test", 1, Duration.ofSeconds(10));
+    bulkhead.tryAcquire();
+
+    Thread releaser = new Thread(() -> {
+      while (bulkhead.getWaiting() == 0) {
+        Thread.onSpinWait();
+      }
+      bulkhead.release();
+    });
+    releaser.start();
+
+    assertTrue(bulkhead.tryAcquire());
+    releaser.join();
+    assertEquals(2, bulkhead.getAdmitted());
+  }
+
+  @Test
+  void test_an_interrupted_request_is_turned_away() {
+    Bulkhead bulkhead = new Bulkhead("test", 1, Duration.ofSeconds(10));
+    bulkhead.tryAcquire();
+
+    Thread.currentThread().interrupt();
+    assertFalse(bulkhead.tryAcquire());
+
+    assertTrue(Thread.interrupted());
+    assertEquals(1, bulkhead.getRejected());
+  }
+}
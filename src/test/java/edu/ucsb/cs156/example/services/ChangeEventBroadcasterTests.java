@@ -0,0 +1,245 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import edu.ucsb.cs156.example.entities.HelpRequest;
+import edu.ucsb.cs156.example.entities.Restaurant;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceUnitUtil;
+
+class ChangeEventBroadcasterTests {
+
+  private ChangeEventBroadcaster broadcaster;
+  private final PersistenceUnitUtil persistenceUnitUtil = mock(PersistenceUnitUtil.class);
+
+  @BeforeEach
+  void setup() {
+    broadcaster = spy(new ChangeEventBroadcaster());
+    // as Spring Boot configures it
+    broadcaster.objectMapper = Jackson2ObjectMapperBuilder.json()
+        .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+    broadcaster.entityManagerFactory = mock(EntityManagerFactory.class);
+    when(broadcaster.entityManagerFactory.getPersistenceUnitUtil()).thenReturn(persistenceUnitUtil);
+  }
+
+  /** Opens a stream whose events are collected (as written to the wire) instead of sent. */
+  private SseEmitter subscribe(Set<String> entities, List<String> sent) throws IOException {
+    SseEmitter emitter = mock(SseEmitter.class);
+    doAnswer(invocation -> {
+      SseEventBuilder event = invocation.getArgument(0);
+      sent.add(event.build().stream().map(part -> part.getData().toString()).collect(Collectors.joining()));
+      return null;
+    }).when(emitter).send(any(SseEventBuilder.class));
+    doReturn(emitter).when(broadcaster).newEmitter();
+    assertEquals(emitter, broadcaster.subscribe(entities));
+    return emitter;
+  }
+
+  private static void waitFor(List<String> sent, int count) throws InterruptedException {
+    for (int i = 0; i < 200 && sent.size() < count; i++) {
+      Thread.sleep(10);
+    }
+    assertEquals(count, sent.size(), sent::toString);
+  }
+
+  @Test
+  void test_events_go_to_the_subscribers_of_their_entity() throws Exception {
+    List<String> helpRequests = Collections.synchronizedList(new ArrayList<>());
+    List<String> everything = Collections.synchronizedList(new ArrayList<>());
+    subscribe(Set.of("HelpRequest"), helpRequests);
+    subscribe(null, everything);
+    assertEquals(2, broadcaster.subscriberCount());
+
+    broadcaster.publish(HelpRequest.class, ChangeEventBroadcaster.UPDATED, 7L, null);
+    broadcaster.publish(Restaurant.class, ChangeEventBroadcaster.DELETED, 3L, null);
+
+    waitFor(everything, 2);
+    waitFor(helpRequests, 1);
+    assertEquals("event:updated\ndata:{\"entity\":\"HelpRequest\",\"action\":\"updated\",\"id\":7,\"data\":null}\n\n",
+        helpRequests.get(0));
+    assertEquals(helpRequests.get(0), everything.get(0));
+    assertEquals("event:deleted\ndata:{\"entity\":\"Restaurant\",\"action\":\"deleted\",\"id\":3,\"data\":null}\n\n",
+        everything.get(1));
+  }
+
+  @Test
+  void test_written_entities_are_sent_with_their_id_and_data() throws Exception {
+    List<String> sent = Collections.synchronizedList(new ArrayList<>());
+    subscribe(null, sent);
+    Restaurant restaurant = Restaurant.builder().id(3).name("Freebirds").description("Burritos").build();
+    when(persistenceUnitUtil.getIdentifier(restaurant)).thenReturn(3L);
+
+    broadcaster.written(restaurant, ChangeEventBroadcaster.CREATED);
+    broadcaster.written(restaurant, ChangeEventBroadcaster.DELETED);
+
+    waitFor(sent, 2);
+    assertEquals("event:created\ndata:{\"entity\":\"Restaurant\",\"action\":\"created\",\"id\":3,"
+        + "\"data\":{\"id\":3,\"name\":\"Freebirds\",\"description\":\"Burritos\"}}\n\n", sent.get(0));
+    assertEquals("event:deleted\ndata:{\"entity\":\"Restaurant\",\"action\":\"deleted\",\"id\":3,\"data\":null}\n\n",
+        sent.get(1));
+  }
+
+  @Test
+  void test_nothing_is_serialized_without_subscribers() {
+    broadcaster.objectMapper = null;
+    broadcaster.publish(HelpRequest.class, ChangeEventBroadcaster.UPDATED, 7L, HelpRequest.builder().build());
+    assertEquals(0, broadcaster.subscriberCount());
+  }
+
+  @Test
+  void test_events_in_a_transaction_are_sent_after_commit() throws Exception {
+    List<String> sent = Collections.synchronizedList(new ArrayList<>());
+    subscribe(null, sent);
+
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      broadcaster.publish(HelpRequest.class, ChangeEventBroadcaster.CREATED, 7L,
+          HelpRequest.builder().id(7).requestTime(LocalDateTime.parse("2022-01-03T10:00:00")).build());
+      Thread.sleep(50);
+      assertEquals(List.of(), sent);
+
+      TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    waitFor(sent, 1);
+    assertEquals(true, sent.get(0).contains("\"requestTime\":\"2022-01-03T10:00:00\""), sent.get(0));
+  }
+
+  @Test
+  void test_a_slow_subscriber_gets_a_resync_instead_of_the_events_it_missed() throws Exception {
+    List<String> sent = Collections.synchronizedList(new ArrayList<>());
+    SseEmitter emitter = subscribe(null, sent);
+    CountDownLatch sending = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    doAnswer(invocation -> {
+      // the first event takes until the test lets it through
+      if (sending.getCount() == 1) {
+        sending.countDown();
+        release.await(5, TimeUnit.SECONDS);
+      }
+      SseEventBuilder event = invocation.getArgument(0);
+      sent.add(event.build().stream().map(part -> part.getData().toString()).collect(Collectors.joining()));
+      return null;
+    }).when(emitter).send(any(SseEventBuilder.class));
+
+    broadcaster.publish(HelpRequest.class, ChangeEventBroadcaster.UPDATED, 0L, null);
+    sending.await(5, TimeUnit.SECONDS);
+    for (long id = 1; id <= ChangeEventBroadcaster.QUEUE_CAPACITY + 1; id++) {
+      broadcaster.publish(HelpRequest.class, ChangeEventBroadcaster.UPDATED, id, null);
+    }
+    broadcaster.publish(HelpRequest.class, ChangeEventBroadcaster.DELETED, 500L, null);
+    release.countDown();
+
+    waitFor(sent, 3);
+    assertEquals(true, sent.get(0).contains("\"id\":0,"), sent.get(0));
+    assertEquals("event:resync\ndata:{}\n\n", sent.get(1));
+    assertEquals(true, sent.get(2).contains("\"id\":500,"), sent.get(2));
+  }
+
+  @Test
+  void test_idle_streams_get_heartbeats() throws Exception {
+    broadcaster.heartbeatMillis = 5;
+    List<String> sent = Collections.synchronizedList(new ArrayList<>());
+    SseEmitter emitter = subscribe(null, sent);
+
+    verify(emitter, timeout(1000).atLeast(2)).send(any(SseEventBuilder.class));
+    assertEquals(":heartbeat\n\n", sent.get(0));
+  }
+
+  @Test
+  void test_a_stream_that_cannot_be_written_is_closed() throws Exception {
+    SseEmitter emitter = mock(SseEmitter.class);
+    doThrow(new IOException("Broken pipe")).when(emitter).send(any(SseEventBuilder.class));
+    doReturn(emitter).when(broadcaster).newEmitter();
+    broadcaster.subscribe(null);
+
+    broadcaster.publish(HelpRequest.class, ChangeEventBroadcaster.UPDATED, 7L, null);
+
+    verify(emitter, timeout(1000)).send(any(SseEventBuilder.class));
+    waitForSubscribers(0);
+    broadcaster.publish(HelpRequest.class, ChangeEventBroadcaster.UPDATED, 8L, null);
+    verify(emitter, timeout(100)).send(any(SseEventBuilder.class));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void test_a_stream_is_closed_when_it_completes_times_out_or_fails() throws Exception {
+    SseEmitter emitter = subscribe(null, new ArrayList<>());
+    ArgumentCaptor<Runnable> onTimeout = ArgumentCaptor.forClass(Runnable.class);
+    ArgumentCaptor<Runnable> onCompletion = ArgumentCaptor.forClass(Runnable.class);
+    verify(emitter).onTimeout(onTimeout.capture());
+    verify(emitter).onCompletion(onCompletion.capture());
+
+    onTimeout.getValue().run();
+    verify(emitter).complete();
+    onCompletion.getValue().run();
+    waitForSubscribers(0);
+
+    SseEmitter failing = subscribe(null, new ArrayList<>());
+    ArgumentCaptor<Consumer<Throwable>> onError = ArgumentCaptor.forClass(Consumer.class);
+    verify(failing).onError(onError.capture());
+    assertEquals(1, broadcaster.subscriberCount());
+    onError.getValue().accept(new IOException("Connection reset"));
+    waitForSubscribers(0);
+  }
+
+  @Test
+  void test_a_stream_that_completes_while_writing_stops_writing() throws Exception {
+    SseEmitter emitter = subscribe(null, new ArrayList<>());
+    ArgumentCaptor<Runnable> onCompletion = ArgumentCaptor.forClass(Runnable.class);
+    verify(emitter).onCompletion(onCompletion.capture());
+    doAnswer(invocation -> {
+      onCompletion.getValue().run();
+      return null;
+    }).when(emitter).send(any(SseEventBuilder.class));
+
+    broadcaster.publish(HelpRequest.class, ChangeEventBroadcaster.UPDATED, 7L, null);
+
+    verify(emitter, timeout(1000)).send(any(SseEventBuilder.class));
+    waitForSubscribers(0);
+  }
+
+  @Test
+  void test_streams_time_out() {
+    assertEquals(ChangeEventBroadcaster.TIMEOUT_MILLIS, new ChangeEventBroadcaster().newEmitter().getTimeout());
+  }
+
+  private void waitForSubscribers(int count) throws InterruptedException {
+    for (int i = 0; i < 200 && broadcaster.subscriberCount() != count; i++) {
+      Thread.sleep(10);
+    }
+    assertEquals(count, broadcaster.subscriberCount());
+  }
+}
@@ -0,0 +1,48 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import edu.ucsb.cs156.example.entities.Restaurant;
+import edu.ucsb.cs156.example.repositories.RestaurantRepository;
+import edu.ucsb.cs156.example.services.wiremock.WiremockService;
+
+import jakarta.persistence.EntityManager;
+
+@DataJpaTest
+@ActiveProfiles("integration")
+class ChangeEventListenerTests {
+
+  @MockBean
+  WiremockService wiremockService;
+
+  @MockBean
+  ChangeEventBroadcaster changeEventBroadcaster;
+
+  @Autowired
+  RestaurantRepository restaurantRepository;
+
+  @Autowired
+  EntityManager entityManager;
+
+  @Test
+  void test_inserts_updates_and_deletes_are_published() {
+    Restaurant freebirds = restaurantRepository.save(Restaurant.builder().name("Freebirds").description("Burritos").build());
+    entityManager.flush();
+    verify(changeEventBroadcaster).written(freebirds, ChangeEventBroadcaster.CREATED);
+
+    freebirds.setDescription("World famous burritos");
+    restaurantRepository.save(freebirds);
+    entityManager.flush();
+    verify(changeEventBroadcaster).written(freebirds, ChangeEventBroadcaster.UPDATED);
+
+    restaurantRepository.delete(freebirds);
+    entityManager.flush();
+    verify(changeEventBroadcaster).written(freebirds, ChangeEventBroadcaster.DELETED);
+  }
+}
@@ -0,0 +1,254 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import edu.ucsb.cs156.example.entities.HelpRequest;
+import edu.ucsb.cs156.example.entities.Restaurant;
+import edu.ucsb.cs156.example.entities.UCSBOrganization;
+import edu.ucsb.cs156.example.errors.SyncTokenExpiredException;
+import edu.ucsb.cs156.example.models.Changes;
+import edu.ucsb.cs156.example.models.HelpRequestView;
+import edu.ucsb.cs156.example.models.RestaurantView;
+import edu.ucsb.cs156.example.models.UCSBOrganizationView;
+import edu.ucsb.cs156.example.repositories.HelpRequestRepository;
+import edu.ucsb.cs156.example.repositories.RestaurantRepository;
+import edu.ucsb.cs156.example.repositories.TombstoneHorizonRepository;
+import edu.ucsb.cs156.example.repositories.TombstoneRepository;
+import edu.ucsb.cs156.example.repositories.UCSBOrganizationRepository;
+import edu.ucsb.cs156.example.services.wiremock.WiremockService;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+@DataJpaTest
+@ActiveProfiles("integration")
+@Import({ ChangeFeedService.class, SparseFieldsetService.class })
+@TestPropertySource(properties = "app.changes.commit-lag=0s")
+class ChangeFeedServiceTests {
+
+  private static final LocalDateTime NOW = LocalDateTime.parse("2024-05-01T09:00:00");
+
+  @MockBean
+  WiremockService wiremockService;
+
+  @Autowired
+  ChangeFeedService changeFeedService;
+
+  @Autowired
+  RestaurantRepository restaurantRepository;
+
+  @Autowired
+  HelpRequestRepository helpRequestRepository;
+
+  @Autowired
+  UCSBOrganizationRepository ucsbOrganizationRepository;
+
+  @Autowired
+  TombstoneRepository tombstoneRepository;
+
+  @Autowired
+  TombstoneHorizonRepository tombstoneHorizonRepository;
+
+  @Autowired
+  SparseFieldsetService sparseFieldsetService;
+
+  @Autowired
+  EntityManager entityManager;
+
+  // a service of its own, so that its clock and samples are not shared with the other tests
+  private ChangeFeedService service(Duration commitLag) {
+    ChangeFeedService service = new ChangeFeedService();
+    service.entityManager = entityManager;
+    service.tombstoneRepository = tombstoneRepository;
+    service.tombstoneHorizonRepository = tombstoneHorizonRepository;
+    service.sparseFieldsetService = sparseFieldsetService;
+    service.commitLag = commitLag;
+    service.tombstoneRetention = Duration.ofDays(30);
+    setTime(service, NOW);
+    return service;
+  }
+
+  private static void setTime(ChangeFeedService service, LocalDateTime time) {
+    service.clock = Clock.fixed(time.toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+  }
+
+  private Restaurant saveRestaurant(String name) {
+    Restaurant restaurant = restaurantRepository.save(Restaurant.builder().name(name).description("food").build());
+    entityManager.flush();
+    return restaurant;
+  }
+
+  @Test
+  void test_full_sync_returns_every_row_in_change_order() {
+    Restaurant tacoBell = saveRestaurant("Taco Bell");
+    Restaurant freebirds = saveRestaurant("Freebirds");
+
+    Changes<RestaurantView> changes = changeFeedService.changesSince(Restaurant.class, RestaurantView.class, 0);
+
+    assertEquals(List.of(RestaurantView.from(tacoBell), RestaurantView.from(freebirds)), changes.changed());
+    assertEquals(List.of(), changes.deleted());
+    assertEquals(freebirds.getChangeSeq(), changes.token());
+    assertTrue(tacoBell.getChangeSeq() < freebirds.getChangeSeq());
+  }
+
+  @Test
+  void test_only_rows_changed_after_the_token_are_returned() {
+    Restaurant tacoBell = saveRestaurant("Taco Bell");
+    saveRestaurant("Freebirds");
+    long token = changeFeedService.changesSince(Restaurant.class, RestaurantView.class, 0).token();
+
+    tacoBell.setDescription("Mexican");
+    restaurantRepository.save(tacoBell);
+    entityManager.flush();
+
+    Changes<RestaurantView> changes = changeFeedService.changesSince(Restaurant.class, RestaurantView.class, token);
+
+    assertEquals(List.of(RestaurantView.from(tacoBell)), changes.changed());
+    assertTrue(changes.token() > token);
+  }
+
+  @Test
+  void test_no_changes_keeps_the_token() {
+    saveRestaurant("Taco Bell");
+    long token = changeFeedService.changesSince(Restaurant.class, RestaurantView.class, 0).token();
+
+    assertEquals(new Changes<>(token, List.of(), List.of()),
+        changeFeedService.changesSince(Restaurant.class, RestaurantView.class, token));
+  }
+
+  @Test
+  void test_deleted_rows_are_returned_as_tombstones() {
+    Restaurant tacoBell = saveRestaurant("Taco Bell");
+    long token = changeFeedService.changesSince(Restaurant.class, RestaurantView.class, 0).token();
+
+    restaurantRepository.delete(tacoBell);
+    changeFeedService.recordDeletion(Restaurant.class, tacoBell.getId());
+    entityManager.flush();
+
+    Changes<RestaurantView> changes = changeFeedService.changesSince(Restaurant.class, RestaurantView.class, token);
+
+    assertEquals(List.of(), changes.changed());
+    assertEquals(List.of(tacoBell.getId()), changes.deleted());
+    assertTrue(changes.token() > token);
+    assertEquals(List.of(), changeFeedService.changesSince(UCSBOrganization.class, UCSBOrganizationView.class, 0).deleted());
+  }
+
+  @Test
+  void test_tombstones_for_string_ids_keep_the_string() {
+    UCSBOrganization zpr = ucsbOrganizationRepository.save(UCSBOrganization.builder().orgCode("ZPR").build());
+    ucsbOrganizationRepository.delete(zpr);
+    changeFeedService.recordDeletion(UCSBOrganization.class, "ZPR");
+    entityManager.flush();
+
+    Changes<UCSBOrganizationView> changes = changeFeedService.changesSince(UCSBOrganization.class, UCSBOrganizationView.class, 0);
+
+    assertEquals(List.of("ZPR"), changes.deleted());
+  }
+
+  @Test
+  void test_bulk_updates_get_a_new_change_sequence_number() {
+    HelpRequest helpRequest = helpRequestRepository.save(HelpRequest.builder()
+        .requesterEmail("cgaucho@ucsb.edu")
+        .teamId("s22-5pm-3")
+        .requestTime(LocalDateTime.parse("2022-01-03T00:00:00"))
+        .build());
+    entityManager.flush();
+    long token = changeFeedService.changesSince(HelpRequest.class, HelpRequestView.class, 0).token();
+
+    helpRequestRepository.updateSolvedByIdInH2(List.of(helpRequest.getId()), true);
+    entityManager.clear();
+
+    Changes<HelpRequestView> changes = changeFeedService.changesSince(HelpRequest.class, HelpRequestView.class, token);
+
+    assertEquals(1, changes.changed().size());
+    assertTrue(changes.changed().get(0).solved());
+  }
+
+  @Test
+  void test_the_token_stays_behind_the_commit_lag() {
+    ChangeFeedService service = service(Duration.ofSeconds(10));
+    Restaurant tacoBell = saveRestaurant("Taco Bell");
+    assertEquals(new Changes<>(0L, List.of(), List.of()), service.changesSince(Restaurant.class, RestaurantView.class, 0));
+
+    setTime(service, NOW.plusNanos(500_000_000));
+    Restaurant freebirds = saveRestaurant("Freebirds");
+    service.changesSince(Restaurant.class, RestaurantView.class, 0);
+    setTime(service, NOW.plusSeconds(5));
+    service.changesSince(Restaurant.class, RestaurantView.class, 0);
+
+    setTime(service, NOW.plusSeconds(10));
+    Changes<RestaurantView> changes = service.changesSince(Restaurant.class, RestaurantView.class, 0);
+    assertEquals(List.of(RestaurantView.from(tacoBell)), changes.changed());
+    assertEquals(tacoBell.getChangeSeq(), changes.token());
+
+    setTime(service, NOW.plusSeconds(15));
+    changes = service.changesSince(Restaurant.class, RestaurantView.class, changes.token());
+    assertEquals(List.of(RestaurantView.from(freebirds)), changes.changed());
+    assertEquals(freebirds.getChangeSeq(), changes.token());
+  }
+
+  @Test
+  void test_postgres_reads_the_last_value_of_the_sequence() {
+    ChangeFeedService service = service(Duration.ZERO);
+    service.entityManager = mock(EntityManager.class);
+    service.postgres = true;
+    Query query = mock(Query.class);
+    when(service.entityManager.createNativeQuery(startsWith("select case when is_called then last_value"))).thenReturn(query);
+    when(query.getSingleResult()).thenReturn(42L);
+
+    assertEquals(42, service.commitSafeWatermark());
+  }
+
+  @Test
+  void test_pruned_tombstones_expire_older_tokens() {
+    ChangeFeedService service = service(Duration.ZERO);
+    Restaurant tacoBell = saveRestaurant("Taco Bell");
+    Restaurant freebirds = saveRestaurant("Freebirds");
+    Restaurant woodstocks = saveRestaurant("Woodstocks");
+    long before = service.changesSince(Restaurant.class, RestaurantView.class, 0).token();
+
+    setTime(service, NOW.minusDays(40));
+    restaurantRepository.delete(tacoBell);
+    service.recordDeletion(Restaurant.class, tacoBell.getId());
+    setTime(service, NOW.minusDays(20));
+    restaurantRepository.delete(freebirds);
+    service.recordDeletion(Restaurant.class, freebirds.getId());
+    restaurantRepository.delete(woodstocks);
+    service.recordDeletion(Restaurant.class, woodstocks.getId());
+    entityManager.flush();
+
+    setTime(service, NOW);
+    assertEquals(1, service.pruneTombstones());
+    assertEquals(0, service.pruneTombstones());
+    assertThrows(SyncTokenExpiredException.class, () -> service.changesSince(Restaurant.class, RestaurantView.class, before));
+    assertEquals(List.of(freebirds.getId(), woodstocks.getId()),
+        service.changesSince(Restaurant.class, RestaurantView.class, 0).deleted());
+    long horizon = tombstoneHorizonRepository.findById("Restaurant").get().getChangeSeq();
+    assertEquals(List.of(freebirds.getId(), woodstocks.getId()),
+        service.changesSince(Restaurant.class, RestaurantView.class, horizon).deleted());
+
+    setTime(service, NOW.plusDays(20));
+    assertEquals(2, service.pruneTombstones());
+    assertThrows(SyncTokenExpiredException.class, () -> service.changesSince(Restaurant.class, RestaurantView.class, horizon));
+    assertEquals(List.of(), changeFeedService.changesSince(UCSBOrganization.class, UCSBOrganizationView.class, horizon).deleted());
+  }
+}
@@ -0,0 +1,76 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import edu.ucsb.cs156.example.entities.Restaurant;
+import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
+import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
+import edu.ucsb.cs156.example.repositories.RestaurantRepository;
+import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsMenuItemRepository;
+import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsRepository;
+import edu.ucsb.cs156.example.services.wiremock.WiremockService;
+
+import jakarta.persistence.EntityManager;
+
+@DataJpaTest
+@ActiveProfiles("integration")
+@Import({ CoalescedReads.class, DiningCommonsLocator.class })
+class CoalescedReadsListenerTests {
+
+  @MockBean
+  WiremockService wiremockService;
+
+  @SpyBean
+  CoalescedReads coalescedReads;
+
+  @Autowired
+  UCSBDiningCommonsRepository ucsbDiningCommonsRepository;
+
+  @Autowired
+  UCSBDiningCommonsMenuItemRepository ucsbDiningCommonsMenuItemRepository;
+
+  @Autowired
+  RestaurantRepository restaurantRepository;
+
+  @Autowired
+  EntityManager entityManager;
+
+  @Test
+  void test_inserts_updates_and_deletes_are_reported() {
+    UCSBDiningCommons ortega = ucsbDiningCommonsRepository.save(UCSBDiningCommons.builder().code("ortega").name("Ortega").build());
+    entityManager.flush();
+    ortega.setName("Ortega Commons");
+    ucsbDiningCommonsRepository.save(ortega);
+    entityManager.flush();
+    ucsbDiningCommonsRepository.delete(ortega);
+    entityManager.flush();
+
+    verify(coalescedReads, times(3)).written(UCSBDiningCommons.class);
+  }
+
+  @Test
+  void test_menu_item_writes_are_reported() {
+    ucsbDiningCommonsMenuItemRepository.save(UCSBDiningCommonsMenuItem.builder().diningCommonsCode("ortega").name("Taco").station("Entrees").build());
+    entityManager.flush();
+
+    verify(coalescedReads).written(UCSBDiningCommonsMenuItem.class);
+  }
+
+  @Test
+  void test_other_entities_are_not_reported() {
+    restaurantRepository.save(Restaurant.builder().name("Freebirds").description("Burritos").build());
+    entityManager.flush();
+
+    verify(coalescedReads, never()).written(Restaurant.class);
+  }
+}
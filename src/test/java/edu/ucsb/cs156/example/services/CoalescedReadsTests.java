@@ -0,0 +1,43 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
+
+class CoalescedReadsTests {
+
+  private final CoalescedReads coalescedReads = new CoalescedReads();
+
+  @AfterEach
+  void cleanup() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  void test_recent_writers_do_not_join_a_load_that_may_read_from_the_replica() {
+    coalescedReads.recentWriters = new RecentWriters(Duration.ofMinutes(1), 10);
+    coalescedReads.recentWriters.wrote("admingaucho@ucsb.edu");
+
+    // the writer's load starts while somebody else's is in flight; joining it would never return
+    String result = assertTimeoutPreemptively(Duration.ofSeconds(5), () ->
+        coalescedReads.load(UCSBDiningCommons.class, "all", () -> {
+          SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("admingaucho@ucsb.edu", null));
+          return coalescedReads.load(UCSBDiningCommons.class, "all", () -> "from the primary");
+        }));
+
+    assertEquals("from the primary", result);
+  }
+
+  @Test
+  void test_without_a_replica_loads_are_shared_by_key_alone() {
+    assertEquals("all", coalescedReads.load(UCSBDiningCommons.class, "all", () -> "all"));
+  }
+}
@@ -0,0 +1,129 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import edu.ucsb.cs156.example.models.NearbyDiningCommons;
+import edu.ucsb.cs156.example.models.UCSBDiningCommonsView;
+import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsRepository;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = DiningCommonsLocator.class)
+class DiningCommonsLocatorTests {
+
+  @MockBean
+  UCSBDiningCommonsRepository ucsbDiningCommonsRepository;
+
+  @Autowired
+  DiningCommonsLocator diningCommonsLocator;
+
+  private final UCSBDiningCommonsView ortega =
+      new UCSBDiningCommonsView("ortega", "Ortega", true, true, false, 34.4110, -119.8473);
+  private final UCSBDiningCommonsView dlg =
+      new UCSBDiningCommonsView("de-la-guerra", "De La Guerra", false, true, true, 34.4094, -119.8450);
+  private final UCSBDiningCommonsView carrillo =
+      new UCSBDiningCommonsView("carrillo", "Carrillo", true, false, true, 34.4096, -119.8525);
+  private final UCSBDiningCommonsView portola =
+      new UCSBDiningCommonsView("portola", "Portola", false, false, false, 34.4178, -119.8673);
+  private final UCSBDiningCommonsView noLatitude =
+      new UCSBDiningCommonsView("nowhere", "Nowhere", true, true, true, null, -119.85);
+  private final UCSBDiningCommonsView noLongitude =
+      new UCSBDiningCommonsView("elsewhere", "Elsewhere", true, true, true, 34.41, null);
+
+  @BeforeEach
+  void setup() {
+    when(ucsbDiningCommonsRepository.findAllViews())
+        .thenReturn(List.of(portola, noLatitude, ortega, carrillo, noLongitude, dlg));
+    // build on the test's thread; the context (and so the locator) is shared between tests
+    diningCommonsLocator.snapshot.executor = Runnable::run;
+    diningCommonsLocator.written();
+  }
+
+  private static List<String> codes(List<NearbyDiningCommons> nearby) {
+    return nearby.stream().map(n -> n.commons().code()).toList();
+  }
+
+  @Test
+  void test_nearest_skips_commons_without_a_location() {
+    List<NearbyDiningCommons> nearby = diningCommonsLocator.nearest(34.4110, -119.8473, 10, DiningCommonsLocator.Filter.ANY);
+
+    assertEquals(List.of("ortega", "de-la-guerra", "carrillo", "portola"), codes(nearby));
+    assertEquals(0, nearby.get(0).distanceMeters(), 1e-6);
+    assertEquals(GeoKdTree.distanceMeters(34.4110, -119.8473, 34.4094, -119.8450), nearby.get(1).distanceMeters(), 1e-6);
+  }
+
+  @Test
+  void test_nearest_applies_the_filter() {
+    assertEquals(List.of("de-la-guerra"), codes(diningCommonsLocator.nearest(34.4096, -119.8525, 1,
+        new DiningCommonsLocator.Filter(null, true, true))));
+    assertEquals(List.of("carrillo", "ortega"), codes(diningCommonsLocator.nearest(34.4096, -119.8525, 5,
+        new DiningCommonsLocator.Filter(true, null, null))));
+    assertEquals(List.of("portola"), codes(diningCommonsLocator.nearest(34.4096, -119.8525, 5,
+        new DiningCommonsLocator.Filter(false, false, false))));
+  }
+
+  @Test
+  void test_within_returns_commons_in_the_box_by_code() {
+    assertEquals(List.of(carrillo, dlg, ortega),
+        diningCommonsLocator.within(34.40, 34.415, -119.86, -119.84, DiningCommonsLocator.Filter.ANY));
+    assertEquals(List.of(dlg),
+        diningCommonsLocator.within(34.40, 34.415, -119.86, -119.84, new DiningCommonsLocator.Filter(false, null, null)));
+    assertEquals(List.of(),
+        diningCommonsLocator.within(0, 1, 0, 1, DiningCommonsLocator.Filter.ANY));
+  }
+
+  @Test
+  void test_filter_checks_each_criterion_that_is_given() {
+    assertTrue(DiningCommonsLocator.Filter.ANY.test(portola));
+    assertTrue(new DiningCommonsLocator.Filter(true, true, false).test(ortega));
+    assertFalse(new DiningCommonsLocator.Filter(false, null, null).test(ortega));
+    assertFalse(new DiningCommonsLocator.Filter(null, false, null).test(ortega));
+    assertFalse(new DiningCommonsLocator.Filter(null, null, true).test(ortega));
+  }
+
+  @Test
+  void test_tree_is_built_once_and_rebuilt_after_a_write() {
+    diningCommonsLocator.nearest(34.41, -119.85, 1, DiningCommonsLocator.Filter.ANY);
+    diningCommonsLocator.within(34, 35, -120, -119, DiningCommonsLocator.Filter.ANY);
+    verify(ucsbDiningCommonsRepository, times(1)).findAllViews();
+
+    when(ucsbDiningCommonsRepository.findAllViews()).thenReturn(List.of(portola));
+    diningCommonsLocator.written();
+    assertEquals(List.of("portola"), codes(diningCommonsLocator.nearest(34.41, -119.85, 3, DiningCommonsLocator.Filter.ANY)));
+    verify(ucsbDiningCommonsRepository, times(2)).findAllViews();
+  }
+
+  @Test
+  void test_write_in_a_transaction_takes_effect_after_commit() {
+    diningCommonsLocator.nearest(34.41, -119.85, 1, DiningCommonsLocator.Filter.ANY);
+
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      diningCommonsLocator.written();
+      diningCommonsLocator.nearest(34.41, -119.85, 1, DiningCommonsLocator.Filter.ANY);
+      verify(ucsbDiningCommonsRepository, times(1)).findAllViews();
+
+      TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    diningCommonsLocator.nearest(34.41, -119.85, 1, DiningCommonsLocator.Filter.ANY);
+    verify(ucsbDiningCommonsRepository, times(2)).findAllViews();
+  }
+}
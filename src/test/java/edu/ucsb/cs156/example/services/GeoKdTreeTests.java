@@ -0,0 +1,131 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+
+class GeoKdTreeTests {
+
+  private record Place(String name, double latitude, double longitude) {
+  }
+
+  private static GeoKdTree<Place> tree(List<Place> places) {
+    return new GeoKdTree<>(places, Place::latitude, Place::longitude);
+  }
+
+  private static List<Place> randomPlaces(Random random, int n, double latitudeRange, double longitudeCenter,
+      double longitudeRange) {
+    List<Place> places = new ArrayList<>();
+    for (int i = 0; i < n; i++) {
+      double longitude = longitudeCenter + (random.nextDouble() * 2 - 1) * longitudeRange;
+      // wrap into [-180, 180]
+      longitude = ((longitude + 540) % 360) - 180;
+      places.add(new Place("p" + i, (random.nextDouble() * 2 - 1) * latitudeRange, longitude));
+    }
+    return places;
+  }
+
+  private static List<String> bruteForceNearest(List<Place> places, double latitude, double longitude, int k,
+      Predicate<Place> filter) {
+    return places.stream()
+        .filter(filter)
+        .sorted(Comparator.comparingDouble(
+            (Place p) -> GeoKdTree.distanceMeters(latitude, longitude, p.latitude(), p.longitude())))
+        .limit(k)
+        .map(Place::name)
+        .toList();
+  }
+
+  private static List<String> names(List<GeoKdTree.Neighbor<Place>> neighbors) {
+    return neighbors.stream().map(neighbor -> neighbor.item().name()).toList();
+  }
+
+  @Test
+  void test_distance_between_known_points() {
+    // one degree of latitude is about 111.2 km
+    assertEquals(111_195, GeoKdTree.distanceMeters(0, 0, 1, 0), 1);
+    assertEquals(0, GeoKdTree.distanceMeters(34.41, -119.85, 34.41, -119.85), 1e-6);
+    // the same distance either way round the antimeridian
+    assertEquals(GeoKdTree.distanceMeters(0, 179.5, 0, -179.5), GeoKdTree.distanceMeters(0, -0.5, 0, 0.5), 1e-6);
+  }
+
+  @Test
+  void test_nearest_matches_brute_force() {
+    Random random = new Random(44);
+    List<Place> places = randomPlaces(random, 500, 80, 0, 180);
+    GeoKdTree<Place> tree = tree(places);
+    assertEquals(500, tree.size());
+
+    Predicate<Place> even = p -> Integer.parseInt(p.name().substring(1)) % 2 == 0;
+    for (int i = 0; i < 200; i++) {
+      double latitude = (random.nextDouble() * 2 - 1) * 90;
+      double longitude = (random.nextDouble() * 2 - 1) * 180;
+      int k = 1 + random.nextInt(8);
+      assertEquals(bruteForceNearest(places, latitude, longitude, k, p -> true),
+          names(tree.nearest(latitude, longitude, k, p -> true)));
+      assertEquals(bruteForceNearest(places, latitude, longitude, k, even),
+          names(tree.nearest(latitude, longitude, k, even)));
+    }
+  }
+
+  @Test
+  void test_nearest_across_the_antimeridian_and_near_the_poles() {
+    Random random = new Random(180);
+    List<Place> places = new ArrayList<>(randomPlaces(random, 200, 89, 180, 10));
+    places.addAll(randomPlaces(random, 50, 90, 0, 180));
+    GeoKdTree<Place> tree = tree(places);
+
+    for (int i = 0; i < 200; i++) {
+      double latitude = (random.nextDouble() * 2 - 1) * 90;
+      double longitude = random.nextBoolean() ? 179.9 - random.nextDouble() : -179.9 + random.nextDouble();
+      assertEquals(bruteForceNearest(places, latitude, longitude, 3, p -> true),
+          names(tree.nearest(latitude, longitude, 3, p -> true)));
+    }
+  }
+
+  @Test
+  void test_nearest_returns_distances_and_at_most_what_there_is() {
+    Place ortega = new Place("ortega", 34.4110, -119.8473);
+    Place carrillo = new Place("carrillo", 34.4096, -119.8525);
+    GeoKdTree<Place> tree = tree(List.of(ortega, carrillo));
+
+    List<GeoKdTree.Neighbor<Place>> neighbors = tree.nearest(34.4110, -119.8473, 5, p -> true);
+    assertEquals(List.of("ortega", "carrillo"), names(neighbors));
+    assertEquals(0, neighbors.get(0).distanceMeters(), 1e-6);
+    assertEquals(GeoKdTree.distanceMeters(34.4110, -119.8473, 34.4096, -119.8525),
+        neighbors.get(1).distanceMeters(), 1e-6);
+
+    assertEquals(List.of(), tree.nearest(34.4110, -119.8473, 0, p -> true));
+    assertEquals(List.of(), tree(List.of()).nearest(0, 0, 3, p -> true));
+  }
+
+  @Test
+  void test_within_matches_brute_force() {
+    Random random = new Random(4);
+    List<Place> places = randomPlaces(random, 500, 90, 0, 180);
+    GeoKdTree<Place> tree = tree(places);
+
+    Predicate<Place> even = p -> Integer.parseInt(p.name().substring(1)) % 2 == 0;
+    for (int i = 0; i < 100; i++) {
+      double minLatitude = (random.nextDouble() * 2 - 1) * 90;
+      double maxLatitude = minLatitude + random.nextDouble() * 60;
+      double minLongitude = (random.nextDouble() * 2 - 1) * 180;
+      double maxLongitude = (random.nextDouble() * 2 - 1) * 180;
+      boolean crossesAntimeridian = minLongitude > maxLongitude;
+      Predicate<Place> inBox = p -> p.latitude() >= minLatitude && p.latitude() <= maxLatitude
+          && (crossesAntimeridian
+              ? p.longitude() >= minLongitude || p.longitude() <= maxLongitude
+              : p.longitude() >= minLongitude && p.longitude() <= maxLongitude);
+
+      assertEquals(places.stream().filter(inBox.and(even)).map(Place::name).sorted().toList(),
+          tree.within(minLatitude, maxLatitude, minLongitude, maxLongitude, even).stream()
+              .map(Place::name).sorted().toList());
+    }
+  }
+}
@@ -0,0 +1,172 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import edu.ucsb.cs156.example.entities.HelpRequest;
+import edu.ucsb.cs156.example.models.HelpRequestView;
+import edu.ucsb.cs156.example.repositories.HelpRequestRepository;
+import edu.ucsb.cs156.example.services.wiremock.WiremockService;
+
+@DataJpaTest
+@ActiveProfiles("integration")
+@Import(HelpRequestQueueService.class)
+class HelpRequestQueueServiceTests {
+
+  @MockBean
+  WiremockService wiremockService;
+
+  @MockBean
+  ChangeEventBroadcaster changeEventBroadcaster;
+
+  @Autowired
+  HelpRequestRepository helpRequestRepository;
+
+  @Autowired
+  HelpRequestQueueService helpRequestQueueService;
+
+  private HelpRequest save(String teamId, String room, String requestTime, boolean solved) {
+    return helpRequestRepository.save(HelpRequest.builder()
+        .requesterEmail("cgaucho@ucsb.edu")
+        .teamId(teamId)
+        .tableOrBreakoutRoom(room)
+        .requestTime(LocalDateTime.parse(requestTime))
+        .explanation("tests fail")
+        .solved(solved)
+        .build());
+  }
+
+  private Optional<Long> claimNext(String teamId, String room, String claimedBy) {
+    return helpRequestQueueService.claimNext(teamId, room, claimedBy).map(HelpRequestView::id);
+  }
+
+  @Test
+  void test_claims_the_oldest_unsolved_request_once() {
+    HelpRequest later = save("s22-5pm-3", "7", "2022-01-03T10:00:00", false);
+    save("s22-5pm-3", "7", "2022-01-03T08:00:00", true);
+    HelpRequest older = save("s22-5pm-4", "8", "2022-01-03T09:00:00", false);
+
+    HelpRequestView claimed = helpRequestQueueService.claimNext(null, null, "ta1@ucsb.edu").get();
+    assertEquals(older.getId(), claimed.id());
+    assertEquals("ta1@ucsb.edu", claimed.claimedBy());
+    assertNotNull(claimed.claimedAt());
+    verify(changeEventBroadcaster).publish(HelpRequest.class, ChangeEventBroadcaster.UPDATED, older.getId(), claimed);
+
+    assertEquals(Optional.of(later.getId()), claimNext(null, null, "ta2@ucsb.edu"));
+    assertEquals(Optional.empty(), claimNext(null, null, "ta3@ucsb.edu"));
+    assertEquals("ta2@ucsb.edu", helpRequestRepository.findViewById(later.getId()).get().claimedBy());
+  }
+
+  @Test
+  void test_claims_only_from_the_given_team_and_room() {
+    HelpRequest team3room7 = save("s22-5pm-3", "7", "2022-01-03T10:00:00", false);
+    HelpRequest team3room8 = save("s22-5pm-3", "8", "2022-01-03T11:00:00", false);
+    HelpRequest team4 = save("s22-5pm-4", "7", "2022-01-03T09:00:00", false);
+
+    assertEquals(Optional.of(team3room8.getId()), claimNext("s22-5pm-3", "8", "ta1@ucsb.edu"));
+    assertEquals(Optional.of(team3room7.getId()), claimNext("s22-5pm-3", null, "ta1@ucsb.edu"));
+    assertEquals(Optional.empty(), claimNext("s22-5pm-3", null, "ta1@ucsb.edu"));
+    assertEquals(Optional.of(team4.getId()), claimNext(null, "7", "ta1@ucsb.edu"));
+  }
+
+  @Test
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  void test_concurrent_claims_never_claim_a_request_twice() throws Exception {
+    try {
+      List<Long> ids = new ArrayList<>();
+      for (int i = 0; i < 40; i++) {
+        ids.add(save("s22-5pm-3", "7", "2022-01-03T10:00:00", false).getId());
+      }
+
+      ExecutorService executor = Executors.newFixedThreadPool(8);
+      List<Future<List<Long>>> results = new ArrayList<>();
+      for (int ta = 0; ta < 8; ta++) {
+        String email = "ta" + ta + "@ucsb.edu";
+        Callable<List<Long>> claimAll = () -> {
+          List<Long> claimed = new ArrayList<>();
+          for (Optional<Long> id = claimNext(null, null, email); id.isPresent(); id = claimNext(null, null, email)) {
+            claimed.add(id.get());
+          }
+          return claimed;
+        };
+        results.add(executor.submit(claimAll));
+      }
+      List<Long> claimed = new ArrayList<>();
+      for (Future<List<Long>> result : results) {
+        claimed.addAll(result.get());
+      }
+      executor.shutdown();
+
+      assertEquals(ids.size(), claimed.size());
+      assertEquals(new HashSet<>(ids), new HashSet<>(claimed));
+    } finally {
+      helpRequestRepository.deleteAll();
+    }
+  }
+
+  @Test
+  void test_claims_the_next_candidate_when_another_ta_got_there_first() {
+    HelpRequestRepository repository = mock(HelpRequestRepository.class);
+    HelpRequestQueueService service = new HelpRequestQueueService();
+    service.helpRequestRepository = repository;
+    service.changeEventBroadcaster = mock(ChangeEventBroadcaster.class);
+    service.postgres = false;
+    HelpRequestView view = new HelpRequestView(3, "cgaucho@ucsb.edu", "s22-5pm-3", "7",
+        LocalDateTime.parse("2022-01-03T10:00:00"), "tests fail", false, "ta1@ucsb.edu", LocalDateTime.parse("2022-01-03T10:05:00"));
+    when(repository.findClaimableIds(null, null, Limit.of(HelpRequestQueueService.CANDIDATES)))
+        .thenReturn(List.of(1L, 2L), List.of(3L));
+    when(repository.claim(eq(3L), eq("ta1@ucsb.edu"), any())).thenReturn(1);
+    when(repository.findViewById(3L)).thenReturn(Optional.of(view));
+
+    assertEquals(Optional.of(view), service.claimNext(null, null, "ta1@ucsb.edu"));
+    verify(repository).claim(eq(1L), eq("ta1@ucsb.edu"), any());
+    verify(repository).claim(eq(2L), eq("ta1@ucsb.edu"), any());
+  }
+
+  @Test
+  void test_claim_on_postgres_skips_locked_rows() {
+    HelpRequestRepository repository = mock(HelpRequestRepository.class);
+    HelpRequestQueueService service = new HelpRequestQueueService();
+    service.helpRequestRepository = repository;
+    service.changeEventBroadcaster = mock(ChangeEventBroadcaster.class);
+    service.postgres = true;
+    HelpRequestView view = new HelpRequestView(5, "cgaucho@ucsb.edu", "s22-5pm-3", "7",
+        LocalDateTime.parse("2022-01-03T10:00:00"), "tests fail", false, "ta1@ucsb.edu", LocalDateTime.parse("2022-01-03T10:05:00"));
+    when(repository.lockNextClaimableId("s22-5pm-3", "7")).thenReturn(List.of(5L), List.of(6L), List.of());
+    when(repository.claim(eq(5L), eq("ta1@ucsb.edu"), any())).thenReturn(1);
+    when(repository.findViewById(5L)).thenReturn(Optional.of(view));
+
+    assertEquals(Optional.of(view), service.claimNext("s22-5pm-3", "7", "ta1@ucsb.edu"));
+    // claim() is conditional; a row it did not update is not returned
+    assertEquals(Optional.empty(), service.claimNext("s22-5pm-3", "7", "ta1@ucsb.edu"));
+    assertEquals(Optional.empty(), service.claimNext("s22-5pm-3", "7", "ta1@ucsb.edu"));
+    verify(repository, never()).findClaimableIds(any(), any(), any());
+    verify(repository, never()).findViewById(6L);
+  }
+}
@@ -0,0 +1,127 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.data.domain.Sort;
+
+import edu.ucsb.cs156.example.entities.HelpRequest;
+import edu.ucsb.cs156.example.models.HelpRequestView;
+import edu.ucsb.cs156.example.repositories.HelpRequestRepository;
+import edu.ucsb.cs156.example.errors.UnknownFieldException;
+
+import jakarta.persistence.EntityManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@DataJpaTest
+@ActiveProfiles("integration")
+@Import(HelpRequestReadService.class)
+class HelpRequestReadServiceTests {
+
+  @Autowired
+  HelpRequestRepository helpRequestRepository;
+
+  @Autowired
+  EntityManager entityManager;
+
+  @SpyBean
+  SparseFieldsetService sparseFieldsetService;
+
+  @MockBean
+  ChangeFeedService changeFeedService;
+
+  @Autowired
+  HelpRequestReadService helpRequestReadService;
+
+  private HelpRequest swagger;
+  private HelpRequest dokku;
+  private HelpRequest mergeConflict;
+
+  private HelpRequest save(String requesterEmail, String teamId, String tableOrBreakoutRoom,
+      String requestTime, String explanation, boolean solved) {
+    return helpRequestRepository.save(HelpRequest.builder()
+        .requesterEmail(requesterEmail)
+        .teamId(teamId)
+        .tableOrBreakoutRoom(tableOrBreakoutRoom)
+        .requestTime(LocalDateTime.parse(requestTime))
+        .explanation(explanation)
+        .solved(solved)
+        .build());
+  }
+
+  private static List<HelpRequestView> views(HelpRequest... helpRequests) {
+    return List.of(helpRequests).stream().map(HelpRequestView::from).toList();
+  }
+
+  @BeforeEach
+  void setup() {
+    swagger = save("cgaucho@ucsb.edu", "s22-5pm-3", "7", "2022-04-20T17:35:00", "Need help with Swagger-ui", false);
+    dokku = save("ldelplaya@ucsb.edu", "s22-6pm-4", "11", "2022-04-21T18:10:00", "Dokku problems", true);
+    mergeConflict = save("pdg@ucsb.edu", "s22-5pm-3", "Breakout room 3", "2022-04-19T17:05:00", "Merge conflict", true);
+    entityManager.flush();
+  }
+
+  @Test
+  void test_findAll_without_filters_or_sort_returns_views_from_repository() {
+    assertEquals(Set.copyOf(views(swagger, dokku, mergeConflict)),
+        Set.copyOf(helpRequestReadService.findAll(null, null, Sort.unsorted())));
+    verify(sparseFieldsetService, never()).findAll(eq(HelpRequest.class), eq(HelpRequestView.class), any(), any());
+  }
+
+  @Test
+  void test_findAll_filtered_by_solved() {
+    assertEquals(views(swagger), helpRequestReadService.findAll(false, null, Sort.by("id")));
+    assertEquals(views(dokku, mergeConflict), helpRequestReadService.findAll(true, null, Sort.by("id")));
+  }
+
+  @Test
+  void test_findAll_filtered_by_teamId() {
+    assertEquals(views(swagger, mergeConflict), helpRequestReadService.findAll(null, "s22-5pm-3", Sort.by("id")));
+    assertEquals(List.of(), helpRequestReadService.findAll(null, "s22-7pm-1", Sort.by("id")));
+  }
+
+  @Test
+  void test_findAll_filtered_by_solved_and_teamId() {
+    assertEquals(views(mergeConflict), helpRequestReadService.findAll(true, "s22-5pm-3", Sort.unsorted()));
+  }
+
+  @Test
+  void test_findAll_sorted_by_requestTime() {
+    assertEquals(views(mergeConflict, swagger, dokku), helpRequestReadService.findAll(null, null, Sort.by("requestTime")));
+    assertEquals(views(dokku, swagger, mergeConflict),
+        helpRequestReadService.findAll(null, null, Sort.by(Sort.Direction.DESC, "requestTime")));
+  }
+
+  @Test
+  void test_findAll_sorted_by_unindexed_field_throws() {
+    UnknownFieldException e = assertThrows(UnknownFieldException.class,
+        () -> helpRequestReadService.findAll(null, null, Sort.by("explanation")));
+    assertEquals("HelpRequest cannot be sorted by explanation", e.getMessage());
+  }
+
+  @Test
+  void test_findAll_with_fields_filters_and_sorts() {
+    List<Map<String, Object>> rows = helpRequestReadService.findAll(true, null,
+        Sort.by(Sort.Direction.DESC, "requestTime"), List.of("teamId", "requestTime"));
+
+    assertEquals(List.of(
+        Map.of("teamId", "s22-6pm-4", "requestTime", dokku.getRequestTime()),
+        Map.of("teamId", "s22-5pm-3", "requestTime", mergeConflict.getRequestTime())), rows);
+  }
+}
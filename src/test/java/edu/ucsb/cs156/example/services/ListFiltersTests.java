@@ -0,0 +1,41 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import edu.ucsb.cs156.example.entities.HelpRequest;
+import edu.ucsb.cs156.example.errors.UnknownFieldException;
+
+import java.util.Set;
+
+class ListFiltersTests {
+
+  @Test
+  void test_equalTo_with_null_value_is_no_filter() {
+    assertNull(ListFilters.<HelpRequest>equalTo("teamId", null));
+  }
+
+  @Test
+  void test_equalTo_with_value_is_a_filter() {
+    assertNotNull(ListFilters.<HelpRequest>equalTo("teamId", "s22-5pm-3"));
+  }
+
+  @Test
+  void test_restrictTo_allows_sortable_fields() {
+    Sort sort = Sort.by("requestTime").and(Sort.by(Sort.Direction.DESC, "id"));
+
+    assertEquals(sort, ListFilters.restrictTo(HelpRequest.class, sort, Set.of("id", "requestTime")));
+  }
+
+  @Test
+  void test_restrictTo_rejects_other_fields() {
+    UnknownFieldException e = assertThrows(UnknownFieldException.class,
+        () -> ListFilters.restrictTo(HelpRequest.class, Sort.by("id", "explanation"), Set.of("id")));
+    assertEquals("HelpRequest cannot be sorted by explanation", e.getMessage());
+  }
+}
@@ -0,0 +1,63 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class PostingsListTests {
+
+  private static List<Integer> read(PostingsList list) {
+    List<Integer> ids = new ArrayList<>();
+    PostingsList.Cursor cursor = list.cursor();
+    for (int id = cursor.next(); id != -1; id = cursor.next()) {
+      ids.add(id);
+    }
+    return ids;
+  }
+
+  @Test
+  void test_ids_come_back_in_order() {
+    PostingsList list = new PostingsList();
+    List<Integer> ids = List.of(0, 1, 5, 127, 128, 300, 20_000, 3_000_000, Integer.MAX_VALUE);
+    ids.forEach(list::add);
+
+    assertEquals(ids, read(list));
+    assertEquals(ids.size(), list.size());
+  }
+
+  @Test
+  void test_small_gaps_take_one_byte_each() {
+    PostingsList list = new PostingsList();
+    for (int id = 0; id < 1000; id += 3) {
+      list.add(id);
+    }
+    assertEquals(334, list.size());
+    assertEquals(334, list.encodedLength());
+  }
+
+  @Test
+  void test_ids_must_increase() {
+    PostingsList list = new PostingsList();
+    list.add(5);
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> list.add(5));
+    assertEquals("Postings must be added in increasing order: 5 after 5", e.getMessage());
+  }
+
+  @Test
+  void test_advance_to_skips_to_the_first_id_at_least_the_target() {
+    PostingsList list = new PostingsList();
+    List.of(2, 4, 8, 16).forEach(list::add);
+    PostingsList.Cursor cursor = list.cursor();
+
+    assertEquals(4, cursor.advanceTo(3));
+    assertEquals(4, cursor.advanceTo(4));
+    assertEquals(4, cursor.advanceTo(1));
+    assertEquals(16, cursor.advanceTo(9));
+    assertEquals(-1, cursor.advanceTo(17));
+    assertEquals(-1, new PostingsList().cursor().next());
+  }
+}
@@ -0,0 +1,85 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class PrefixTrieTests {
+
+  private record Item(String name, int popularity) {
+  }
+
+  private static final Comparator<Item> BY_POPULARITY = Comparator.comparingInt(Item::popularity).reversed()
+      .thenComparing(Item::name);
+
+  private final List<Item> items = List.of(
+      new Item("Tacos", 5),
+      new Item("Tamales", 9),
+      new Item("Tater Tots", 1),
+      new Item("Pasta", 3));
+
+  private final PrefixTrie<Item> trie = new PrefixTrie<>(items, item -> List.of(item.name()), BY_POPULARITY, 3);
+
+  private static List<String> names(List<Item> found) {
+    return found.stream().map(Item::name).toList();
+  }
+
+  @Test
+  void test_top_returns_the_best_matches_first() {
+    assertEquals(List.of("Tamales", "Tacos", "Tater Tots"), names(trie.top("t", 3)));
+    assertEquals(List.of("Tamales", "Tacos"), names(trie.top("Ta", 2)));
+    assertEquals(List.of("Tacos"), names(trie.top("TAC", 3)));
+    assertEquals(List.of("Pasta"), names(trie.top("pasta", 3)));
+  }
+
+  @Test
+  void test_top_with_no_match_or_empty_prefix() {
+    assertEquals(List.of(), trie.top("taz", 3));
+    assertEquals(List.of(), trie.top("pastas", 3));
+    assertEquals(List.of("Tamales", "Tacos", "Pasta"), names(trie.top("", 3)));
+  }
+
+  @Test
+  void test_top_returns_at_most_max_k() {
+    assertEquals(3, trie.top("", 10).size());
+  }
+
+  @Test
+  void test_an_item_with_several_matching_keys_is_returned_once() {
+    PrefixTrie<Item> byWord = new PrefixTrie<>(List.of(new Item("Tater Tots", 1), new Item("Pasta", 3)),
+        item -> AutocompleteIndex.keys(item.name()), BY_POPULARITY, 3);
+    assertEquals(List.of("Tater Tots"), names(byWord.top("t", 3)));
+    assertEquals(List.of("Tater Tots"), names(byWord.top("tots", 3)));
+  }
+
+  @Test
+  void test_empty_trie() {
+    PrefixTrie<Item> empty = new PrefixTrie<>(List.of(), item -> List.of(item.name()), BY_POPULARITY, 3);
+    assertEquals(1, empty.nodeCount());
+    assertEquals(List.of(), empty.top("", 3));
+  }
+
+  @Test
+  void test_matches_brute_force_on_random_words() {
+    Random random = new Random(47);
+    List<Item> words = IntStream.range(0, 500)
+        .mapToObj(i -> new Item(random.ints(1 + random.nextInt(6), 'a', 'e')
+            .collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append).toString() + i,
+            random.nextInt(100)))
+        .toList();
+    PrefixTrie<Item> big = new PrefixTrie<>(words, item -> List.of(item.name()), BY_POPULARITY, 7);
+    for (String prefix : List.of("", "a", "ab", "bad", "c", "dd", "eee", "a1")) {
+      List<Item> expected = words.stream()
+          .filter(item -> item.name().startsWith(prefix))
+          .sorted(BY_POPULARITY)
+          .limit(7)
+          .toList();
+      assertEquals(expected, big.top(prefix, 7), prefix);
+    }
+  }
+}
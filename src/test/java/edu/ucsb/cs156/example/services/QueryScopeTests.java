@@ -0,0 +1,81 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class QueryScopeTests {
+
+  private final AtomicLong clock = new AtomicLong();
+
+  @Test
+  void test_remaining_seconds_round_up_and_never_drop_below_one() {
+    QueryScope scope = new QueryScope("Controller.method", Duration.ofSeconds(5), clock::get);
+    assertEquals("Controller.method", scope.getEndpoint());
+    assertEquals(5, scope.remainingSeconds());
+
+    clock.set(Duration.ofMillis(1500).toNanos());
+    assertEquals(4, scope.remainingSeconds());
+
+    clock.set(Duration.ofSeconds(9).toNanos());
+    assertEquals(1, scope.remainingSeconds());
+  }
+
+  @Test
+  void test_cancel_cancels_open_statements_only() throws Exception {
+    QueryScope scope = new QueryScope("Controller.method", Duration.ofSeconds(5), clock::get);
+    Statement open = mock(Statement.class);
+    Statement closed = mock(Statement.class);
+    Statement finished = mock(Statement.class);
+    doThrow(new SQLException("already closed")).when(finished).cancel();
+    scope.track(open);
+    scope.track(closed);
+    scope.track(finished);
+    scope.untrack(closed);
+    assertEquals(2, scope.size());
+    assertFalse(scope.isCancelled());
+
+    scope.cancel();
+
+    assertTrue(scope.isCancelled());
+    verify(open).cancel();
+    verify(finished).cancel();
+    verify(closed, never()).cancel();
+  }
+
+  @Test
+  void test_statements_opened_after_cancel_are_cancelled_at_once() throws Exception {
+    QueryScope scope = new QueryScope("Controller.method", Duration.ofSeconds(5));
+    scope.cancel();
+
+    Statement late = mock(Statement.class);
+    scope.track(late);
+
+    verify(late).cancel();
+  }
+
+  @Test
+  void test_scope_is_attached_to_the_current_thread() {
+    QueryScope scope = new QueryScope("Controller.method", Duration.ofSeconds(5));
+    assertNull(QueryScope.current());
+
+    scope.attach();
+    assertSame(scope, QueryScope.current());
+
+    QueryScope.detach();
+    assertNull(QueryScope.current());
+  }
+}
@@ -0,0 +1,60 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class RateLimiterTests {
+
+  private static final RateLimiter.Budget TWO_PER_SECOND = new RateLimiter.Budget(2, Duration.ofSeconds(1));
+
+  private final AtomicLong clock = new AtomicLong();
+
+  @Test
+  void test_each_key_has_its_own_bucket() {
+    RateLimiter limiter = new RateLimiter(10, clock::get);
+
+    assertEquals(Duration.ZERO, limiter.tryAcquire("a", TWO_PER_SECOND));
+    assertEquals(Duration.ZERO, limiter.tryAcquire("a", TWO_PER_SECOND));
+    assertEquals(Duration.ofMillis(500), limiter.tryAcquire("a", TWO_PER_SECOND));
+    assertEquals(Duration.ZERO, limiter.tryAcquire("b", TWO_PER_SECOND));
+    assertEquals(2, limiter.size());
+  }
+
+  @Test
+  void test_full_buckets_are_dropped_when_the_limit_is_reached() {
+    RateLimiter limiter = new RateLimiter(2, clock::get);
+    limiter.tryAcquire("a", TWO_PER_SECOND);
+    limiter.tryAcquire("b", TWO_PER_SECOND);
+    limiter.tryAcquire("b", TWO_PER_SECOND);
+
+    clock.set(Duration.ofMillis(600).toNanos());
+    limiter.tryAcquire("c", TWO_PER_SECOND);
+
+    assertEquals(2, limiter.size());
+    assertEquals(Duration.ZERO, limiter.tryAcquire("b", TWO_PER_SECOND));
+    assertEquals(Duration.ofMillis(400), limiter.tryAcquire("b", TWO_PER_SECOND));
+  }
+
+  @Test
+  void test_active_buckets_are_dropped_when_every_key_is_active() {
+    RateLimiter limiter = new RateLimiter(4, clock::get);
+    for (String key : new String[] { "a", "b", "c", "d" }) {
+      limiter.tryAcquire(key, TWO_PER_SECOND);
+    }
+
+    limiter.tryAcquire("e", TWO_PER_SECOND);
+
+    assertEquals(4, limiter.size());
+  }
+
+  @Test
+  void test_default_clock() {
+    RateLimiter limiter = new RateLimiter(10);
+
+    assertEquals(Duration.ZERO, limiter.tryAcquire("a", TWO_PER_SECOND));
+  }
+}
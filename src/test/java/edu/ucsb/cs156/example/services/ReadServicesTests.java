@@ -0,0 +1,359 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.data.domain.Sort;
+
+import edu.ucsb.cs156.example.entities.Articles;
+import edu.ucsb.cs156.example.entities.HelpRequest;
+import edu.ucsb.cs156.example.entities.MenuItemReview;
+import edu.ucsb.cs156.example.entities.RecommendationRequest;
+import edu.ucsb.cs156.example.entities.Restaurant;
+import edu.ucsb.cs156.example.entities.UCSBDate;
+import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
+import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
+import edu.ucsb.cs156.example.entities.UCSBOrganization;
+import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.models.ArticlesView;
+import edu.ucsb.cs156.example.models.Changes;
+import edu.ucsb.cs156.example.models.HelpRequestView;
+import edu.ucsb.cs156.example.models.MenuItemReviewView;
+import edu.ucsb.cs156.example.models.RecommendationRequestView;
+import edu.ucsb.cs156.example.models.RestaurantView;
+import edu.ucsb.cs156.example.models.UCSBDateView;
+import edu.ucsb.cs156.example.models.UCSBDiningCommonsMenuItemView;
+import edu.ucsb.cs156.example.models.UCSBDiningCommonsView;
+import edu.ucsb.cs156.example.models.UCSBOrganizationView;
+import edu.ucsb.cs156.example.repositories.ArticlesRepository;
+import edu.ucsb.cs156.example.repositories.HelpRequestRepository;
+import edu.ucsb.cs156.example.repositories.MenuItemReviewRepository;
+import edu.ucsb.cs156.example.repositories.RecommendationRequestRepository;
+import edu.ucsb.cs156.example.repositories.RestaurantRepository;
+import edu.ucsb.cs156.example.repositories.UCSBDateRepository;
+import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsMenuItemRepository;
+import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsRepository;
+import edu.ucsb.cs156.example.repositories.UCSBOrganizationRepository;
+
+import jakarta.persistence.EntityManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * The cases that every read service shares (the view queries, the sparse
+ * fieldsets and the change feed), run against each of them. The filters,
+ * sorts and other queries of a single service are tested in its own class,
+ * e.g. HelpRequestReadServiceTests.
+ */
+@DataJpaTest
+@ActiveProfiles("integration")
+@Import({ ArticlesReadService.class, HelpRequestReadService.class, MenuItemReviewReadService.class,
+    RecommendationRequestReadService.class, RestaurantReadService.class, UCSBDateReadService.class,
+    UCSBDiningCommonsMenuItemReadService.class, UCSBDiningCommonsReadService.class,
+    UCSBOrganizationReadService.class, SparseFieldsetService.class, CoalescedReads.class })
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReadServicesTests {
+
+  @Autowired
+  EntityManager entityManager;
+
+  @MockBean
+  ChangeFeedService changeFeedService;
+
+  @MockBean
+  AcademicCalendarIndex academicCalendarIndex;
+
+  @MockBean
+  DiningCommonsLocator diningCommonsLocator;
+
+  @Autowired
+  ArticlesRepository articlesRepository;
+
+  @Autowired
+  ArticlesReadService articlesReadService;
+
+  @Autowired
+  HelpRequestRepository helpRequestRepository;
+
+  @Autowired
+  HelpRequestReadService helpRequestReadService;
+
+  @Autowired
+  MenuItemReviewRepository menuItemReviewRepository;
+
+  @Autowired
+  MenuItemReviewReadService menuItemReviewReadService;
+
+  @Autowired
+  RecommendationRequestRepository recommendationRequestRepository;
+
+  @Autowired
+  RecommendationRequestReadService recommendationRequestReadService;
+
+  @Autowired
+  RestaurantRepository restaurantRepository;
+
+  @Autowired
+  RestaurantReadService restaurantReadService;
+
+  @Autowired
+  UCSBDateRepository ucsbDateRepository;
+
+  @Autowired
+  UCSBDateReadService ucsbDateReadService;
+
+  @Autowired
+  UCSBDiningCommonsMenuItemRepository ucsbDiningCommonsMenuItemRepository;
+
+  @Autowired
+  UCSBDiningCommonsMenuItemReadService ucsbDiningCommonsMenuItemReadService;
+
+  @Autowired
+  UCSBDiningCommonsRepository ucsbDiningCommonsRepository;
+
+  @Autowired
+  UCSBDiningCommonsReadService ucsbDiningCommonsReadService;
+
+  @Autowired
+  UCSBOrganizationRepository ucsbOrganizationRepository;
+
+  @Autowired
+  UCSBOrganizationReadService ucsbOrganizationReadService;
+
+  /**
+   * One read service, with an entity to save and some of that entity's fields.
+   *
+   * @param <E> the entity type
+   * @param <V> the view record type
+   * @param <I> the id type
+   */
+  record Case<E, V extends Record, I>(
+      Class<E> entityClass,
+      Class<V> viewClass,
+      Supplier<E> save,
+      Function<E, I> id,
+      Function<E, V> view,
+      I missingId,
+      Map<String, Object> fields,
+      Supplier<List<V>> findAll,
+      Function<I, V> findById,
+      Function<List<String>, List<Map<String, Object>>> findAllFields,
+      BiFunction<I, List<String>, Map<String, Object>> findByIdFields,
+      LongFunction<Changes<V>> changesSince) {
+
+    @Override
+    public String toString() {
+      return entityClass.getSimpleName();
+    }
+  }
+
+  Stream<Case<?, ?, ?>> readServices() {
+    return Stream.of(
+        new Case<>(Articles.class, ArticlesView.class,
+            () -> articlesRepository.save(Articles.builder()
+                .title("Using testing-playground with React Testing Library")
+                .url("https://dev.to/katieraby/using-testing-playground-with-react-testing-library-26j7")
+                .explanation("Helpful when we get to front end development")
+                .email("phtcon@ucsb.edu")
+                .dateAdded(LocalDateTime.parse("2022-04-20T00:00:00"))
+                .build()),
+            Articles::getId, ArticlesView::from, 0L,
+            Map.of("title", "Using testing-playground with React Testing Library", "email", "phtcon@ucsb.edu"),
+            articlesReadService::findAll, articlesReadService::findById,
+            articlesReadService::findAll, articlesReadService::findById, articlesReadService::changesSince),
+        new Case<>(HelpRequest.class, HelpRequestView.class,
+            () -> helpRequestRepository.save(HelpRequest.builder()
+                .requesterEmail("cgaucho@ucsb.edu")
+                .teamId("s22-5pm-3")
+                .tableOrBreakoutRoom("7")
+                .requestTime(LocalDateTime.parse("2022-04-20T17:35:00"))
+                .explanation("Need help with Swagger-ui")
+                .solved(false)
+                .build()),
+            HelpRequest::getId, HelpRequestView::from, 0L,
+            Map.of("teamId", "s22-5pm-3", "solved", false),
+            helpRequestReadService::findAll, helpRequestReadService::findById,
+            fields -> helpRequestReadService.findAll(null, null, Sort.unsorted(), fields),
+            helpRequestReadService::findById, helpRequestReadService::changesSince),
+        new Case<>(MenuItemReview.class, MenuItemReviewView.class,
+            () -> menuItemReviewRepository.save(MenuItemReview.builder()
+                .itemId(1L)
+                .reviewerEmail("dqiao@ucsb.edu")
+                .stars(5)
+                .dateReviewed(LocalDateTime.parse("2022-04-20T12:00:00"))
+                .comments("fire")
+                .build()),
+            MenuItemReview::getId, MenuItemReviewView::from, 0L,
+            Map.of("reviewerEmail", "dqiao@ucsb.edu", "stars", 5),
+            menuItemReviewReadService::findAll, menuItemReviewReadService::findById,
+            menuItemReviewReadService::findAll, menuItemReviewReadService::findById,
+            menuItemReviewReadService::changesSince),
+        new Case<>(RecommendationRequest.class, RecommendationRequestView.class,
+            () -> recommendationRequestRepository.save(RecommendationRequest.builder()
+                .requesterEmail("stevenjiang@ucsb.edu")
+                .professorEmail("sra@ucsb.edu")
+                .explanation("masters")
+                .dateRequested(LocalDateTime.parse("2022-04-20T00:00:00"))
+                .dateNeeded(LocalDateTime.parse("2022-05-01T00:00:00"))
+                .done(false)
+                .build()),
+            RecommendationRequest::getId, RecommendationRequestView::from, 0L,
+            Map.of("professorEmail", "sra@ucsb.edu", "done", false),
+            recommendationRequestReadService::findAll, recommendationRequestReadService::findById,
+            fields -> recommendationRequestReadService.findAll(null, null, Sort.unsorted(), fields),
+            recommendationRequestReadService::findById, recommendationRequestReadService::changesSince),
+        new Case<>(Restaurant.class, RestaurantView.class,
+            () -> restaurantRepository.save(Restaurant.builder()
+                .name("Taco Bell")
+                .description("Mexican")
+                .build()),
+            Restaurant::getId, RestaurantView::from, 0L,
+            Map.of("name", "Taco Bell"),
+            restaurantReadService::findAll, restaurantReadService::findById,
+            restaurantReadService::findAll, restaurantReadService::findById, restaurantReadService::changesSince),
+        new Case<>(UCSBDate.class, UCSBDateView.class,
+            () -> ucsbDateRepository.save(UCSBDate.builder()
+                .quarterYYYYQ("20222")
+                .name("firstDayOfClasses")
+                .localDateTime(LocalDateTime.parse("2022-03-28T00:00:00"))
+                .build()),
+            UCSBDate::getId, UCSBDateView::from, 0L,
+            Map.of("quarterYYYYQ", "20222", "name", "firstDayOfClasses"),
+            ucsbDateReadService::findAll, ucsbDateReadService::findById,
+            fields -> ucsbDateReadService.findAll(null, Sort.unsorted(), fields),
+            ucsbDateReadService::findById, ucsbDateReadService::changesSince),
+        new Case<>(UCSBDiningCommonsMenuItem.class, UCSBDiningCommonsMenuItemView.class,
+            () -> ucsbDiningCommonsMenuItemRepository.save(UCSBDiningCommonsMenuItem.builder()
+                .diningCommonsCode("ortega")
+                .name("Baked Pesto Pasta with Chicken")
+                .station("Entree Specials")
+                .build()),
+            UCSBDiningCommonsMenuItem::getId, UCSBDiningCommonsMenuItemView::from, 0L,
+            Map.of("diningCommonsCode", "ortega", "station", "Entree Specials"),
+            ucsbDiningCommonsMenuItemReadService::findAll, ucsbDiningCommonsMenuItemReadService::findById,
+            fields -> ucsbDiningCommonsMenuItemReadService.findAll(null, null, Sort.unsorted(), fields),
+            ucsbDiningCommonsMenuItemReadService::findById, ucsbDiningCommonsMenuItemReadService::changesSince),
+        new Case<>(UCSBDiningCommons.class, UCSBDiningCommonsView.class,
+            () -> ucsbDiningCommonsRepository.save(UCSBDiningCommons.builder()
+                .code("carrillo")
+                .name("Carrillo")
+                .hasSackMeal(false)
+                .hasTakeOutMeal(false)
+                .hasDiningCam(true)
+                .latitude(34.409953)
+                .longitude(-119.85277)
+                .build()),
+            UCSBDiningCommons::getCode, UCSBDiningCommonsView::from, "missing",
+            Map.of("name", "Carrillo", "hasDiningCam", true),
+            ucsbDiningCommonsReadService::findAll, ucsbDiningCommonsReadService::findById,
+            ucsbDiningCommonsReadService::findAll, ucsbDiningCommonsReadService::findById,
+            ucsbDiningCommonsReadService::changesSince),
+        new Case<>(UCSBOrganization.class, UCSBOrganizationView.class,
+            () -> ucsbOrganizationRepository.save(UCSBOrganization.builder()
+                .orgCode("ZPR")
+                .orgTranslationShort("ZETA PHI RHO")
+                .orgTranslation("ZETA PHI RHO")
+                .inactive(false)
+                .build()),
+            UCSBOrganization::getOrgCode, UCSBOrganizationView::from, "missing",
+            Map.of("orgTranslationShort", "ZETA PHI RHO", "inactive", false),
+            ucsbOrganizationReadService::findAll, ucsbOrganizationReadService::findById,
+            fields -> ucsbOrganizationReadService.findAll(null, Sort.unsorted(), fields),
+            ucsbOrganizationReadService::findById, ucsbOrganizationReadService::changesSince));
+  }
+
+  private <E> E save(Case<E, ?, ?> readService) {
+    E entity = readService.save().get();
+    entityManager.flush();
+    return entity;
+  }
+
+  private static String notFound(Case<?, ?, ?> readService) {
+    return "%s with id %s not found".formatted(readService.entityClass().getSimpleName(), readService.missingId());
+  }
+
+  @ParameterizedTest
+  @MethodSource("readServices")
+  <E, V extends Record, I> void test_findAll_runs_the_view_query(Case<E, V, I> readService) {
+    E entity = save(readService);
+
+    assertEquals(List.of(readService.view().apply(entity)), readService.findAll().get());
+  }
+
+  @ParameterizedTest
+  @MethodSource("readServices")
+  <E, V extends Record, I> void test_findById_runs_the_view_query(Case<E, V, I> readService) {
+    E entity = save(readService);
+
+    assertEquals(readService.view().apply(entity), readService.findById().apply(readService.id().apply(entity)));
+  }
+
+  @ParameterizedTest
+  @MethodSource("readServices")
+  <E, V extends Record, I> void test_findById_throws_when_not_found(Case<E, V, I> readService) {
+    save(readService);
+
+    EntityNotFoundException e = assertThrows(EntityNotFoundException.class,
+        () -> readService.findById().apply(readService.missingId()));
+    assertEquals(notFound(readService), e.getMessage());
+  }
+
+  @ParameterizedTest
+  @MethodSource("readServices")
+  <E, V extends Record, I> void test_findAll_with_fields_returns_only_those_fields(Case<E, V, I> readService) {
+    save(readService);
+
+    List<String> fields = List.copyOf(readService.fields().keySet());
+    List<Map<String, Object>> rows = readService.findAllFields().apply(fields);
+
+    assertEquals(List.of(readService.fields()), rows);
+    assertEquals(fields, List.copyOf(rows.get(0).keySet()));
+  }
+
+  @ParameterizedTest
+  @MethodSource("readServices")
+  <E, V extends Record, I> void test_findById_with_fields_returns_row_when_found(Case<E, V, I> readService) {
+    E entity = save(readService);
+
+    List<String> fields = List.copyOf(readService.fields().keySet());
+    assertEquals(readService.fields(), readService.findByIdFields().apply(readService.id().apply(entity), fields));
+  }
+
+  @ParameterizedTest
+  @MethodSource("readServices")
+  <E, V extends Record, I> void test_findById_with_fields_throws_when_not_found(Case<E, V, I> readService) {
+    save(readService);
+
+    List<String> fields = List.copyOf(readService.fields().keySet());
+    EntityNotFoundException e = assertThrows(EntityNotFoundException.class,
+        () -> readService.findByIdFields().apply(readService.missingId(), fields));
+    assertEquals(notFound(readService), e.getMessage());
+  }
+
+  @ParameterizedTest
+  @MethodSource("readServices")
+  <E, V extends Record, I> void test_changesSince_delegates_to_change_feed_service(Case<E, V, I> readService) {
+    E entity = save(readService);
+
+    Changes<V> changes = new Changes<>(12L, List.of(readService.view().apply(entity)), List.of(readService.missingId()));
+    when(changeFeedService.changesSince(readService.entityClass(), readService.viewClass(), 5L)).thenReturn(changes);
+
+    assertEquals(changes, readService.changesSince().apply(5L));
+  }
+}
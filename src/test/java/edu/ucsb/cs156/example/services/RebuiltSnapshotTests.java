@@ -0,0 +1,145 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class RebuiltSnapshotTests {
+
+  private final AtomicInteger builds = new AtomicInteger();
+  private final List<Runnable> pending = new ArrayList<>();
+  private Supplier<String> builder = () -> "v" + builds.incrementAndGet();
+  private final RebuiltSnapshot<String> snapshot = new RebuiltSnapshot<>("test", () -> builder.get());
+
+  /** Builds the first snapshot on the test's thread, then queues the later builds in pending. */
+  private void buildFirstThenQueue() {
+    snapshot.executor = Runnable::run;
+    assertEquals("v1", snapshot.get());
+    snapshot.executor = pending::add;
+  }
+
+  private void runPending() {
+    List<Runnable> running = List.copyOf(pending);
+    pending.clear();
+    running.forEach(Runnable::run);
+  }
+
+  @Test
+  void test_nothing_is_built_until_the_first_lookup() {
+    snapshot.executor = pending::add;
+    snapshot.invalidateAfterCommit();
+    assertEquals(List.of(), pending);
+    assertEquals(0, builds.get());
+  }
+
+  @Test
+  void test_lookups_get_the_old_snapshot_while_one_rebuild_runs() {
+    buildFirstThenQueue();
+
+    snapshot.invalidateAfterCommit();
+    assertEquals("v1", snapshot.get());
+    assertEquals("v1", snapshot.get());
+    assertEquals(1, pending.size());
+
+    runPending();
+    assertEquals("v2", snapshot.get());
+    assertEquals(List.of(), pending);
+  }
+
+  @Test
+  void test_a_write_during_a_rebuild_causes_one_more() {
+    buildFirstThenQueue();
+    snapshot.invalidateAfterCommit();
+    builder = () -> {
+      snapshot.invalidateAfterCommit();
+      snapshot.invalidateAfterCommit();
+      return "v" + builds.incrementAndGet();
+    };
+
+    runPending();
+    assertEquals("v2", snapshot.get());
+    assertEquals(1, pending.size());
+  }
+
+  @Test
+  void test_writes_in_a_transaction_apply_after_commit() {
+    buildFirstThenQueue();
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      snapshot.invalidateAfterCommit();
+      assertEquals(List.of(), pending);
+
+      TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    assertEquals(1, pending.size());
+  }
+
+  @Test
+  void test_a_failed_first_build_is_thrown_and_retried_by_the_next_lookup() {
+    snapshot.executor = Runnable::run;
+    IllegalStateException down = new IllegalStateException("database is down");
+    builder = () -> {
+      throw down;
+    };
+    assertSame(down, assertThrows(IllegalStateException.class, snapshot::get));
+
+    builder = () -> "v" + builds.incrementAndGet();
+    assertEquals("v1", snapshot.get());
+  }
+
+  @Test
+  void test_a_failed_rebuild_keeps_the_old_snapshot_until_the_next_lookup_retries() {
+    buildFirstThenQueue();
+    snapshot.invalidateAfterCommit();
+    builder = () -> {
+      throw new IllegalStateException("database is down");
+    };
+    runPending();
+    assertEquals(List.of(), pending);
+
+    builder = () -> "v" + builds.incrementAndGet();
+    assertEquals("v1", snapshot.get());
+    runPending();
+    assertEquals("v2", snapshot.get());
+  }
+
+  @Test
+  void test_the_first_lookups_wait_for_a_build_on_another_thread() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    List<String> threads = new ArrayList<>();
+    builder = () -> {
+      threads.add(Thread.currentThread().getName());
+      started.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        throw new IllegalStateException(e);
+      }
+      return "v" + builds.incrementAndGet();
+    };
+
+    CompletableFuture<String> first = CompletableFuture.supplyAsync(snapshot::get);
+    CompletableFuture<String> second = CompletableFuture.supplyAsync(snapshot::get);
+    started.await(5, TimeUnit.SECONDS);
+    release.countDown();
+
+    assertEquals("v1", first.get(5, TimeUnit.SECONDS));
+    assertEquals("v1", second.get(5, TimeUnit.SECONDS));
+    assertEquals(List.of("test"), threads);
+  }
+}
@@ -0,0 +1,86 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+class RecentWritersTests {
+
+  private final AtomicLong clock = new AtomicLong();
+
+  @AfterEach
+  void cleanup() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  void test_a_writer_is_remembered_for_the_window() {
+    RecentWriters recentWriters = new RecentWriters(Duration.ofSeconds(5), 10, clock::get);
+    recentWriters.wrote("a");
+
+    clock.set(Duration.ofMillis(4999).toNanos());
+    assertTrue(recentWriters.wroteRecently("a"));
+    assertFalse(recentWriters.wroteRecently("b"));
+
+    clock.set(Duration.ofSeconds(5).toNanos());
+    assertFalse(recentWriters.wroteRecently("a"));
+  }
+
+  @Test
+  void test_nobody_is_never_a_writer() {
+    RecentWriters recentWriters = new RecentWriters(Duration.ofSeconds(5), 10, clock::get);
+    recentWriters.wrote(null);
+
+    assertFalse(recentWriters.wroteRecently(null));
+    assertEquals(0, recentWriters.size());
+  }
+
+  @Test
+  void test_expired_writers_are_forgotten_past_max_entries() {
+    RecentWriters recentWriters = new RecentWriters(Duration.ofSeconds(5), 2, clock::get);
+    recentWriters.wrote("a");
+    recentWriters.wrote("b");
+
+    clock.set(Duration.ofSeconds(3).toNanos());
+    recentWriters.wrote("c");
+    assertEquals(3, recentWriters.size());
+
+    clock.set(Duration.ofSeconds(6).toNanos());
+    recentWriters.wrote("d");
+    assertEquals(2, recentWriters.size());
+    assertTrue(recentWriters.wroteRecently("c"));
+    assertTrue(recentWriters.wroteRecently("d"));
+  }
+
+  @Test
+  void test_default_clock() {
+    RecentWriters recentWriters = new RecentWriters(Duration.ofMinutes(1), 10);
+    recentWriters.wrote("a");
+
+    assertTrue(recentWriters.wroteRecently("a"));
+  }
+
+  @Test
+  void test_the_current_principal_is_the_logged_in_user() {
+    assertNull(RecentWriters.currentPrincipal());
+
+    SecurityContextHolder.getContext().setAuthentication(new AnonymousAuthenticationToken("key", "anonymousUser",
+        List.of(new SimpleGrantedAuthority("ROLE_ANONYMOUS"))));
+    assertNull(RecentWriters.currentPrincipal());
+
+    SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("cgaucho@ucsb.edu", null));
+    assertEquals("cgaucho@ucsb.edu", RecentWriters.currentPrincipal());
+  }
+}
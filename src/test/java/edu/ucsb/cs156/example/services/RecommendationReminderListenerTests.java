@@ -0,0 +1,55 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import edu.ucsb.cs156.example.entities.RecommendationRequest;
+import edu.ucsb.cs156.example.repositories.RecommendationRequestRepository;
+import edu.ucsb.cs156.example.services.wiremock.WiremockService;
+
+import jakarta.persistence.EntityManager;
+
+@DataJpaTest
+@ActiveProfiles("integration")
+class RecommendationReminderListenerTests {
+
+  @MockBean
+  WiremockService wiremockService;
+
+  @MockBean
+  RecommendationReminders recommendationReminders;
+
+  @Autowired
+  RecommendationRequestRepository recommendationRequestRepository;
+
+  @Autowired
+  EntityManager entityManager;
+
+  @Test
+  void test_inserts_updates_and_deletes_are_passed_on() {
+    RecommendationRequest request = recommendationRequestRepository.save(RecommendationRequest.builder()
+        .requesterEmail("cgaucho@ucsb.edu")
+        .professorEmail("phtcon@ucsb.edu")
+        .dateNeeded(LocalDateTime.parse("2024-06-01T00:00:00"))
+        .build());
+    entityManager.flush();
+    verify(recommendationReminders).written(request);
+
+    request.setDone(true);
+    recommendationRequestRepository.save(request);
+    entityManager.flush();
+    verify(recommendationReminders, times(2)).written(request);
+
+    recommendationRequestRepository.delete(request);
+    entityManager.flush();
+    verify(recommendationReminders).removed(request);
+  }
+}
@@ -0,0 +1,257 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import edu.ucsb.cs156.example.entities.RecommendationReminder;
+import edu.ucsb.cs156.example.entities.RecommendationRequest;
+import edu.ucsb.cs156.example.repositories.RecommendationReminderRepository;
+import edu.ucsb.cs156.example.repositories.RecommendationRequestRepository;
+
+class RecommendationRemindersTests {
+
+  private static final LocalDateTime NOW = LocalDateTime.parse("2024-05-01T09:00:00");
+
+  private final RecommendationRequestRepository recommendationRequestRepository = mock(RecommendationRequestRepository.class);
+  private final RecommendationReminderRepository recommendationReminderRepository = mock(RecommendationReminderRepository.class);
+  private final List<Object> events = new ArrayList<>();
+  private final RecommendationReminders recommendationReminders = reminders();
+
+  private RecommendationReminders reminders() {
+    RecommendationReminders reminders = new RecommendationReminders();
+    reminders.recommendationRequestRepository = recommendationRequestRepository;
+    reminders.recommendationReminderRepository = recommendationReminderRepository;
+    reminders.applicationEventPublisher = events::add;
+    reminders.leadTime = Duration.ofDays(3);
+    reminders.tick = Duration.ofMinutes(1);
+    return reminders;
+  }
+
+  @BeforeEach
+  void setup() {
+    setTime(NOW);
+    when(recommendationRequestRepository.findPendingDeadlines(NOW))
+        .thenReturn(List.of(deadline(1, NOW.plusDays(5)), deadline(2, NOW.plusDays(4))));
+    when(recommendationReminderRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    recommendationReminders.load();
+  }
+
+  private void setTime(LocalDateTime time) {
+    recommendationReminders.clock = Clock.fixed(time.toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+  }
+
+  private void tickAt(LocalDateTime time) {
+    setTime(time);
+    recommendationReminders.tick();
+  }
+
+  private static RecommendationRequestRepository.Deadline deadline(long id, LocalDateTime dateNeeded) {
+    return new RecommendationRequestRepository.Deadline() {
+      @Override
+      public Long getId() {
+        return id;
+      }
+
+      @Override
+      public LocalDateTime getDateNeeded() {
+        return dateNeeded;
+      }
+    };
+  }
+
+  private static RecommendationRequest request(long id, LocalDateTime dateNeeded, boolean done) {
+    return RecommendationRequest.builder().id(id).dateNeeded(dateNeeded).done(done).build();
+  }
+
+  private List<RecommendationReminder> sentReminders() {
+    return events.stream().map(RecommendationReminder.class::cast).toList();
+  }
+
+  private List<Long> sent() {
+    return sentReminders().stream().map(RecommendationReminder::getRecommendationRequestId).toList();
+  }
+
+  @Test
+  void test_reminders_are_sent_the_lead_time_before_the_date_needed() {
+    assertEquals(2, recommendationReminders.size());
+
+    tickAt(NOW.plusDays(1).minusMinutes(1));
+    assertEquals(List.of(), sent());
+    tickAt(NOW.plusDays(1));
+    assertEquals(List.of(2L), sent());
+    tickAt(NOW.plusDays(2));
+    assertEquals(List.of(2L, 1L), sent());
+    assertEquals(0, recommendationReminders.size());
+
+    RecommendationReminder reminder = sentReminders().get(0);
+    assertEquals(NOW.plusDays(4), reminder.getDateNeeded());
+    assertEquals(NOW.plusDays(1), reminder.getFiredAt());
+    verify(recommendationReminderRepository).save(reminder);
+  }
+
+  @Test
+  void test_written_requests_are_scheduled_moved_and_cancelled() {
+    recommendationReminders.written(request(3, NOW.plusDays(10), false));
+    assertEquals(3, recommendationReminders.size());
+
+    recommendationReminders.written(request(1, NOW.plusDays(6), false));
+    recommendationReminders.written(request(2, NOW.plusDays(4), true));
+    recommendationReminders.written(request(3, NOW.minusDays(1), false));
+    recommendationReminders.written(request(4, null, false));
+    assertEquals(1, recommendationReminders.size());
+
+    tickAt(NOW.plusDays(2));
+    assertEquals(List.of(), sent());
+    tickAt(NOW.plusDays(3));
+    assertEquals(List.of(1L), sent());
+  }
+
+  @Test
+  void test_removed_requests_are_cancelled() {
+    recommendationReminders.removed(request(1, NOW.plusDays(5), false));
+    assertEquals(1, recommendationReminders.size());
+
+    tickAt(NOW.plusDays(5));
+    assertEquals(List.of(2L), sent());
+  }
+
+  @Test
+  void test_changes_in_a_transaction_apply_after_commit() {
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      recommendationReminders.removed(request(1, NOW.plusDays(5), false));
+      assertEquals(2, recommendationReminders.size());
+
+      TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    assertEquals(1, recommendationReminders.size());
+  }
+
+  @Test
+  void test_bulk_done_changes_cancel_and_reschedule() {
+    recommendationReminders.doneChanged(List.of(1L, 2L), true);
+    assertEquals(0, recommendationReminders.size());
+
+    when(recommendationRequestRepository.findPendingDeadlinesByIdIn(List.of(1L, 2L), NOW))
+        .thenReturn(List.of(deadline(1, NOW.plusDays(5))));
+    recommendationReminders.doneChanged(List.of(1L, 2L), false);
+    assertEquals(1, recommendationReminders.size());
+
+    tickAt(NOW.plusDays(5));
+    assertEquals(List.of(1L), sent());
+  }
+
+  @Test
+  void test_reminders_are_sent_once() {
+    when(recommendationReminderRepository.existsByRecommendationRequestIdAndDateNeeded(2, NOW.plusDays(4))).thenReturn(true);
+
+    tickAt(NOW.plusDays(3));
+    assertEquals(List.of(1L), sent());
+    verify(recommendationReminderRepository, times(1)).save(any());
+  }
+
+  @Test
+  void test_reminders_sent_by_another_instance_are_skipped() {
+    when(recommendationReminderRepository.save(any())).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+    tickAt(NOW.plusDays(1));
+    tickAt(NOW.plusDays(1).plusMinutes(1));
+    assertEquals(List.of(), sent());
+    assertEquals(1, recommendationReminders.size());
+    verify(recommendationReminderRepository, times(1)).save(any());
+  }
+
+  @Test
+  void test_failed_reminders_are_retried_on_the_next_tick() {
+    when(recommendationReminderRepository.save(any()))
+        .thenThrow(new IllegalStateException("database is down"))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+
+    tickAt(NOW.plusDays(1));
+    assertEquals(List.of(), sent());
+    assertEquals(2, recommendationReminders.size());
+
+    tickAt(NOW.plusDays(1).plusMinutes(1));
+    assertEquals(List.of(2L), sent());
+  }
+
+  @Test
+  void test_retries_do_not_replace_a_newer_timer() {
+    when(recommendationReminderRepository.save(any()))
+        .thenAnswer(invocation -> {
+          recommendationReminders.written(request(2, NOW.plusDays(10), false));
+          throw new IllegalStateException("database is down");
+        })
+        .thenAnswer(invocation -> invocation.getArgument(0));
+
+    tickAt(NOW.plusDays(1));
+    tickAt(NOW.plusDays(1).plusMinutes(1));
+    assertEquals(List.of(), sent());
+
+    tickAt(NOW.plusDays(7));
+    assertEquals(List.of(1L, 2L), sent());
+    assertEquals(NOW.plusDays(10), sentReminders().get(1).getDateNeeded());
+  }
+
+  @Test
+  void test_changes_made_while_loading_are_kept() {
+    when(recommendationRequestRepository.findPendingDeadlines(NOW)).thenAnswer(invocation -> {
+      recommendationReminders.removed(request(1, NOW.plusDays(5), false));
+      recommendationReminders.written(request(3, NOW.plusDays(7), false));
+      return List.of(deadline(1, NOW.plusDays(5)), deadline(2, NOW.plusDays(4)));
+    });
+    recommendationReminders.load();
+    assertEquals(2, recommendationReminders.size());
+
+    tickAt(NOW.plusDays(7));
+    assertEquals(List.of(2L, 3L), sent());
+  }
+
+  @Test
+  void test_nothing_is_scheduled_before_loading() {
+    RecommendationReminders unloaded = new RecommendationReminders();
+    unloaded.removed(request(1, NOW.plusDays(5), false));
+    assertEquals(0, unloaded.size());
+    unloaded.stop();
+  }
+
+  @Test
+  void test_the_ticker_sends_reminders_until_stopped() {
+    RecommendationReminders started = reminders();
+    started.applicationEventPublisher = mock(ApplicationEventPublisher.class);
+    started.tick = Duration.ofMillis(10);
+    started.clock = Clock.systemUTC();
+    LocalDateTime dateNeeded = LocalDateTime.now(started.clock).plusDays(3).plusNanos(50_000_000);
+    when(recommendationRequestRepository.findPendingDeadlines(any())).thenReturn(List.of(deadline(1, dateNeeded)));
+    RecommendationReminder reminder = RecommendationReminder.builder().recommendationRequestId(1).build();
+    when(recommendationReminderRepository.save(any())).thenReturn(reminder);
+
+    started.start();
+    try {
+      verify(started.applicationEventPublisher, timeout(5000)).publishEvent(reminder);
+    } finally {
+      started.stop();
+    }
+  }
+}
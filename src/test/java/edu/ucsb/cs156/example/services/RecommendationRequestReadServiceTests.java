@@ -0,0 +1,125 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.data.domain.Sort;
+
+import edu.ucsb.cs156.example.entities.RecommendationRequest;
+import edu.ucsb.cs156.example.models.RecommendationRequestView;
+import edu.ucsb.cs156.example.repositories.RecommendationRequestRepository;
+import edu.ucsb.cs156.example.errors.UnknownFieldException;
+
+import jakarta.persistence.EntityManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@DataJpaTest
+@ActiveProfiles("integration")
+@Import(RecommendationRequestReadService.class)
+class RecommendationRequestReadServiceTests {
+
+  @Autowired
+  RecommendationRequestRepository recommendationRequestRepository;
+
+  @Autowired
+  EntityManager entityManager;
+
+  @SpyBean
+  SparseFieldsetService sparseFieldsetService;
+
+  @MockBean
+  ChangeFeedService changeFeedService;
+
+  @Autowired
+  RecommendationRequestReadService recommendationRequestReadService;
+
+  private RecommendationRequest masters;
+  private RecommendationRequest scholarship;
+  private RecommendationRequest phd;
+
+  private RecommendationRequest save(String requesterEmail, String professorEmail, String explanation,
+      String dateRequested, String dateNeeded, boolean done) {
+    return recommendationRequestRepository.save(RecommendationRequest.builder()
+        .requesterEmail(requesterEmail)
+        .professorEmail(professorEmail)
+        .explanation(explanation)
+        .dateRequested(LocalDateTime.parse(dateRequested))
+        .dateNeeded(LocalDateTime.parse(dateNeeded))
+        .done(done)
+        .build());
+  }
+
+  private static List<RecommendationRequestView> views(RecommendationRequest... requests) {
+    return List.of(requests).stream().map(RecommendationRequestView::from).toList();
+  }
+
+  @BeforeEach
+  void setup() {
+    masters = save("stevenjiang@ucsb.edu", "sra@ucsb.edu", "masters", "2022-04-20T00:00:00", "2022-05-01T00:00:00", false);
+    scholarship = save("dqiao@ucsb.edu", "pconrad@ucsb.edu", "scholarship", "2022-04-21T00:00:00", "2022-04-30T00:00:00", true);
+    phd = save("cgaucho@ucsb.edu", "pconrad@ucsb.edu", "PhD program", "2022-04-22T00:00:00", "2022-06-15T00:00:00", false);
+    entityManager.flush();
+  }
+
+  @Test
+  void test_findAll_without_filters_or_sort_returns_views_from_repository() {
+    assertEquals(Set.copyOf(views(masters, scholarship, phd)),
+        Set.copyOf(recommendationRequestReadService.findAll(null, null, Sort.unsorted())));
+    verify(sparseFieldsetService, never()).findAll(eq(RecommendationRequest.class), eq(RecommendationRequestView.class), any(), any());
+  }
+
+  @Test
+  void test_findAll_filtered_by_done() {
+    assertEquals(views(masters, phd), recommendationRequestReadService.findAll(false, null, Sort.by("id")));
+    assertEquals(views(scholarship), recommendationRequestReadService.findAll(true, null, Sort.by("id")));
+  }
+
+  @Test
+  void test_findAll_filtered_by_professorEmail() {
+    assertEquals(views(scholarship, phd), recommendationRequestReadService.findAll(null, "pconrad@ucsb.edu", Sort.by("id")));
+    assertEquals(List.of(), recommendationRequestReadService.findAll(null, "phtcon@ucsb.edu", Sort.by("id")));
+  }
+
+  @Test
+  void test_findAll_filtered_by_done_and_professorEmail() {
+    assertEquals(views(phd), recommendationRequestReadService.findAll(false, "pconrad@ucsb.edu", Sort.unsorted()));
+  }
+
+  @Test
+  void test_findAll_sorted_by_dateNeeded() {
+    assertEquals(views(scholarship, masters, phd), recommendationRequestReadService.findAll(null, null, Sort.by("dateNeeded")));
+    assertEquals(views(phd, masters, scholarship),
+        recommendationRequestReadService.findAll(null, null, Sort.by(Sort.Direction.DESC, "dateNeeded")));
+  }
+
+  @Test
+  void test_findAll_sorted_by_unindexed_field_throws() {
+    UnknownFieldException e = assertThrows(UnknownFieldException.class,
+        () -> recommendationRequestReadService.findAll(null, null, Sort.by("explanation")));
+    assertEquals("RecommendationRequest cannot be sorted by explanation", e.getMessage());
+  }
+
+  @Test
+  void test_findAll_with_fields_filters_and_sorts() {
+    List<Map<String, Object>> rows = recommendationRequestReadService.findAll(null, "pconrad@ucsb.edu",
+        Sort.by(Sort.Direction.DESC, "dateNeeded"), List.of("requesterEmail"));
+
+    assertEquals(List.of(Map.of("requesterEmail", "cgaucho@ucsb.edu"), Map.of("requesterEmail", "dqiao@ucsb.edu")), rows);
+  }
+}
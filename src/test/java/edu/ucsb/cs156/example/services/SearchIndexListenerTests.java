@@ -0,0 +1,67 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import edu.ucsb.cs156.example.entities.Restaurant;
+import edu.ucsb.cs156.example.entities.User;
+import edu.ucsb.cs156.example.repositories.RestaurantRepository;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.wiremock.WiremockService;
+
+import jakarta.persistence.EntityManager;
+
+@DataJpaTest
+@ActiveProfiles("integration")
+@Import(SearchIndex.class)
+class SearchIndexListenerTests {
+
+  @MockBean
+  WiremockService wiremockService;
+
+  @SpyBean
+  SearchIndex searchIndex;
+
+  @Autowired
+  RestaurantRepository restaurantRepository;
+
+  @Autowired
+  UserRepository userRepository;
+
+  @Autowired
+  EntityManager entityManager;
+
+  @Test
+  void test_inserts_updates_and_deletes_are_reported() {
+    Restaurant freebirds = restaurantRepository.save(Restaurant.builder().name("Freebirds").description("Burritos").build());
+    entityManager.flush();
+    verify(searchIndex).written(freebirds);
+
+    freebirds.setDescription("World famous burritos");
+    restaurantRepository.save(freebirds);
+    entityManager.flush();
+    restaurantRepository.delete(freebirds);
+    entityManager.flush();
+
+    verify(searchIndex, times(2)).written(freebirds);
+    verify(searchIndex).removed(freebirds);
+  }
+
+  @Test
+  void test_other_entities_are_not_reported() {
+    userRepository.save(User.builder().email("cgaucho@ucsb.edu").givenName("Chris").familyName("Gaucho").build());
+    entityManager.flush();
+
+    verify(searchIndex, never()).written(any());
+  }
+}
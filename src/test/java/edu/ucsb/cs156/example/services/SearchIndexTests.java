@@ -0,0 +1,178 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import edu.ucsb.cs156.example.entities.Articles;
+import edu.ucsb.cs156.example.entities.Restaurant;
+import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
+import edu.ucsb.cs156.example.entities.UCSBOrganization;
+import edu.ucsb.cs156.example.models.ArticlesView;
+import edu.ucsb.cs156.example.models.RestaurantView;
+import edu.ucsb.cs156.example.models.SearchHit;
+import edu.ucsb.cs156.example.models.UCSBDiningCommonsMenuItemView;
+import edu.ucsb.cs156.example.models.UCSBOrganizationView;
+import edu.ucsb.cs156.example.repositories.ArticlesRepository;
+import edu.ucsb.cs156.example.repositories.RestaurantRepository;
+import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsMenuItemRepository;
+import edu.ucsb.cs156.example.repositories.UCSBOrganizationRepository;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = SearchIndex.class)
+class SearchIndexTests {
+
+  @MockBean
+  RestaurantRepository restaurantRepository;
+
+  @MockBean
+  UCSBOrganizationRepository ucsbOrganizationRepository;
+
+  @MockBean
+  UCSBDiningCommonsMenuItemRepository ucsbDiningCommonsMenuItemRepository;
+
+  @MockBean
+  ArticlesRepository articlesRepository;
+
+  @Autowired
+  SearchIndex searchIndex;
+
+  private final RestaurantView tacos = new RestaurantView(1, "Tacos Vallarta", "Mexican food in Isla Vista");
+  private final UCSBOrganizationView mexsa = new UCSBOrganizationView("MEXSA", "MEXSA", "Mexican Student Association", false);
+  private final UCSBDiningCommonsMenuItemView fishTacos = new UCSBDiningCommonsMenuItemView(2, "ortega", "Fish Tacos", "Entrees");
+  private final ArticlesView article = new ArticlesView(3, "Best tacos on campus", "https://example.org",
+      "Where to find Mexican food near UCSB", "cgaucho@ucsb.edu", LocalDateTime.parse("2024-01-08T00:00:00"));
+
+  @BeforeEach
+  void setup() {
+    when(restaurantRepository.findAllViews()).thenReturn(List.of(tacos));
+    when(ucsbOrganizationRepository.findAllViews()).thenReturn(List.of(mexsa));
+    when(ucsbDiningCommonsMenuItemRepository.findAllViews()).thenReturn(List.of(fishTacos));
+    when(articlesRepository.findAllViews()).thenReturn(List.of(article));
+    searchIndex.rebuild();
+  }
+
+  private static List<String> keys(List<SearchHit> hits) {
+    return hits.stream().map(hit -> hit.type() + ":" + hit.id()).toList();
+  }
+
+  @Test
+  void test_rebuild_indexes_every_type() {
+    assertEquals(4, searchIndex.size());
+    assertEquals(List.of("menuItem:2", "restaurant:1", "article:3"), keys(searchIndex.search("Tacos", 10)));
+    assertEquals(List.of("organization:MEXSA", "restaurant:1", "article:3"), keys(searchIndex.search("mexican", 10)));
+  }
+
+  @Test
+  void test_hits_have_titles_and_scores() {
+    // both words in the title, and only two words in all
+    assertEquals(new SearchHit(SearchIndex.MENU_ITEM, "2", "Fish Tacos", 4 / Math.sqrt(2)),
+        searchIndex.search("fish tacos", 10).get(0));
+  }
+
+  @Test
+  void test_every_word_must_match() {
+    assertEquals(List.of("restaurant:1", "article:3"), keys(searchIndex.search("mexican FOOD", 10)));
+    assertEquals(List.of("article:3"), keys(searchIndex.search("tacos, food; campus!", 10)));
+    assertEquals(List.of(), keys(searchIndex.search("tacos pizza", 10)));
+    assertEquals(List.of(), keys(searchIndex.search("pizza tacos", 10)));
+    assertEquals(List.of(), keys(searchIndex.search("fish vista", 10)));
+    assertEquals(List.of("restaurant:1", "article:3"), keys(searchIndex.search("mexican tacos", 10)));
+  }
+
+  @Test
+  void test_limit_and_empty_searches() {
+    assertEquals(List.of("menuItem:2"), keys(searchIndex.search("tacos", 1)));
+    assertEquals(List.of(), searchIndex.search("tacos", 0));
+    assertEquals(List.of(), searchIndex.search(" ?! ", 10));
+    assertEquals(List.of(), searchIndex.search(null, 10));
+  }
+
+  @Test
+  void test_writes_outside_a_transaction_apply_at_once() {
+    Restaurant restaurant = Restaurant.builder().id(1).name("Freebirds").description("Burritos").build();
+    searchIndex.written(restaurant);
+    assertEquals(List.of("menuItem:2", "article:3"), keys(searchIndex.search("tacos", 10)));
+    assertEquals(List.of("restaurant:1"), keys(searchIndex.search("burritos", 10)));
+    assertEquals(4, searchIndex.size());
+
+    searchIndex.written(UCSBOrganization.builder().orgCode("ZBT").orgTranslation("Zeta Beta Tau").build());
+    searchIndex.written(UCSBDiningCommonsMenuItem.builder().id(9).name("Bean Burritos").build());
+    searchIndex.written(Articles.builder().id(10).title("Burritos").build());
+    assertEquals(List.of("article:10", "menuItem:9", "restaurant:1"), keys(searchIndex.search("burritos", 10)));
+    assertEquals(List.of("organization:ZBT"), keys(searchIndex.search("zeta", 10)));
+
+    searchIndex.removed(restaurant);
+    searchIndex.removed(Articles.builder().id(42).build());
+    assertEquals(List.of("article:10", "menuItem:9"), keys(searchIndex.search("burritos", 10)));
+    assertEquals(6, searchIndex.size());
+  }
+
+  @Test
+  void test_writes_in_a_transaction_apply_after_commit() {
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      searchIndex.removed(Restaurant.builder().id(1).build());
+      assertEquals(List.of("menuItem:2", "restaurant:1", "article:3"), keys(searchIndex.search("tacos", 10)));
+
+      TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    assertEquals(List.of("menuItem:2", "article:3"), keys(searchIndex.search("tacos", 10)));
+  }
+
+  @Test
+  void test_deleted_documents_are_compacted_away() {
+    for (int round = 0; round < 3; round++) {
+      for (int id = 100; id < 100 + SearchIndex.MIN_DELETED_BEFORE_COMPACTING; id++) {
+        searchIndex.written(new RestaurantView(id, "Pizza " + round, "Round " + round));
+      }
+    }
+    assertEquals(4 + SearchIndex.MIN_DELETED_BEFORE_COMPACTING, searchIndex.size());
+    assertEquals(SearchIndex.MIN_DELETED_BEFORE_COMPACTING, searchIndex.search("pizza 2", 1000).size());
+    assertEquals(List.of(), searchIndex.search("pizza 0", 1000));
+    assertEquals(List.of("menuItem:2", "restaurant:1", "article:3"), keys(searchIndex.search("tacos", 10)));
+  }
+
+  @Test
+  void test_changes_made_during_a_rebuild_are_kept() {
+    when(articlesRepository.findAllViews()).thenAnswer(invocation -> {
+      // committed after the restaurants were read
+      searchIndex.written(new RestaurantView(1, "Freebirds", "Burritos"));
+      searchIndex.removed(Articles.builder().id(3).build());
+      return List.of(article);
+    });
+    searchIndex.rebuild();
+
+    assertEquals(List.of("menuItem:2"), keys(searchIndex.search("tacos", 10)));
+    assertEquals(List.of("restaurant:1"), keys(searchIndex.search("burritos", 10)));
+    assertEquals(3, searchIndex.size());
+  }
+
+  @Test
+  void test_only_the_indexed_entities_are_searchable() {
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> searchIndex.written("tacos"));
+    assertEquals("Not searchable: java.lang.String", e.getMessage());
+  }
+
+  @Test
+  void test_words_are_lower_case_and_distinct() {
+    assertEquals(Set.of("fish", "tacos"), SearchIndex.words("(Fish) TACOS, fish!"));
+    assertEquals(Set.of(), SearchIndex.words(null));
+  }
+}
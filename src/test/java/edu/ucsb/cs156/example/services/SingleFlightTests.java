@@ -0,0 +1,181 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+class SingleFlightTests {
+
+  private final SingleFlight<String, List<String>> singleFlight = new SingleFlight<>();
+  private final AtomicInteger loads = new AtomicInteger();
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  @AfterEach
+  void cleanup() {
+    release.countDown();
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  /** A load that blocks until the test releases it. */
+  private Supplier<List<String>> blockingLoad(Supplier<List<String>> result) {
+    return () -> {
+      loads.incrementAndGet();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return result.get();
+    };
+  }
+
+  /** Starts a thread that calls load and waits until it is either loading or waiting for another load. */
+  private Thread loadInBackground(Supplier<List<String>> loader, AtomicReference<Object> outcome) throws InterruptedException {
+    int loadsBefore = loads.get();
+    Thread thread = new Thread(() -> {
+      try {
+        outcome.set(singleFlight.load("all", loader));
+      } catch (RuntimeException | Error e) {
+        outcome.set(e);
+      }
+    });
+    thread.start();
+    while (loads.get() == loadsBefore && thread.getState() != Thread.State.WAITING) {
+      Thread.sleep(1);
+    }
+    return thread;
+  }
+
+  @Test
+  void test_sequential_loads_are_not_cached() {
+    assertEquals(List.of("a"), singleFlight.load("all", () -> List.of("a")));
+    assertEquals(List.of("b"), singleFlight.load("all", () -> List.of("b")));
+  }
+
+  @Test
+  void test_concurrent_identical_loads_share_one_result() throws Exception {
+    List<String> result = List.of("a");
+    AtomicReference<Object> first = new AtomicReference<>();
+    AtomicReference<Object> second = new AtomicReference<>();
+
+    Thread leader = loadInBackground(blockingLoad(() -> result), first);
+    Thread follower = loadInBackground(blockingLoad(() -> List.of("b")), second);
+    release.countDown();
+    leader.join();
+    follower.join();
+
+    assertEquals(1, loads.get());
+    assertSame(result, first.get());
+    assertSame(result, second.get());
+  }
+
+  @Test
+  void test_different_keys_are_loaded_separately() throws Exception {
+    AtomicReference<Object> first = new AtomicReference<>();
+    Thread leader = loadInBackground(blockingLoad(() -> List.of("a")), first);
+
+    assertEquals(List.of("b"), singleFlight.load("other", () -> List.of("b")));
+
+    release.countDown();
+    leader.join();
+    assertEquals(List.of("a"), first.get());
+  }
+
+  @Test
+  void test_loads_started_before_invalidate_are_not_joined() throws Exception {
+    AtomicReference<Object> first = new AtomicReference<>();
+    Thread leader = loadInBackground(blockingLoad(() -> List.of("before write")), first);
+
+    singleFlight.invalidate();
+
+    assertEquals(List.of("after write"), singleFlight.load("all", () -> List.of("after write")));
+    release.countDown();
+    leader.join();
+    assertEquals(List.of("before write"), first.get());
+  }
+
+  @Test
+  void test_runtime_exceptions_are_shared() throws Exception {
+    IllegalStateException failure = new IllegalStateException("database down");
+    AtomicReference<Object> first = new AtomicReference<>();
+    AtomicReference<Object> second = new AtomicReference<>();
+
+    Thread leader = loadInBackground(blockingLoad(() -> { throw failure; }), first);
+    Thread follower = loadInBackground(blockingLoad(() -> List.of("b")), second);
+    release.countDown();
+    leader.join();
+    follower.join();
+
+    assertSame(failure, first.get());
+    assertSame(failure, second.get());
+  }
+
+  @Test
+  void test_errors_are_shared() throws Exception {
+    OutOfMemoryError failure = new OutOfMemoryError("too many menu items");
+    AtomicReference<Object> first = new AtomicReference<>();
+    AtomicReference<Object> second = new AtomicReference<>();
+
+    Thread leader = loadInBackground(blockingLoad(() -> { throw failure; }), first);
+    Thread follower = loadInBackground(blockingLoad(() -> List.of("b")), second);
+    release.countDown();
+    leader.join();
+    follower.join();
+
+    assertSame(failure, first.get());
+    assertSame(failure, second.get());
+  }
+
+  @Test
+  void test_failed_loads_are_not_remembered() {
+    assertThrows(IllegalStateException.class, () -> singleFlight.load("all", () -> { throw new IllegalStateException(); }));
+    assertEquals(List.of("a"), singleFlight.load("all", () -> List.of("a")));
+  }
+
+  @Test
+  void test_invalidateAfterCommit_without_transaction_invalidates_now() throws Exception {
+    AtomicReference<Object> first = new AtomicReference<>();
+    Thread leader = loadInBackground(blockingLoad(() -> List.of("before write")), first);
+
+    singleFlight.invalidateAfterCommit();
+
+    assertEquals(List.of("after write"), singleFlight.load("all", () -> List.of("after write")));
+    release.countDown();
+    leader.join();
+  }
+
+  @Test
+  void test_invalidateAfterCommit_waits_for_the_commit() throws Exception {
+    AtomicReference<Object> first = new AtomicReference<>();
+    AtomicReference<Object> second = new AtomicReference<>();
+    Thread leader = loadInBackground(blockingLoad(() -> List.of("before write")), first);
+
+    TransactionSynchronizationManager.initSynchronization();
+    singleFlight.invalidateAfterCommit();
+
+    // not committed yet, so this still joins the running load
+    Thread follower = loadInBackground(blockingLoad(() -> List.of("b")), second);
+    assertEquals(1, loads.get());
+
+    TransactionSynchronizationUtils.triggerAfterCommit();
+    assertEquals(List.of("after write"), singleFlight.load("all", () -> List.of("after write")));
+
+    release.countDown();
+    leader.join();
+    follower.join();
+    assertEquals(List.of("before write"), second.get());
+  }
+}
@@ -0,0 +1,134 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+
+import edu.ucsb.cs156.example.entities.Restaurant;
+import edu.ucsb.cs156.example.entities.UCSBDate;
+import edu.ucsb.cs156.example.entities.UCSBOrganization;
+import edu.ucsb.cs156.example.errors.UnknownFieldException;
+import edu.ucsb.cs156.example.models.RestaurantView;
+import edu.ucsb.cs156.example.models.UCSBDateView;
+import edu.ucsb.cs156.example.models.UCSBOrganizationView;
+import edu.ucsb.cs156.example.repositories.RestaurantRepository;
+import edu.ucsb.cs156.example.repositories.UCSBOrganizationRepository;
+import edu.ucsb.cs156.example.services.wiremock.WiremockService;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@DataJpaTest
+@ActiveProfiles("integration")
+@Import(SparseFieldsetService.class)
+class SparseFieldsetServiceTests {
+
+  @MockBean
+  WiremockService wiremockService;
+
+  @Autowired
+  SparseFieldsetService sparseFieldsetService;
+
+  @Autowired
+  RestaurantRepository restaurantRepository;
+
+  @Autowired
+  UCSBOrganizationRepository ucsbOrganizationRepository;
+
+  private Restaurant tacoBell;
+
+  @BeforeEach
+  void setup() {
+    tacoBell = restaurantRepository.save(Restaurant.builder().name("Taco Bell").description("Mexican").build());
+    restaurantRepository.save(Restaurant.builder().name("Freebirds").description("Burritos").build());
+    ucsbOrganizationRepository.save(UCSBOrganization.builder()
+        .orgCode("ZPR")
+        .orgTranslationShort("ZETA PHI RHO")
+        .orgTranslation("ZETA PHI RHO")
+        .inactive(false)
+        .build());
+  }
+
+  @Test
+  void test_findAll_returns_only_requested_fields_in_requested_order() {
+    List<Map<String, Object>> rows = sparseFieldsetService.findAll(Restaurant.class, RestaurantView.class, List.of("name", "id"));
+
+    assertEquals(2, rows.size());
+    assertEquals(List.of("name", "id"), List.copyOf(rows.get(0).keySet()));
+    assertTrue(rows.stream().anyMatch(r -> r.get("name").equals("Taco Bell") && r.get("id").equals(tacoBell.getId())));
+  }
+
+  @Test
+  void test_findAll_applies_filter_and_sort() {
+    restaurantRepository.save(Restaurant.builder().name("Chipotle").description("Mexican").build());
+
+    List<Map<String, Object>> rows = sparseFieldsetService.findAll(Restaurant.class, RestaurantView.class, List.of("name"),
+        ListFilters.equalTo("description", "Mexican"), Sort.by(Sort.Direction.DESC, "name"));
+
+    assertEquals(List.of(Map.of("name", "Taco Bell"), Map.of("name", "Chipotle")), rows);
+  }
+
+  @Test
+  void test_findAll_with_empty_specification_returns_everything() {
+    List<Map<String, Object>> rows = sparseFieldsetService.findAll(Restaurant.class, RestaurantView.class, List.of("name"),
+        Specification.where(null), Sort.by("name"));
+
+    assertEquals(List.of(Map.of("name", "Freebirds"), Map.of("name", "Taco Bell")), rows);
+  }
+
+  @Test
+  void test_findAll_into_view_records() {
+    List<RestaurantView> views = sparseFieldsetService.findAll(Restaurant.class, RestaurantView.class,
+        ListFilters.equalTo("name", "Taco Bell"), Sort.unsorted());
+
+    assertEquals(List.of(RestaurantView.from(tacoBell)), views);
+  }
+
+  @Test
+  void test_findById_returns_row_when_found() {
+    Optional<Map<String, Object>> row = sparseFieldsetService.findById(Restaurant.class, RestaurantView.class, tacoBell.getId(), List.of("description"));
+
+    assertEquals(Optional.of(Map.of("description", "Mexican")), row);
+  }
+
+  @Test
+  void test_findById_works_with_string_ids() {
+    Optional<Map<String, Object>> row = sparseFieldsetService.findById(UCSBOrganization.class, UCSBOrganizationView.class, "ZPR", List.of("orgCode", "inactive"));
+
+    assertEquals(Optional.of(Map.of("orgCode", "ZPR", "inactive", false)), row);
+  }
+
+  @Test
+  void test_findById_returns_empty_when_not_found() {
+    assertEquals(Optional.empty(), sparseFieldsetService.findById(Restaurant.class, RestaurantView.class, -1L, List.of("name")));
+  }
+
+  @Test
+  void test_unknown_field_throws() {
+    UnknownFieldException e = assertThrows(UnknownFieldException.class,
+        () -> sparseFieldsetService.findAll(Restaurant.class, RestaurantView.class, List.of("name", "password")));
+    assertEquals("Restaurant has no field password", e.getMessage());
+  }
+
+  @Test
+  void test_entity_attributes_that_are_not_in_the_view_throw() {
+    UnknownFieldException e = assertThrows(UnknownFieldException.class,
+        () -> sparseFieldsetService.findAll(UCSBDate.class, UCSBDateView.class, List.of("name", "quarterKey")));
+    assertEquals("UCSBDate has no field quarterKey", e.getMessage());
+
+    e = assertThrows(UnknownFieldException.class,
+        () -> sparseFieldsetService.findById(Restaurant.class, RestaurantView.class, tacoBell.getId(), List.of("changeSeq")));
+    assertEquals("Restaurant has no field changeSeq", e.getMessage());
+  }
+}
@@ -1,6 +1,7 @@
 package edu.ucsb.cs156.example.services;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -34,4 +35,9 @@ class SystemInfoServiceImplTests  {
     assertTrue(si.getShowSwaggerUILink());
   }
 
+  @Test
+  void test_getSystemInfo_is_built_once() {
+    assertSame(systemInfoService.getSystemInfo(), systemInfoService.getSystemInfo());
+  }
+
 }
@@ -0,0 +1,111 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class TimingWheelTests {
+
+  // 4 slots per level, 3 levels: level 0 covers 4 ticks, level 1 16, level 2 64
+  private final TimingWheel<String, String> wheel = new TimingWheel<>(10, 2, 3, 1000);
+
+  @Test
+  void test_timers_fire_on_the_first_tick_at_or_after_their_deadline() {
+    wheel.schedule("a", "A", 1030);
+    wheel.schedule("b", "B", 1041);
+    wheel.schedule("c", "C", 1020);
+    assertEquals(3, wheel.size());
+
+    assertEquals(List.of(), wheel.advance(1009));
+    assertEquals(List.of("C"), wheel.advance(1020));
+    assertEquals(List.of(), wheel.advance(1029));
+    assertEquals(List.of("A"), wheel.advance(1035));
+    assertEquals(1, wheel.size());
+    assertTrue(wheel.contains("b"));
+    assertFalse(wheel.contains("a"));
+  }
+
+  @Test
+  void test_timers_that_are_due_fire_on_the_next_tick() {
+    wheel.schedule("past", "P", 500);
+    wheel.schedule("now", "N", 1000);
+    assertEquals(List.of(), wheel.advance(1000));
+    assertEquals(List.of("P", "N"), wheel.advance(1010));
+  }
+
+  @Test
+  void test_timers_can_be_cancelled_and_replaced() {
+    wheel.schedule("a", "A", 1050);
+    wheel.schedule("b", "B", 1500);
+    wheel.schedule("a", "A2", 1100);
+    assertEquals(2, wheel.size());
+    assertTrue(wheel.cancel("b"));
+    assertFalse(wheel.cancel("b"));
+    assertFalse(wheel.cancel("c"));
+
+    assertEquals(List.of(), wheel.advance(1090));
+    assertEquals(List.of("A2"), wheel.advance(2000));
+    assertEquals(0, wheel.size());
+  }
+
+  @Test
+  void test_timers_cascade_down_from_the_upper_levels() {
+    wheel.schedule("level1", "1", 1100);
+    wheel.schedule("level2", "2", 1400);
+    wheel.schedule("beyond", "3", 3000);
+    assertEquals(List.of(), wheel.advance(1099));
+    assertEquals(List.of("1"), wheel.advance(1100));
+    assertEquals(List.of(), wheel.advance(1399));
+    assertEquals(List.of("2"), wheel.advance(1400));
+    assertEquals(List.of(), wheel.advance(2999));
+    assertEquals(List.of("3"), wheel.advance(3009));
+  }
+
+  @Test
+  void test_negative_times_are_rounded_the_same_way() {
+    TimingWheel<String, String> early = new TimingWheel<>(10, 2, 3, -1005);
+    early.schedule("a", "A", -981);
+    assertEquals(List.of(), early.advance(-990));
+    assertEquals(List.of("A"), early.advance(-980));
+  }
+
+  @Test
+  void test_the_wheel_fires_like_a_sorted_list() {
+    Random random = new Random(50);
+    // the tick each timer should fire on
+    Map<Integer, Long> ticks = new HashMap<>();
+    long now = 1000;
+    for (int step = 0; step < 2000; step++) {
+      int key = random.nextInt(200);
+      switch (random.nextInt(4)) {
+        case 0, 1 -> {
+          // mostly near deadlines, some beyond the range of the wheel, some past
+          long deadline = now + (random.nextInt(10) == 0 ? random.nextInt(2000) : random.nextInt(300)) - 20;
+          wheel.schedule(String.valueOf(key), String.valueOf(key), deadline);
+          ticks.put(key, Math.max(Math.ceilDiv(deadline, 10), now / 10 + 1));
+        }
+        case 2 -> assertEquals(ticks.remove(key) != null, wheel.cancel(String.valueOf(key)));
+        default -> {
+          now += random.nextInt(60);
+          long tick = now / 10;
+          List<String> expected = ticks.entrySet().stream()
+              .filter(entry -> entry.getValue() <= tick)
+              .map(entry -> String.valueOf(entry.getKey()))
+              .sorted()
+              .toList();
+          List<String> fired = wheel.advance(now);
+          assertEquals(expected, fired.stream().sorted().toList());
+          fired.forEach(value -> ticks.remove(Integer.parseInt(value)));
+        }
+      }
+      assertEquals(ticks.size(), wheel.size());
+    }
+  }
+}
@@ -0,0 +1,85 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTests {
+
+  private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  @Test
+  void test_a_full_bucket_allows_a_burst_of_capacity() {
+    TokenBucket bucket = new TokenBucket(3, Duration.ofSeconds(3), 0);
+
+    assertEquals(0, bucket.tryConsume(0));
+    assertEquals(0, bucket.tryConsume(0));
+    assertEquals(0, bucket.tryConsume(0));
+    assertEquals(SECOND, bucket.tryConsume(0));
+  }
+
+  @Test
+  void test_tokens_refill_over_time() {
+    TokenBucket bucket = new TokenBucket(2, Duration.ofSeconds(10), 0);
+    bucket.tryConsume(0);
+    bucket.tryConsume(0);
+
+    assertEquals(2 * SECOND, bucket.tryConsume(3 * SECOND));
+    assertEquals(0, bucket.tryConsume(5 * SECOND));
+    assertEquals(5 * SECOND, bucket.tryConsume(5 * SECOND));
+  }
+
+  @Test
+  void test_an_idle_bucket_does_not_save_up_more_than_capacity() {
+    TokenBucket bucket = new TokenBucket(2, Duration.ofSeconds(2), 0);
+    long later = 3600 * SECOND;
+
+    assertEquals(0, bucket.tryConsume(later));
+    assertEquals(0, bucket.tryConsume(later));
+    assertEquals(SECOND, bucket.tryConsume(later));
+  }
+
+  @Test
+  void test_isFull() {
+    TokenBucket bucket = new TokenBucket(2, Duration.ofSeconds(2), 0);
+    assertTrue(bucket.isFull(0));
+
+    bucket.tryConsume(0);
+    assertFalse(bucket.isFull(SECOND / 2));
+    assertTrue(bucket.isFull(SECOND));
+  }
+
+  @Test
+  void test_concurrent_callers_never_take_more_than_capacity() throws Exception {
+    TokenBucket bucket = new TokenBucket(1000, Duration.ofDays(1), 0);
+    AtomicInteger taken = new AtomicInteger();
+    ExecutorService pool = Executors.newFixedThreadPool(8);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int t = 0; t < 8; t++) {
+      futures.add(pool.submit(() -> {
+        for (int i = 0; i < 500; i++) {
+          if (bucket.tryConsume(0) == 0) {
+            taken.incrementAndGet();
+          }
+        }
+      }));
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    pool.shutdown();
+
+    assertEquals(1000, taken.get());
+  }
+}
@@ -0,0 +1,52 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class TombstonePrunerTests {
+
+  private final ChangeFeedService changeFeedService = mock(ChangeFeedService.class);
+  private final TombstonePruner tombstonePruner = pruner();
+
+  private TombstonePruner pruner() {
+    TombstonePruner pruner = new TombstonePruner();
+    pruner.changeFeedService = changeFeedService;
+    pruner.pruneInterval = Duration.ofMillis(10);
+    return pruner;
+  }
+
+  @Test
+  void test_failures_are_retried_on_the_next_run() {
+    when(changeFeedService.pruneTombstones())
+        .thenThrow(new IllegalStateException("database is down"))
+        .thenReturn(3)
+        .thenReturn(0);
+
+    tombstonePruner.prune();
+    tombstonePruner.prune();
+    tombstonePruner.prune();
+    verify(changeFeedService, times(3)).pruneTombstones();
+  }
+
+  @Test
+  void test_the_pruner_runs_until_stopped() {
+    tombstonePruner.start();
+    try {
+      verify(changeFeedService, timeout(5000).atLeast(2)).pruneTombstones();
+    } finally {
+      tombstonePruner.stop();
+    }
+  }
+
+  @Test
+  void test_stopping_before_starting_does_nothing() {
+    tombstonePruner.stop();
+  }
+}
@@ -0,0 +1,144 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.data.domain.Sort;
+
+import edu.ucsb.cs156.example.entities.UCSBDate;
+import edu.ucsb.cs156.example.models.UCSBDateView;
+import edu.ucsb.cs156.example.repositories.UCSBDateRepository;
+import edu.ucsb.cs156.example.errors.UnknownFieldException;
+import edu.ucsb.cs156.example.models.CalendarPosition;
+
+import jakarta.persistence.EntityManager;
+import edu.ucsb.cs156.example.models.QuarterSpan;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@DataJpaTest
+@ActiveProfiles("integration")
+@Import(UCSBDateReadService.class)
+class UCSBDateReadServiceTests {
+
+  @Autowired
+  UCSBDateRepository ucsbDateRepository;
+
+  @Autowired
+  EntityManager entityManager;
+
+  @SpyBean
+  SparseFieldsetService sparseFieldsetService;
+
+  @MockBean
+  ChangeFeedService changeFeedService;
+
+  @MockBean
+  AcademicCalendarIndex academicCalendarIndex;
+
+  @Autowired
+  UCSBDateReadService ucsbDateReadService;
+
+  private UCSBDate springStart;
+  private UCSBDate springEnd;
+  private UCSBDate summerStart;
+
+  private UCSBDate save(String quarterYYYYQ, String name, String localDateTime) {
+    return ucsbDateRepository.save(UCSBDate.builder()
+        .quarterYYYYQ(quarterYYYYQ)
+        .name(name)
+        .localDateTime(LocalDateTime.parse(localDateTime))
+        .build());
+  }
+
+  private static List<UCSBDateView> views(UCSBDate... dates) {
+    return List.of(dates).stream().map(UCSBDateView::from).toList();
+  }
+
+  @BeforeEach
+  void setup() {
+    springEnd = save("20222", "lastDayOfClasses", "2022-06-03T00:00:00");
+    springStart = save("20222", "firstDayOfClasses", "2022-03-28T00:00:00");
+    summerStart = save("20223", "firstDayOfClasses", "2022-06-21T00:00:00");
+    entityManager.flush();
+  }
+
+  @Test
+  void test_findAll_without_filters_or_sort_returns_views_from_repository() {
+    assertEquals(Set.copyOf(views(springStart, springEnd, summerStart)),
+        Set.copyOf(ucsbDateReadService.findAll(null, Sort.unsorted())));
+    verify(sparseFieldsetService, never()).findAll(eq(UCSBDate.class), eq(UCSBDateView.class), any(), any());
+  }
+
+  @Test
+  void test_findAll_filtered_by_quarterYYYYQ() {
+    assertEquals(views(springEnd, springStart), ucsbDateReadService.findAll("20222", Sort.by("id")));
+    assertEquals(List.of(), ucsbDateReadService.findAll("20224", Sort.by("id")));
+  }
+
+  @Test
+  void test_findAll_sorted_by_localDateTime() {
+    assertEquals(views(springStart, springEnd, summerStart), ucsbDateReadService.findAll(null, Sort.by("localDateTime")));
+    assertEquals(views(summerStart, springEnd, springStart),
+        ucsbDateReadService.findAll(null, Sort.by(Sort.Direction.DESC, "localDateTime")));
+  }
+
+  @Test
+  void test_findAll_sorted_by_unindexed_field_throws() {
+    UnknownFieldException e = assertThrows(UnknownFieldException.class,
+        () -> ucsbDateReadService.findAll(null, Sort.by("name")));
+    assertEquals("UCSBDate cannot be sorted by name", e.getMessage());
+  }
+
+  @Test
+  void test_findAll_with_fields_filters_and_sorts() {
+    List<Map<String, Object>> rows = ucsbDateReadService.findAll("20222", Sort.by("localDateTime"), List.of("name"));
+
+    assertEquals(List.of(Map.of("name", "firstDayOfClasses"), Map.of("name", "lastDayOfClasses")), rows);
+  }
+
+  @Test
+  void test_findBetween_uses_the_calendar_index() {
+    LocalDateTime start = LocalDateTime.parse("2022-03-01T00:00:00");
+    LocalDateTime end = LocalDateTime.parse("2022-04-01T00:00:00");
+    List<UCSBDateView> views = views(springStart);
+    when(academicCalendarIndex.between(start, end)).thenReturn(views);
+
+    assertEquals(views, ucsbDateReadService.findBetween(start, end));
+  }
+
+  @Test
+  void test_findContaining_returns_the_quarter_and_the_events_of_that_day() {
+    LocalDateTime instant = LocalDateTime.parse("2022-03-28T15:30:00");
+    QuarterSpan quarter = new QuarterSpan("20222", LocalDateTime.parse("2022-03-28T00:00:00"), LocalDateTime.parse("2022-06-03T00:00:00"));
+    List<UCSBDateView> views = views(springStart);
+    when(academicCalendarIndex.quarterContaining(instant)).thenReturn(quarter);
+    when(academicCalendarIndex.between(LocalDateTime.parse("2022-03-28T00:00:00"), LocalDateTime.parse("2022-03-29T00:00:00")))
+        .thenReturn(views);
+
+    assertEquals(new CalendarPosition(quarter, views), ucsbDateReadService.findContaining(instant));
+  }
+
+  @Test
+  void test_findInQuarters_uses_the_quarter_key() {
+    assertEquals(views(springStart, springEnd, summerStart), ucsbDateReadService.findInQuarters(20221, 20224));
+    assertEquals(views(summerStart), ucsbDateReadService.findInQuarters(20223, 20224));
+    assertEquals(List.of(), ucsbDateReadService.findInQuarters(20224, 20231));
+  }
+}
@@ -0,0 +1,125 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.data.domain.Sort;
+
+import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
+import edu.ucsb.cs156.example.models.UCSBDiningCommonsMenuItemView;
+import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsMenuItemRepository;
+import edu.ucsb.cs156.example.errors.UnknownFieldException;
+
+import jakarta.persistence.EntityManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@DataJpaTest
+@ActiveProfiles("integration")
+@Import({ UCSBDiningCommonsMenuItemReadService.class, CoalescedReads.class })
+class UCSBDiningCommonsMenuItemReadServiceTests {
+
+  @Autowired
+  UCSBDiningCommonsMenuItemRepository ucsbDiningCommonsMenuItemRepository;
+
+  @Autowired
+  EntityManager entityManager;
+
+  @SpyBean
+  SparseFieldsetService sparseFieldsetService;
+
+  @MockBean
+  ChangeFeedService changeFeedService;
+
+  @Autowired
+  UCSBDiningCommonsMenuItemReadService ucsbDiningCommonsMenuItemReadService;
+
+  private UCSBDiningCommonsMenuItem pestoPasta;
+  private UCSBDiningCommonsMenuItem banhMi;
+  private UCSBDiningCommonsMenuItem caesarSalad;
+  private UCSBDiningCommonsMenuItem broccoliSoup;
+
+  private UCSBDiningCommonsMenuItem save(String diningCommonsCode, String name, String station) {
+    return ucsbDiningCommonsMenuItemRepository.save(UCSBDiningCommonsMenuItem.builder()
+        .diningCommonsCode(diningCommonsCode)
+        .name(name)
+        .station(station)
+        .build());
+  }
+
+  private static List<UCSBDiningCommonsMenuItemView> views(UCSBDiningCommonsMenuItem... menuItems) {
+    return List.of(menuItems).stream().map(UCSBDiningCommonsMenuItemView::from).toList();
+  }
+
+  @BeforeEach
+  void setup() {
+    pestoPasta = save("ortega", "Baked Pesto Pasta with Chicken", "Entree Specials");
+    banhMi = save("ortega", "Tofu Banh Mi Sandwich (v)", "Entree Specials");
+    caesarSalad = save("ortega", "Chicken Caesar Salad", "Grab & Go");
+    broccoliSoup = save("portola", "Cream of Broccoli Soup (v)", "Greens & Grains");
+    entityManager.flush();
+  }
+
+  @Test
+  void test_findAll_without_filters_or_sort_returns_views_from_repository() {
+    assertEquals(Set.copyOf(views(pestoPasta, banhMi, caesarSalad, broccoliSoup)),
+        Set.copyOf(ucsbDiningCommonsMenuItemReadService.findAll(null, null, Sort.unsorted())));
+    verify(sparseFieldsetService, never()).findAll(eq(UCSBDiningCommonsMenuItem.class), eq(UCSBDiningCommonsMenuItemView.class), any(), any());
+  }
+
+  @Test
+  void test_findAll_filtered_by_diningCommonsCode() {
+    assertEquals(views(pestoPasta, banhMi, caesarSalad),
+        ucsbDiningCommonsMenuItemReadService.findAll("ortega", null, Sort.by("id")));
+    assertEquals(List.of(), ucsbDiningCommonsMenuItemReadService.findAll("carrillo", null, Sort.by("id")));
+  }
+
+  @Test
+  void test_findAll_filtered_by_station() {
+    assertEquals(views(pestoPasta, banhMi),
+        ucsbDiningCommonsMenuItemReadService.findAll(null, "Entree Specials", Sort.by("id")));
+  }
+
+  @Test
+  void test_findAll_filtered_by_diningCommonsCode_and_station() {
+    assertEquals(views(caesarSalad), ucsbDiningCommonsMenuItemReadService.findAll("ortega", "Grab & Go", Sort.unsorted()));
+    assertEquals(List.of(), ucsbDiningCommonsMenuItemReadService.findAll("portola", "Grab & Go", Sort.unsorted()));
+  }
+
+  @Test
+  void test_findAll_sorted_by_name() {
+    assertEquals(views(pestoPasta, caesarSalad, broccoliSoup, banhMi),
+        ucsbDiningCommonsMenuItemReadService.findAll(null, null, Sort.by("name")));
+    assertEquals(views(banhMi, caesarSalad, pestoPasta),
+        ucsbDiningCommonsMenuItemReadService.findAll("ortega", null, Sort.by(Sort.Direction.DESC, "name")));
+  }
+
+  @Test
+  void test_findAll_sorted_by_unindexed_field_throws() {
+    UnknownFieldException e = assertThrows(UnknownFieldException.class,
+        () -> ucsbDiningCommonsMenuItemReadService.findAll(null, null, Sort.by("station")));
+    assertEquals("UCSBDiningCommonsMenuItem cannot be sorted by station", e.getMessage());
+  }
+
+  @Test
+  void test_findAll_with_fields_filters_and_sorts() {
+    List<Map<String, Object>> rows = ucsbDiningCommonsMenuItemReadService.findAll("ortega", "Entree Specials",
+        Sort.by(Sort.Direction.DESC, "name"), List.of("name"));
+
+    assertEquals(List.of(Map.of("name", "Tofu Banh Mi Sandwich (v)"), Map.of("name", "Baked Pesto Pasta with Chicken")), rows);
+  }
+}
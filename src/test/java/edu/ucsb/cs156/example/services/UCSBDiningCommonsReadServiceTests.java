@@ -0,0 +1,45 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.ucsb.cs156.example.models.NearbyDiningCommons;
+import edu.ucsb.cs156.example.models.UCSBDiningCommonsView;
+
+import java.util.List;
+
+class UCSBDiningCommonsReadServiceTests {
+
+  private final DiningCommonsLocator diningCommonsLocator = mock(DiningCommonsLocator.class);
+  private final UCSBDiningCommonsReadService ucsbDiningCommonsReadService = new UCSBDiningCommonsReadService();
+
+  private final UCSBDiningCommonsView carrillo =
+      new UCSBDiningCommonsView("carrillo", "Carrillo", false, false, true, 34.409953, -119.85277);
+
+  @BeforeEach
+  void setup() {
+    ucsbDiningCommonsReadService.diningCommonsLocator = diningCommonsLocator;
+  }
+
+  @Test
+  void test_findNearest_asks_the_locator() {
+    DiningCommonsLocator.Filter filter = new DiningCommonsLocator.Filter(null, true, null);
+    List<NearbyDiningCommons> nearby = List.of(new NearbyDiningCommons(carrillo, 12.5));
+    when(diningCommonsLocator.nearest(34.41, -119.85, 3, filter)).thenReturn(nearby);
+
+    assertEquals(nearby, ucsbDiningCommonsReadService.findNearest(34.41, -119.85, 3, filter));
+  }
+
+  @Test
+  void test_findWithin_asks_the_locator() {
+    DiningCommonsLocator.Filter filter = new DiningCommonsLocator.Filter(true, null, null);
+    List<UCSBDiningCommonsView> views = List.of(carrillo);
+    when(diningCommonsLocator.within(34.0, 35.0, -120.0, -119.0, filter)).thenReturn(views);
+
+    assertEquals(views, ucsbDiningCommonsReadService.findWithin(34.0, 35.0, -120.0, -119.0, filter));
+  }
+}
@@ -0,0 +1,110 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.data.domain.Sort;
+
+import edu.ucsb.cs156.example.entities.UCSBOrganization;
+import edu.ucsb.cs156.example.models.UCSBOrganizationView;
+import edu.ucsb.cs156.example.repositories.UCSBOrganizationRepository;
+import edu.ucsb.cs156.example.errors.UnknownFieldException;
+
+import jakarta.persistence.EntityManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@DataJpaTest
+@ActiveProfiles("integration")
+@Import(UCSBOrganizationReadService.class)
+class UCSBOrganizationReadServiceTests {
+
+  @Autowired
+  UCSBOrganizationRepository ucsbOrganizationRepository;
+
+  @Autowired
+  EntityManager entityManager;
+
+  @SpyBean
+  SparseFieldsetService sparseFieldsetService;
+
+  @MockBean
+  ChangeFeedService changeFeedService;
+
+  @Autowired
+  UCSBOrganizationReadService ucsbOrganizationReadService;
+
+  private UCSBOrganization zpr;
+  private UCSBOrganization sky;
+  private UCSBOrganization krc;
+  private UCSBOrganization osli;
+
+  private UCSBOrganization save(String orgCode, String orgTranslationShort, String orgTranslation, boolean inactive) {
+    return ucsbOrganizationRepository.save(UCSBOrganization.builder()
+        .orgCode(orgCode)
+        .orgTranslationShort(orgTranslationShort)
+        .orgTranslation(orgTranslation)
+        .inactive(inactive)
+        .build());
+  }
+
+  private static List<UCSBOrganizationView> views(UCSBOrganization... organizations) {
+    return List.of(organizations).stream().map(UCSBOrganizationView::from).toList();
+  }
+
+  @BeforeEach
+  void setup() {
+    zpr = save("ZPR", "ZETA PHI RHO", "ZETA PHI RHO", false);
+    sky = save("SKY", "SKYDIVING CLUB", "SKYDIVING CLUB AT UCSB", false);
+    krc = save("KRC", "KOREAN RADIO CL", "KOREAN RADIO CLUB", true);
+    osli = save("OSLI", "STUDENT LIFE", "OFFICE OF STUDENT LIFE", true);
+    entityManager.flush();
+  }
+
+  @Test
+  void test_findAll_without_filters_or_sort_returns_views_from_repository() {
+    assertEquals(Set.copyOf(views(zpr, sky, krc, osli)), Set.copyOf(ucsbOrganizationReadService.findAll(null, Sort.unsorted())));
+    verify(sparseFieldsetService, never()).findAll(eq(UCSBOrganization.class), eq(UCSBOrganizationView.class), any(), any());
+  }
+
+  @Test
+  void test_findAll_filtered_by_inactive() {
+    assertEquals(views(krc, osli), ucsbOrganizationReadService.findAll(true, Sort.by("orgCode")));
+    assertEquals(views(sky, zpr), ucsbOrganizationReadService.findAll(false, Sort.by("orgCode")));
+  }
+
+  @Test
+  void test_findAll_sorted_by_orgCode() {
+    assertEquals(views(krc, osli, sky, zpr), ucsbOrganizationReadService.findAll(null, Sort.by("orgCode")));
+    assertEquals(views(zpr, sky, osli, krc), ucsbOrganizationReadService.findAll(null, Sort.by(Sort.Direction.DESC, "orgCode")));
+  }
+
+  @Test
+  void test_findAll_sorted_by_unindexed_field_throws() {
+    UnknownFieldException e = assertThrows(UnknownFieldException.class,
+        () -> ucsbOrganizationReadService.findAll(null, Sort.by("orgTranslation")));
+    assertEquals("UCSBOrganization cannot be sorted by orgTranslation", e.getMessage());
+  }
+
+  @Test
+  void test_findAll_with_fields_filters_and_sorts() {
+    List<Map<String, Object>> rows = ucsbOrganizationReadService.findAll(false, Sort.by(Sort.Direction.DESC, "orgCode"),
+        List.of("orgTranslationShort"));
+
+    assertEquals(List.of(Map.of("orgTranslationShort", "ZETA PHI RHO"), Map.of("orgTranslationShort", "SKYDIVING CLUB")), rows);
+  }
+}
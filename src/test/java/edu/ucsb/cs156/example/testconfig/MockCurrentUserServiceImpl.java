@@ -3,6 +3,7 @@ package edu.ucsb.cs156.example.testconfig;
 import edu.ucsb.cs156.example.entities.User;
 import edu.ucsb.cs156.example.services.CurrentUserServiceImpl;
 
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -71,4 +72,12 @@ public class MockCurrentUserServiceImpl extends CurrentUserServiceImpl {
     return null;
   }
 
+  public String getEmail() {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+      return null;
+    }
+    return getUser().getEmail();
+  }
+
 }